@@ -0,0 +1,81 @@
+package com.copybook.parser.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares two JMH JSON result files benchmark by benchmark and exits with status 1 when any benchmark
+// regressed by more than the threshold (default 10%, override with -Dbenchmark.threshold=0.05).
+//
+//   java -cp benchmarks/target/benchmarks.jar com.copybook.parser.benchmark.BenchmarkComparison base.json new.json
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        double threshold = Double.parseDouble(System.getProperty("benchmark.threshold", "0.10"));
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> candidate = read(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, Score> entry : candidate.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", after.value(), "new", after.unit());
+                continue;
+            }
+            // Positive change is always an improvement, whichever direction the mode counts in
+            double change = after.higherIsBetter()
+                    ? (after.value() - before.value()) / before.value()
+                    : (before.value() - after.value()) / before.value();
+            boolean regressed = change < -threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before.value(), after.value(),
+                    change * 100, after.unit(), regressed ? "  REGRESSION" : "");
+        }
+        for (String removed : baseline.keySet()) {
+            if (!candidate.containsKey(removed)) {
+                System.out.printf("%-90s %14.3f %14s %9s%n", removed, baseline.get(removed).value(), "-", "removed");
+            }
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    private record Score(double value, String unit, boolean higherIsBetter) {
+    }
+
+    // Keyed by benchmark name plus its @Param values, e.g. RecordDecoderBenchmark.decodeRecords[layout=employee]
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+                    .replace("com.copybook.parser.benchmark.", ""));
+            JsonNode params = run.path("params");
+            if (params.size() > 0) {
+                key.append('[');
+                params.fields().forEachRemaining(p -> key.append(p.getKey()).append('=').append(p.getValue().asText()).append(','));
+                key.setCharAt(key.length() - 1, ']');
+            }
+            JsonNode metric = run.path("primaryMetric");
+            boolean higherIsBetter = "thrpt".equals(run.path("mode").asText());
+            scores.put(key.toString(), new Score(metric.path("score").asDouble(), metric.path("scoreUnit").asText(), higherIsBetter));
+        }
+        return scores;
+    }
+}
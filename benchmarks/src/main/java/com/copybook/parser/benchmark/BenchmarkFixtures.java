@@ -0,0 +1,63 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.cache.CopyMemberCache;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.processor.FieldProcessor;
+import com.copybook.parser.processor.LayoutProcessor;
+import com.copybook.parser.processor.RecordTypeProcessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+// Wires the parser components the same way the application does, without booting the CLI runner
+final class BenchmarkFixtures {
+
+    private static final ObjectMapper RULES_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static AnnotationConfigApplicationContext context;
+
+    private BenchmarkFixtures() {
+    }
+
+    static synchronized <T> T component(Class<T> type) {
+        if (context == null) {
+            context = new AnnotationConfigApplicationContext(
+                    CopyMemberCache.class,
+                    FieldProcessor.class,
+                    LayoutProcessor.class,
+                    RecordTypeProcessor.class
+            );
+        }
+        return context.getBean(type);
+    }
+
+    static ParsingRules defaultRules() {
+        return ParsingRules.createDefault();
+    }
+
+    // The rule files shipped under src/main/resources/rules, one per record-type strategy
+    static ParsingRules rules(String ruleType) {
+        String resource = switch (ruleType) {
+            case "position-based" -> "rules/default-rules.json";
+            case "character-based" -> "rules/character-based-rules.json";
+            case "conditional-based" -> "rules/conditional-rules.json";
+            case "pattern-based" -> "rules/pattern-based-rules.json";
+            case "multi-field" -> "rules/multi-field-rules.json";
+            case "no-record-type" -> "rules/no-record-type-rules.json";
+            default -> throw new IllegalArgumentException("Unknown rule type: " + ruleType);
+        };
+        try (InputStream in = BenchmarkFixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing rule resource " + resource);
+            }
+            return RULES_MAPPER.readValue(in, ParsingRules.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
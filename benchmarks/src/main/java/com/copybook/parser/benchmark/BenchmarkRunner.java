@@ -0,0 +1,46 @@
+package com.copybook.parser.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Runs the suite and writes JMH's JSON results to results/<version>-<timestamp>.json, ready for
+// BenchmarkComparison. Accepts the usual JMH command line (benchmark regex, -wi, -i, -f, -p ...).
+//
+//   java -cp benchmarks/target/benchmarks.jar com.copybook.parser.benchmark.BenchmarkRunner [jmh options]
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        String version = System.getProperty("benchmark.version", versionOf(BenchmarkRunner.class));
+        Path directory = Path.of(System.getProperty("benchmark.results", "results"));
+        Files.createDirectories(directory);
+        Path output = directory.resolve(version + "-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(output.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static String versionOf(Class<?> type) {
+        String version = type.getPackage().getImplementationVersion();
+        return version != null ? version : "dev";
+    }
+}
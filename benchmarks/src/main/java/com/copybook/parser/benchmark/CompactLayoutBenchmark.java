@@ -0,0 +1,69 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.copybook.parser.model.CobolField;
+import com.copybook.parser.model.CompactLayout;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.processor.LayoutProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Walking field metadata through the CobolField beans versus the precomputed flags of a CompactLayout,
+// and compiling a decoder from each form
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompactLayoutBenchmark {
+
+    @Param({"employee", "wide-2000"})
+    public String layout;
+
+    private ParsingRules rules;
+    private RecordLayout recordLayout;
+    private CompactLayout compactLayout;
+
+    @Setup
+    public void setUp() {
+        rules = BenchmarkFixtures.defaultRules();
+        recordLayout = BenchmarkFixtures.component(LayoutProcessor.class)
+                .processLayout(SyntheticCopybooks.byName(layout), rules);
+        compactLayout = CompactLayout.of(recordLayout);
+    }
+
+    @Benchmark
+    public int scanFieldBeans() {
+        int elementaryBytes = 0;
+        for (CobolField field : recordLayout.getFields()) {
+            if (!field.isGroup() && !field.isCondition() && !field.isFiller()) {
+                elementaryBytes += field.getLength();
+            }
+        }
+        return elementaryBytes;
+    }
+
+    @Benchmark
+    public int scanCompactFlags() {
+        int elementaryBytes = 0;
+        for (int field = 0; field < compactLayout.getFieldCount(); field++) {
+            if (compactLayout.is(field, CompactLayout.ELEMENTARY) && !compactLayout.is(field, CompactLayout.FILLER)) {
+                elementaryBytes += compactLayout.getLength(field);
+            }
+        }
+        return elementaryBytes;
+    }
+
+    @Benchmark
+    public RecordDecoder compileFromRecordLayout() {
+        return RecordDecoder.compile(recordLayout, rules);
+    }
+
+    @Benchmark
+    public RecordDecoder compileFromCompactLayout() {
+        return RecordDecoder.compile(compactLayout, rules);
+    }
+}
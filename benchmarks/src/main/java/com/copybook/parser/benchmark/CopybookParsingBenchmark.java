@@ -0,0 +1,45 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.processor.FieldProcessor;
+import com.copybook.parser.processor.LayoutProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Copybook-to-layout cost, from a handful of fields up to a generated 50k-line copybook
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopybookParsingBenchmark {
+
+    @Param({"employee", "wide-200", "huge-50000"})
+    public String copybook;
+
+    private FieldProcessor fieldProcessor;
+    private LayoutProcessor layoutProcessor;
+    private ParsingRules rules;
+    private List<String> lines;
+
+    @Setup
+    public void setUp() {
+        fieldProcessor = BenchmarkFixtures.component(FieldProcessor.class);
+        layoutProcessor = BenchmarkFixtures.component(LayoutProcessor.class);
+        rules = BenchmarkFixtures.defaultRules();
+        lines = SyntheticCopybooks.byName(copybook);
+    }
+
+    @Benchmark
+    public Object processFields() {
+        return fieldProcessor.processFields(lines, rules);
+    }
+
+    @Benchmark
+    public Object processLayout() {
+        return layoutProcessor.processLayout(lines, rules);
+    }
+}
@@ -0,0 +1,94 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.config.DataFormatRule;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.copybook.parser.io.MappedRecordStore;
+import com.copybook.parser.io.RecordKeyIndex;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.processor.LayoutProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Random record fetches from a mapped fixed-length file of one million employee records, by record number
+// and through the key index on the first ten bytes (overwritten with a unique, zero-padded record number)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedRecordStoreBenchmark {
+
+    private static final int KEY_LENGTH = 10;
+
+    @Param({"1000000"})
+    public int recordCount;
+
+    private Path dataFile;
+    private MappedRecordStore store;
+    private RecordKeyIndex index;
+    private long[] probes;
+    private byte[][] keys;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        ParsingRules rules = BenchmarkFixtures.defaultRules();
+        RecordLayout layout = BenchmarkFixtures.component(LayoutProcessor.class)
+                .processLayout(SyntheticCopybooks.byName("employee"), rules);
+        RecordDecoder decoder = RecordDecoder.compile(layout, rules);
+        byte[][] templates = SyntheticRecords.generate(decoder, 1024, 42);
+
+        dataFile = Files.createTempFile("records", ".dat");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(dataFile), 1 << 20)) {
+            for (int r = 0; r < recordCount; r++) {
+                byte[] record = templates[r % templates.length];
+                System.arraycopy(key(r), 0, record, 0, KEY_LENGTH);
+                out.write(record);
+            }
+        }
+
+        DataFormatRule format = new DataFormatRule();
+        format.setRecordFormat("FB");
+        format.setEncoding("ISO-8859-1");
+        store = MappedRecordStore.open(dataFile, format, layout);
+        index = store.keyIndex(0, KEY_LENGTH, null);
+
+        SplittableRandom random = new SplittableRandom(7);
+        probes = new long[4096];
+        keys = new byte[probes.length][];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = random.nextInt(recordCount);
+            keys[i] = key((int) probes[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(dataFile);
+    }
+
+    private static byte[] key(int record) {
+        return String.format("%010d", record).getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    @Benchmark
+    public Object getByIndex() {
+        return store.get(probes[next++ & (probes.length - 1)]);
+    }
+
+    @Benchmark
+    public long findByKey() {
+        return index.find(keys[next++ & (keys.length - 1)]);
+    }
+}
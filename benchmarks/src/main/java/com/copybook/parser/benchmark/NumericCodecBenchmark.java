@@ -0,0 +1,128 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.codec.DecimalFormatter;
+import com.copybook.parser.codec.PackedDecimalCodec;
+import com.copybook.parser.codec.ZonedDecimalCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Codec fast paths against the naive "build a digit string, then new BigDecimal(String)" approach
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumericCodecBenchmark {
+
+    private static final int VALUES = 1024;
+
+    // Total digit count of the field; values are read with two implied decimal places
+    @Param({"9", "17"})
+    public int digits;
+
+    private int packedLength;
+    private int zonedLength;
+    private byte[] packed;
+    private byte[] zoned;
+    private byte[] text;
+
+    @Setup
+    public void setUp() {
+        packedLength = PackedDecimalCodec.byteLength(digits);
+        zonedLength = digits;
+        packed = new byte[VALUES * packedLength];
+        zoned = new byte[VALUES * zonedLength];
+        text = new byte[DecimalFormatter.MAX_LENGTH];
+
+        SplittableRandom random = new SplittableRandom(7);
+        long bound = (long) Math.pow(10, digits);
+        for (int i = 0; i < VALUES; i++) {
+            long value = random.nextLong(-bound + 1, bound);
+            PackedDecimalCodec.encode(value, packed, i * packedLength, packedLength, true);
+            ZonedDecimalCodec.encode(value, zoned, i * zonedLength, zonedLength, true, true);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void packedToLong(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(PackedDecimalCodec.decodeLong(packed, i * packedLength, packedLength));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void packedToText(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            long unscaled = PackedDecimalCodec.decodeLong(packed, i * packedLength, packedLength);
+            blackhole.consume(DecimalFormatter.format(unscaled, 2, text, 0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void packedNaiveBigDecimal(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(naivePacked(packed, i * packedLength, packedLength, 2));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void zonedToLong(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(ZonedDecimalCodec.decodeLong(zoned, i * zonedLength, zonedLength));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void zonedNaiveBigDecimal(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(naiveZoned(zoned, i * zonedLength, zonedLength, 2));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void packedEncode(Blackhole blackhole) {
+        byte[] target = new byte[packedLength];
+        for (int i = 0; i < VALUES; i++) {
+            PackedDecimalCodec.encode(i * 1_000_003L, target, 0, packedLength, true);
+        }
+        blackhole.consume(target);
+    }
+
+    private static BigDecimal naivePacked(byte[] source, int offset, int length, int scale) {
+        StringBuilder digits = new StringBuilder(length * 2);
+        for (int i = 0; i < length; i++) {
+            int b = source[offset + i] & 0xFF;
+            digits.append(b >>> 4);
+            if (i < length - 1) {
+                digits.append(b & 0x0F);
+            }
+        }
+        int sign = source[offset + length - 1] & 0x0F;
+        if (sign == 0x0D) {
+            digits.insert(0, '-');
+        }
+        return new BigDecimal(digits.toString()).movePointLeft(scale);
+    }
+
+    private static BigDecimal naiveZoned(byte[] source, int offset, int length, int scale) {
+        StringBuilder digits = new StringBuilder(length + 1);
+        for (int i = 0; i < length; i++) {
+            digits.append(source[offset + i] & 0x0F);
+        }
+        if ((source[offset + length - 1] & 0xF0) == 0xD0) {
+            digits.insert(0, '-');
+        }
+        return new BigDecimal(digits.toString()).movePointLeft(scale);
+    }
+}
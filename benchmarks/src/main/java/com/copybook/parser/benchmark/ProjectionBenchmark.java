@@ -0,0 +1,69 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.processor.LayoutProcessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Records/sec decoding every field of a wide layout against a projection of a few fields spread over it
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"wide-200", "wide-2000"})
+    public String layout;
+
+    // 0 decodes every field
+    @Param({"0", "16"})
+    public int fields;
+
+    private RecordDecoder decoder;
+    private ByteBuffer[] records;
+    private Object[] values;
+
+    @Setup
+    public void setUp() {
+        ParsingRules rules = BenchmarkFixtures.defaultRules();
+        RecordLayout recordLayout = BenchmarkFixtures.component(LayoutProcessor.class)
+                .processLayout(SyntheticCopybooks.byName(layout), rules);
+        RecordDecoder full = RecordDecoder.compile(recordLayout, rules);
+        decoder = full;
+        if (fields > 0) {
+            List<String> paths = new ArrayList<>();
+            int stride = Math.max(1, full.getFieldCount() / fields);
+            for (int i = 0; i < full.getFieldCount() && paths.size() < fields; i += stride) {
+                paths.add(full.getFieldName(i));
+            }
+            decoder = RecordDecoder.compile(recordLayout, rules, paths);
+        }
+
+        byte[][] raw = SyntheticRecords.generate(full, BATCH, 42);
+        records = new ByteBuffer[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            records[i] = ByteBuffer.wrap(raw[i]);
+        }
+        values = new Object[decoder.getFieldCount()];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void decodeRecords(Blackhole blackhole) {
+        for (ByteBuffer record : records) {
+            decoder.decode(record, values);
+            blackhole.consume(values);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.processor.LayoutProcessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// Throughput is reported per record, i.e. records/sec for each layout
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecordDecoderBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"employee", "wide-200", "wide-2000"})
+    public String layout;
+
+    private RecordDecoder decoder;
+    private ByteBuffer[] records;
+    private Object[] values;
+
+    @Setup
+    public void setUp() {
+        ParsingRules rules = BenchmarkFixtures.defaultRules();
+        RecordLayout recordLayout = BenchmarkFixtures.component(LayoutProcessor.class)
+                .processLayout(SyntheticCopybooks.byName(layout), rules);
+        decoder = RecordDecoder.compile(recordLayout, rules);
+
+        byte[][] raw = SyntheticRecords.generate(decoder, BATCH, 42);
+        records = new ByteBuffer[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            records[i] = ByteBuffer.wrap(raw[i]);
+        }
+        values = new Object[decoder.getFieldCount()];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void decodeRecords(Blackhole blackhole) {
+        for (ByteBuffer record : records) {
+            decoder.decode(record, values);
+            blackhole.consume(values);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.io.RecordReader;
+import com.copybook.parser.io.RecordReaders;
+import com.copybook.parser.processor.RecordByteSink;
+import com.copybook.parser.processor.RecordTypeProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+// Classifies one million 80-byte lines per invocation on raw record bytes through the compiled dispatcher;
+// compare with RecordTypeProcessorBenchmark.classifyStreaming, which decodes every line to a String
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class RecordTypeDispatchBenchmark {
+
+    // Conditional and pattern rules have no byte-level dispatcher
+    @Param({"position-based", "character-based", "multi-field", "no-record-type"})
+    public String ruleType;
+
+    @Param({"1000000"})
+    public int lineCount;
+
+    private RecordTypeProcessor processor;
+    private ParsingRules rules;
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        processor = BenchmarkFixtures.component(RecordTypeProcessor.class);
+        rules = BenchmarkFixtures.rules(ruleType);
+        data = SyntheticDataLines.toBytes(SyntheticDataLines.generate(ruleType, lineCount, 42));
+    }
+
+    @Benchmark
+    public Object classifyRawBytes() throws IOException {
+        try (RecordReader reader = RecordReaders.open(
+                Channels.newChannel(new ByteArrayInputStream(data)), rules.getDataFormat(), null)) {
+            return processor.process(reader, rules, RecordByteSink.discarding());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.processor.RecordSink;
+import com.copybook.parser.processor.RecordTypeProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Classifies one million 80-byte lines per invocation with each shipped rule set, both from an in-memory
+// list (materialising recordsByType) and streamed through a sink
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class RecordTypeProcessorBenchmark {
+
+    @Param({"position-based", "character-based", "conditional-based", "pattern-based", "multi-field", "no-record-type"})
+    public String ruleType;
+
+    @Param({"1000000"})
+    public int lineCount;
+
+    private RecordTypeProcessor processor;
+    private ParsingRules rules;
+    private List<String> lines;
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        processor = BenchmarkFixtures.component(RecordTypeProcessor.class);
+        rules = BenchmarkFixtures.rules(ruleType);
+        lines = SyntheticDataLines.generate(ruleType, lineCount, 42);
+        data = SyntheticDataLines.toBytes(lines);
+    }
+
+    @Benchmark
+    public Object classifyInMemory() {
+        return processor.process(lines, rules);
+    }
+
+    @Benchmark
+    public Object classifyStreaming() throws IOException {
+        return processor.process(new ByteArrayInputStream(data), rules, RecordSink.discarding());
+    }
+}
@@ -0,0 +1,64 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.output.RecordWriter;
+import com.copybook.parser.output.RecordWriters;
+import com.copybook.parser.processor.LayoutProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// Throughput is reported per record written through each output format into a discarding stream
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecordWriterBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"jsonl", "csv", "columnar"})
+    public String format;
+
+    @Param({"employee", "wide-200"})
+    public String layout;
+
+    private RecordWriter writer;
+    private ByteBuffer[] records;
+
+    @Setup
+    public void setUp() throws IOException {
+        ParsingRules rules = BenchmarkFixtures.defaultRules();
+        RecordLayout recordLayout = BenchmarkFixtures.component(LayoutProcessor.class)
+                .processLayout(SyntheticCopybooks.byName(layout), rules);
+        RecordDecoder decoder = RecordDecoder.compile(recordLayout, rules);
+
+        byte[][] raw = SyntheticRecords.generate(decoder, BATCH, 42);
+        records = new ByteBuffer[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            records[i] = ByteBuffer.wrap(raw[i]);
+        }
+        writer = RecordWriters.create(format, OutputStream.nullOutputStream(), decoder, rules.getLayoutGeneration());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        writer.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long writeRecords() throws IOException {
+        for (ByteBuffer record : records) {
+            writer.write(record);
+        }
+        return writer.getRecordsWritten();
+    }
+}
@@ -0,0 +1,107 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.config.DataFormatRule;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.copybook.parser.io.RecordReader;
+import com.copybook.parser.io.RecordReaders;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.processor.LayoutProcessor;
+import com.copybook.parser.segment.SegmentLayout;
+import com.copybook.parser.segment.SegmentRecordDecoder;
+import com.copybook.parser.segment.SegmentRecordFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Sums every long-valued numeric field of a one-million-record fixed-length file, streamed through a
+// RecordReader into the heap decoder versus read in place from the off-heap mapping
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview"})
+@State(Scope.Benchmark)
+public class SegmentDecodeBenchmark {
+
+    @Param({"1000000"})
+    public int recordCount;
+
+    private Path dataFile;
+    private DataFormatRule format;
+    private RecordLayout layout;
+    private RecordDecoder decoder;
+    private int[] numericFields;
+    private SegmentRecordFile file;
+    private SegmentRecordDecoder segmentDecoder;
+
+    @Setup
+    public void setUp() throws IOException {
+        ParsingRules rules = BenchmarkFixtures.defaultRules();
+        layout = BenchmarkFixtures.component(LayoutProcessor.class)
+                .processLayout(SyntheticCopybooks.byName("employee"), rules);
+        decoder = RecordDecoder.compile(layout, rules);
+
+        List<Integer> fields = new ArrayList<>();
+        for (int f = 0; f < decoder.getFieldCount(); f++) {
+            if (decoder.isLongValued(f)) {
+                fields.add(f);
+            }
+        }
+        numericFields = fields.stream().mapToInt(Integer::intValue).toArray();
+
+        byte[][] records = SyntheticRecords.generate(decoder, 1024, 42);
+        dataFile = Files.createTempFile("records", ".dat");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(dataFile), 1 << 20)) {
+            for (int r = 0; r < recordCount; r++) {
+                out.write(records[r % records.length]);
+            }
+        }
+
+        format = new DataFormatRule();
+        format.setRecordFormat("FB");
+        format.setEncoding(rules.getDataFormat().getEncoding());
+        file = SegmentRecordFile.open(dataFile, format, layout);
+        segmentDecoder = new SegmentRecordDecoder(SegmentLayout.of(decoder));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        file.close();
+        Files.deleteIfExists(dataFile);
+    }
+
+    @Benchmark
+    public long sumThroughReader() throws IOException {
+        long sum = 0;
+        try (RecordReader reader = RecordReaders.open(dataFile, format, layout)) {
+            for (ByteBuffer record; (record = reader.next()) != null; ) {
+                for (int field : numericFields) {
+                    sum += decoder.decodeLong(record, field);
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumFromSegment() {
+        MemorySegment records = file.segment();
+        long sum = 0;
+        for (long record = 0; record < file.size(); record++) {
+            for (int field : numericFields) {
+                sum += segmentDecoder.decodeLong(records, record, field);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,55 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.util.PictureInfo;
+import com.copybook.parser.util.StorageCalculator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Per-field storage sizing: the memoized PICTURE+USAGE lookup against parsing the PICTURE every time
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageCalculatorBenchmark {
+
+    private static final String[][] FIELDS = {
+            {"X(12)", null},
+            {"S9(7)V99", "COMP-3"},
+            {"9(8)", null},
+            {"S9(9)", "COMP"},
+            {"S9(5)V99", null},
+            {"X(3)", null},
+            {"S9(4)", "COMP"},
+            {"9(15)V99", "COMP-3"},
+            {"ZZZ,ZZ9.99-", null},
+            {"S9(18)", "COMP-5"},
+    };
+
+    private Map<String, String> usageMappings;
+
+    @Setup
+    public void setUp() {
+        usageMappings = BenchmarkFixtures.defaultRules().getFieldProcessing().getUsageMappings();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void storageLength(Blackhole blackhole) {
+        for (String[] field : FIELDS) {
+            blackhole.consume(StorageCalculator.storageLength(field[0], field[1], false, usageMappings));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void parsePicture(Blackhole blackhole) {
+        for (String[] field : FIELDS) {
+            blackhole.consume(PictureInfo.parse(field[0]));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.copybook.parser.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Generates copybooks offline so benchmarks never depend on customer material
+final class SyntheticCopybooks {
+
+    static final List<String> EMPLOYEE = List.of(
+            "       01 BTBMS-RECORD             PIC X(250)",
+            "       01 EMPLOYEE-DATA-RECORD REDEFINES BTBMS-RECORD.",
+            "           03 EMP-SALARY           PIC 9(7)V99 COMP-3.",
+            "           03 EMP-HIRE-DATE        PIC 9(8) COMP.",
+            "           03 EMP-STATUS           PIC X.",
+            "               88 ACTIVE           VALUE 'A'.",
+            "               88 INACTIVE         VALUE 'I'.",
+            "               88 TERMINATED       VALUE 'T'.",
+            "           03 EMP-BENEFITS         OCCURS 5 TIMES.",
+            "               05 BENEFIT-CODE     PIC XX.",
+            "               05 BENEFIT-AMOUNT   PIC 9(5)V99 COMP-3.",
+            "           03 EMP-TEST             PIC X(10)."
+    );
+
+    private static final String[] CLAUSES = {
+            "PIC X(12).",
+            "PIC S9(7)V99 COMP-3.",
+            "PIC 9(8).",
+            "PIC S9(9) COMP.",
+            "PIC S9(5)V99.",
+            "PIC X(3).",
+            "PIC S9(4) COMP.",
+            "PIC 9(15)V99 COMP-3."
+    };
+
+    private SyntheticCopybooks() {
+    }
+
+    static List<String> byName(String name) {
+        if ("employee".equals(name)) {
+            return EMPLOYEE;
+        }
+        if (name.startsWith("wide-")) {
+            return wide(Integer.parseInt(name.substring("wide-".length())));
+        }
+        if (name.startsWith("huge-")) {
+            return huge(Integer.parseInt(name.substring("huge-".length())));
+        }
+        throw new IllegalArgumentException("Unknown synthetic copybook: " + name);
+    }
+
+    // One 01 record with groups of eight mixed-usage elementary fields
+    static List<String> wide(int fieldCount) {
+        List<String> lines = new ArrayList<>(fieldCount + fieldCount / 8 + 1);
+        lines.add("       01 WIDE-RECORD.");
+        for (int i = 0; i < fieldCount; i++) {
+            if (i % 8 == 0) {
+                lines.add(String.format("           05 GROUP-%05d.", i / 8));
+            }
+            lines.add(String.format("               10 FIELD-%05d %s", i, CLAUSES[i % CLAUSES.length]));
+        }
+        return lines;
+    }
+
+    // Fixed-format source of roughly the given number of lines, mixing what real copybooks contain: sequence
+    // numbers, comments, clauses split over lines, OCCURS tables, REDEFINES and 88-level conditions
+    static List<String> huge(int lineCount) {
+        List<String> lines = new ArrayList<>(lineCount + 16);
+        lines.add(card(0, "01  HUGE-RECORD."));
+        int block = 0;
+        while (lines.size() < lineCount) {
+            String id = String.format("%05d", block);
+            lines.add(comment(lines.size(), "BLOCK " + id + " -- generated"));
+            lines.add(card(lines.size(), "    05  BLK-" + id + "."));
+            lines.add(card(lines.size(), "        10  KEY-" + id + "          PIC X(12)."));
+            lines.add(card(lines.size(), "        10  AMT-" + id + "          PIC S9(7)V99"));
+            lines.add(card(lines.size(), "                                 USAGE COMP-3 VALUE ZERO."));
+            lines.add(card(lines.size(), "        10  STS-" + id + "          PIC X VALUE 'A'."));
+            lines.add(card(lines.size(), "            88  STS-" + id + "-OK    VALUE 'A' 'B'."));
+            lines.add(card(lines.size(), "        10  CNT-" + id + "          PIC S9(4) COMP."));
+            lines.add(card(lines.size(), "        10  TAB-" + id + " OCCURS 4 TIMES."));
+            lines.add(card(lines.size(), "            15  CD-" + id + "       PIC XX."));
+            lines.add(card(lines.size(), "            15  QTY-" + id + "      PIC 9(5)."));
+            lines.add(card(lines.size(), "        10  DT-" + id + "           PIC 9(8)."));
+            lines.add(card(lines.size(), "        10  DT-" + id + "-X REDEFINES DT-" + id + "."));
+            lines.add(card(lines.size(), "            15  YY-" + id + "       PIC 9(4)."));
+            lines.add(card(lines.size(), "            15  MMDD-" + id + "     PIC 9(4)."));
+            block++;
+        }
+        return lines;
+    }
+
+    private static String card(int sequence, String text) {
+        return String.format("%06d %-65.65s%8s", sequence * 100, "   " + text, "HUGE");
+    }
+
+    private static String comment(int sequence, String text) {
+        return String.format("%06d*%-65.65s%8s", sequence * 100, "   " + text, "HUGE");
+    }
+}
@@ -0,0 +1,73 @@
+package com.copybook.parser.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Text data files shaped for each shipped rule set: a header line, data lines, a trailer line, and about
+// one line in a hundred that no rule recognizes so the fallback path is exercised too
+final class SyntheticDataLines {
+
+    private static final int LINE_LENGTH = 80;
+
+    private SyntheticDataLines() {
+    }
+
+    static List<String> generate(String ruleType, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Kind kind = i == 0 ? Kind.HEADER
+                    : i == count - 1 ? Kind.TRAILER
+                    : random.nextInt(100) == 0 ? Kind.UNKNOWN
+                    : Kind.DATA;
+            lines.add(line(ruleType, kind, random));
+        }
+        return lines;
+    }
+
+    static byte[] toBytes(List<String> lines) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(lines.size() * (LINE_LENGTH + 1));
+        for (String line : lines) {
+            out.writeBytes(line.getBytes(StandardCharsets.ISO_8859_1));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    private enum Kind {
+        HEADER, DATA, TRAILER, UNKNOWN
+    }
+
+    private static String line(String ruleType, Kind kind, SplittableRandom random) {
+        String prefix = switch (ruleType) {
+            case "position-based", "multi-field" -> switch (kind) {
+                case HEADER -> "00";
+                case DATA -> "01";
+                case TRAILER -> "99";
+                case UNKNOWN -> "42";
+            };
+            case "character-based", "conditional-based" -> switch (kind) {
+                case HEADER -> "H";
+                case DATA -> "R";
+                case TRAILER -> "T";
+                case UNKNOWN -> "X";
+            };
+            case "pattern-based" -> switch (kind) {
+                case HEADER -> "01 HEADER-RECORD ";
+                case DATA -> "01 DATA-RECORD ";
+                case TRAILER -> "01 TRAILER-RECORD ";
+                case UNKNOWN -> "02 ";
+            };
+            default -> "";
+        };
+        StringBuilder line = new StringBuilder(LINE_LENGTH).append(prefix);
+        while (line.length() < LINE_LENGTH) {
+            int c = random.nextInt(36);
+            line.append((char) (c < 10 ? '0' + c : 'A' + c - 10));
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.decoder.RecordDecoder;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Fills records with bytes that are valid for each field's type so decoders never take error paths
+final class SyntheticRecords {
+
+    private SyntheticRecords() {
+    }
+
+    static byte[][] generate(RecordDecoder decoder, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[][] records = new byte[count][];
+        for (int r = 0; r < count; r++) {
+            byte[] record = new byte[decoder.getRecordLength()];
+            Arrays.fill(record, (byte) ' ');
+            for (int f = 0; f < decoder.getFieldCount(); f++) {
+                fill(record, decoder, f, random);
+            }
+            records[r] = record;
+        }
+        return records;
+    }
+
+    private static void fill(byte[] record, RecordDecoder decoder, int field, SplittableRandom random) {
+        int offset = decoder.getOffset(field);
+        int length = decoder.getLength(field);
+        if (offset + length > record.length) {
+            return;
+        }
+        switch (decoder.getFieldType(field)) {
+            case TEXT -> {
+                for (int i = 0; i < length; i++) {
+                    record[offset + i] = (byte) ('A' + random.nextInt(26));
+                }
+            }
+            case ZONED_DECIMAL -> {
+                for (int i = 0; i < length; i++) {
+                    record[offset + i] = (byte) ('0' + random.nextInt(10));
+                }
+            }
+            case PACKED_DECIMAL -> {
+                for (int i = 0; i < length - 1; i++) {
+                    record[offset + i] = (byte) (random.nextInt(10) << 4 | random.nextInt(10));
+                }
+                record[offset + length - 1] = (byte) (random.nextInt(10) << 4 | (random.nextBoolean() ? 0x0C : 0x0D));
+            }
+            case BINARY, FLOAT, DOUBLE -> {
+                for (int i = 0; i < length; i++) {
+                    record[offset + i] = (byte) random.nextInt(256);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.copybook.parser.benchmark;
+
+import com.copybook.parser.codec.ByteTranscoder;
+import com.copybook.parser.codec.CodePage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Table transcoding against a reused java.nio CharsetDecoder for whole EBCDIC records
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TranscodingBenchmark {
+
+    @Param({"IBM-037", "IBM-1047"})
+    public String codePage;
+
+    @Param({"80", "4096"})
+    public int recordLength;
+
+    private ByteTranscoder transcoder;
+    private CharsetDecoder charsetDecoder;
+    private byte[] record;
+    private byte[] latin1;
+    private ByteBuffer directSource;
+    private ByteBuffer directTarget;
+    private CharBuffer chars;
+
+    @Setup
+    public void setUp() {
+        CodePage page = CodePage.of(codePage);
+        transcoder = ByteTranscoder.forCodePage(page);
+        charsetDecoder = page.charset().newDecoder();
+
+        record = new byte[recordLength];
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < recordLength; i++) {
+            record[i] = (byte) random.nextInt(256);
+        }
+        latin1 = new byte[recordLength];
+        directSource = ByteBuffer.allocateDirect(recordLength).put(record).flip();
+        directTarget = ByteBuffer.allocateDirect(recordLength);
+        chars = CharBuffer.allocate(recordLength);
+    }
+
+    @Benchmark
+    public byte[] tableArray() {
+        transcoder.toLatin1(record, 0, latin1, 0, recordLength);
+        return latin1;
+    }
+
+    @Benchmark
+    public ByteBuffer tableDirectBuffer() {
+        directSource.rewind();
+        directTarget.clear();
+        transcoder.toLatin1(directSource, directTarget);
+        return directTarget;
+    }
+
+    @Benchmark
+    public void transcoderToString(Blackhole blackhole) {
+        blackhole.consume(transcoder.decode(record, 0, recordLength));
+    }
+
+    @Benchmark
+    public CharBuffer charsetDecoder() {
+        chars.clear();
+        charsetDecoder.reset();
+        charsetDecoder.decode(ByteBuffer.wrap(record), chars, true);
+        return chars;
+    }
+
+    @Benchmark
+    public void charsetToString(Blackhole blackhole) {
+        blackhole.consume(new String(record, charsetDecoder.charset()));
+    }
+}
@@ -1,18 +1,35 @@
 package com.copybook.parser;
 
 import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.LayoutRouter;
 import com.copybook.parser.engine.CopybookAnalyzer;
+import com.copybook.parser.engine.LibraryAnalyzer;
+import com.copybook.parser.engine.LibraryWatcher;
 import com.copybook.parser.engine.ParserEngine;
+import com.copybook.parser.io.RecordReader;
+import com.copybook.parser.io.RecordReaders;
+import com.copybook.parser.model.LayoutDiff;
+import com.copybook.parser.model.LibraryAnalysis;
+import com.copybook.parser.model.LibraryChange;
+import com.copybook.parser.model.ParseResult;
 import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.output.RecordWriters;
+import com.copybook.parser.output.RoutedRecordWriter;
 import com.copybook.parser.processor.LayoutProcessor;
+import com.copybook.parser.service.ParseServer;
+import com.copybook.parser.util.CopybookReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootApplication
 public class CopybookParserApplication implements CommandLineRunner {
@@ -29,18 +46,43 @@ public class CopybookParserApplication implements CommandLineRunner {
     @Autowired
     private LayoutProcessor layoutProcessor;
 
+    @Autowired
+    private LibraryAnalyzer libraryAnalyzer;
+
+    @Autowired
+    private LibraryWatcher libraryWatcher;
+
+    // Keep re-parsing a library directory as its files change, printing layout differences
+    @Value("${copybook.parser.library.watch:false}")
+    private boolean watchLibrary;
+
+    // Where records of a data file given after the copybook are written, one set of files per record type;
+    // empty means next to the data file
+    @Value("${copybook.parser.output-directory:}")
+    private String outputDirectory;
+
+    // Present only with copybook.parser.service.enabled=true
+    @Autowired(required = false)
+    private ParseServer parseServer;
+
     public static void main(String[] args) {
         SpringApplication.run(CopybookParserApplication.class, args);
     }
 
     @Override
     public void run(String... args) throws Exception {
-        if (args.length < 1) {
-            System.err.println("Usage: java -jar copybook-parser.jar <path-to-copybook>");
+        // --name=value arguments are Spring properties, not copybooks
+        List<String> files = Arrays.stream(args).filter(arg -> !arg.startsWith("--")).toList();
+        if (files.isEmpty()) {
+            if (parseServer == null) {
+                System.err.println("Usage: java -jar copybook-parser.jar <path-to-copybook> [<data-file>]");
+                System.err.println("   or: java -jar copybook-parser.jar --copybook.parser.service.enabled=true");
+            }
+            // In service mode the HTTP server's threads keep the JVM running until shutdown
             return;
         }
 
-        String copybookPath = args[0];
+        String copybookPath = files.get(0);
         Path path = Path.of(copybookPath);
 
         if (!Files.exists(path)) {
@@ -48,8 +90,19 @@ public class CopybookParserApplication implements CommandLineRunner {
             return;
         }
 
-        // Read the copybook file into a list of lines
-        List<String> copybookLines = Files.readAllLines(path);
+        String fileName = path.getFileName().toString().toLowerCase();
+        if (watchLibrary && Files.isDirectory(path)) {
+            // The watch thread keeps the JVM running until shutdown
+            printLibrary(libraryWatcher.watch(path, parsingRules, CopybookParserApplication::printChange).getAnalysis());
+            return;
+        }
+        if (Files.isDirectory(path) || fileName.endsWith(".zip") || fileName.endsWith(".jar")) {
+            printLibrary(libraryAnalyzer.analyze(path, parsingRules));
+            return;
+        }
+
+        // Read the copybook file into a list of lines, transcoding from EBCDIC when configured
+        List<String> copybookLines = CopybookReader.readLines(path, parsingRules.getDataFormat().getCopybookEncoding());
 
         try {
             // Analyze the copybook
@@ -71,9 +124,73 @@ public class CopybookParserApplication implements CommandLineRunner {
                         field.getName(), field.getLevel(), field.getPicture(),
                         field.getLength(), field.getStartPosition(), field.getEndPosition());
             });
+
+            if (files.size() > 1) {
+                decodeData(layout, Path.of(files.get(1)));
+            }
         } catch (Exception e) {
             System.err.println("Error during copybook parsing: " + e.getMessage());
             e.printStackTrace();
         }
     }
+
+    // Decodes every record of the data file with the layout of its record type, in one pass
+    private void decodeData(RecordLayout layout, Path dataFile) throws IOException {
+        Map<String, RecordLayout> records = layoutProcessor.recordLayouts(layout);
+        LayoutRouter router = LayoutRouter.compile(records, parsingRules);
+        Path directory = outputDirectory.isBlank()
+                ? dataFile.toAbsolutePath().getParent()
+                : Path.of(outputDirectory);
+        String baseName = dataFile.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+
+        long start = System.nanoTime();
+        try (RecordReader reader = RecordReaders.open(dataFile, parsingRules.getDataFormat(), layout);
+             RoutedRecordWriter writer = RecordWriters.openRouted(directory, baseName, router, parsingRules)) {
+            writer.writeAll(reader);
+            writer.flush();
+            System.out.printf("Decoded %d records of %s into %s (%d ms)%n", writer.getRecordsWritten(), dataFile,
+                    directory, (System.nanoTime() - start) / 1_000_000);
+            Map<String, Long> counts = writer.getRecordCounts();
+            for (int typeId = 0; typeId < router.getTypeCount(); typeId++) {
+                Long count = counts.get(router.getTypeName(typeId));
+                if (count != null) {
+                    System.out.println("Record Type: " + router.getTypeName(typeId) + ", Layout: "
+                            + router.getLayoutName(typeId) + ", Records: " + count);
+                }
+            }
+            if (writer.getUnroutedCount() > 0) {
+                System.out.println("Not decoded (no layout for " + router.getUnroutedTypes() + "): "
+                        + writer.getUnroutedCount());
+            }
+        }
+    }
+
+    private static void printLibrary(LibraryAnalysis analysis) {
+        System.out.println("Copybook Library: " + analysis.getLibrary());
+        System.out.printf("Members: %d (%d parsed, %d failed), Record Layouts: %d%n",
+                analysis.getMembers(), analysis.getSucceeded(), analysis.getFailed(), analysis.getTotalLayouts());
+        System.out.printf("Wall Time: %d ms on %d workers (%.1f members/s), Slowest: %s (%d ms)%n",
+                analysis.getWallTimeMs(), analysis.getParallelism(), analysis.getMembersPerSecond(),
+                analysis.getSlowestMember(), analysis.getMaxParseTimeMs());
+        analysis.getFailuresByType().forEach((type, count) -> System.out.println("Failures (" + type + "): " + count));
+        for (ParseResult result : analysis.getResults()) {
+            if (result.isSuccess()) {
+                System.out.println("Member: " + result.getCopybookName() + ", Layouts: " + result.getRecordLayouts().keySet());
+            } else {
+                System.out.println("Member: " + result.getCopybookName() + ", Error: " + result.getErrorMessage());
+            }
+        }
+    }
+
+    private static void printChange(LibraryChange change) {
+        System.out.printf("Changed: %s, Re-parsed: %s (%d ms)%n",
+                change.getChangedFiles(), change.getReparsedMembers(), change.getProcessingTimeMs());
+        for (LayoutDiff diff : change.getDiffs()) {
+            String values = diff.getOldValue() != null ? ": " + diff.getOldValue() + " -> " + diff.getNewValue()
+                    : diff.getNewValue() != null ? ": " + diff.getNewValue() : "";
+            System.out.printf("  %s %s %s%s%s%n", diff.getMember(), diff.getLayoutName(), diff.getChange(),
+                    diff.getField() != null ? " " + diff.getField() : "", values);
+        }
+        change.getErrors().forEach((member, error) -> System.out.println("  " + member + " Error: " + error));
+    }
 }
@@ -0,0 +1,279 @@
+package com.copybook.parser.cache;
+
+import com.copybook.parser.config.FieldProcessingRule;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.syntax.CopyStatement;
+import com.copybook.parser.syntax.CopybookLexer;
+import com.copybook.parser.syntax.SourceFormat;
+import com.copybook.parser.syntax.Token;
+import com.copybook.parser.util.CopybookReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resolves COPY statements against the copybook library directories of FieldProcessingRule. Each member file
+// is lexed once and its expansion (nested COPYs resolved, REPLACING applied) is cached per distinct REPLACING
+// phrase, so a shared member is not re-read or re-lexed for every copybook that includes it. Cached entries
+// record the size and modification time of every file they were built from and are rebuilt as soon as one
+// of those files changes. The include graph between members is kept for dependents() lookups. Members resolve
+// and lex differently under other libraries, extensions, source format or copybook encoding, so everything is
+// cached per combination of those settings.
+@Component
+@Slf4j
+public class CopyMemberCache {
+
+    // Key of RecordLayout.layoutMetadata holding the members a layout was built from: path -> stamp
+    public static final String COPY_MEMBERS_METADATA = "copyMembers";
+
+    private static final int MAX_DEPTH = 50;
+
+    // By library settings, see settingsKey
+    private final Map<String, Library> settings = new ConcurrentHashMap<>();
+
+    // What is cached under one combination of library settings
+    private static final class Library {
+        // Lexed member sources by file
+        private final Map<Path, Member> members = new ConcurrentHashMap<>();
+        // Expanded members by file + REPLACING phrase
+        private final Map<String, Expansion> expansions = new ConcurrentHashMap<>();
+        // Member file -> files it copies directly
+        private final Map<Path, Set<Path>> includes = new ConcurrentHashMap<>();
+    }
+
+    private record Member(String stamp, List<Token> tokens) {
+    }
+
+    // Tokens after expansion, the member names copied (transitively, in order) and the stamp of every file used
+    private record Expansion(List<Token> tokens, List<String> dependencies, Map<Path, String> stamps) {
+    }
+
+    // Collects what one copybook pulled in while being expanded
+    public static final class Resolution {
+        private final Set<String> dependencies = new LinkedHashSet<>();
+        private final Map<String, String> stamps = new LinkedHashMap<>();
+
+        public List<String> getDependencies() {
+            return List.copyOf(dependencies);
+        }
+
+        // Member file path -> stamp, in the form stored under COPY_MEMBERS_METADATA
+        public Map<String, String> getStamps() {
+            return Collections.unmodifiableMap(stamps);
+        }
+
+        public boolean isEmpty() {
+            return dependencies.isEmpty();
+        }
+    }
+
+    // Replaces every COPY statement in tokens with the member's expanded tokens. Without configured
+    // libraries the tokens are returned unchanged and COPY statements are left for the parser to skip.
+    public List<Token> expand(List<Token> tokens, ParsingRules rules, Resolution resolution) {
+        FieldProcessingRule fieldRules = rules != null ? rules.getFieldProcessing() : null;
+        List<String> libraries = fieldRules != null ? fieldRules.getCopyLibraries() : null;
+        if (libraries == null || libraries.isEmpty() || tokens.stream().noneMatch(token -> token.isWord("COPY"))) {
+            return tokens;
+        }
+        Library library = settings.computeIfAbsent(settingsKey(rules), key -> new Library());
+        return expand(library, tokens, rules, resolution, new ArrayDeque<>());
+    }
+
+    // Every setting that changes which file a COPY resolves to or how the member is lexed
+    private static String settingsKey(ParsingRules rules) {
+        FieldProcessingRule fieldRules = rules.getFieldProcessing();
+        String encoding = rules.getDataFormat() != null ? rules.getDataFormat().getCopybookEncoding() : null;
+        return fieldRules.getCopyLibraries() + "\n" + fieldRules.getCopyExtensions() + "\n"
+                + SourceFormat.of(fieldRules.getSourceFormat()) + "\n" + encoding;
+    }
+
+    private List<Token> expand(Library library, List<Token> tokens, ParsingRules rules, Resolution resolution,
+                               Deque<Path> stack) {
+        List<Token> out = new ArrayList<>(tokens.size());
+        int i = 0;
+        while (i < tokens.size()) {
+            Token token = tokens.get(i);
+            if (!token.isWord("COPY")) {
+                out.add(token);
+                i++;
+                continue;
+            }
+            CopyStatement.Parsed parsed = CopyStatement.parse(tokens, i);
+            out.addAll(include(library, parsed.statement(), rules, resolution, stack));
+            i = parsed.end();
+        }
+        return out;
+    }
+
+    private List<Token> include(Library library, CopyStatement copy, ParsingRules rules, Resolution resolution,
+                                Deque<Path> stack) {
+        Path file = resolve(copy, rules.getFieldProcessing());
+        if (stack.contains(file)) {
+            throw new IllegalStateException("Recursive COPY of " + copy.member() + " at line " + copy.line());
+        }
+        if (stack.size() >= MAX_DEPTH) {
+            throw new IllegalStateException("COPY nesting deeper than " + MAX_DEPTH + " at " + copy.member());
+        }
+        if (!stack.isEmpty()) {
+            library.includes.computeIfAbsent(stack.peek(), k -> ConcurrentHashMap.newKeySet()).add(file);
+        }
+
+        String key = file + "\n" + copy.replacingKey();
+        Expansion expansion = library.expansions.get(key);
+        if (expansion == null || !isCurrent(expansion.stamps())) {
+            expansion = build(library, file, copy, rules, stack);
+            library.expansions.put(key, expansion);
+        }
+        resolution.dependencies.add(copy.member());
+        resolution.dependencies.addAll(expansion.dependencies());
+        expansion.stamps().forEach((path, stamp) -> resolution.stamps.put(path.toString(), stamp));
+        return expansion.tokens();
+    }
+
+    private Expansion build(Library library, Path file, CopyStatement copy, ParsingRules rules, Deque<Path> stack) {
+        Member member = member(library, file, rules);
+        Resolution nested = new Resolution();
+        stack.push(file);
+        List<Token> expanded;
+        try {
+            library.includes.remove(file);
+            expanded = expand(library, member.tokens(), rules, nested, stack);
+        } finally {
+            stack.pop();
+        }
+        Map<Path, String> stamps = new LinkedHashMap<>();
+        stamps.put(file, member.stamp());
+        nested.stamps.forEach((path, stamp) -> stamps.put(Path.of(path), stamp));
+        log.debug("Expanded COPY member {} from {}", copy.member(), file);
+        return new Expansion(List.copyOf(copy.apply(new ArrayList<>(expanded))), nested.getDependencies(), stamps);
+    }
+
+    private Member member(Library library, Path file, ParsingRules rules) {
+        Member member = library.members.get(file);
+        String stamp = stamp(file);
+        if (member != null && member.stamp().equals(stamp)) {
+            return member;
+        }
+        try {
+            String encoding = rules.getDataFormat() != null ? rules.getDataFormat().getCopybookEncoding() : null;
+            List<String> lines = CopybookReader.readLines(file, encoding);
+            SourceFormat format = SourceFormat.of(rules.getFieldProcessing().getSourceFormat());
+            List<Token> tokens = List.copyOf(CopybookLexer.tokenize(lines, format));
+            member = new Member(stamp, tokens);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read COPY member " + file, e);
+        }
+        library.members.put(file, member);
+        return member;
+    }
+
+    // <library dir>/[<OF library>/]<member><extension>, trying the name as written and in lower case
+    private static Path resolve(CopyStatement copy, FieldProcessingRule rules) {
+        List<String> names = copy.member().equals(copy.member().toLowerCase())
+                ? List.of(copy.member())
+                : List.of(copy.member(), copy.member().toLowerCase());
+        List<String> extensions = rules.getCopyExtensions() != null ? rules.getCopyExtensions() : List.of("");
+        for (String library : rules.getCopyLibraries()) {
+            Path root = Path.of(library);
+            List<Path> directories = copy.library() != null
+                    ? List.of(root.resolve(copy.library()), root.resolve(copy.library().toLowerCase()), root)
+                    : List.of(root);
+            for (Path directory : directories) {
+                for (String name : names) {
+                    for (String extension : extensions) {
+                        Path candidate = directory.resolve(name + extension);
+                        if (Files.isRegularFile(candidate)) {
+                            return candidate.toAbsolutePath().normalize();
+                        }
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("COPY member " + copy.member() + " (line " + copy.line()
+                + ") not found in " + rules.getCopyLibraries());
+    }
+
+    // Member files that copy the given file, directly or through other members
+    public Set<Path> dependents(Path file) {
+        Path target = file.toAbsolutePath().normalize();
+        Set<Path> dependents = new HashSet<>();
+        Deque<Path> pending = new ArrayDeque<>(List.of(target));
+        while (!pending.isEmpty()) {
+            Path current = pending.pop();
+            for (Library library : settings.values()) {
+                library.includes.forEach((includer, included) -> {
+                    if (included.contains(current) && dependents.add(includer)) {
+                        pending.push(includer);
+                    }
+                });
+            }
+        }
+        return dependents;
+    }
+
+    // Drops a member and every expansion built from it, e.g. when a watcher reports a change
+    public void invalidate(Path file) {
+        Path target = file.toAbsolutePath().normalize();
+        for (Library library : settings.values()) {
+            library.members.remove(target);
+            library.expansions.values().removeIf(expansion -> expansion.stamps().containsKey(target));
+        }
+    }
+
+    public void invalidateAll() {
+        settings.clear();
+    }
+
+    // False when a layout was expanded from member files that have since changed
+    @SuppressWarnings("unchecked")
+    public static boolean isCurrent(RecordLayout layout) {
+        Map<String, Object> metadata = layout.getLayoutMetadata();
+        if (metadata == null || !(metadata.get(COPY_MEMBERS_METADATA) instanceof Map<?, ?> copied)) {
+            return true;
+        }
+        for (Map.Entry<String, String> entry : ((Map<String, String>) copied).entrySet()) {
+            if (!entry.getValue().equals(stamp(Path.of(entry.getKey())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCurrent(Map<Path, String> stamps) {
+        for (Map.Entry<Path, String> entry : stamps.entrySet()) {
+            if (!entry.getValue().equals(stamp(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Size and modification time; "missing" for files that no longer exist
+    static String stamp(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+        } catch (NoSuchFileException e) {
+            return "missing";
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read attributes of COPY member " + file, e);
+        }
+    }
+}
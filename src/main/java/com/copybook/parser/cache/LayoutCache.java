@@ -0,0 +1,167 @@
+package com.copybook.parser.cache;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.FieldTree;
+import com.copybook.parser.model.RecordLayout;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Parsed layouts keyed by copybook content hash + rules fingerprint. The memory tier is an LRU bounded by
+// total weight (fields per layout); the optional disk tier stores layouts as JSON so warm restarts skip
+// parsing. Cached layouts are shared between callers and must be treated as read-only.
+@Component
+@Slf4j
+public class LayoutCache {
+
+    // Field-based so Lombok's isX boolean fields round-trip through their builders unchanged
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final long maxWeight;
+    private final Path diskDirectory;
+    private final LinkedHashMap<String, RecordLayout> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long diskHits;
+    private long misses;
+    private long evictions;
+
+    @Autowired
+    public LayoutCache(@Value("${copybook.parser.cache.max-weight:250000}") long maxWeight,
+                       @Value("${copybook.parser.cache.disk-directory:}") String diskDirectory) {
+        this(maxWeight, diskDirectory == null || diskDirectory.isBlank() ? null : Path.of(diskDirectory));
+    }
+
+    public LayoutCache(long maxWeight, Path diskDirectory) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Cache max weight must be >= 1");
+        }
+        this.maxWeight = maxWeight;
+        this.diskDirectory = diskDirectory;
+    }
+
+    public RecordLayout get(List<String> copybookLines, ParsingRules rules, Supplier<RecordLayout> loader) {
+        String key = LayoutFingerprints.contentHash(copybookLines) + "-" + LayoutFingerprints.rulesFingerprint(rules);
+
+        synchronized (this) {
+            RecordLayout cached = entries.get(key);
+            // The key covers the copybook text only; layouts expanded from COPY members also need those unchanged
+            if (cached != null && CopyMemberCache.isCurrent(cached)) {
+                hits++;
+                return cached;
+            }
+        }
+
+        RecordLayout layout = readFromDisk(key);
+        if (layout != null && CopyMemberCache.isCurrent(layout)) {
+            synchronized (this) {
+                diskHits++;
+                put(key, layout);
+            }
+            return layout;
+        }
+
+        // Parsed outside the lock; concurrent misses on the same key may both parse, the last put wins
+        layout = loader.get();
+        synchronized (this) {
+            misses++;
+            put(key, layout);
+        }
+        writeToDisk(key, layout);
+        return layout;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized LayoutCacheStats getStats() {
+        return new LayoutCacheStats(hits, diskHits, misses, evictions, entries.size(), weight, maxWeight);
+    }
+
+    private void put(String key, RecordLayout layout) {
+        RecordLayout previous = entries.put(key, layout);
+        if (previous != null) {
+            weight -= weigh(previous);
+        }
+        weight += weigh(layout);
+
+        Iterator<Map.Entry<String, RecordLayout>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && entries.size() > 1 && eldest.hasNext()) {
+            Map.Entry<String, RecordLayout> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            weight -= weigh(entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static long weigh(RecordLayout layout) {
+        return 1L + (layout.getFields() != null ? layout.getFields().size() : 0);
+    }
+
+    private RecordLayout readFromDisk(String key) {
+        if (diskDirectory == null) {
+            return null;
+        }
+        Path file = diskDirectory.resolve(key + ".json");
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            RecordLayout layout = MAPPER.readValue(file.toFile(), RecordLayout.class);
+            if (layout.getFields() != null) {
+                // Parent/child links are not serialized
+                FieldTree.link(layout.getFields());
+            }
+            return layout;
+        } catch (IOException e) {
+            log.warn("Discarding unreadable cached layout {}: {}", file, e.getMessage());
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Next write replaces it anyway
+            }
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, RecordLayout layout) {
+        if (diskDirectory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(diskDirectory);
+            Path temp = Files.createTempFile(diskDirectory, key, ".tmp");
+            MAPPER.writeValue(temp.toFile(), layout);
+            Files.move(temp, diskDirectory.resolve(key + ".json"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to persist layout {} to {}: {}", key, diskDirectory, e.getMessage());
+        }
+    }
+}
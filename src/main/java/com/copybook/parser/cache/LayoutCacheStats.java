@@ -0,0 +1,21 @@
+package com.copybook.parser.cache;
+
+public record LayoutCacheStats(
+        long hits,
+        long diskHits,
+        long misses,
+        long evictions,
+        int size,
+        long weight,
+        long maxWeight
+) {
+
+    public long requests() {
+        return hits + diskHits + misses;
+    }
+
+    public double hitRatio() {
+        long requests = requests();
+        return requests == 0 ? 0.0 : (double) (hits + diskHits) / requests;
+    }
+}
@@ -0,0 +1,51 @@
+package com.copybook.parser.cache;
+
+import com.copybook.parser.config.ParsingRules;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+public final class LayoutFingerprints {
+
+    // Canonical form: sorted properties and map keys, so equal rules always hash equally
+    private static final ObjectMapper CANONICAL = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private LayoutFingerprints() {
+    }
+
+    public static String contentHash(List<String> copybookLines) {
+        MessageDigest digest = sha256();
+        for (String line : copybookLines) {
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static String rulesFingerprint(ParsingRules rules) {
+        try {
+            return HexFormat.of().formatHex(sha256().digest(CANONICAL.writeValueAsBytes(rules)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to fingerprint parsing rules", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
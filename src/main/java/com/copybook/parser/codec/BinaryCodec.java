@@ -0,0 +1,92 @@
+package com.copybook.parser.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// COMP / COMP-4 / BINARY / COMP-5: big-endian two's complement integers of 1 to 8 bytes
+public final class BinaryCodec {
+
+    private BinaryCodec() {
+    }
+
+    // Storage bytes for a binary field with the given number of PICTURE digits
+    public static int byteLength(int digits) {
+        if (digits <= 4) {
+            return 2;
+        }
+        if (digits <= 9) {
+            return 4;
+        }
+        return 8;
+    }
+
+    public static long decodeLong(byte[] source, int offset, int length, boolean signed) {
+        checkLength(length);
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (source[i] & 0xFF);
+        }
+        return extend(value, length, signed);
+    }
+
+    public static long decodeLong(ByteBuffer source, int offset, int length, boolean signed) {
+        checkLength(length);
+        long value = switch (length) {
+            // Absolute multi-byte reads are big-endian unless the buffer order was changed
+            case 2 -> source.order() == ByteOrder.BIG_ENDIAN ? source.getShort(offset) & 0xFFFFL : readBytes(source, offset, 2);
+            case 4 -> source.order() == ByteOrder.BIG_ENDIAN ? source.getInt(offset) & 0xFFFFFFFFL : readBytes(source, offset, 4);
+            case 8 -> source.order() == ByteOrder.BIG_ENDIAN ? source.getLong(offset) : readBytes(source, offset, 8);
+            default -> readBytes(source, offset, length);
+        };
+        return extend(value, length, signed);
+    }
+
+    // Unsigned 8-byte values above Long.MAX_VALUE cannot be represented as a long
+    public static BigDecimal decodeBigDecimal(ByteBuffer source, int offset, int length, boolean signed, int scale) {
+        long value = decodeLong(source, offset, length, signed);
+        if (!signed && length == 8 && value < 0) {
+            return new BigDecimal(new BigInteger(Long.toUnsignedString(value)), scale);
+        }
+        return BigDecimal.valueOf(value, scale);
+    }
+
+    public static void encode(long value, byte[] target, int offset, int length) {
+        checkLength(length);
+        for (int i = offset + length - 1; i >= offset; i--) {
+            target[i] = (byte) value;
+            value >>= 8;
+        }
+    }
+
+    public static void encode(long value, ByteBuffer target, int offset, int length) {
+        checkLength(length);
+        for (int i = offset + length - 1; i >= offset; i--) {
+            target.put(i, (byte) value);
+            value >>= 8;
+        }
+    }
+
+    private static long readBytes(ByteBuffer source, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (source.get(i) & 0xFF);
+        }
+        return value;
+    }
+
+    private static long extend(long value, int length, boolean signed) {
+        if (signed && length < 8) {
+            int shift = 64 - length * 8;
+            return (value << shift) >> shift;
+        }
+        return value;
+    }
+
+    private static void checkLength(int length) {
+        if (length < 1 || length > 8) {
+            throw new IllegalArgumentException("Binary length must be 1..8, got " + length);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.copybook.parser.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Single-byte transcoding through precomputed 256-entry tables. The supported EBCDIC code pages are
+// permutations of Latin-1, so every byte maps 1:1 and a whole record converts with one table lookup per
+// byte instead of a CharsetDecoder round trip. Tables are derived once from the JDK charsets.
+public final class ByteTranscoder {
+
+    private static final int CHUNK = 8192;
+    private static final int EBCDIC_NL = 0x15;
+    private static final int EBCDIC_LF = 0x25;
+    private static final Map<CodePage, ByteTranscoder> TRANSCODERS = new EnumMap<>(CodePage.class);
+
+    // UTF-8 form of each Latin-1 character: one or two bytes, packed as (length << 16 | b0 << 8 | b1)
+    private static final int[] LATIN1_TO_UTF8 = new int[256];
+
+    static {
+        for (int c = 0; c < 256; c++) {
+            LATIN1_TO_UTF8[c] = c < 0x80
+                    ? 1 << 16 | c << 8
+                    : 2 << 16 | (0xC0 | c >>> 6) << 8 | (0x80 | c & 0x3F);
+        }
+    }
+
+    private final CodePage codePage;
+    private final Charset charset;
+    private final boolean identity;
+    private final byte[] toLatin1;
+    private final byte[] fromLatin1;
+
+    private ByteTranscoder(CodePage codePage, byte[] toLatin1, byte[] fromLatin1) {
+        this.codePage = codePage;
+        this.charset = codePage.charset();
+        this.toLatin1 = toLatin1;
+        this.fromLatin1 = fromLatin1;
+        this.identity = !codePage.isEbcdic();
+    }
+
+    public static synchronized ByteTranscoder forCodePage(CodePage codePage) {
+        return TRANSCODERS.computeIfAbsent(codePage, ByteTranscoder::build);
+    }
+
+    private static ByteTranscoder build(CodePage codePage) {
+        byte[] toLatin1 = new byte[256];
+        byte[] fromLatin1 = new byte[256];
+        if (!codePage.isEbcdic()) {
+            for (int b = 0; b < 256; b++) {
+                toLatin1[b] = (byte) b;
+                fromLatin1[b] = (byte) b;
+            }
+            return new ByteTranscoder(codePage, toLatin1, fromLatin1);
+        }
+
+        byte[] all = new byte[256];
+        for (int b = 0; b < 256; b++) {
+            all[b] = (byte) b;
+        }
+        CharBuffer chars = codePage.charset().decode(ByteBuffer.wrap(all));
+        boolean[] mapped = new boolean[256];
+        for (int b = 0; b < 256; b++) {
+            // The JDK folds NL (0x15) and LF (0x25) onto LF for IBM037/IBM500; keep the CCSID mapping of NL
+            // to U+0085 so the table stays a bijection and round trips are lossless
+            char c = chars.get(b);
+            if (b == EBCDIC_NL && c == chars.get(EBCDIC_LF)) {
+                c = '\u0085';
+            }
+            if (c > 0xFF || mapped[c]) {
+                throw new IllegalStateException(String.format("%s byte 0x%02X does not map 1:1 onto Latin-1", codePage, b));
+            }
+            mapped[c] = true;
+            toLatin1[b] = (byte) c;
+            fromLatin1[c] = (byte) b;
+        }
+        return new ByteTranscoder(codePage, toLatin1, fromLatin1);
+    }
+
+    public CodePage getCodePage() {
+        return codePage;
+    }
+
+    public boolean isIdentity() {
+        return identity;
+    }
+
+    // Same mapping, except that EBCDIC NL (U+0085) becomes LF so converted text splits into lines
+    public ByteTranscoder forTextLines() {
+        if (identity) {
+            return this;
+        }
+        byte[] lines = toLatin1.clone();
+        for (int b = 0; b < 256; b++) {
+            if ((lines[b] & 0xFF) == 0x85) {
+                lines[b] = '\n';
+            }
+        }
+        return new ByteTranscoder(codePage, lines, fromLatin1);
+    }
+
+    public byte toLatin1(byte b) {
+        return toLatin1[b & 0xFF];
+    }
+
+    public byte fromLatin1(byte b) {
+        return fromLatin1[b & 0xFF];
+    }
+
+    // Source code page -> Latin-1, array to array; source and target may be the same array
+    public void toLatin1(byte[] source, int sourceOffset, byte[] target, int targetOffset, int length) {
+        apply(toLatin1, source, sourceOffset, target, targetOffset, length);
+    }
+
+    // Latin-1 -> source code page
+    public void fromLatin1(byte[] source, int sourceOffset, byte[] target, int targetOffset, int length) {
+        apply(fromLatin1, source, sourceOffset, target, targetOffset, length);
+    }
+
+    // Bulk conversion of all remaining bytes in source into target, advancing both positions
+    public void toLatin1(ByteBuffer source, ByteBuffer target) {
+        transcode(toLatin1, source, target);
+    }
+
+    public void fromLatin1(ByteBuffer source, ByteBuffer target) {
+        transcode(fromLatin1, source, target);
+    }
+
+    // Strings are built by the JDK's single-byte String constructor, which is itself table driven and
+    // avoids the extra Latin-1 copy a table pass would need. Only NL differs for IBM037/IBM500 (LF here).
+    public String decode(byte[] source, int offset, int length) {
+        return new String(source, offset, length, charset);
+    }
+
+    // Absolute read of length bytes at offset; the buffer position is not changed
+    public String decode(ByteBuffer source, int offset, int length) {
+        if (source.hasArray()) {
+            return decode(source.array(), source.arrayOffset() + offset, length);
+        }
+        byte[] bytes = new byte[length];
+        source.get(offset, bytes);
+        return new String(bytes, charset);
+    }
+
+    public byte[] encode(String text) {
+        if (codePage == CodePage.UTF_8) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        if (!identity) {
+            apply(fromLatin1, bytes, 0, bytes, 0, bytes.length);
+        }
+        return bytes;
+    }
+
+    // Converts to UTF-8 into a caller-supplied buffer sized for the worst case (2 * length); returns bytes written
+    public int toUtf8(byte[] source, int offset, int length, byte[] target, int targetOffset) {
+        if (codePage == CodePage.UTF_8) {
+            System.arraycopy(source, offset, target, targetOffset, length);
+            return length;
+        }
+        int out = targetOffset;
+        for (int i = offset; i < offset + length; i++) {
+            int encoded = LATIN1_TO_UTF8[toLatin1[source[i] & 0xFF] & 0xFF];
+            target[out++] = (byte) (encoded >>> 8);
+            if (encoded >>> 16 == 2) {
+                target[out++] = (byte) encoded;
+            }
+        }
+        return out - targetOffset;
+    }
+
+    private static void apply(byte[] table, byte[] source, int sourceOffset, byte[] target, int targetOffset, int length) {
+        // Simple indexed loop: C2 unrolls it and keeps the table in L1
+        for (int i = 0; i < length; i++) {
+            target[targetOffset + i] = table[source[sourceOffset + i] & 0xFF];
+        }
+    }
+
+    private void transcode(byte[] table, ByteBuffer source, ByteBuffer target) {
+        int length = source.remaining();
+        if (target.remaining() < length) {
+            throw new IllegalArgumentException("Target buffer has " + target.remaining() + " bytes, needs " + length);
+        }
+        if (source.hasArray() && target.hasArray()) {
+            apply(table, source.array(), source.arrayOffset() + source.position(),
+                    target.array(), target.arrayOffset() + target.position(), length);
+            source.position(source.limit());
+            target.position(target.position() + length);
+            return;
+        }
+        if (identity) {
+            target.put(source);
+            return;
+        }
+        // Direct buffers: bulk copy through a heap chunk so the inner loop stays on arrays
+        byte[] chunk = new byte[Math.min(CHUNK, length)];
+        while (source.hasRemaining()) {
+            int n = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, n);
+            apply(table, chunk, 0, chunk, 0, n);
+            target.put(chunk, 0, n);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.copybook.parser.codec;
+
+import java.nio.charset.Charset;
+
+public enum CodePage {
+    ISO_8859_1("ISO-8859-1", false),
+    UTF_8("UTF-8", false),
+    IBM_037("IBM037", true),
+    IBM_1047("IBM1047", true),
+    IBM_500("IBM500", true);
+
+    private final String charsetName;
+    private final boolean ebcdic;
+
+    CodePage(String charsetName, boolean ebcdic) {
+        this.charsetName = charsetName;
+        this.ebcdic = ebcdic;
+    }
+
+    public boolean isEbcdic() {
+        return ebcdic;
+    }
+
+    public Charset charset() {
+        return Charset.forName(charsetName);
+    }
+
+    // Accepts the usual spellings: IBM-037, IBM037, CP037, 037, CCSID 1047, UTF8, ASCII, LATIN1 ...
+    public static CodePage of(String name) {
+        if (name == null || name.isBlank()) {
+            return UTF_8;
+        }
+        String normalized = name.trim().toUpperCase().replace("_", "").replace("-", "").replace(" ", "");
+        return switch (normalized) {
+            case "UTF8" -> UTF_8;
+            case "ASCII", "USASCII", "ISO88591", "LATIN1" -> ISO_8859_1;
+            case "IBM037", "CP037", "037", "CCSID37", "CCSID037", "EBCDIC" -> IBM_037;
+            case "IBM1047", "CP1047", "1047", "CCSID1047" -> IBM_1047;
+            case "IBM500", "CP500", "500", "CCSID500" -> IBM_500;
+            default -> throw new IllegalArgumentException("Unsupported code page: " + name);
+        };
+    }
+}
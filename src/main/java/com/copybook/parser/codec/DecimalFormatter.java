@@ -0,0 +1,52 @@
+package com.copybook.parser.codec;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+// Renders a scaled long as ASCII text into a caller-supplied buffer, so hot loops that emit text
+// (CSV, JSON) never materialise a BigDecimal or String per value.
+public final class DecimalFormatter {
+
+    // Sign, 19 digits, decimal point and a leading zero
+    public static final int MAX_LENGTH = 22;
+
+    private DecimalFormatter() {
+    }
+
+    // Returns the number of bytes written at offset; target needs MAX_LENGTH free bytes plus any
+    // trailing zeros implied by a negative scale
+    public static int format(long unscaled, int scale, byte[] target, int offset) {
+        if (unscaled == Long.MIN_VALUE || scale > 19) {
+            byte[] text = BigDecimal.valueOf(unscaled, scale).toPlainString().getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(text, 0, target, offset, text.length);
+            return text.length;
+        }
+
+        boolean negative = unscaled < 0;
+        long magnitude = Math.abs(unscaled);
+
+        // Fill digits right to left in a fixed scratch area at the end of the target window
+        int position = offset + MAX_LENGTH;
+        int written = 0;
+        do {
+            if (scale > 0 && written == scale) {
+                target[--position] = '.';
+            }
+            target[--position] = (byte) ('0' + magnitude % 10);
+            magnitude /= 10;
+            written++;
+        } while (magnitude != 0 || (scale > 0 && written <= scale));
+
+        // Negative scales (PICTURE P positions) append zeros
+        int trailingZeros = scale < 0 ? -scale : 0;
+        if (negative) {
+            target[--position] = '-';
+        }
+        int length = offset + MAX_LENGTH - position;
+        System.arraycopy(target, position, target, offset, length);
+        for (int i = 0; i < trailingZeros; i++) {
+            target[offset + length + i] = '0';
+        }
+        return length + trailingZeros;
+    }
+}
@@ -0,0 +1,37 @@
+package com.copybook.parser.codec;
+
+import java.nio.ByteBuffer;
+
+// IBM System/360 hexadecimal floating point, the COMP-1 / COMP-2 format of z/OS data:
+// sign bit, 7-bit excess-64 base-16 exponent, then a 24-bit (short) or 56-bit (long) fraction
+public final class HexFloatCodec {
+
+    private HexFloatCodec() {
+    }
+
+    public static double decodeShort(ByteBuffer source, int offset) {
+        return fromShortBits((int) BinaryCodec.decodeLong(source, offset, 4, false));
+    }
+
+    public static double decodeLong(ByteBuffer source, int offset) {
+        return fromLongBits(BinaryCodec.decodeLong(source, offset, 8, false));
+    }
+
+    // The same conversions from the big-endian bit patterns, for callers that read the words themselves
+    public static double fromShortBits(int word) {
+        long bits = word & 0xFFFFFFFFL;
+        return toDouble(bits >>> 31, (int) (bits >>> 24) & 0x7F, bits & 0xFFFFFFL, 24);
+    }
+
+    public static double fromLongBits(long bits) {
+        return toDouble(bits >>> 63, (int) (bits >>> 56) & 0x7F, bits & 0xFFFFFFFFFFFFFFL, 56);
+    }
+
+    private static double toDouble(long sign, int exponent, long fraction, int fractionBits) {
+        if (fraction == 0) {
+            return sign != 0 ? -0.0d : 0.0d;
+        }
+        double magnitude = Math.scalb((double) fraction, 4 * (exponent - 64) - fractionBits);
+        return sign != 0 ? -magnitude : magnitude;
+    }
+}
@@ -0,0 +1,175 @@
+package com.copybook.parser.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+// COMP-3 / PACKED-DECIMAL: two digits per byte, the low nibble of the last byte holds the sign.
+// Values of up to 18 digits go through a long: fields of up to 9 bytes, or 10 bytes whose leading nibble is
+// zero. A 10-byte field holds 19 digits, so anything wider falls back to BigDecimal.
+public final class PackedDecimalCodec {
+
+    public static final int MAX_LONG_BYTES = 10;
+    public static final int MAX_LONG_DIGITS = 18;
+
+    private static final int SIGN_POSITIVE = 0x0C;
+    private static final int SIGN_NEGATIVE = 0x0D;
+    private static final int SIGN_UNSIGNED = 0x0F;
+
+    // Byte -> value of its two digit nibbles (0..99), or -1 when either nibble is not a digit
+    private static final int[] DIGIT_PAIRS = new int[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            int high = b >>> 4;
+            int low = b & 0x0F;
+            DIGIT_PAIRS[b] = high <= 9 && low <= 9 ? high * 10 + low : -1;
+        }
+    }
+
+    private PackedDecimalCodec() {
+    }
+
+    public static int digits(int length) {
+        return length * 2 - 1;
+    }
+
+    public static int byteLength(int digits) {
+        return digits / 2 + 1;
+    }
+
+    // True when the field's value fits in a long, i.e. it has at most 18 significant digit positions
+    public static boolean fitsLong(ByteBuffer source, int offset, int length) {
+        return length < MAX_LONG_BYTES || (length == MAX_LONG_BYTES && (source.get(offset) & 0xF0) == 0);
+    }
+
+    public static long decodeLong(byte[] source, int offset, int length) {
+        checkLongLength(length, source[offset]);
+        long value = 0;
+        int last = offset + length - 1;
+        for (int i = offset; i < last; i++) {
+            value = value * 100 + digitPair(source[i]);
+        }
+        return finish(value, source[last]);
+    }
+
+    public static long decodeLong(ByteBuffer source, int offset, int length) {
+        checkLongLength(length, source.get(offset));
+        long value = 0;
+        int last = offset + length - 1;
+        for (int i = offset; i < last; i++) {
+            value = value * 100 + digitPair(source.get(i));
+        }
+        return finish(value, source.get(last));
+    }
+
+    // The same decoding for a field of up to 8 bytes already loaded big-endian into the low bytes of word
+    public static long decodeWord(long word, int length) {
+        long value = 0;
+        for (int shift = (length - 1) * 8; shift > 0; shift -= 8) {
+            value = value * 100 + digitPair((byte) (word >>> shift));
+        }
+        return finish(value, (byte) word);
+    }
+
+    public static BigDecimal decodeBigDecimal(ByteBuffer source, int offset, int length, int scale) {
+        if (fitsLong(source, offset, length)) {
+            return BigDecimal.valueOf(decodeLong(source, offset, length), scale);
+        }
+        // Accumulate 18-digit chunks in longs so only the final combination uses BigInteger
+        BigInteger unscaled = BigInteger.ZERO;
+        long chunk = 0;
+        int chunkDigits = 0;
+        int last = offset + length - 1;
+        for (int i = offset; i < last; i++) {
+            chunk = chunk * 100 + digitPair(source.get(i));
+            chunkDigits += 2;
+            if (chunkDigits == 18) {
+                unscaled = unscaled.multiply(BigInteger.TEN.pow(18)).add(BigInteger.valueOf(chunk));
+                chunk = 0;
+                chunkDigits = 0;
+            }
+        }
+        int lastByte = source.get(last) & 0xFF;
+        chunk = chunk * 10 + digit(lastByte >>> 4);
+        unscaled = unscaled.multiply(BigInteger.TEN.pow(chunkDigits + 1)).add(BigInteger.valueOf(chunk));
+        return new BigDecimal(isNegative(lastByte) ? unscaled.negate() : unscaled, scale);
+    }
+
+    public static void encode(long value, byte[] target, int offset, int length, boolean signed) {
+        checkLongLength(length);
+        long magnitude = Math.abs(value);
+        int sign = !signed ? SIGN_UNSIGNED : value < 0 ? SIGN_NEGATIVE : SIGN_POSITIVE;
+        int last = offset + length - 1;
+        target[last] = (byte) ((magnitude % 10) << 4 | sign);
+        magnitude /= 10;
+        for (int i = last - 1; i >= offset; i--) {
+            int pair = (int) (magnitude % 100);
+            target[i] = (byte) ((pair / 10) << 4 | (pair % 10));
+            magnitude /= 100;
+        }
+        if (magnitude != 0) {
+            throw new ArithmeticException(String.format("%d does not fit in %d packed bytes", value, length));
+        }
+    }
+
+    public static void encode(long value, ByteBuffer target, int offset, int length, boolean signed) {
+        checkLongLength(length);
+        long magnitude = Math.abs(value);
+        int sign = !signed ? SIGN_UNSIGNED : value < 0 ? SIGN_NEGATIVE : SIGN_POSITIVE;
+        int last = offset + length - 1;
+        target.put(last, (byte) ((magnitude % 10) << 4 | sign));
+        magnitude /= 10;
+        for (int i = last - 1; i >= offset; i--) {
+            int pair = (int) (magnitude % 100);
+            target.put(i, (byte) ((pair / 10) << 4 | (pair % 10)));
+            magnitude /= 100;
+        }
+        if (magnitude != 0) {
+            throw new ArithmeticException(String.format("%d does not fit in %d packed bytes", value, length));
+        }
+    }
+
+    private static long finish(long value, byte lastByte) {
+        int b = lastByte & 0xFF;
+        value = value * 10 + digit(b >>> 4);
+        return isNegative(b) ? -value : value;
+    }
+
+    private static boolean isNegative(int lastByte) {
+        int sign = lastByte & 0x0F;
+        if (sign < 0x0A) {
+            throw new NumberFormatException(String.format("Invalid packed decimal sign nibble 0x%X", sign));
+        }
+        return sign == 0x0D || sign == 0x0B;
+    }
+
+    private static int digitPair(byte b) {
+        int pair = DIGIT_PAIRS[b & 0xFF];
+        if (pair < 0) {
+            throw new NumberFormatException(String.format("Invalid packed decimal digits 0x%02X", b & 0xFF));
+        }
+        return pair;
+    }
+
+    private static int digit(int nibble) {
+        if (nibble > 9) {
+            throw new NumberFormatException(String.format("Invalid packed decimal digit 0x%X", nibble));
+        }
+        return nibble;
+    }
+
+    // A 10-byte field only fits when its 19th digit is zero
+    private static void checkLongLength(int length, byte first) {
+        checkLongLength(length);
+        if (length == MAX_LONG_BYTES && (first & 0xF0) != 0) {
+            throw new ArithmeticException("Packed decimal of " + digits(length) + " digits does not fit in a long");
+        }
+    }
+
+    private static void checkLongLength(int length) {
+        if (length < 1 || length > MAX_LONG_BYTES) {
+            throw new IllegalArgumentException("Packed decimal length must be 1.." + MAX_LONG_BYTES + " for a long, got " + length);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.copybook.parser.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+// Converts bytes to Latin-1 in place as they are read, so text readers downstream can use the
+// JDK's fast ISO-8859-1 path instead of a table-less EBCDIC CharsetDecoder
+public class TranscodingChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel delegate;
+    private final ByteTranscoder transcoder;
+
+    public TranscodingChannel(ReadableByteChannel delegate, ByteTranscoder transcoder) {
+        this.delegate = delegate;
+        this.transcoder = transcoder;
+    }
+
+    @Override
+    public int read(ByteBuffer target) throws IOException {
+        int start = target.position();
+        int read = delegate.read(target);
+        if (read > 0 && !transcoder.isIdentity()) {
+            ByteBuffer filled = target.duplicate().position(start).limit(start + read);
+            ByteBuffer output = target.duplicate().position(start);
+            transcoder.toLatin1(filled, output);
+        }
+        return read;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
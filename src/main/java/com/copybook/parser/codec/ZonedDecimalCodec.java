@@ -0,0 +1,156 @@
+package com.copybook.parser.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// DISPLAY numerics: one digit per byte, the sign is carried in the zone of the last byte.
+// Decoding accepts both EBCDIC zones (F/C positive, D negative) and ASCII overpunch ({, A-I, }, J-R, p-y).
+public final class ZonedDecimalCodec {
+
+    public static final int MAX_LONG_DIGITS = 18;
+
+    private static final int NEGATIVE = 0x10;
+    // Sign byte -> digit | NEGATIVE, or -1 when invalid
+    private static final int[] SIGN_BYTES = new int[256];
+    // Byte -> digit for the leading (unsigned) positions, or -1 when invalid
+    private static final int[] DIGIT_BYTES = new int[256];
+
+    private static final byte[] ASCII_POSITIVE = "{ABCDEFGHI".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ASCII_NEGATIVE = "}JKLMNOPQR".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        Arrays.fill(SIGN_BYTES, -1);
+        Arrays.fill(DIGIT_BYTES, -1);
+        for (int d = 0; d <= 9; d++) {
+            DIGIT_BYTES['0' + d] = d;
+            DIGIT_BYTES[0xF0 + d] = d;
+            SIGN_BYTES['0' + d] = d;
+            SIGN_BYTES[0xF0 + d] = d;
+            SIGN_BYTES[0xC0 + d] = d;
+            SIGN_BYTES[0xD0 + d] = d | NEGATIVE;
+            SIGN_BYTES['p' + d] = d | NEGATIVE;
+            SIGN_BYTES[ASCII_POSITIVE[d]] = d;
+            SIGN_BYTES[ASCII_NEGATIVE[d]] = d | NEGATIVE;
+        }
+        // Blank-filled fields read as zero in either encoding
+        DIGIT_BYTES[' '] = 0;
+        DIGIT_BYTES[0x40] = 0;
+        SIGN_BYTES[' '] = 0;
+        SIGN_BYTES[0x40] = 0;
+    }
+
+    private ZonedDecimalCodec() {
+    }
+
+    public static long decodeLong(byte[] source, int offset, int length) {
+        checkLongLength(length);
+        long value = 0;
+        int last = offset + length - 1;
+        for (int i = offset; i < last; i++) {
+            value = value * 10 + digit(source[i]);
+        }
+        return finish(value, source[last]);
+    }
+
+    public static long decodeLong(ByteBuffer source, int offset, int length) {
+        checkLongLength(length);
+        long value = 0;
+        int last = offset + length - 1;
+        for (int i = offset; i < last; i++) {
+            value = value * 10 + digit(source.get(i));
+        }
+        return finish(value, source.get(last));
+    }
+
+    public static BigDecimal decodeBigDecimal(ByteBuffer source, int offset, int length, int scale) {
+        if (length <= MAX_LONG_DIGITS) {
+            return BigDecimal.valueOf(decodeLong(source, offset, length), scale);
+        }
+        BigInteger unscaled = BigInteger.ZERO;
+        long chunk = 0;
+        int chunkDigits = 0;
+        int last = offset + length - 1;
+        for (int i = offset; i < last; i++) {
+            chunk = chunk * 10 + digit(source.get(i));
+            if (++chunkDigits == MAX_LONG_DIGITS) {
+                unscaled = unscaled.multiply(BigInteger.TEN.pow(MAX_LONG_DIGITS)).add(BigInteger.valueOf(chunk));
+                chunk = 0;
+                chunkDigits = 0;
+            }
+        }
+        int sign = signByte(source.get(last));
+        chunk = chunk * 10 + (sign & 0x0F);
+        unscaled = unscaled.multiply(BigInteger.TEN.pow(chunkDigits + 1)).add(BigInteger.valueOf(chunk));
+        return new BigDecimal((sign & NEGATIVE) != 0 ? unscaled.negate() : unscaled, scale);
+    }
+
+    // SIGN IS LEADING/TRAILING SEPARATE: the digits are unsigned and a '+' or '-' byte (ASCII or EBCDIC)
+    // precedes or follows them
+    public static long decodeLongSeparateSign(ByteBuffer source, int offset, int length, boolean leading) {
+        long magnitude = decodeLong(source, leading ? offset + 1 : offset, length - 1);
+        return isMinus(source.get(leading ? offset : offset + length - 1)) ? -magnitude : magnitude;
+    }
+
+    public static BigDecimal decodeBigDecimalSeparateSign(ByteBuffer source, int offset, int length, int scale, boolean leading) {
+        BigDecimal magnitude = decodeBigDecimal(source, leading ? offset + 1 : offset, length - 1, scale);
+        return isMinus(source.get(leading ? offset : offset + length - 1)) ? magnitude.negate() : magnitude;
+    }
+
+    // Writes digits in EBCDIC (F zones, C/D sign zone) or ASCII ('0'-'9', overpunched sign) form
+    public static void encode(long value, byte[] target, int offset, int length, boolean signed, boolean ebcdic) {
+        checkLongLength(length);
+        long magnitude = Math.abs(value);
+        for (int i = offset + length - 1; i >= offset; i--) {
+            int d = (int) (magnitude % 10);
+            target[i] = (byte) (ebcdic ? 0xF0 | d : '0' + d);
+            magnitude /= 10;
+        }
+        if (magnitude != 0) {
+            throw new ArithmeticException(String.format("%d does not fit in %d zoned digits", value, length));
+        }
+        if (signed) {
+            int last = offset + length - 1;
+            int d = target[last] & 0x0F;
+            if (ebcdic) {
+                target[last] = (byte) ((value < 0 ? 0xD0 : 0xC0) | d);
+            } else {
+                target[last] = value < 0 ? ASCII_NEGATIVE[d] : ASCII_POSITIVE[d];
+            }
+        }
+    }
+
+    private static long finish(long value, byte lastByte) {
+        int sign = signByte(lastByte);
+        value = value * 10 + (sign & 0x0F);
+        return (sign & NEGATIVE) != 0 ? -value : value;
+    }
+
+    private static boolean isMinus(byte b) {
+        return b == '-' || (b & 0xFF) == 0x60;
+    }
+
+    private static int digit(byte b) {
+        int d = DIGIT_BYTES[b & 0xFF];
+        if (d < 0) {
+            throw new NumberFormatException(String.format("Invalid zoned decimal digit 0x%02X", b & 0xFF));
+        }
+        return d;
+    }
+
+    private static int signByte(byte b) {
+        int sign = SIGN_BYTES[b & 0xFF];
+        if (sign < 0) {
+            throw new NumberFormatException(String.format("Invalid zoned decimal sign byte 0x%02X", b & 0xFF));
+        }
+        return sign;
+    }
+
+    private static void checkLongLength(int length) {
+        if (length < 1 || length > MAX_LONG_DIGITS) {
+            throw new IllegalArgumentException("Zoned decimal length must be 1.." + MAX_LONG_DIGITS + " for a long, got " + length);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.copybook.parser.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DataFormatRule {
+
+    // Record framing: LINE (newline delimited text), F, FB, V, VB
+    private String recordFormat = "LINE";
+    // Fixed record length; falls back to the layout's total length when unset
+    private Integer recordLength;
+
+    // Code pages: UTF-8, ISO-8859-1, IBM-037, IBM-1047 or IBM-500
+    private String encoding = "UTF-8";
+    private String copybookEncoding = "UTF-8";
+    // COMP-1/COMP-2 representation: ieee or ibm_hex; unset means ibm_hex for EBCDIC data, ieee otherwise
+    private String floatFormat;
+
+    // I/O tuning
+    private int bufferSize = 1 << 20;
+
+    // Parallel classification of files: 1 = sequential, 0 = one worker per core. Chunks are split on line
+    // (LINE) or record (F/FB) boundaries; without preserveOrder chunks are emitted as they complete.
+    private int parallelism = 1;
+    // Workers keep about two chunks each in flight (256MB at most in all), so memory grows with chunkSize
+    private int chunkSize = 8 << 20;
+    private boolean preserveOrder = true;
+
+    // Random access to F/FB files: field indexed by MappedRecordStore.keyIndex(), with the index persisted
+    // next to the data file and reused until the file changes
+    private String keyField;
+    private boolean keyIndexSidecar = true;
+}
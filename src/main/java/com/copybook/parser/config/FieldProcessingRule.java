@@ -10,6 +10,14 @@ import java.util.Map;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class FieldProcessingRule {
 
+    // Source format: fixed (columns 7-72), free, or auto-detected
+    private String sourceFormat = "auto";
+
+    // COPY resolution: directories searched for members (COPY statements are skipped when unset) and the
+    // file extensions tried, in order, for each member name
+    private List<String> copyLibraries;
+    private List<String> copyExtensions = List.of("", ".cpy", ".cbl", ".cob", ".copy");
+
     // Level hierarchy configuration
     private String levelHierarchy = "standard";
     private List<Integer> recordLevels = List.of(1);
@@ -14,6 +14,9 @@ public class LayoutGenerationRule {
     private String strategy = "multi_layout";
     private String separateBy = "record_type";
     private String namingConvention = "{record_type}_{01_level_name}";
+    // multi_layout by record_type: record type -> 01-level record that decodes it. Types not listed use the
+    // record named like the type (HEADER, or e.g. HEADER-REC / FILE-HEADER when only one such record exists).
+    private Map<String, String> recordLayouts;
 
     // Position calculation
     private int startPosition = 1;
@@ -28,6 +31,11 @@ public class LayoutGenerationRule {
     private String outputFormat = "json";
     private List<String> additionalFormats;
 
+    // Decoded record output: records per flushed batch, CSV delimiter and header row
+    private int outputBatchSize = 4096;
+    private String outputDelimiter = ",";
+    private boolean outputHeader = true;
+
     // Layout customization
     private Map<String, String> layoutTemplates;
     private List<String> excludeFromLayout;
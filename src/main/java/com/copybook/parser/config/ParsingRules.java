@@ -16,6 +16,7 @@ public class ParsingRules {
     private RecordTypeRule recordTypeField;
     private FieldProcessingRule fieldProcessing = new FieldProcessingRule();
     private LayoutGenerationRule layoutGeneration = new LayoutGenerationRule();
+    private DataFormatRule dataFormat = new DataFormatRule();
     private ValidationRule validation = new ValidationRule();
 
     public static ParsingRules createDefault() {
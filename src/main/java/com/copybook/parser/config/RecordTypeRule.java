@@ -31,6 +31,8 @@ public class RecordTypeRule {
     // Pattern-based configuration
     private String pattern;
     private Map<String, String> patternMappings;
+    // Tried in order after pattern; the first that matches names the record type
+    private List<PatternRule> patterns;
 
     // Multi-field configuration
     private List<FieldRule> multiFieldRules;
@@ -61,4 +63,11 @@ public class RecordTypeRule {
         private String recordType;
         private boolean required = true;
     }
-}
\ No newline at end of file
+
+    @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class PatternRule {
+        private String pattern;
+        private String recordType;
+    }
+}
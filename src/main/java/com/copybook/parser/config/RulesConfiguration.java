@@ -0,0 +1,28 @@
+package com.copybook.parser.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// The ParsingRules used by the command line and the parse service, loaded from copybook.parser.default-rules
+// (a classpath: or file: location)
+@Configuration
+@Slf4j
+public class RulesConfiguration {
+
+    @Bean
+    public ParsingRules parsingRules(@Value("${copybook.parser.default-rules}") Resource rules,
+                                     ObjectMapper objectMapper) throws IOException {
+        try (InputStream input = rules.getInputStream()) {
+            ParsingRules parsingRules = objectMapper.readValue(input, ParsingRules.class);
+            log.debug("Loaded {} parsing rules from {}", parsingRules.getRuleType(), rules.getDescription());
+            return parsingRules;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.copybook.parser.decoder;
+
+// Ordinals double as the byte type codes stored in RecordDecoder plans; keep the order stable
+public enum FieldType {
+    TEXT,
+    ZONED_DECIMAL,
+    PACKED_DECIMAL,
+    BINARY,
+    FLOAT,
+    DOUBLE;
+
+    private static final FieldType[] BY_CODE = values();
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static FieldType of(byte code) {
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,154 @@
+package com.copybook.parser.decoder;
+
+import com.copybook.parser.codec.CodePage;
+import com.copybook.parser.config.LayoutGenerationRule;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.processor.RecordTypeDispatcher;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Decodes a file that mixes record types in one pass. The record-type rule compiles to a RecordTypeDispatcher
+// whose dense type ids index a table of RecordDecoders compiled once per record layout, so routing a record
+// costs one classification and an array load. With the multi_layout strategy separated by record_type each
+// type decodes with its own 01-level record (see LayoutGenerationRule.recordLayouts); otherwise every type
+// decodes with the copybook's first record. Immutable and thread-safe.
+public final class LayoutRouter {
+
+    private final RecordTypeDispatcher dispatcher;
+    // By type id; null for types no record layout was found for
+    private final RecordDecoder[] decoders;
+    private final String[] layoutNames;
+
+    private LayoutRouter(RecordTypeDispatcher dispatcher, RecordDecoder[] decoders, String[] layoutNames) {
+        this.dispatcher = dispatcher;
+        this.decoders = decoders;
+        this.layoutNames = layoutNames;
+    }
+
+    // Record layouts keyed by 01-level name, as returned by LayoutProcessor.recordLayouts
+    public static LayoutRouter compile(Map<String, RecordLayout> recordLayouts, ParsingRules rules) {
+        if (recordLayouts.isEmpty()) {
+            throw new IllegalArgumentException("No record layouts to route records to");
+        }
+        RecordTypeDispatcher dispatcher = RecordTypeDispatcher.forRules(rules,
+                CodePage.of(rules.getDataFormat().getEncoding()));
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Rule type " + rules.getRuleType() + " cannot be classified on raw bytes");
+        }
+
+        LayoutGenerationRule options = rules.getLayoutGeneration();
+        boolean byRecordType = options != null
+                && "multi_layout".equalsIgnoreCase(options.getStrategy())
+                && "record_type".equalsIgnoreCase(options.getSeparateBy());
+        Map<String, String> explicit = byRecordType && options.getRecordLayouts() != null
+                ? options.getRecordLayouts()
+                : Map.of();
+        Set<String> typeNames = new HashSet<>();
+        for (int typeId = 0; typeId < dispatcher.getTypeCount(); typeId++) {
+            typeNames.add(dispatcher.getTypeName(typeId));
+        }
+        explicit.forEach((type, layoutName) -> {
+            if (!typeNames.contains(type)) {
+                throw new IllegalArgumentException("recordLayouts names unknown record type " + type
+                        + " (rule types: " + typeNames + ")");
+            }
+            if (!recordLayouts.containsKey(layoutName)) {
+                throw new IllegalArgumentException("recordLayouts maps " + type + " to unknown record " + layoutName
+                        + " (records: " + recordLayouts.keySet() + ")");
+            }
+        });
+
+        String first = recordLayouts.keySet().iterator().next();
+        RecordDecoder[] decoders = new RecordDecoder[dispatcher.getTypeCount()];
+        String[] layoutNames = new String[dispatcher.getTypeCount()];
+        // Types sharing a record share its decoder
+        Map<String, RecordDecoder> compiled = new HashMap<>();
+        for (int typeId = 0; typeId < decoders.length; typeId++) {
+            String type = dispatcher.getTypeName(typeId);
+            String layoutName = byRecordType ? layoutFor(type, explicit, recordLayouts) : first;
+            if (layoutName != null) {
+                layoutNames[typeId] = layoutName;
+                decoders[typeId] = compiled.computeIfAbsent(layoutName,
+                        name -> RecordDecoder.compile(recordLayouts.get(name), rules));
+            }
+        }
+        return new LayoutRouter(dispatcher, decoders, layoutNames);
+    }
+
+    private static String layoutFor(String type, Map<String, String> explicit, Map<String, RecordLayout> recordLayouts) {
+        String mapped = explicit.get(type);
+        if (mapped != null) {
+            return mapped;
+        }
+        String named = null;
+        int namedCount = 0;
+        for (String layoutName : recordLayouts.keySet()) {
+            if (layoutName.equalsIgnoreCase(type)) {
+                return layoutName;
+            }
+            for (String word : layoutName.split("-")) {
+                if (word.equalsIgnoreCase(type)) {
+                    named = layoutName;
+                    namedCount++;
+                    break;
+                }
+            }
+        }
+        if (namedCount == 1) {
+            return named;
+        }
+        // A copybook with a single record decodes every type with it
+        return recordLayouts.size() == 1 ? recordLayouts.keySet().iterator().next() : null;
+    }
+
+    public RecordTypeDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    public int getTypeCount() {
+        return decoders.length;
+    }
+
+    public String getTypeName(int typeId) {
+        return dispatcher.getTypeName(typeId);
+    }
+
+    // 01-level record decoding the type, or null when records of the type are not decoded
+    public String getLayoutName(int typeId) {
+        return layoutNames[typeId];
+    }
+
+    public RecordDecoder getDecoder(int typeId) {
+        return decoders[typeId];
+    }
+
+    // Type id of the record between position and limit; records no rule matches get the default type, as in
+    // RecordTypeProcessor
+    public int classify(ByteBuffer record) {
+        int typeId = dispatcher.classify(record);
+        return typeId == RecordTypeDispatcher.UNRECOGNIZED ? dispatcher.getDefaultTypeId() : typeId;
+    }
+
+    // Decoder for the record, or null when its type has no layout
+    public RecordDecoder route(ByteBuffer record) {
+        return decoders[classify(record)];
+    }
+
+    // Type names whose records are not decoded
+    public List<String> getUnroutedTypes() {
+        List<String> unrouted = new ArrayList<>();
+        for (int typeId = 0; typeId < decoders.length; typeId++) {
+            if (decoders[typeId] == null) {
+                unrouted.add(dispatcher.getTypeName(typeId));
+            }
+        }
+        return unrouted;
+    }
+}
@@ -0,0 +1,191 @@
+package com.copybook.parser.decoder;
+
+import com.copybook.parser.model.CompactLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Requested fields of a projected decode plan. A path names a field or group, qualified as far as needed to
+// make it unique by ancestor names joined with the hierarchySeparator (AMOUNT, LINE-ITEM.AMOUNT,
+// ORDER-REC.LINE-ITEM.AMOUNT); intermediate levels may be left out, as with COBOL's OF qualification. One-based
+// subscripts pick OCCURS elements (LINE-ITEM(2).AMOUNT, or AMOUNT(2) with the enclosing subscripts); without
+// them every element is selected.
+final class Projection {
+
+    private static final Pattern SEGMENT = Pattern.compile("\\s*([A-Za-z0-9_-]+)\\s*(?:\\(([0-9,\\s]+)\\))?\\s*");
+
+    // One requested path: the field it resolved to and a zero-based element index per OCCURS dimension of that
+    // field, -1 where every element is wanted
+    private record Selection(String path, int field, int[] elements) {
+    }
+
+    private record Segment(String name, int[] subscripts) {
+    }
+
+    private final CompactLayout layout;
+    private final List<Selection> selections = new ArrayList<>();
+    private final boolean[] emitted;
+
+    private Projection(CompactLayout layout, int count) {
+        this.layout = layout;
+        this.emitted = new boolean[count];
+    }
+
+    static Projection resolve(CompactLayout layout, Collection<String> paths, String separator) {
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("A projection needs at least one field");
+        }
+        Pattern split = Pattern.compile(Pattern.quote(separator != null && !separator.isEmpty() ? separator : "."));
+        Projection projection = new Projection(layout, paths.size());
+        for (String path : paths) {
+            List<Segment> segments = new ArrayList<>();
+            for (String text : split.split(path, -1)) {
+                var matcher = SEGMENT.matcher(text);
+                if (!matcher.matches()) {
+                    throw new IllegalArgumentException("Invalid field path " + path);
+                }
+                segments.add(new Segment(matcher.group(1), subscripts(path, matcher.group(2))));
+            }
+            projection.selections.add(projection.select(path, segments));
+        }
+        return projection;
+    }
+
+    private static int[] subscripts(String path, String text) {
+        if (text == null) {
+            return new int[0];
+        }
+        String[] parts = text.split(",");
+        int[] subscripts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i].trim();
+            if (part.isEmpty() || (subscripts[i] = Integer.parseInt(part)) < 1) {
+                throw new IllegalArgumentException("Invalid subscript in " + path + " (subscripts start at 1)");
+            }
+        }
+        return subscripts;
+    }
+
+    private Selection select(String path, List<Segment> segments) {
+        Segment last = segments.get(segments.size() - 1);
+        int found = -1;
+        int[] foundMatch = null;
+        for (int field = 0; field < layout.getFieldCount(); field++) {
+            if (layout.is(field, CompactLayout.CONDITION | CompactLayout.RENAMES)
+                    || !last.name().equalsIgnoreCase(layout.getName(field))) {
+                continue;
+            }
+            int[] match = match(field, segments);
+            if (match == null) {
+                continue;
+            }
+            if (found >= 0) {
+                throw new IllegalArgumentException("Field path " + path + " is ambiguous in " + layout.getLayoutName()
+                        + "; qualify it with a group name");
+            }
+            found = field;
+            foundMatch = match;
+        }
+        if (found < 0) {
+            throw new IllegalArgumentException("No field " + path + " in " + layout.getLayoutName());
+        }
+
+        int[] elements = new int[layout.getDimensions(found)];
+        Arrays.fill(elements, -1);
+        for (int s = 0; s < segments.size(); s++) {
+            int field = foundMatch[s];
+            int[] subscripts = segments.get(s).subscripts();
+            int dimensions = layout.getDimensions(field);
+            if (subscripts.length > dimensions) {
+                throw new IllegalArgumentException(path + " has " + subscripts.length + " subscripts for "
+                        + layout.getName(field) + ", which has " + dimensions + " OCCURS dimensions");
+            }
+            // Subscripts apply to the innermost dimensions of the field they follow
+            for (int k = 0; k < subscripts.length; k++) {
+                int dimension = dimensions - subscripts.length + k;
+                if (subscripts[k] > layout.getDimensionCount(field, dimension)) {
+                    throw new IllegalArgumentException("Subscript " + subscripts[k] + " in " + path + " exceeds OCCURS "
+                            + layout.getDimensionCount(field, dimension));
+                }
+                elements[dimension] = subscripts[k] - 1;
+            }
+        }
+        return new Selection(path, found, elements);
+    }
+
+    // The field matched by each segment, when the earlier segments name ancestors of field in order
+    private int[] match(int field, List<Segment> segments) {
+        int[] match = new int[segments.size()];
+        match[segments.size() - 1] = field;
+        int ancestor = layout.getParent(field);
+        for (int s = segments.size() - 2; s >= 0; s--) {
+            while (ancestor >= 0 && !segments.get(s).name().equalsIgnoreCase(layout.getName(ancestor))) {
+                ancestor = layout.getParent(ancestor);
+            }
+            if (ancestor < 0) {
+                return null;
+            }
+            match[s] = ancestor;
+            ancestor = layout.getParent(ancestor);
+        }
+        return match;
+    }
+
+    // True when the element of field at indices is selected itself or lies inside a selected field
+    boolean covers(int field, int[] indices) {
+        boolean covered = false;
+        for (int i = 0; i < selections.size(); i++) {
+            Selection selection = selections.get(i);
+            if (isAncestorOrSelf(selection.field(), field) && elementsMatch(selection.elements(), indices)) {
+                emitted[i] = true;
+                covered = true;
+            }
+        }
+        return covered;
+    }
+
+    // True when the walk has to enter the element of field at indices to reach a selected field
+    boolean isRelevant(int field, int[] indices) {
+        for (Selection selection : selections) {
+            if ((isAncestorOrSelf(selection.field(), field) || isAncestorOrSelf(field, selection.field()))
+                    && elementsMatch(selection.elements(), indices)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Paths that ended up selecting no decodable field, e.g. only fillers or OCCURS elements not expanded
+    List<String> unmatchedPaths() {
+        List<String> unmatched = new ArrayList<>();
+        for (int i = 0; i < selections.size(); i++) {
+            if (!emitted[i]) {
+                unmatched.add(selections.get(i).path());
+            }
+        }
+        return unmatched;
+    }
+
+    private boolean isAncestorOrSelf(int ancestor, int field) {
+        for (int f = field; f >= 0; f = layout.getParent(f)) {
+            if (f == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Compares the dimensions both know about; indices of an enclosing group cover fewer dimensions
+    private static boolean elementsMatch(int[] elements, int[] indices) {
+        int dimensions = Math.min(elements.length, indices.length);
+        for (int d = 0; d < dimensions; d++) {
+            if (elements[d] >= 0 && elements[d] != indices[d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
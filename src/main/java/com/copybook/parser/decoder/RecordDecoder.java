@@ -0,0 +1,433 @@
+package com.copybook.parser.decoder;
+
+import com.copybook.parser.codec.BinaryCodec;
+import com.copybook.parser.codec.ByteTranscoder;
+import com.copybook.parser.codec.CodePage;
+import com.copybook.parser.codec.HexFloatCodec;
+import com.copybook.parser.codec.PackedDecimalCodec;
+import com.copybook.parser.codec.ZonedDecimalCodec;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.CompactLayout;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.util.PictureInfo;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A decode plan compiled once per layout. All per-field metadata lives in parallel primitive arrays so the
+// per-record path does no map lookups, regex or PICTURE parsing. Instances are immutable and thread-safe.
+public final class RecordDecoder {
+
+    private static final byte TEXT = 0;
+    private static final byte ZONED_DECIMAL = 1;
+    private static final byte PACKED_DECIMAL = 2;
+    private static final byte BINARY = 3;
+    private static final byte FLOAT = 4;
+    private static final byte DOUBLE = 5;
+
+    private final String layoutName;
+    private final int recordLength;
+    private final ByteTranscoder transcoder;
+    private final boolean hexFloat;
+    private final String[] names;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final byte[] typeCodes;
+    private final int[] digits;
+    private final int[] scales;
+    private final boolean[] signed;
+    private final boolean[] longValued;
+    // Zoned fields with SIGN SEPARATE: 0 = embedded sign, 1 = trailing sign byte, 2 = leading sign byte
+    private final byte[] separateSign;
+    // Byte ranges the plan reads, in offset order, with adjacent and overlapping field ranges merged
+    private final int[] rangeOffsets;
+    private final int[] rangeLengths;
+
+    private RecordDecoder(CompactLayout layout, ByteTranscoder transcoder, boolean hexFloat,
+                          List<Integer> fields, List<String> elementNames, List<Integer> elementOffsets,
+                          List<PictureInfo> pictures, List<FieldType> types) {
+        int count = fields.size();
+        this.layoutName = layout.getLayoutName();
+        this.recordLength = layout.getTotalLength();
+        this.transcoder = transcoder;
+        this.hexFloat = hexFloat;
+        this.names = new String[count];
+        this.offsets = new int[count];
+        this.lengths = new int[count];
+        this.typeCodes = new byte[count];
+        this.digits = new int[count];
+        this.scales = new int[count];
+        this.signed = new boolean[count];
+        this.longValued = new boolean[count];
+        this.separateSign = new byte[count];
+
+        for (int i = 0; i < count; i++) {
+            int field = fields.get(i);
+            PictureInfo picture = pictures.get(i);
+            FieldType type = types.get(i);
+            names[i] = elementNames.get(i);
+            offsets[i] = elementOffsets.get(i);
+            lengths[i] = layout.getLength(field);
+            typeCodes[i] = type.code();
+            scales[i] = picture.scale();
+            signed[i] = picture.signed();
+            if (type == FieldType.ZONED_DECIMAL && layout.is(field, CompactLayout.SIGN_SEPARATE) && picture.signed()) {
+                separateSign[i] = (byte) (layout.is(field, CompactLayout.SIGN_LEADING) ? 2 : 1);
+            }
+            digits[i] = switch (type) {
+                case PACKED_DECIMAL -> picture.digits() > 0 ? picture.digits() : lengths[i] * 2 - 1;
+                case ZONED_DECIMAL -> picture.digits() > 0 ? picture.digits() : lengths[i] - (separateSign[i] != 0 ? 1 : 0);
+                default -> picture.digits();
+            };
+            longValued[i] = switch (type) {
+                case ZONED_DECIMAL -> digits[i] <= ZonedDecimalCodec.MAX_LONG_DIGITS;
+                // A 10-byte field holds 19 digits; its long path checks the leading nibble of each value
+                case PACKED_DECIMAL -> lengths[i] <= PackedDecimalCodec.MAX_LONG_BYTES
+                        && digits[i] <= PackedDecimalCodec.MAX_LONG_DIGITS;
+                // Unsigned 8-byte binaries can exceed Long.MAX_VALUE
+                case BINARY -> lengths[i] < 8 || (lengths[i] == 8 && signed[i]);
+                default -> false;
+            };
+        }
+
+        // REDEFINES can put fields out of offset order
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> offsets[i]));
+        List<int[]> ranges = new ArrayList<>();
+        for (int i : order) {
+            int start = offsets[i];
+            int end = start + lengths[i];
+            int[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && start <= last[1]) {
+                last[1] = Math.max(last[1], end);
+            } else {
+                ranges.add(new int[] {start, end});
+            }
+        }
+        this.rangeOffsets = new int[ranges.size()];
+        this.rangeLengths = new int[ranges.size()];
+        for (int r = 0; r < ranges.size(); r++) {
+            rangeOffsets[r] = ranges.get(r)[0];
+            rangeLengths[r] = ranges.get(r)[1] - ranges.get(r)[0];
+        }
+    }
+
+    public static RecordDecoder compile(RecordLayout layout, ParsingRules rules) {
+        return compile(CompactLayout.of(layout), rules);
+    }
+
+    public static RecordDecoder compile(CompactLayout layout, ParsingRules rules) {
+        return compile(layout, rules, null);
+    }
+
+    // A plan that decodes only the named fields and groups (see Projection for the path syntax), in record
+    // order; other fields and OCCURS elements are never visited, so a few columns of a wide record cost a few
+    // field decodes
+    public static RecordDecoder compile(RecordLayout layout, ParsingRules rules, Collection<String> fieldPaths) {
+        return compile(CompactLayout.of(layout), rules, fieldPaths);
+    }
+
+    public static RecordDecoder compile(CompactLayout layout, ParsingRules rules, Collection<String> fieldPaths) {
+        Projection projection = fieldPaths != null
+                ? Projection.resolve(layout, fieldPaths, rules.getLayoutGeneration().getHierarchySeparator())
+                : null;
+        Compilation compilation = new Compilation(layout, rules, projection);
+        for (int root : layout.getRoots()) {
+            compilation.visit(root, new int[0]);
+        }
+        if (projection != null && !projection.unmatchedPaths().isEmpty()) {
+            throw new IllegalArgumentException("No decodable fields selected by " + projection.unmatchedPaths()
+                    + " (fillers, conditions or OCCURS elements beyond the expansion limit)");
+        }
+
+        CodePage codePage = CodePage.of(rules.getDataFormat().getEncoding());
+        String floatFormat = rules.getDataFormat().getFloatFormat();
+        boolean hexFloat = floatFormat == null ? codePage.isEbcdic() : "ibm_hex".equalsIgnoreCase(floatFormat);
+
+        return new RecordDecoder(layout, ByteTranscoder.forCodePage(codePage), hexFloat, compilation.fields,
+                compilation.names, compilation.offsets, compilation.pictures, compilation.types);
+    }
+
+    // Walks the field tree in record order, emitting one decode slot per elementary field and, when OCCURS
+    // expansion is enabled, per table element (named with one-based COBOL subscripts)
+    private static final class Compilation {
+
+        private final CompactLayout layout;
+        private final Map<String, String> usageMappings;
+        private final boolean includeFillers;
+        private final boolean expandOccurs;
+        private final Integer maxOccurs;
+        // null when every field is decoded
+        private final Projection projection;
+
+        private final List<Integer> fields = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<Integer> offsets = new ArrayList<>();
+        private final List<PictureInfo> pictures = new ArrayList<>();
+        private final List<FieldType> types = new ArrayList<>();
+
+        Compilation(CompactLayout layout, ParsingRules rules, Projection projection) {
+            this.layout = layout;
+            this.projection = projection;
+            this.usageMappings = rules.getFieldProcessing().getUsageMappings();
+            this.includeFillers = rules.getFieldProcessing().isIncludeFillers();
+            String occursStrategy = rules.getFieldProcessing().getOccursStrategy();
+            this.expandOccurs = rules.getFieldProcessing().isOccursExpansion()
+                    && (occursStrategy == null || "expand".equalsIgnoreCase(occursStrategy));
+            this.maxOccurs = rules.getFieldProcessing().getMaxOccursExpansion();
+        }
+
+        void visit(int field, int[] indices) {
+            if (layout.is(field, CompactLayout.CONDITION | CompactLayout.RENAMES)) {
+                return;
+            }
+            if (!layout.is(field, CompactLayout.OCCURS)) {
+                if (projection == null || projection.isRelevant(field, indices)) {
+                    visitOccurrence(field, indices);
+                }
+                return;
+            }
+            int occurs = layout.getOccurs(field);
+            int count = !expandOccurs ? 1 : maxOccurs != null ? Math.min(occurs, maxOccurs) : occurs;
+            for (int k = 0; k < count; k++) {
+                int[] element = Arrays.copyOf(indices, indices.length + 1);
+                element[indices.length] = k;
+                if (projection == null || projection.isRelevant(field, element)) {
+                    visitOccurrence(field, element);
+                }
+            }
+        }
+
+        private void visitOccurrence(int field, int[] indices) {
+            if (layout.is(field, CompactLayout.GROUP)) {
+                for (int child = layout.getFirstChild(field); child >= 0; child = layout.getNextSibling(child)) {
+                    visit(child, indices);
+                }
+                return;
+            }
+            if (layout.getLength(field) <= 0 || (layout.is(field, CompactLayout.FILLER) && !includeFillers)
+                    || (projection != null && !projection.covers(field, indices))) {
+                return;
+            }
+            PictureInfo picture = PictureInfo.parse(layout.getPicture(field));
+            String name = layout.getName(field);
+            fields.add(field);
+            names.add(expandOccurs && indices.length > 0 ? subscripted(name, indices) : name);
+            offsets.add(layout.offsetOf(field, indices));
+            pictures.add(picture);
+            types.add(resolveType(layout.getUsage(field), picture, usageMappings));
+        }
+
+        private static String subscripted(String name, int[] indices) {
+            StringBuilder subscripted = new StringBuilder(name.length() + 4 * indices.length).append(name).append('(');
+            for (int d = 0; d < indices.length; d++) {
+                if (d > 0) {
+                    subscripted.append(',');
+                }
+                subscripted.append(indices[d] + 1);
+            }
+            return subscripted.append(')').toString();
+        }
+    }
+
+    static FieldType resolveType(String fieldUsage, PictureInfo picture, Map<String, String> usageMappings) {
+        String usage = fieldUsage != null ? fieldUsage : "DISPLAY";
+        String mapped = usageMappings != null ? usageMappings.getOrDefault(usage, "character") : "character";
+
+        return switch (mapped) {
+            case "packed_decimal" -> FieldType.PACKED_DECIMAL;
+            case "binary", "native_binary" -> FieldType.BINARY;
+            case "float" -> FieldType.FLOAT;
+            case "double" -> FieldType.DOUBLE;
+            default -> picture.isNumeric() ? FieldType.ZONED_DECIMAL : FieldType.TEXT;
+        };
+    }
+
+    public String getLayoutName() {
+        return layoutName;
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    public int getFieldCount() {
+        return names.length;
+    }
+
+    public String getFieldName(int field) {
+        return names[field];
+    }
+
+    // Byte ranges the plan reads; a projection reads only those of its selected fields
+    public int getRangeCount() {
+        return rangeOffsets.length;
+    }
+
+    public int getRangeOffset(int range) {
+        return rangeOffsets[range];
+    }
+
+    public int getRangeLength(int range) {
+        return rangeLengths[range];
+    }
+
+    public FieldType getFieldType(int field) {
+        return FieldType.of(typeCodes[field]);
+    }
+
+    public int getOffset(int field) {
+        return offsets[field];
+    }
+
+    public int getLength(int field) {
+        return lengths[field];
+    }
+
+    public int getScale(int field) {
+        return scales[field];
+    }
+
+    public int getDigits(int field) {
+        return digits[field];
+    }
+
+    public boolean isSigned(int field) {
+        return signed[field];
+    }
+
+    // COMP-1/COMP-2 fields hold IBM hexadecimal floating point rather than IEEE 754
+    public boolean isHexFloat() {
+        return hexFloat;
+    }
+
+    public int indexOf(String fieldName) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(fieldName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public Object[] decode(byte[] record) {
+        return decode(ByteBuffer.wrap(record));
+    }
+
+    public Object[] decode(ByteBuffer record) {
+        Object[] values = new Object[names.length];
+        decode(record, values);
+        return values;
+    }
+
+    // Decodes every field into a caller-supplied array; fields beyond the end of a short record decode to null
+    public void decode(ByteBuffer record, Object[] values) {
+        for (int i = 0; i < names.length; i++) {
+            values[i] = decodeField(record, i);
+        }
+    }
+
+    public Map<String, Object> decodeToMap(ByteBuffer record) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            values.put(names[i], decodeField(record, i));
+        }
+        return values;
+    }
+
+    public Object decodeField(ByteBuffer record, int field) {
+        int length = lengths[field];
+        if (offsets[field] + length > record.remaining()) {
+            return null;
+        }
+        int offset = record.position() + offsets[field];
+
+        return switch (typeCodes[field]) {
+            case TEXT -> transcoder.decode(record, offset, length);
+            case ZONED_DECIMAL, PACKED_DECIMAL, BINARY -> longValued[field]
+                    && (typeCodes[field] != PACKED_DECIMAL || PackedDecimalCodec.fitsLong(record, offset, length))
+                    ? scaled(decodeUnscaled(record, offset, length, field), scales[field])
+                    : decodeWide(record, offset, length, field);
+            case FLOAT -> hexFloat
+                    ? (float) HexFloatCodec.decodeShort(record, offset)
+                    : Float.intBitsToFloat((int) BinaryCodec.decodeLong(record, offset, 4, false));
+            case DOUBLE -> hexFloat
+                    ? HexFloatCodec.decodeLong(record, offset)
+                    : Double.longBitsToDouble(BinaryCodec.decodeLong(record, offset, 8, false));
+            default -> throw new IllegalStateException("Unknown type code " + typeCodes[field]);
+        };
+    }
+
+    public ByteTranscoder getTranscoder() {
+        return transcoder;
+    }
+
+    // True when the record is long enough to hold the field
+    public boolean isPresent(ByteBuffer record, int field) {
+        return offsets[field] + lengths[field] <= record.remaining();
+    }
+
+    // Allocation-free access to a FLOAT or DOUBLE field
+    public double decodeDouble(ByteBuffer record, int field) {
+        int offset = record.position() + offsets[field];
+        return switch (typeCodes[field]) {
+            case FLOAT -> hexFloat
+                    ? (float) HexFloatCodec.decodeShort(record, offset)
+                    : Float.intBitsToFloat((int) BinaryCodec.decodeLong(record, offset, 4, false));
+            case DOUBLE -> hexFloat
+                    ? HexFloatCodec.decodeLong(record, offset)
+                    : Double.longBitsToDouble(BinaryCodec.decodeLong(record, offset, 8, false));
+            default -> throw new IllegalStateException(names[field] + " is not a floating-point field");
+        };
+    }
+
+    // True when decodeLong can return the field's unscaled value without overflow
+    public boolean isLongValued(int field) {
+        return longValued[field];
+    }
+
+    // Allocation-free access to a numeric field: the unscaled value, to be read together with getScale(field)
+    public long decodeLong(ByteBuffer record, int field) {
+        if (!longValued[field]) {
+            throw new ArithmeticException(names[field] + " does not fit in a long");
+        }
+        return decodeUnscaled(record, record.position() + offsets[field], lengths[field], field);
+    }
+
+    private long decodeUnscaled(ByteBuffer record, int offset, int length, int field) {
+        return switch (typeCodes[field]) {
+            case ZONED_DECIMAL -> separateSign[field] == 0
+                    ? ZonedDecimalCodec.decodeLong(record, offset, length)
+                    : ZonedDecimalCodec.decodeLongSeparateSign(record, offset, length, separateSign[field] == 2);
+            case PACKED_DECIMAL -> PackedDecimalCodec.decodeLong(record, offset, length);
+            case BINARY -> BinaryCodec.decodeLong(record, offset, length, signed[field]);
+            default -> throw new IllegalStateException(names[field] + " is not a numeric field");
+        };
+    }
+
+    private BigDecimal decodeWide(ByteBuffer record, int offset, int length, int field) {
+        return switch (typeCodes[field]) {
+            case ZONED_DECIMAL -> separateSign[field] == 0
+                    ? ZonedDecimalCodec.decodeBigDecimal(record, offset, length, scales[field])
+                    : ZonedDecimalCodec.decodeBigDecimalSeparateSign(record, offset, length, scales[field],
+                    separateSign[field] == 2);
+            case PACKED_DECIMAL -> PackedDecimalCodec.decodeBigDecimal(record, offset, length, scales[field]);
+            case BINARY -> BinaryCodec.decodeBigDecimal(record, offset, length, signed[field], scales[field]);
+            default -> throw new IllegalStateException(names[field] + " is not a numeric field");
+        };
+    }
+
+    private static Object scaled(long unscaled, int scale) {
+        return scale == 0 ? (Object) unscaled : BigDecimal.valueOf(unscaled, scale);
+    }
+}
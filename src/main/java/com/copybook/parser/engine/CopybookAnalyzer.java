@@ -1,5 +1,6 @@
 package com.copybook.parser.engine;
 
+import com.copybook.parser.cache.LayoutCache;
 import com.copybook.parser.config.ParsingRules;
 import com.copybook.parser.model.RecordLayout;
 import com.copybook.parser.processor.LayoutProcessor;
@@ -14,8 +15,11 @@ public class CopybookAnalyzer {
     @Autowired
     private LayoutProcessor layoutProcessor;
 
+    @Autowired
+    private LayoutCache layoutCache;
+
     public RecordLayout analyze(List<String> copybookLines, ParsingRules rules) {
-        // Process the copybook lines into a RecordLayout
-        return layoutProcessor.processLayout(copybookLines, rules);
+        // Process the copybook lines into a RecordLayout, reusing a cached parse of identical input
+        return layoutCache.get(copybookLines, rules, () -> layoutProcessor.processLayout(copybookLines, rules));
     }
 }
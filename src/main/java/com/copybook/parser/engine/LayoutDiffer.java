@@ -0,0 +1,153 @@
+package com.copybook.parser.engine;
+
+import com.copybook.parser.model.CobolField;
+import com.copybook.parser.model.LayoutDiff;
+import com.copybook.parser.model.LayoutDiff.Change;
+import com.copybook.parser.model.RecordLayout;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Structural differences between two versions of a copybook's record layouts. Fields are matched by their
+// qualified path rather than by position, so inserting a field reports one FIELD_ADDED plus an OFFSET_MOVED
+// for each field behind it instead of a change to every later entry.
+public final class LayoutDiffer {
+
+    private LayoutDiffer() {
+    }
+
+    // Layouts keyed by record name, as returned by LayoutProcessor.recordLayouts
+    public static List<LayoutDiff> diff(String member, Map<String, RecordLayout> before, Map<String, RecordLayout> after) {
+        List<LayoutDiff> diffs = new ArrayList<>();
+        for (Map.Entry<String, RecordLayout> entry : before.entrySet()) {
+            if (!after.containsKey(entry.getKey())) {
+                diffs.add(layoutChange(member, entry.getKey(), Change.LAYOUT_REMOVED));
+            }
+        }
+        for (Map.Entry<String, RecordLayout> entry : after.entrySet()) {
+            RecordLayout previous = before.get(entry.getKey());
+            if (previous == null) {
+                diffs.add(layoutChange(member, entry.getKey(), Change.LAYOUT_ADDED));
+            } else {
+                diffs.addAll(diff(member, entry.getKey(), previous, entry.getValue()));
+            }
+        }
+        return diffs;
+    }
+
+    public static List<LayoutDiff> diff(String member, String layoutName, RecordLayout before, RecordLayout after) {
+        List<LayoutDiff> diffs = new ArrayList<>();
+        if (before.getTotalLength() != after.getTotalLength()) {
+            diffs.add(LayoutDiff.builder()
+                    .member(member)
+                    .layoutName(layoutName)
+                    .change(Change.RECORD_LENGTH_CHANGED)
+                    .oldValue(Integer.toString(before.getTotalLength()))
+                    .newValue(Integer.toString(after.getTotalLength()))
+                    .build());
+        }
+
+        Map<String, CobolField> oldFields = byPath(before);
+        Map<String, CobolField> newFields = byPath(after);
+        for (String path : oldFields.keySet()) {
+            if (!newFields.containsKey(path)) {
+                diffs.add(fieldChange(member, layoutName, path, Change.FIELD_REMOVED, null, null));
+            }
+        }
+        for (Map.Entry<String, CobolField> entry : newFields.entrySet()) {
+            String path = entry.getKey();
+            CobolField field = entry.getValue();
+            CobolField previous = oldFields.get(path);
+            if (previous == null) {
+                diffs.add(fieldChange(member, layoutName, path, Change.FIELD_ADDED, null, describe(field)));
+                continue;
+            }
+            compare(diffs, member, layoutName, path, Change.OFFSET_MOVED,
+                    Integer.toString(previous.getStartPosition()), Integer.toString(field.getStartPosition()));
+            compare(diffs, member, layoutName, path, Change.LENGTH_CHANGED,
+                    Integer.toString(previous.getLength()), Integer.toString(field.getLength()));
+            compare(diffs, member, layoutName, path, Change.PICTURE_CHANGED, previous.getPicture(), field.getPicture());
+            compare(diffs, member, layoutName, path, Change.USAGE_CHANGED, previous.getUsage(), field.getUsage());
+            compare(diffs, member, layoutName, path, Change.OCCURS_CHANGED, occurs(previous), occurs(field));
+            compare(diffs, member, layoutName, path, Change.REDEFINES_CHANGED, previous.getRedefines(), field.getRedefines());
+            compare(diffs, member, layoutName, path, Change.VALUE_CHANGED, previous.getValue(), field.getValue());
+        }
+        return diffs;
+    }
+
+    private static void compare(List<LayoutDiff> diffs, String member, String layoutName, String path, Change change,
+                                String before, String after) {
+        if (!Objects.equals(before, after)) {
+            diffs.add(fieldChange(member, layoutName, path, change, before, after));
+        }
+    }
+
+    // Qualified name -> field, in source order
+    private static Map<String, CobolField> byPath(RecordLayout layout) {
+        Map<String, CobolField> fields = new LinkedHashMap<>();
+        if (layout.getFields() == null) {
+            return fields;
+        }
+        for (CobolField field : layout.getFields()) {
+            String path = path(field);
+            String key = path;
+            for (int n = 2; fields.containsKey(key); n++) {
+                key = path + "#" + n;
+            }
+            fields.put(key, field);
+        }
+        return fields;
+    }
+
+    private static String path(CobolField field) {
+        StringBuilder path = new StringBuilder(name(field));
+        for (CobolField parent = field.getParent(); parent != null; parent = parent.getParent()) {
+            path.insert(0, '.').insert(0, name(parent));
+        }
+        return path.toString();
+    }
+
+    private static String name(CobolField field) {
+        return field.getName() != null ? field.getName() : "FILLER";
+    }
+
+    private static String occurs(CobolField field) {
+        if (field.getOccurs() == null) {
+            return null;
+        }
+        String occurs = field.getOccursMin() != null && !field.getOccursMin().equals(field.getOccurs())
+                ? field.getOccursMin() + " TO " + field.getOccurs()
+                : field.getOccurs().toString();
+        return field.getDependingOn() != null ? occurs + " DEPENDING ON " + field.getDependingOn() : occurs;
+    }
+
+    private static String describe(CobolField field) {
+        StringBuilder text = new StringBuilder().append(field.getLevel());
+        if (field.getPicture() != null) {
+            text.append(" PIC ").append(field.getPicture());
+        }
+        if (field.getUsage() != null) {
+            text.append(' ').append(field.getUsage());
+        }
+        return text.append(" @").append(field.getStartPosition()).append(" len ").append(field.getLength()).toString();
+    }
+
+    private static LayoutDiff layoutChange(String member, String layoutName, Change change) {
+        return LayoutDiff.builder().member(member).layoutName(layoutName).change(change).build();
+    }
+
+    private static LayoutDiff fieldChange(String member, String layoutName, String field, Change change,
+                                          String before, String after) {
+        return LayoutDiff.builder()
+                .member(member)
+                .layoutName(layoutName)
+                .change(change)
+                .field(field)
+                .oldValue(before)
+                .newValue(after)
+                .build();
+    }
+}
@@ -0,0 +1,237 @@
+package com.copybook.parser.engine;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.LibraryAnalysis;
+import com.copybook.parser.model.ParseResult;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.processor.LayoutProcessor;
+import com.copybook.parser.util.CopybookReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Parses every member of a copybook library - a directory tree or a .zip/.jar archive - on a bounded pool of
+// workers. Members are parsed through CopybookAnalyzer, so identical members and later runs hit the layout
+// cache. A member that cannot be read or parsed yields a failed ParseResult; the rest of the library goes on.
+@Component
+@Slf4j
+public class LibraryAnalyzer {
+
+    @Autowired
+    private CopybookAnalyzer copybookAnalyzer;
+
+    @Autowired
+    private LayoutProcessor layoutProcessor;
+
+    // 0 means one worker per available processor
+    @Value("${copybook.parser.library.parallelism:0}")
+    private int parallelism;
+
+    @Value("${copybook.parser.library.extensions:cpy,cbl,cob,copy}")
+    private List<String> extensions;
+
+    // Members downloaded from a PDS usually have no extension
+    @Value("${copybook.parser.library.include-extensionless:true}")
+    private boolean includeExtensionless;
+
+    @Value("${copybook.parser.max-file-size:10MB}")
+    private DataSize maxMemberSize;
+
+    public LibraryAnalysis analyze(Path library, ParsingRules rules) throws IOException {
+        if (Files.isDirectory(library)) {
+            return analyze(library, new DirectoryMembers(library), rules);
+        }
+        String fileName = library.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (Files.isRegularFile(library) && (fileName.endsWith(".zip") || fileName.endsWith(".jar"))) {
+            try (ZipFile archive = new ZipFile(library.toFile())) {
+                return analyze(library, new ArchiveMembers(archive), rules);
+            }
+        }
+        throw new IllegalArgumentException("Copybook library must be a directory or a .zip/.jar archive: " + library);
+    }
+
+    private LibraryAnalysis analyze(Path library, Members source, ParsingRules rules) throws IOException {
+        List<String> members = source.names().stream()
+                .filter(this::isCopybook)
+                .sorted()
+                .toList();
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        log.info("Parsing {} copybook members of {} on {} workers", members.size(), library, workers);
+
+        long start = System.nanoTime();
+        List<ParseResult> results = new ArrayList<>(members.size());
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            List<Future<ParseResult>> futures = new ArrayList<>(members.size());
+            for (String member : members) {
+                futures.add(pool.submit(() -> parseMember(source, member, rules)));
+            }
+            for (Future<ParseResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing " + library, e);
+        } catch (ExecutionException e) {
+            // parseMember reports member failures in its result, so only errors end up here
+            throw new IllegalStateException("Parsing " + library + " failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        long wallTimeMs = (System.nanoTime() - start) / 1_000_000;
+
+        return summarize(library, workers, wallTimeMs, results);
+    }
+
+    // One member of a library directory, e.g. after the file changed
+    ParseResult parseMember(Path library, String member, ParsingRules rules) {
+        return parseMember(new DirectoryMembers(library), member, rules);
+    }
+
+    private ParseResult parseMember(Members source, String member, ParsingRules rules) {
+        long start = System.nanoTime();
+        try {
+            byte[] content = source.read(member, maxMemberSize.toBytes());
+            List<String> lines = CopybookReader.readLines(content, rules.getDataFormat().getCopybookEncoding());
+            RecordLayout layout = copybookAnalyzer.analyze(lines, rules);
+            Map<String, RecordLayout> layouts = layoutProcessor.recordLayouts(layout);
+            return ParseResult.builder()
+                    .success(true)
+                    .copybookName(member)
+                    .recordLayouts(layouts)
+                    .totalFields(layout.getFieldCount())
+                    .totalRecordTypes(layouts.size())
+                    .processingMethod("library")
+                    .processingTimeMs((System.nanoTime() - start) / 1_000_000)
+                    .build();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to parse member {}: {}", member, e.getMessage());
+            return ParseResult.builder()
+                    .success(false)
+                    .copybookName(member)
+                    .processingMethod("library")
+                    .processingTimeMs((System.nanoTime() - start) / 1_000_000)
+                    .errorMessage(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName())
+                    .customMetadata(Map.of("errorType", e.getClass().getSimpleName()))
+                    .build();
+        }
+    }
+
+    private static LibraryAnalysis summarize(Path library, int workers, long wallTimeMs, List<ParseResult> results) {
+        int succeeded = 0;
+        int totalLayouts = 0;
+        long totalParseTimeMs = 0;
+        ParseResult slowest = null;
+        Map<String, Integer> failuresByType = new TreeMap<>();
+        for (ParseResult result : results) {
+            totalParseTimeMs += result.getProcessingTimeMs();
+            if (slowest == null || result.getProcessingTimeMs() > slowest.getProcessingTimeMs()) {
+                slowest = result;
+            }
+            if (result.isSuccess()) {
+                succeeded++;
+                totalLayouts += result.getTotalRecordTypes();
+            } else {
+                failuresByType.merge((String) result.getCustomMetadata().get("errorType"), 1, Integer::sum);
+            }
+        }
+        return LibraryAnalysis.builder()
+                .library(library.toString())
+                .parallelism(workers)
+                .members(results.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .totalLayouts(totalLayouts)
+                .wallTimeMs(wallTimeMs)
+                .totalParseTimeMs(totalParseTimeMs)
+                .maxParseTimeMs(slowest != null ? slowest.getProcessingTimeMs() : 0)
+                .slowestMember(slowest != null ? slowest.getCopybookName() : null)
+                .membersPerSecond(wallTimeMs > 0 ? results.size() * 1000.0 / wallTimeMs : results.size())
+                .failuresByType(failuresByType)
+                .results(results)
+                .build();
+    }
+
+    boolean isCopybook(String member) {
+        String name = member.substring(member.lastIndexOf('/') + 1);
+        if (name.startsWith(".")) {
+            return false;
+        }
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+            return includeExtensionless;
+        }
+        String extension = name.substring(dot + 1);
+        return extensions.stream().anyMatch(extension::equalsIgnoreCase);
+    }
+
+    // Member names use '/' separators, relative to the library root
+    private interface Members {
+        List<String> names() throws IOException;
+
+        byte[] read(String member, long maxSize) throws IOException;
+    }
+
+    private record DirectoryMembers(Path root) implements Members {
+
+        @Override
+        public List<String> names() throws IOException {
+            try (Stream<Path> files = Files.walk(root)) {
+                return files.filter(Files::isRegularFile)
+                        .map(file -> root.relativize(file).toString().replace('\\', '/'))
+                        .toList();
+            }
+        }
+
+        @Override
+        public byte[] read(String member, long maxSize) throws IOException {
+            Path file = root.resolve(member);
+            if (Files.size(file) > maxSize) {
+                throw new IllegalArgumentException("Member exceeds " + maxSize + " bytes");
+            }
+            return Files.readAllBytes(file);
+        }
+    }
+
+    // ZipFile serves concurrent getInputStream calls
+    private record ArchiveMembers(ZipFile archive) implements Members {
+
+        @Override
+        public List<String> names() {
+            return archive.stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .map(ZipEntry::getName)
+                    .toList();
+        }
+
+        @Override
+        public byte[] read(String member, long maxSize) throws IOException {
+            ZipEntry entry = archive.getEntry(member);
+            try (InputStream input = archive.getInputStream(entry)) {
+                byte[] content = input.readNBytes((int) Math.min(maxSize, Integer.MAX_VALUE - 8) + 1);
+                if (content.length > maxSize) {
+                    throw new IllegalArgumentException("Member exceeds " + maxSize + " bytes");
+                }
+                return content;
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.copybook.parser.engine;
+
+import com.copybook.parser.cache.CopyMemberCache;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.LayoutDiff;
+import com.copybook.parser.model.LibraryAnalysis;
+import com.copybook.parser.model.LibraryChange;
+import com.copybook.parser.model.ParseResult;
+import com.copybook.parser.model.RecordLayout;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Keeps the parsed layouts of a copybook library directory current while its files are edited. After the
+// initial parse, a WatchService reports changed files; only the changed members and the members that COPY
+// them (from the copyMembers metadata LayoutProcessor records) are re-parsed, and a LibraryChange with the
+// resulting LayoutDiffs goes to the listener. Unaffected members keep their layouts and cache entries, and
+// unchanged COPY members come from CopyMemberCache already lexed.
+@Component
+@Slf4j
+public class LibraryWatcher implements DisposableBean {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Autowired
+    private LibraryAnalyzer libraryAnalyzer;
+
+    @Autowired
+    private CopyMemberCache copyMemberCache;
+
+    // Editors save through temporary files and renames; events are collected until the library is quiet this long
+    @Value("${copybook.parser.library.watch-debounce:200ms}")
+    private Duration debounce;
+
+    private final List<Watch> watches = new CopyOnWriteArrayList<>();
+
+    // Parses the library, then watches it until the returned Watch (or this component) is closed. COPY members
+    // resolve against the library itself when the rules name no copy libraries.
+    public Watch watch(Path library, ParsingRules rules, Consumer<LibraryChange> listener) throws IOException {
+        if (!Files.isDirectory(library)) {
+            throw new IllegalArgumentException("Only copybook library directories can be watched: " + library);
+        }
+        Path root = library.toAbsolutePath().normalize();
+        Watch watch = new Watch(root, withCopyLibrary(rules, root), listener);
+        watches.add(watch);
+        watch.start();
+        return watch;
+    }
+
+    @Override
+    public void destroy() {
+        for (Watch watch : watches) {
+            watch.close();
+        }
+    }
+
+    private static ParsingRules withCopyLibrary(ParsingRules rules, Path root) {
+        List<String> libraries = rules.getFieldProcessing().getCopyLibraries();
+        if (libraries != null && !libraries.isEmpty()) {
+            return rules;
+        }
+        ParsingRules copy = MAPPER.convertValue(rules, ParsingRules.class);
+        copy.getFieldProcessing().setCopyLibraries(List.of(root.toString()));
+        return copy;
+    }
+
+    // Last parse of one member: its last good layouts, the files they were expanded from, and the current error
+    private record MemberState(Map<String, RecordLayout> layouts, Set<Path> copied, String error) {
+    }
+
+    public final class Watch implements Closeable {
+
+        private final Path root;
+        private final ParsingRules rules;
+        private final Consumer<LibraryChange> listener;
+        private final Map<String, MemberState> members = new TreeMap<>();
+        private WatchService service;
+        private Thread thread;
+        private LibraryAnalysis analysis;
+        private volatile boolean closed;
+
+        private Watch(Path root, ParsingRules rules, Consumer<LibraryChange> listener) {
+            this.root = root;
+            this.rules = rules;
+            this.listener = listener;
+        }
+
+        private void start() throws IOException {
+            // Registered before the initial parse so edits made meanwhile are not lost
+            service = FileSystems.getDefault().newWatchService();
+            registerTree(root);
+            analysis = libraryAnalyzer.analyze(root, rules);
+            synchronized (this) {
+                for (ParseResult result : analysis.getResults()) {
+                    members.put(result.getCopybookName(), state(result, null));
+                }
+            }
+            thread = Thread.ofPlatform().name("copybook-watch-" + root.getFileName()).start(this::run);
+            log.info("Watching {} ({} members)", root, analysis.getMembers());
+        }
+
+        // Result of the initial parse
+        public LibraryAnalysis getAnalysis() {
+            return analysis;
+        }
+
+        // Current layouts per member, keyed by member name and then record name
+        public synchronized Map<String, Map<String, RecordLayout>> getLayouts() {
+            Map<String, Map<String, RecordLayout>> layouts = new TreeMap<>();
+            members.forEach((member, state) -> layouts.put(member, state.layouts()));
+            return layouts;
+        }
+
+        private void run() {
+            try {
+                while (!closed) {
+                    Set<Path> changed = new LinkedHashSet<>();
+                    boolean overflow = collect(service.take(), changed);
+                    WatchKey key;
+                    while ((key = service.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                        overflow |= collect(key, changed);
+                    }
+                    LibraryChange change = refresh(overflow ? allFiles() : changed);
+                    if (!change.isEmpty()) {
+                        listener.accept(change);
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // closed
+            } catch (IOException | RuntimeException e) {
+                log.error("Watching {} stopped: {}", root, e.getMessage(), e);
+            }
+        }
+
+        // Adds the files of one key's events to changed; true when events were lost and everything must be checked
+        private boolean collect(WatchKey key, Set<Path> changed) throws IOException {
+            Path directory = (Path) key.watchable();
+            boolean overflow = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                    continue;
+                }
+                Path file = directory.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(file)) {
+                    registerTree(file);
+                    try (Stream<Path> files = Files.walk(file)) {
+                        files.filter(Files::isRegularFile).forEach(changed::add);
+                    }
+                } else if (!Files.isDirectory(file)) {
+                    changed.add(file);
+                }
+            }
+            key.reset();
+            return overflow;
+        }
+
+        // Re-parses the members affected by the given changed, created or deleted files. Called by the watch
+        // thread, and usable directly, e.g. by a build that knows which files it touched.
+        public synchronized LibraryChange refresh(Collection<Path> changedFiles) throws IOException {
+            long start = System.nanoTime();
+            Set<Path> changed = new LinkedHashSet<>();
+            for (Path file : changedFiles) {
+                Path absolute = file.toAbsolutePath().normalize();
+                changed.add(absolute);
+                copyMemberCache.invalidate(absolute);
+            }
+
+            Set<String> affected = new TreeSet<>();
+            for (Path file : changed) {
+                if (file.startsWith(root)) {
+                    String member = root.relativize(file).toString().replace('\\', '/');
+                    if (members.containsKey(member) || libraryAnalyzer.isCopybook(member)) {
+                        affected.add(member);
+                    }
+                }
+            }
+            Set<Path> known = new HashSet<>();
+            members.forEach((member, state) -> {
+                known.add(root.resolve(member));
+                known.addAll(state.copied());
+            });
+            // A file that was not there before may be the missing COPY member a failed member waits for
+            boolean created = changed.stream().anyMatch(file -> !known.contains(file) && Files.isRegularFile(file));
+            members.forEach((member, state) -> {
+                if ((created && state.error() != null) || state.copied().stream().anyMatch(changed::contains)) {
+                    affected.add(member);
+                }
+            });
+
+            List<LayoutDiff> diffs = new ArrayList<>();
+            Map<String, String> errors = new TreeMap<>();
+            List<String> reparsed = new ArrayList<>();
+            for (String member : affected) {
+                MemberState previous = members.get(member);
+                Map<String, RecordLayout> before = previous != null ? previous.layouts() : Map.of();
+                if (!Files.isRegularFile(root.resolve(member))) {
+                    if (previous != null) {
+                        members.remove(member);
+                        diffs.addAll(LayoutDiffer.diff(member, before, Map.of()));
+                    }
+                    continue;
+                }
+                reparsed.add(member);
+                MemberState state = state(libraryAnalyzer.parseMember(root, member, rules), previous);
+                members.put(member, state);
+                if (state.error() != null) {
+                    errors.put(member, state.error());
+                } else {
+                    diffs.addAll(LayoutDiffer.diff(member, before, state.layouts()));
+                }
+            }
+
+            // Temporary files an editor created and renamed away again are not worth reporting
+            List<String> reported = changed.stream()
+                    .filter(file -> Files.exists(file) || known.contains(file))
+                    .map(Path::toString)
+                    .toList();
+
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.debug("Re-parsed {} of {} members for {} changed files in {} ms",
+                    reparsed.size(), members.size(), changed.size(), elapsedMs);
+            return LibraryChange.builder()
+                    .library(root.toString())
+                    .changedFiles(reported)
+                    .reparsedMembers(reparsed)
+                    .diffs(diffs)
+                    .errors(errors)
+                    .processingTimeMs(elapsedMs)
+                    .build();
+        }
+
+        private MemberState state(ParseResult result, MemberState previous) {
+            if (!result.isSuccess()) {
+                return new MemberState(previous != null ? previous.layouts() : Map.of(),
+                        previous != null ? previous.copied() : Set.of(), result.getErrorMessage());
+            }
+            Set<Path> copied = new HashSet<>();
+            for (RecordLayout layout : result.getRecordLayouts().values()) {
+                if (layout.getLayoutMetadata() != null
+                        && layout.getLayoutMetadata().get(CopyMemberCache.COPY_MEMBERS_METADATA) instanceof Map<?, ?> files) {
+                    files.keySet().forEach(file -> copied.add(Path.of(file.toString())));
+                }
+            }
+            return new MemberState(new LinkedHashMap<>(result.getRecordLayouts()), copied, null);
+        }
+
+        private Set<Path> allFiles() throws IOException {
+            Set<Path> files = new LinkedHashSet<>();
+            members.keySet().forEach(member -> files.add(root.resolve(member)));
+            try (Stream<Path> tree = Files.walk(root)) {
+                tree.filter(Files::isRegularFile).forEach(files::add);
+            }
+            return files;
+        }
+
+        private void registerTree(Path directory) throws IOException {
+            try (Stream<Path> tree = Files.walk(directory)) {
+                for (Path path : tree.filter(Files::isDirectory).toList()) {
+                    path.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            watches.remove(this);
+            try {
+                service.close();
+            } catch (IOException e) {
+                log.warn("Closing the watch service of {} failed: {}", root, e.getMessage());
+            }
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
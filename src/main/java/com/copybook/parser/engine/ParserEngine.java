@@ -1,5 +1,6 @@
 package com.copybook.parser.engine;
 
+import com.copybook.parser.cache.LayoutCache;
 import com.copybook.parser.config.ParsingRules;
 import com.copybook.parser.model.RecordLayout;
 import com.copybook.parser.processor.LayoutProcessor;
@@ -16,14 +17,16 @@ public class ParserEngine {
     @Autowired
     private LayoutProcessor layoutProcessor;
 
+    @Autowired
+    private LayoutCache layoutCache;
+
     public ParseResult parseCopybook(List<String> copybookLines, ParsingRules rules) {
         try {
-            RecordLayout layout = layoutProcessor.processLayout(copybookLines, rules);
-
-            Map<String, RecordLayout> layouts = new HashMap<>();
-            layouts.put(layout.getLayoutName(), layout);
+            RecordLayout layout = layoutCache.get(copybookLines, rules,
+                    () -> layoutProcessor.processLayout(copybookLines, rules));
 
-            return new ParseResult(layouts, true, null);
+            // Keyed by 01-level record name
+            return new ParseResult(layoutProcessor.recordLayouts(layout), true, null);
         } catch (Exception e) {
             return new ParseResult(new HashMap<>(), false, e.getMessage());
         }
@@ -2,9 +2,12 @@ package com.copybook.parser.engine;
 
 import com.copybook.parser.config.ParsingRules;
 import com.copybook.parser.config.RecordTypeRule;
+import com.copybook.parser.expression.RecordExpression;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.regex.Pattern;
+
 @Component
 @Slf4j
 public class RuleInterpreter {
@@ -63,18 +66,32 @@ public class RuleInterpreter {
         if (rule.getConditionalLogic() == null && rule.getConditionalExpression() == null) {
             throw new IllegalArgumentException("Conditional-based rules require conditional logic or expression");
         }
+        // Parsed once here; classification reuses the compiled expression
+        var source = rule.getConditionalExpression() != null ? rule.getConditionalExpression() : rule.getConditionalLogic();
+        RecordExpression.compile(source, rule.getStart() != null ? rule.getStart() : 0);
     }
 
     private void validatePatternBasedRules(RecordTypeRule rule) {
         if (rule == null) {
             throw new IllegalArgumentException("Pattern-based rules require recordTypeField configuration");
         }
-        if (rule.getPattern() == null) {
+        if (rule.getPattern() == null && (rule.getPatterns() == null || rule.getPatterns().isEmpty())) {
             throw new IllegalArgumentException("Pattern-based rules require pattern definition");
         }
-        if (rule.getPatternMappings() == null || rule.getPatternMappings().isEmpty()) {
+        if (rule.getPattern() != null && (rule.getPatternMappings() == null || rule.getPatternMappings().isEmpty())) {
             throw new IllegalArgumentException("Pattern-based rules require pattern mappings");
         }
+        if (rule.getPattern() != null) {
+            Pattern.compile(rule.getPattern());
+        }
+        if (rule.getPatterns() != null) {
+            for (var patternRule : rule.getPatterns()) {
+                if (patternRule.getPattern() == null || patternRule.getRecordType() == null) {
+                    throw new IllegalArgumentException("Each pattern rule requires a pattern and a record type");
+                }
+                Pattern.compile(patternRule.getPattern());
+            }
+        }
     }
 
     private void validateMultiFieldRules(RecordTypeRule rule) {
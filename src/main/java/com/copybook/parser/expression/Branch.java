@@ -0,0 +1,41 @@
+package com.copybook.parser.expression;
+
+// Result-selecting node: an if/then/else chain whose leaves are indexes into the expression's results
+abstract class Branch {
+
+    abstract int select(RecordCursor cursor, Object record, int base, int length);
+
+    static final class Result extends Branch {
+        private final int index;
+
+        Result(int index) {
+            this.index = index;
+        }
+
+        @Override
+        int select(RecordCursor cursor, Object record, int base, int length) {
+            return index;
+        }
+    }
+
+    static final class If extends Branch {
+        private final Condition condition;
+        private final Branch then;
+        // Null when the chain has no final else
+        private final Branch otherwise;
+
+        If(Condition condition, Branch then, Branch otherwise) {
+            this.condition = condition;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        int select(RecordCursor cursor, Object record, int base, int length) {
+            if (condition.test(cursor, record, base, length)) {
+                return then.select(cursor, record, base, length);
+            }
+            return otherwise != null ? otherwise.select(cursor, record, base, length) : RecordExpression.NO_RESULT;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.copybook.parser.expression;
+
+// Boolean node of a compiled expression. A comparison on a slice past the end of the record, or a numeric
+// comparison on text that is not a number, is false whatever the operator.
+abstract class Condition {
+
+    abstract boolean test(RecordCursor cursor, Object record, int base, int length);
+
+    enum Operator {
+        EQ, NE, LT, LE, GT, GE;
+
+        boolean holds(int comparison) {
+            return switch (this) {
+                case EQ -> comparison == 0;
+                case NE -> comparison != 0;
+                case LT -> comparison < 0;
+                case LE -> comparison <= 0;
+                case GT -> comparison > 0;
+                case GE -> comparison >= 0;
+            };
+        }
+    }
+
+    // Signals an operand that could not be read
+    static final int UNDEFINED = Integer.MIN_VALUE;
+
+    // Numeric when either side is numeric, otherwise char-by-char text order
+    static int compare(Operand left, Operand right, RecordCursor cursor, Object record, int base, int length) {
+        if (left.isNumeric() || right.isNumeric()) {
+            long a = left.number(cursor, record, base, length);
+            long b = right.number(cursor, record, base, length);
+            if (a == Operand.NOT_A_NUMBER || b == Operand.NOT_A_NUMBER) {
+                return UNDEFINED;
+            }
+            return Long.compare(a, b);
+        }
+        String leftLiteral = left.literal();
+        String rightLiteral = right.literal();
+        long leftRegion = leftLiteral != null ? 0 : left.region(cursor, record, base, length);
+        long rightRegion = rightLiteral != null ? 0 : right.region(cursor, record, base, length);
+        if (leftRegion == Operand.ABSENT || rightRegion == Operand.ABSENT) {
+            return UNDEFINED;
+        }
+        int leftFrom = (int) (leftRegion >>> 32);
+        int rightFrom = (int) (rightRegion >>> 32);
+        int leftLength = leftLiteral != null ? leftLiteral.length() : (int) leftRegion - leftFrom;
+        int rightLength = rightLiteral != null ? rightLiteral.length() : (int) rightRegion - rightFrom;
+        int common = Math.min(leftLength, rightLength);
+        for (int i = 0; i < common; i++) {
+            char a = leftLiteral != null ? leftLiteral.charAt(i) : cursor.at(record, base + leftFrom + i);
+            char b = rightLiteral != null ? rightLiteral.charAt(i) : cursor.at(record, base + rightFrom + i);
+            if (a != b) {
+                return a < b ? -1 : 1;
+            }
+        }
+        return Integer.compare(leftLength, rightLength);
+    }
+
+    static final class Comparison extends Condition {
+        private final Operand left;
+        private final Operator operator;
+        private final Operand right;
+
+        Comparison(Operand left, Operator operator, Operand right) {
+            this.left = left;
+            this.operator = operator;
+            this.right = right;
+        }
+
+        @Override
+        boolean test(RecordCursor cursor, Object record, int base, int length) {
+            int comparison = compare(left, right, cursor, record, base, length);
+            return comparison != UNDEFINED && operator.holds(comparison);
+        }
+    }
+
+    // x in ('A', 'C'..'F') and x between low and high; a single value is a range with low == high
+    static final class InRanges extends Condition {
+        private final Operand value;
+        private final Operand[] lows;
+        private final Operand[] highs;
+
+        InRanges(Operand value, Operand[] lows, Operand[] highs) {
+            this.value = value;
+            this.lows = lows;
+            this.highs = highs;
+        }
+
+        @Override
+        boolean test(RecordCursor cursor, Object record, int base, int length) {
+            for (int i = 0; i < lows.length; i++) {
+                int low = compare(value, lows[i], cursor, record, base, length);
+                if (low == UNDEFINED) {
+                    return false;
+                }
+                if (low >= 0 && (lows[i] == highs[i] ? low == 0 : holdsUpTo(highs[i], cursor, record, base, length))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean holdsUpTo(Operand high, RecordCursor cursor, Object record, int base, int length) {
+            int comparison = compare(value, high, cursor, record, base, length);
+            return comparison != UNDEFINED && comparison <= 0;
+        }
+    }
+
+    static final class And extends Condition {
+        private final Condition left;
+        private final Condition right;
+
+        And(Condition left, Condition right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean test(RecordCursor cursor, Object record, int base, int length) {
+            return left.test(cursor, record, base, length) && right.test(cursor, record, base, length);
+        }
+    }
+
+    static final class Or extends Condition {
+        private final Condition left;
+        private final Condition right;
+
+        Or(Condition left, Condition right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean test(RecordCursor cursor, Object record, int base, int length) {
+            return left.test(cursor, record, base, length) || right.test(cursor, record, base, length);
+        }
+    }
+
+    static final class Not extends Condition {
+        private final Condition condition;
+
+        Not(Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        boolean test(RecordCursor cursor, Object record, int base, int length) {
+            return !condition.test(cursor, record, base, length);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.copybook.parser.expression;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Recursive-descent parser for record type expressions:
+//
+//   branch     := 'if' condition 'then' branch ['else' branch] | '(' branch ')' | STRING | WORD
+//   condition  := and ('or' and)*                      ('||' is accepted for 'or')
+//   and        := unary ('and' unary)*                 ('&&' is accepted for 'and')
+//   unary      := 'not' unary | '(' condition ')' | comparison
+//   comparison := operand op operand | operand ['not'] 'in' ranges | operand 'between' operand 'and' operand
+//   ranges     := range | '(' range (',' range)* ')'   range := operand ['..' operand]
+//   operand    := STRING | NUMBER | '{char}' | '{line}' | '{length}' | '{start}' | '{start:length}' | 'trim(' operand ')'
+//
+// Keywords are case-insensitive; positions in placeholders are 1-based like the rest of the rules.
+final class ExpressionParser {
+
+    private enum Kind { STRING, NUMBER, WORD, PLACEHOLDER, SYMBOL, END }
+
+    private record Lexeme(Kind kind, String text, int column) {
+        boolean isWord(String keyword) {
+            return kind == Kind.WORD && text.equalsIgnoreCase(keyword);
+        }
+
+        boolean isSymbol(String symbol) {
+            return kind == Kind.SYMBOL && text.equals(symbol);
+        }
+    }
+
+    private static final List<String> KEYWORDS = List.of("IF", "THEN", "ELSE", "AND", "OR", "NOT", "IN", "BETWEEN", "TRIM");
+
+    private final String source;
+    private final int charPosition;
+    private final List<Lexeme> lexemes;
+    private final Map<String, Integer> results = new LinkedHashMap<>();
+    private int pos;
+
+    private ExpressionParser(String source, int charPosition) {
+        this.source = source;
+        this.charPosition = charPosition;
+        this.lexemes = scan(source);
+    }
+
+    static RecordExpression parse(String source, int charPosition) {
+        ExpressionParser parser = new ExpressionParser(source, charPosition);
+        Branch root = parser.parseBranch();
+        if (parser.peek().kind() != Kind.END) {
+            throw parser.error("unexpected '" + parser.peek().text() + "'");
+        }
+        return new RecordExpression(source, root, List.copyOf(parser.results.keySet()));
+    }
+
+    private Branch parseBranch() {
+        Lexeme next = peek();
+        if (next.isWord("IF")) {
+            pos++;
+            Condition condition = parseOr();
+            expectWord("THEN");
+            Branch then = parseBranch();
+            Branch otherwise = null;
+            if (peek().isWord("ELSE")) {
+                pos++;
+                otherwise = parseBranch();
+            }
+            return new Branch.If(condition, then, otherwise);
+        }
+        if (next.isSymbol("(")) {
+            pos++;
+            Branch branch = parseBranch();
+            expectSymbol(")");
+            return branch;
+        }
+        if (next.kind() == Kind.STRING || (next.kind() == Kind.WORD && !isKeyword(next))) {
+            pos++;
+            return new Branch.Result(results.computeIfAbsent(next.text(), k -> results.size()));
+        }
+        throw error("expected a record type or 'if'");
+    }
+
+    private Condition parseOr() {
+        Condition condition = parseAnd();
+        while (peek().isWord("OR") || peek().isSymbol("||")) {
+            pos++;
+            condition = new Condition.Or(condition, parseAnd());
+        }
+        return condition;
+    }
+
+    private Condition parseAnd() {
+        Condition condition = parseUnary();
+        while (peek().isWord("AND") || peek().isSymbol("&&")) {
+            pos++;
+            condition = new Condition.And(condition, parseUnary());
+        }
+        return condition;
+    }
+
+    private Condition parseUnary() {
+        if (peek().isWord("NOT") || peek().isSymbol("!")) {
+            pos++;
+            return new Condition.Not(parseUnary());
+        }
+        if (peek().isSymbol("(")) {
+            pos++;
+            Condition condition = parseOr();
+            expectSymbol(")");
+            return condition;
+        }
+        return parseComparison();
+    }
+
+    private Condition parseComparison() {
+        Operand left = parseOperand();
+        Lexeme next = peek();
+        if (next.kind() == Kind.SYMBOL) {
+            Condition.Operator operator = switch (next.text()) {
+                case "==", "=" -> Condition.Operator.EQ;
+                case "!=", "<>" -> Condition.Operator.NE;
+                case "<" -> Condition.Operator.LT;
+                case "<=" -> Condition.Operator.LE;
+                case ">" -> Condition.Operator.GT;
+                case ">=" -> Condition.Operator.GE;
+                default -> throw error("expected a comparison operator");
+            };
+            pos++;
+            return new Condition.Comparison(left, operator, parseOperand());
+        }
+        if (next.isWord("NOT") && lexemes.get(pos + 1).isWord("IN")) {
+            pos += 2;
+            return new Condition.Not(parseRanges(left));
+        }
+        if (next.isWord("IN")) {
+            pos++;
+            return parseRanges(left);
+        }
+        if (next.isWord("BETWEEN")) {
+            pos++;
+            Operand low = parseOperand();
+            expectWord("AND");
+            Operand high = parseOperand();
+            return new Condition.InRanges(left, new Operand[]{low}, new Operand[]{high});
+        }
+        throw error("expected a comparison");
+    }
+
+    private Condition parseRanges(Operand value) {
+        List<Operand> lows = new ArrayList<>();
+        List<Operand> highs = new ArrayList<>();
+        boolean list = peek().isSymbol("(");
+        if (list) {
+            pos++;
+        }
+        while (true) {
+            Operand low = parseOperand();
+            Operand high = low;
+            if (peek().isSymbol("..")) {
+                pos++;
+                high = parseOperand();
+            }
+            lows.add(low);
+            highs.add(high);
+            if (!list || !peek().isSymbol(",")) {
+                break;
+            }
+            pos++;
+        }
+        if (list) {
+            expectSymbol(")");
+        }
+        return new Condition.InRanges(value, lows.toArray(Operand[]::new), highs.toArray(Operand[]::new));
+    }
+
+    private Operand parseOperand() {
+        Lexeme next = peek();
+        switch (next.kind()) {
+            case STRING -> {
+                pos++;
+                return new Operand.TextLiteral(next.text());
+            }
+            case NUMBER -> {
+                pos++;
+                return new Operand.NumberLiteral(Long.parseLong(next.text()));
+            }
+            case PLACEHOLDER -> {
+                pos++;
+                return placeholder(next);
+            }
+            default -> {
+                if (next.isSymbol("-") && peek(1).kind() == Kind.NUMBER) {
+                    pos += 2;
+                    return new Operand.NumberLiteral(-Long.parseLong(lexemes.get(pos - 1).text()));
+                }
+                if (next.isWord("TRIM")) {
+                    pos++;
+                    expectSymbol("(");
+                    Operand text = parseOperand();
+                    expectSymbol(")");
+                    if (text.isNumeric()) {
+                        throw error("trim() takes text");
+                    }
+                    return text.literal() != null ? new Operand.TextLiteral(text.literal().trim()) : new Operand.Trim(text);
+                }
+                throw error("expected a value");
+            }
+        }
+    }
+
+    private Operand placeholder(Lexeme lexeme) {
+        String name = lexeme.text().trim().toLowerCase();
+        switch (name) {
+            case "char" -> {
+                if (charPosition < 1) {
+                    throw error("{char} requires recordTypeField.start", lexeme);
+                }
+                return new Operand.Slice(charPosition - 1, 1);
+            }
+            case "line" -> {
+                return new Operand.Line();
+            }
+            case "length" -> {
+                return new Operand.Length();
+            }
+            default -> {
+                int colon = name.indexOf(':');
+                try {
+                    int start = Integer.parseInt((colon < 0 ? name : name.substring(0, colon)).trim());
+                    int width = colon < 0 ? 1 : Integer.parseInt(name.substring(colon + 1).trim());
+                    if (start < 1 || width < 1) {
+                        throw error("positions in {" + lexeme.text() + "} must be >= 1", lexeme);
+                    }
+                    return new Operand.Slice(start - 1, width);
+                } catch (NumberFormatException e) {
+                    throw error("unknown placeholder {" + lexeme.text() + "}", lexeme);
+                }
+            }
+        }
+    }
+
+    private Lexeme peek() {
+        return lexemes.get(pos);
+    }
+
+    private Lexeme peek(int ahead) {
+        return lexemes.get(Math.min(pos + ahead, lexemes.size() - 1));
+    }
+
+    private void expectWord(String keyword) {
+        if (!peek().isWord(keyword)) {
+            throw error("expected '" + keyword.toLowerCase() + "'");
+        }
+        pos++;
+    }
+
+    private void expectSymbol(String symbol) {
+        if (!peek().isSymbol(symbol)) {
+            throw error("expected '" + symbol + "'");
+        }
+        pos++;
+    }
+
+    private static boolean isKeyword(Lexeme lexeme) {
+        return KEYWORDS.contains(lexeme.text().toUpperCase());
+    }
+
+    private IllegalArgumentException error(String message) {
+        return error(message, peek());
+    }
+
+    private IllegalArgumentException error(String message, Lexeme at) {
+        return new IllegalArgumentException("Invalid record type expression at column " + at.column() + ": "
+                + message + " in \"" + source + "\"");
+    }
+
+    private List<Lexeme> scan(String text) {
+        List<Lexeme> scanned = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int column = i + 1;
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                StringBuilder literal = new StringBuilder();
+                int j = i + 1;
+                while (true) {
+                    if (j >= text.length()) {
+                        throw scanError("unterminated literal", column);
+                    }
+                    if (text.charAt(j) == c) {
+                        // A doubled quote stands for itself
+                        if (j + 1 < text.length() && text.charAt(j + 1) == c) {
+                            literal.append(c);
+                            j += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    literal.append(text.charAt(j++));
+                }
+                scanned.add(new Lexeme(Kind.STRING, literal.toString(), column));
+                i = j + 1;
+            } else if (c == '{') {
+                int close = text.indexOf('}', i);
+                if (close < 0) {
+                    throw scanError("unterminated placeholder", column);
+                }
+                scanned.add(new Lexeme(Kind.PLACEHOLDER, text.substring(i + 1, close), column));
+                i = close + 1;
+            } else if (c >= '0' && c <= '9') {
+                int j = i;
+                while (j < text.length() && text.charAt(j) >= '0' && text.charAt(j) <= '9') {
+                    j++;
+                }
+                scanned.add(new Lexeme(Kind.NUMBER, text.substring(i, j), column));
+                i = j;
+            } else if (Character.isLetter(c) || c == '_') {
+                int j = i;
+                while (j < text.length() && (Character.isLetterOrDigit(text.charAt(j))
+                        || text.charAt(j) == '_' || text.charAt(j) == '-')) {
+                    j++;
+                }
+                scanned.add(new Lexeme(Kind.WORD, text.substring(i, j), column));
+                i = j;
+            } else {
+                String two = i + 1 < text.length() ? text.substring(i, i + 2) : "";
+                String symbol = switch (two) {
+                    case "==", "!=", "<>", "<=", ">=", "..", "&&", "||" -> two;
+                    default -> "=<>!(),-".indexOf(c) >= 0 ? String.valueOf(c) : null;
+                };
+                if (symbol == null) {
+                    throw scanError("unexpected character '" + c + "'", column);
+                }
+                scanned.add(new Lexeme(Kind.SYMBOL, symbol, column));
+                i += symbol.length();
+            }
+        }
+        scanned.add(new Lexeme(Kind.END, "end of expression", text.length() + 1));
+        return scanned;
+    }
+
+    private IllegalArgumentException scanError(String message, int column) {
+        return new IllegalArgumentException("Invalid record type expression at column " + column + ": "
+                + message + " in \"" + source + "\"");
+    }
+}
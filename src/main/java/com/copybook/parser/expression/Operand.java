@@ -0,0 +1,168 @@
+package com.copybook.parser.expression;
+
+// A value read from the record. Text operands resolve to a region of the record, or to a literal; numeric
+// operands resolve to a long. Nothing is copied out of the record.
+abstract class Operand {
+
+    // Region of a slice that lies (partly) past the end of the record
+    static final long ABSENT = -1;
+    static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+    boolean isNumeric() {
+        return false;
+    }
+
+    // Literal text, or null when the operand reads the record
+    String literal() {
+        return null;
+    }
+
+    // [from, to) relative to the record start, packed as from << 32 | to, or ABSENT
+    long region(RecordCursor cursor, Object record, int base, int length) {
+        throw new IllegalStateException(getClass().getSimpleName() + " has no region");
+    }
+
+    // Text operands read as an optionally signed integer surrounded by blanks, or NOT_A_NUMBER
+    long number(RecordCursor cursor, Object record, int base, int length) {
+        long region = region(cursor, record, base, length);
+        if (region == ABSENT) {
+            return NOT_A_NUMBER;
+        }
+        int from = (int) (region >>> 32);
+        int to = (int) region;
+        while (from < to && cursor.at(record, base + from) <= ' ') {
+            from++;
+        }
+        while (to > from && cursor.at(record, base + to - 1) <= ' ') {
+            to--;
+        }
+        boolean negative = false;
+        if (from < to && (cursor.at(record, base + from) == '-' || cursor.at(record, base + from) == '+')) {
+            negative = cursor.at(record, base + from) == '-';
+            from++;
+        }
+        if (from == to || to - from > 18) {
+            return NOT_A_NUMBER;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = cursor.at(record, base + i);
+            if (c < '0' || c > '9') {
+                return NOT_A_NUMBER;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    static long region(int from, int to) {
+        return (long) from << 32 | to;
+    }
+
+    static final class TextLiteral extends Operand {
+        private final String value;
+        private final long number;
+
+        TextLiteral(String value) {
+            this.value = value;
+            long parsed;
+            try {
+                parsed = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                parsed = NOT_A_NUMBER;
+            }
+            this.number = parsed;
+        }
+
+        @Override
+        String literal() {
+            return value;
+        }
+
+        @Override
+        long number(RecordCursor cursor, Object record, int base, int length) {
+            return number;
+        }
+    }
+
+    static final class NumberLiteral extends Operand {
+        private final long value;
+
+        NumberLiteral(long value) {
+            this.value = value;
+        }
+
+        @Override
+        boolean isNumeric() {
+            return true;
+        }
+
+        @Override
+        long number(RecordCursor cursor, Object record, int base, int length) {
+            return value;
+        }
+    }
+
+    // {start:width} and {char}; start is zero-based here
+    static final class Slice extends Operand {
+        private final int start;
+        private final int width;
+
+        Slice(int start, int width) {
+            this.start = start;
+            this.width = width;
+        }
+
+        @Override
+        long region(RecordCursor cursor, Object record, int base, int length) {
+            return length < start + width ? ABSENT : region(start, start + width);
+        }
+    }
+
+    // {line}
+    static final class Line extends Operand {
+        @Override
+        long region(RecordCursor cursor, Object record, int base, int length) {
+            return region(0, length);
+        }
+    }
+
+    // {length}
+    static final class Length extends Operand {
+        @Override
+        boolean isNumeric() {
+            return true;
+        }
+
+        @Override
+        long number(RecordCursor cursor, Object record, int base, int length) {
+            return length;
+        }
+    }
+
+    // trim(...) strips what String.trim() would
+    static final class Trim extends Operand {
+        private final Operand text;
+
+        Trim(Operand text) {
+            this.text = text;
+        }
+
+        @Override
+        long region(RecordCursor cursor, Object record, int base, int length) {
+            long region = text.region(cursor, record, base, length);
+            if (region == ABSENT) {
+                return ABSENT;
+            }
+            int from = (int) (region >>> 32);
+            int to = (int) region;
+            while (from < to && cursor.at(record, base + from) <= ' ') {
+                from++;
+            }
+            while (to > from && cursor.at(record, base + to - 1) <= ' ') {
+                to--;
+            }
+            return region(from, to);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.copybook.parser.expression;
+
+import com.copybook.parser.codec.CodePage;
+
+import java.nio.ByteBuffer;
+
+// Reads record units as chars, either from a decoded line or from raw bytes through a code-page table, so a
+// single expression tree serves both without wrapping the record per evaluation
+public abstract class RecordCursor {
+
+    public static final RecordCursor CHARS = new RecordCursor() {
+        @Override
+        char at(Object record, int index) {
+            return ((CharSequence) record).charAt(index);
+        }
+    };
+
+    abstract char at(Object record, int index);
+
+    public static RecordCursor bytes(CodePage codePage) {
+        char[] table = new char[256];
+        for (int b = 0; b < 256; b++) {
+            // Only single-byte code pages map every byte; UTF-8 lead and continuation bytes read as U+FFFD
+            String decoded = codePage == CodePage.UTF_8 && b >= 0x80
+                    ? "\uFFFD"
+                    : new String(new byte[]{(byte) b}, codePage.charset());
+            table[b] = decoded.length() == 1 ? decoded.charAt(0) : '\uFFFD';
+        }
+        return new RecordCursor() {
+            @Override
+            char at(Object record, int index) {
+                return table[((ByteBuffer) record).get(index) & 0xFF];
+            }
+        };
+    }
+}
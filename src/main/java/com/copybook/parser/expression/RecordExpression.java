@@ -0,0 +1,69 @@
+package com.copybook.parser.expression;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// A record type expression parsed once into a tree and evaluated against each record in place, on decoded
+// lines or on raw bytes, without allocating. Evaluation yields the index of the selected record type in
+// getResults(), or NO_RESULT when an if-chain without a final else matches nothing.
+public final class RecordExpression {
+
+    public static final int NO_RESULT = -1;
+
+    // Rules are validated and then classified with the same expression text
+    private static final int MAX_CACHED = 1_000;
+    private static final Map<String, RecordExpression> CACHE = new ConcurrentHashMap<>();
+
+    private final String source;
+    private final Branch root;
+    private final List<String> results;
+
+    RecordExpression(String source, Branch root, List<String> results) {
+        this.source = source;
+        this.root = root;
+        this.results = results;
+    }
+
+    // charPosition is the 1-based column {char} reads, or 0 when the rule has none
+    public static RecordExpression compile(String source, int charPosition) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("Record type expression is empty");
+        }
+        String key = charPosition + "|" + source;
+        RecordExpression cached = CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        RecordExpression compiled = ExpressionParser.parse(source, charPosition);
+        if (CACHE.size() < MAX_CACHED) {
+            CACHE.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    // Distinct record types the expression can select, in order of first appearance
+    public List<String> getResults() {
+        return results;
+    }
+
+    public int evaluate(CharSequence line) {
+        return root.select(RecordCursor.CHARS, line, 0, line.length());
+    }
+
+    // The record between offset and offset + length, read through a cursor from RecordCursor.bytes
+    public int evaluate(RecordCursor cursor, ByteBuffer record, int offset, int length) {
+        return root.select(cursor, record, offset, length);
+    }
+
+    // Selected record type, or null
+    public String classify(CharSequence line) {
+        int result = evaluate(line);
+        return result == NO_RESULT ? null : results.get(result);
+    }
+}
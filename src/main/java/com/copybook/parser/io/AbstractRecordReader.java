@@ -0,0 +1,97 @@
+package com.copybook.parser.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+abstract class AbstractRecordReader implements RecordReader {
+
+    private final ReadableByteChannel channel;
+    private final ByteBufferPool pool;
+    private final boolean closeChannel;
+    // The buffer acquired from the pool; buffers grown past it are never handed back
+    private ByteBuffer pooled;
+
+    // Kept in read mode: position is the next unconsumed byte, limit the end of valid data
+    protected ByteBuffer buffer;
+    private boolean endOfInput;
+
+    protected long recordsRead;
+    protected long bytesRead;
+
+    protected AbstractRecordReader(ReadableByteChannel channel, ByteBufferPool pool, boolean closeChannel) {
+        this.channel = channel;
+        this.pool = pool;
+        this.closeChannel = closeChannel;
+        this.pooled = pool.acquire();
+        this.buffer = pooled.flip();
+    }
+
+    // Makes at least n bytes available at the buffer position.
+    // Returns false on a clean end of input with no pending bytes; throws on a truncated record.
+    protected boolean require(int n) throws IOException {
+        if (buffer.remaining() >= n) {
+            return true;
+        }
+        if (n > buffer.capacity()) {
+            // Doubling keeps callers that ask for one byte more at a time (LineRecordReader) linear
+            int capacity = Math.max(n, (int) Math.min(Integer.MAX_VALUE - 8, 2L * buffer.capacity()));
+            buffer = ByteBuffer.allocateDirect(capacity).put(buffer).flip();
+            releasePooled();
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < n && !endOfInput) {
+                if (channel.read(buffer) < 0) {
+                    endOfInput = true;
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+        if (buffer.remaining() >= n) {
+            return true;
+        }
+        if (buffer.hasRemaining()) {
+            throw new EOFException(String.format("Truncated record after %d records: needed %d bytes, found %d",
+                    recordsRead, n, buffer.remaining()));
+        }
+        return false;
+    }
+
+    // Consumes length bytes from the buffer and returns them as a zero-copy view
+    protected ByteBuffer slice(int length) {
+        int start = buffer.position();
+        buffer.position(start + length);
+        recordsRead++;
+        bytesRead += length;
+        return buffer.slice(start, length).asReadOnlyBuffer();
+    }
+
+    @Override
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    private void releasePooled() {
+        if (pooled != null) {
+            pool.release(pooled);
+            pooled = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        releasePooled();
+        buffer = null;
+        if (closeChannel) {
+            channel.close();
+        }
+    }
+}
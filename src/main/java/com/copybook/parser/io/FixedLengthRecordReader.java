@@ -0,0 +1,31 @@
+package com.copybook.parser.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+// RECFM=F and FB: blocks are concatenations of equal-length records, so both frame the same way
+public class FixedLengthRecordReader extends AbstractRecordReader {
+
+    private final int recordLength;
+
+    public FixedLengthRecordReader(ReadableByteChannel channel, int recordLength, ByteBufferPool pool, boolean closeChannel) {
+        super(channel, pool, closeChannel);
+        if (recordLength < 1) {
+            throw new IllegalArgumentException("Record length must be >= 1");
+        }
+        this.recordLength = recordLength;
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    @Override
+    public ByteBuffer next() throws IOException {
+        if (!require(recordLength)) {
+            return null;
+        }
+        return slice(recordLength);
+    }
+}
@@ -0,0 +1,63 @@
+package com.copybook.parser.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+// Newline delimited records framed on raw bytes; the terminator (LF or CRLF) is not part of the record
+public class LineRecordReader extends AbstractRecordReader {
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private int scanned;
+
+    public LineRecordReader(ReadableByteChannel channel, ByteBufferPool pool, boolean closeChannel) {
+        super(channel, pool, closeChannel);
+    }
+
+    @Override
+    public ByteBuffer next() throws IOException {
+        int start = buffer.position();
+        while (true) {
+            int limit = buffer.limit();
+            for (int i = start + scanned; i < limit; i++) {
+                if (buffer.get(i) == LF) {
+                    scanned = 0;
+                    return terminated(i - start, 1);
+                }
+            }
+            scanned = limit - start;
+            // Ask for one byte more than is buffered; a false/short result means the input ended
+            if (!fill(scanned + 1)) {
+                if (scanned == 0) {
+                    return null;
+                }
+                int length = scanned;
+                scanned = 0;
+                return terminated(length, 0);
+            }
+            start = buffer.position();
+        }
+    }
+
+    private boolean fill(int n) throws IOException {
+        try {
+            return require(n);
+        } catch (EOFException e) {
+            // A final line without terminator is still a record
+            return false;
+        }
+    }
+
+    private ByteBuffer terminated(int length, int terminatorLength) {
+        int dataLength = length;
+        if (dataLength > 0 && buffer.get(buffer.position() + dataLength - 1) == CR) {
+            dataLength--;
+        }
+        ByteBuffer record = slice(dataLength);
+        buffer.position(buffer.position() + (length - dataLength) + terminatorLength);
+        return record;
+    }
+}
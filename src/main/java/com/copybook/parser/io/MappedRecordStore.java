@@ -0,0 +1,178 @@
+package com.copybook.parser.io;
+
+import com.copybook.parser.codec.CodePage;
+import com.copybook.parser.config.DataFormatRule;
+import com.copybook.parser.model.CobolField;
+import com.copybook.parser.model.RecordLayout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Random access to the records of a fixed-length (F/FB) file. The file is mapped in regions of whole records,
+// each under 2 GB, so record N is a slice of one region and never straddles two. Nothing is read onto the heap.
+public final class MappedRecordStore implements Closeable {
+
+    private static final int MAX_REGION = Integer.MAX_VALUE - 8;
+
+    private final Path dataFile;
+    private final FileChannel channel;
+    private final int recordLength;
+    private final long recordCount;
+    private final long fileSize;
+    private final long lastModified;
+    private final int recordsPerRegion;
+    private final MappedByteBuffer[] regions;
+    private final CodePage codePage;
+    private final DataFormatRule format;
+    private final RecordLayout layout;
+
+    private MappedRecordStore(Path dataFile, FileChannel channel, int recordLength, DataFormatRule format,
+                              RecordLayout layout) throws IOException {
+        this.dataFile = dataFile;
+        this.channel = channel;
+        this.recordLength = recordLength;
+        this.format = format;
+        this.layout = layout;
+        this.codePage = CodePage.of(format.getEncoding());
+        this.fileSize = channel.size();
+        this.lastModified = Files.getLastModifiedTime(dataFile).toMillis();
+        if (fileSize % recordLength != 0) {
+            throw new IllegalArgumentException(String.format(
+                    "%s is %d bytes, not a whole number of %d-byte records", dataFile, fileSize, recordLength));
+        }
+        this.recordCount = fileSize / recordLength;
+        this.recordsPerRegion = MAX_REGION / recordLength;
+
+        long regionBytes = (long) recordsPerRegion * recordLength;
+        int regionCount = (int) ((fileSize + regionBytes - 1) / regionBytes);
+        this.regions = new MappedByteBuffer[regionCount];
+        for (int r = 0; r < regionCount; r++) {
+            long start = r * regionBytes;
+            regions[r] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(regionBytes, fileSize - start));
+        }
+    }
+
+    public static MappedRecordStore open(Path dataFile, DataFormatRule format, RecordLayout layout) throws IOException {
+        RecordFormat recordFormat = RecordFormat.of(format.getRecordFormat());
+        if (recordFormat != RecordFormat.F && recordFormat != RecordFormat.FB) {
+            throw new IllegalArgumentException("Random access requires fixed-length (F/FB) records, not " + recordFormat);
+        }
+        int recordLength = RecordReaders.resolveRecordLength(format, layout);
+        FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ);
+        try {
+            return new MappedRecordStore(dataFile, channel, recordLength, format, layout);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getDataFile() {
+        return dataFile;
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    public long size() {
+        return recordCount;
+    }
+
+    public CodePage getCodePage() {
+        return codePage;
+    }
+
+    long getFileSize() {
+        return fileSize;
+    }
+
+    long getLastModified() {
+        return lastModified;
+    }
+
+    // Read-only view of record index, backed by the mapping
+    public ByteBuffer get(long index) {
+        checkIndex(index);
+        int region = (int) (index / recordsPerRegion);
+        int offset = (int) (index % recordsPerRegion) * recordLength;
+        return regions[region].slice(offset, recordLength).asReadOnlyBuffer();
+    }
+
+    // Copies record index into target at targetOffset, for callers that keep a reusable record array
+    public void copy(long index, byte[] target, int targetOffset) {
+        checkIndex(index);
+        int region = (int) (index / recordsPerRegion);
+        int offset = (int) (index % recordsPerRegion) * recordLength;
+        regions[region].get(offset, target, targetOffset, recordLength);
+    }
+
+    // Region holding record index and the record's offset in it; lets the key index read keys without slicing
+    ByteBuffer region(long index) {
+        return regions[(int) (index / recordsPerRegion)];
+    }
+
+    int regionOffset(long index) {
+        return (int) (index % recordsPerRegion) * recordLength;
+    }
+
+    // Index on the configured keyField
+    public RecordKeyIndex keyIndex() throws IOException {
+        if (format.getKeyField() == null || format.getKeyField().isBlank()) {
+            throw new IllegalStateException("No keyField configured for " + dataFile);
+        }
+        return keyIndex(format.getKeyField());
+    }
+
+    // Index on a named field of the layout; a group name indexes the composite of its children
+    public RecordKeyIndex keyIndex(String fieldName) throws IOException {
+        CobolField field = findField(fieldName);
+        int offset = field.getStartPosition() - 1;
+        Path sidecar = format.isKeyIndexSidecar()
+                ? dataFile.resolveSibling(dataFile.getFileName() + "." + field.getName().toLowerCase() + ".idx")
+                : null;
+        return keyIndex(offset, field.getLength(), sidecar);
+    }
+
+    // Index on raw key bytes [offset, offset + length) of each record, persisted to sidecar when not null
+    public RecordKeyIndex keyIndex(int offset, int length, Path sidecar) throws IOException {
+        if (offset < 0 || length < 1 || offset + length > recordLength) {
+            throw new IllegalArgumentException(String.format(
+                    "Key [%d, %d) lies outside the %d-byte record", offset, offset + length, recordLength));
+        }
+        return RecordKeyIndex.open(this, offset, length, sidecar);
+    }
+
+    private CobolField findField(String fieldName) {
+        if (layout == null || layout.getFields() == null) {
+            throw new IllegalStateException("A layout is required to index by field name");
+        }
+        for (CobolField field : layout.getFields()) {
+            if (fieldName.equalsIgnoreCase(field.getName()) && !field.isCondition()) {
+                if (field.getDimensions() > 0) {
+                    throw new IllegalArgumentException("Key field " + fieldName + " is subject to OCCURS");
+                }
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Key field " + fieldName + " not found in layout " + layout.getLayoutName());
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + index + " out of range [0, " + recordCount + ")");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Mappings are released by the GC once unreachable; closing the channel does not invalidate them
+        channel.close();
+    }
+}
@@ -0,0 +1,28 @@
+package com.copybook.parser.io;
+
+public enum RecordFormat {
+    LINE,   // newline delimited text
+    F,      // fixed length, unblocked
+    FB,     // fixed length, blocked
+    V,      // variable length, each record prefixed by a 4-byte RDW
+    VB;     // variable length, blocks prefixed by a 4-byte BDW
+
+    public boolean isFixed() {
+        return this == F || this == FB;
+    }
+
+    public boolean isVariable() {
+        return this == V || this == VB;
+    }
+
+    public static RecordFormat of(String name) {
+        if (name == null || name.isBlank()) {
+            return LINE;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported record format: " + name);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.copybook.parser.io;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Hash index from a key's raw bytes to record numbers of a MappedRecordStore. The table holds only record
+// numbers (open addressing, linear probing, load factor <= 0.5); keys are compared against the mapped records,
+// so the index costs 8 bytes per record at most. Once written to its sidecar the table is mapped as well.
+// Equal keys are inserted in file order, so a lookup finds the first record with that key.
+@Slf4j
+public final class RecordKeyIndex {
+
+    public static final long NOT_FOUND = -1;
+
+    private static final int MAGIC = 0x43425831; // "CBX1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 48;
+    private static final int MAX_TABLE = 1 << 30;
+
+    private final MappedRecordStore store;
+    private final int keyOffset;
+    private final int keyLength;
+    private final IntBuffer table;
+    private final int mask;
+    private final boolean loaded;
+
+    private RecordKeyIndex(MappedRecordStore store, int keyOffset, int keyLength, IntBuffer table, boolean loaded) {
+        this.store = store;
+        this.keyOffset = keyOffset;
+        this.keyLength = keyLength;
+        this.table = table;
+        this.mask = table.capacity() - 1;
+        this.loaded = loaded;
+    }
+
+    static RecordKeyIndex open(MappedRecordStore store, int keyOffset, int keyLength, Path sidecar) throws IOException {
+        if (sidecar != null && Files.isRegularFile(sidecar)) {
+            IntBuffer table = load(store, keyOffset, keyLength, sidecar);
+            if (table != null) {
+                log.debug("Loaded key index {} for {} records", sidecar, store.size());
+                return new RecordKeyIndex(store, keyOffset, keyLength, table, true);
+            }
+            log.debug("Key index {} is stale, rebuilding", sidecar);
+        }
+
+        int[] table = build(store, keyOffset, keyLength);
+        if (sidecar != null) {
+            try {
+                write(store, keyOffset, keyLength, table, sidecar);
+                IntBuffer mapped = load(store, keyOffset, keyLength, sidecar);
+                if (mapped != null) {
+                    return new RecordKeyIndex(store, keyOffset, keyLength, mapped, false);
+                }
+            } catch (IOException e) {
+                // A read-only data directory still gets a working in-memory index
+                log.warn("Could not write key index {}: {}", sidecar, e.getMessage());
+            }
+        }
+        return new RecordKeyIndex(store, keyOffset, keyLength, IntBuffer.wrap(table), false);
+    }
+
+    public int getKeyOffset() {
+        return keyOffset;
+    }
+
+    public int getKeyLength() {
+        return keyLength;
+    }
+
+    // True when the table came from an up-to-date sidecar rather than a scan of the data file
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // First record whose key bytes equal key, or NOT_FOUND
+    public long find(byte[] key) {
+        if (key.length != keyLength) {
+            throw new IllegalArgumentException("Key must be " + keyLength + " bytes, got " + key.length);
+        }
+        int slot = (int) hash(key) & mask;
+        for (int entry; (entry = table.get(slot)) != 0; slot = (slot + 1) & mask) {
+            if (matches(entry - 1L, key)) {
+                return entry - 1L;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    // Text key in the data's code page, blank-padded to the key length as COBOL stores it
+    public long find(String key) {
+        return find(encode(key));
+    }
+
+    // Every record with the key, in file order
+    public long[] findAll(byte[] key) {
+        if (key.length != keyLength) {
+            throw new IllegalArgumentException("Key must be " + keyLength + " bytes, got " + key.length);
+        }
+        long[] found = new long[4];
+        int count = 0;
+        int slot = (int) hash(key) & mask;
+        for (int entry; (entry = table.get(slot)) != 0; slot = (slot + 1) & mask) {
+            if (matches(entry - 1L, key)) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = entry - 1L;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    public long[] findAll(String key) {
+        return findAll(encode(key));
+    }
+
+    // The record with the key, or null
+    public ByteBuffer lookup(String key) {
+        long index = find(key);
+        return index == NOT_FOUND ? null : store.get(index);
+    }
+
+    private byte[] encode(String key) {
+        Charset charset = store.getCodePage().charset();
+        byte[] encoded = key.getBytes(charset);
+        if (encoded.length > keyLength) {
+            throw new IllegalArgumentException("Key '" + key + "' is longer than the " + keyLength + "-byte key field");
+        }
+        byte[] padded = Arrays.copyOf(encoded, keyLength);
+        Arrays.fill(padded, encoded.length, keyLength, " ".getBytes(charset)[0]);
+        return padded;
+    }
+
+    private boolean matches(long record, byte[] key) {
+        ByteBuffer region = store.region(record);
+        int offset = store.regionOffset(record) + keyOffset;
+        for (int i = 0; i < keyLength; i++) {
+            if (region.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] build(MappedRecordStore store, int keyOffset, int keyLength) {
+        long records = store.size();
+        if (records > MAX_TABLE / 2) {
+            throw new IllegalArgumentException("Too many records to index: " + records);
+        }
+        int capacity = Math.max(16, Integer.highestOneBit((int) Math.max(1, records * 2 - 1)) << 1);
+        int[] table = new int[capacity];
+        int mask = capacity - 1;
+        for (long record = 0; record < records; record++) {
+            ByteBuffer region = store.region(record);
+            int slot = (int) hash(region, store.regionOffset(record) + keyOffset, keyLength) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = (int) (record + 1);
+        }
+        return table;
+    }
+
+    // FNV-1a with a final avalanche so the low bits used for the slot are well mixed
+    private static long hash(ByteBuffer buffer, int offset, int length) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            h = (h ^ (buffer.get(offset + i) & 0xFF)) * 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h = (h ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        return h ^ (h >>> 33);
+    }
+
+    // Header: magic, version, record length, key offset, key length, table length, then the data file's size,
+    // modification time and record count; the table follows as big-endian ints
+    private static void write(MappedRecordStore store, int keyOffset, int keyLength, int[] table, Path sidecar)
+            throws IOException {
+        Path temp = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(VERSION)
+                    .putInt(store.getRecordLength()).putInt(keyOffset).putInt(keyLength).putInt(table.length)
+                    .putLong(store.getFileSize()).putLong(store.getLastModified()).putLong(store.size())
+                    .flip();
+            writeFully(out, header);
+            ByteBuffer chunk = ByteBuffer.allocate(1 << 16);
+            IntBuffer ints = chunk.asIntBuffer();
+            for (int i = 0; i < table.length; i += ints.capacity()) {
+                int n = Math.min(ints.capacity(), table.length - i);
+                ints.clear();
+                ints.put(table, i, n);
+                writeFully(out, chunk.clear().limit(n * Integer.BYTES));
+            }
+        }
+        Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    // The mapped table, or null when the sidecar does not describe this data file and key
+    private static IntBuffer load(MappedRecordStore store, int keyOffset, int keyLength, Path sidecar)
+            throws IOException {
+        try (FileChannel in = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int tableLength = mapped.getInt(20);
+            boolean current = mapped.getInt(0) == MAGIC
+                    && mapped.getInt(4) == VERSION
+                    && mapped.getInt(8) == store.getRecordLength()
+                    && mapped.getInt(12) == keyOffset
+                    && mapped.getInt(16) == keyLength
+                    && tableLength > 0 && Integer.bitCount(tableLength) == 1
+                    && mapped.getLong(24) == store.getFileSize()
+                    && mapped.getLong(32) == store.getLastModified()
+                    && mapped.getLong(40) == store.size()
+                    && size == HEADER_BYTES + (long) tableLength * Integer.BYTES;
+            return current ? mapped.slice(HEADER_BYTES, tableLength * Integer.BYTES).asIntBuffer() : null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.copybook.parser.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public interface RecordReader extends Closeable {
+
+    // Returns a read-only view of the next record's data bytes, or null at end of input.
+    // The view shares the reader's buffer and is only valid until the next call.
+    ByteBuffer next() throws IOException;
+
+    long getRecordsRead();
+
+    long getBytesRead();
+}
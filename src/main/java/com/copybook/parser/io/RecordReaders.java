@@ -0,0 +1,54 @@
+package com.copybook.parser.io;
+
+import com.copybook.parser.config.DataFormatRule;
+import com.copybook.parser.model.RecordLayout;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class RecordReaders {
+
+    private RecordReaders() {
+    }
+
+    public static RecordReader open(Path dataFile, DataFormatRule format, RecordLayout layout) throws IOException {
+        FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ);
+        try {
+            return create(channel, format, layout, true);
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static RecordReader open(ReadableByteChannel channel, DataFormatRule format, RecordLayout layout) {
+        return create(channel, format, layout, false);
+    }
+
+    public static int resolveRecordLength(DataFormatRule format, RecordLayout layout) {
+        if (format.getRecordLength() != null) {
+            return format.getRecordLength();
+        }
+        if (layout == null || layout.getTotalLength() < 1) {
+            throw new IllegalArgumentException("Fixed-length records require recordLength or a layout with a total length");
+        }
+        return layout.getTotalLength();
+    }
+
+    private static RecordReader create(ReadableByteChannel channel, DataFormatRule format, RecordLayout layout,
+                                       boolean closeChannel) {
+        ByteBufferPool pool = format.getBufferSize() == ByteBufferPool.shared().getBufferSize()
+                ? ByteBufferPool.shared()
+                : new ByteBufferPool(format.getBufferSize(), 0);
+
+        return switch (RecordFormat.of(format.getRecordFormat())) {
+            case F, FB -> new FixedLengthRecordReader(channel, resolveRecordLength(format, layout), pool, closeChannel);
+            case V -> new VariableLengthRecordReader(channel, false, pool, closeChannel);
+            case VB -> new VariableLengthRecordReader(channel, true, pool, closeChannel);
+            case LINE -> new LineRecordReader(channel, pool, closeChannel);
+        };
+    }
+}
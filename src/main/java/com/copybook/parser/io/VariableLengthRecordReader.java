@@ -0,0 +1,73 @@
+package com.copybook.parser.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+// RECFM=V and VB. Each record carries a 4-byte RDW (2-byte big-endian length including the RDW,
+// then 2 bytes of segment flags); VB additionally wraps records in blocks led by a 4-byte BDW.
+public class VariableLengthRecordReader extends AbstractRecordReader {
+
+    private static final int HEADER_LENGTH = 4;
+
+    private final boolean blocked;
+    private long blockRemaining;
+
+    public VariableLengthRecordReader(ReadableByteChannel channel, boolean blocked, ByteBufferPool pool, boolean closeChannel) {
+        super(channel, pool, closeChannel);
+        this.blocked = blocked;
+    }
+
+    @Override
+    public ByteBuffer next() throws IOException {
+        if (blocked && blockRemaining == 0 && !readBlockDescriptor()) {
+            return null;
+        }
+        if (!require(HEADER_LENGTH)) {
+            return null;
+        }
+
+        int position = buffer.position();
+        int recordLength = Short.toUnsignedInt(buffer.getShort(position));
+        if (buffer.get(position + 2) != 0) {
+            throw new IOException("Spanned records (RECFM=VS/VBS) are not supported, record " + (recordsRead + 1));
+        }
+        if (recordLength < HEADER_LENGTH) {
+            throw new IOException(String.format("Invalid RDW length %d at record %d", recordLength, recordsRead + 1));
+        }
+        if (blocked) {
+            if (recordLength > blockRemaining) {
+                throw new IOException(String.format("Record %d of %d bytes overruns its block (%d bytes left)",
+                        recordsRead + 1, recordLength, blockRemaining));
+            }
+            blockRemaining -= recordLength;
+        }
+
+        require(recordLength);
+        buffer.position(buffer.position() + HEADER_LENGTH);
+        return slice(recordLength - HEADER_LENGTH);
+    }
+
+    private boolean readBlockDescriptor() throws IOException {
+        // Skip empty blocks until one with records is found
+        while (blockRemaining == 0) {
+            if (!require(HEADER_LENGTH)) {
+                return false;
+            }
+            int position = buffer.position();
+            long blockLength;
+            if ((buffer.get(position) & 0x80) != 0) {
+                // Extended BDW: 31-bit length in all four bytes
+                blockLength = buffer.getInt(position) & 0x7FFFFFFFL;
+            } else {
+                blockLength = Short.toUnsignedInt(buffer.getShort(position));
+            }
+            if (blockLength < HEADER_LENGTH) {
+                throw new IOException(String.format("Invalid BDW length %d after record %d", blockLength, recordsRead));
+            }
+            buffer.position(position + HEADER_LENGTH);
+            blockRemaining = blockLength - HEADER_LENGTH;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,108 @@
+package com.copybook.parser.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+// Publishes the counts a classification loop already keeps. Loops call flush() with their running totals every
+// FLUSH_INTERVAL records and once at the end; only the difference since the previous flush is added, so
+// long-running jobs show progress without per-record meter updates. Used by one thread at a time.
+public final class ClassificationMeter {
+
+    public static final int FLUSH_INTERVAL = 1 << 16;
+
+    static final ClassificationMeter NOOP = new ClassificationMeter(null, null, 0);
+
+    private final String strategy;
+    private final String source;
+    private final long start;
+
+    private final Map<String, Counter> typeCounters = new HashMap<>();
+    private final Map<String, long[]> published = new HashMap<>();
+    private long publishedUnrecognized;
+    private long publishedBytes;
+
+    ClassificationMeter(String strategy, String source, long start) {
+        this.strategy = strategy;
+        this.source = source;
+        this.start = start;
+    }
+
+    public boolean isEnabled() {
+        return start != 0;
+    }
+
+    // Running totals keyed by type name
+    public void flush(Map<String, long[]> counters, long unrecognized, long bytes) {
+        if (start == 0) {
+            return;
+        }
+        counters.forEach((type, count) -> publish(type, count[0]));
+        publishTotals(unrecognized, bytes);
+    }
+
+    // Running totals indexed by dispatcher type id
+    public void flush(long[] counters, IntFunction<String> typeName, long unrecognized, long bytes) {
+        if (start == 0) {
+            return;
+        }
+        for (int typeId = 0; typeId < counters.length; typeId++) {
+            if (counters[typeId] > 0) {
+                publish(typeName.apply(typeId), counters[typeId]);
+            }
+        }
+        publishTotals(unrecognized, bytes);
+    }
+
+    // Final totals of an in-memory classification
+    public void flushCounts(Map<String, Integer> recordCounts, long unrecognized) {
+        if (start == 0) {
+            return;
+        }
+        recordCounts.forEach((type, count) -> publish(type, count));
+        publishTotals(unrecognized, publishedBytes);
+    }
+
+    // Records the elapsed time of the whole call
+    public void stop() {
+        if (start == 0) {
+            return;
+        }
+        ParserMetrics.stop(Timer.builder(ParserMetrics.PREFIX + ".classify")
+                .description("RecordTypeProcessor.process")
+                .tags("strategy", strategy, "source", source)
+                .register(ParserMetrics.registry()), start);
+    }
+
+    private void publish(String type, long total) {
+        long[] previous = published.computeIfAbsent(type, k -> new long[1]);
+        if (total > previous[0]) {
+            typeCounters.computeIfAbsent(type, k -> Counter.builder(ParserMetrics.PREFIX + ".records")
+                    .description("Records classified, by record type")
+                    .tags("strategy", strategy, "type", k)
+                    .register(ParserMetrics.registry())).increment(total - previous[0]);
+            previous[0] = total;
+        }
+    }
+
+    private void publishTotals(long unrecognized, long bytes) {
+        if (unrecognized > publishedUnrecognized) {
+            Counter.builder(ParserMetrics.PREFIX + ".records.unrecognized")
+                    .tag("strategy", strategy)
+                    .register(ParserMetrics.registry())
+                    .increment(unrecognized - publishedUnrecognized);
+            publishedUnrecognized = unrecognized;
+        }
+        if (bytes > publishedBytes) {
+            Counter.builder(ParserMetrics.PREFIX + ".records.bytes")
+                    .tags("strategy", strategy, "source", source)
+                    .baseUnit("bytes")
+                    .register(ParserMetrics.registry())
+                    .increment(bytes - publishedBytes);
+            publishedBytes = bytes;
+        }
+    }
+}
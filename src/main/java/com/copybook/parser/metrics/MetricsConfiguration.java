@@ -0,0 +1,93 @@
+package com.copybook.parser.metrics;
+
+import com.copybook.parser.cache.LayoutCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Chooses the registry ParserMetrics reports to (copybook.parser.metrics.registry):
+//   none        metrics stay disabled and cost nothing (default)
+//   simple      in-memory registry, for embedding applications that read meters directly
+//   prometheus  Prometheus registry; with prometheus-file set, the text exposition is written there on
+//               shutdown, for batch runs collected through a node-exporter textfile directory
+@Configuration
+@Slf4j
+public class MetricsConfiguration {
+
+    @Bean
+    public ParserMeterRegistry parserMeterRegistry(
+            @Value("${copybook.parser.metrics.registry:none}") String registry,
+            @Value("${copybook.parser.metrics.prometheus-file:}") String prometheusFile,
+            ObjectProvider<LayoutCache> layoutCache) {
+        MeterRegistry meterRegistry = switch (registry.trim().toLowerCase()) {
+            case "none", "" -> null;
+            case "simple" -> new SimpleMeterRegistry();
+            case "prometheus" -> new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            default -> throw new IllegalArgumentException("Unsupported metrics registry: " + registry);
+        };
+        Path exportFile = prometheusFile == null || prometheusFile.isBlank() ? null : Path.of(prometheusFile);
+        ParserMeterRegistry parserMeterRegistry = new ParserMeterRegistry(meterRegistry, exportFile);
+        if (meterRegistry != null) {
+            layoutCache.ifAvailable(ParserMetrics::bindLayoutCache);
+        }
+        return parserMeterRegistry;
+    }
+
+    // Holds the configured registry, or null when disabled, and detaches it from the global registry on close
+    public static final class ParserMeterRegistry implements DisposableBean {
+
+        private final MeterRegistry registry;
+        private final Path exportFile;
+
+        ParserMeterRegistry(MeterRegistry registry, Path exportFile) {
+            this.registry = registry;
+            this.exportFile = exportFile;
+            if (registry != null) {
+                Metrics.addRegistry(registry);
+                log.debug("Parser metrics reporting to {}", registry.getClass().getSimpleName());
+            }
+        }
+
+        public MeterRegistry getRegistry() {
+            return registry;
+        }
+
+        // Prometheus text exposition, or null unless the Prometheus registry is configured
+        public String scrape() {
+            return registry instanceof PrometheusMeterRegistry prometheus ? prometheus.scrape() : null;
+        }
+
+        @Override
+        public void destroy() {
+            if (registry == null) {
+                return;
+            }
+            String text = scrape();
+            if (text != null && exportFile != null) {
+                try {
+                    // Written beside the target and renamed so collectors never read a partial file
+                    Path temp = exportFile.resolveSibling(exportFile.getFileName() + ".tmp");
+                    Files.writeString(temp, text);
+                    Files.move(temp, exportFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    log.warn("Could not write metrics to {}: {}", exportFile, e.getMessage());
+                }
+            }
+            Metrics.removeRegistry(registry);
+            registry.close();
+        }
+    }
+}
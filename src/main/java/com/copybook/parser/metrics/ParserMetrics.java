@@ -0,0 +1,131 @@
+package com.copybook.parser.metrics;
+
+import com.copybook.parser.cache.LayoutCache;
+import com.copybook.parser.cache.LayoutCacheStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+// Meters for every pipeline stage, registered on Micrometer's global registry. Until MetricsConfiguration
+// (or an embedding application) adds a concrete registry to it, isEnabled() is false and every call returns
+// without timing or registering anything. Callers update meters once per call, batch or chunk, never per record.
+public final class ParserMetrics {
+
+    static final String PREFIX = "copybook.parser";
+
+    private ParserMetrics() {
+    }
+
+    static MeterRegistry registry() {
+        return Metrics.globalRegistry;
+    }
+
+    public static boolean isEnabled() {
+        return !Metrics.globalRegistry.getRegistries().isEmpty();
+    }
+
+    // Start of a timed stage, or 0 when metrics are disabled (the matching stop call is then a no-op)
+    public static long start() {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+
+    public static void fieldsProcessed(int fields, long start) {
+        if (start == 0) {
+            return;
+        }
+        stop(Timer.builder(PREFIX + ".fields.process")
+                .description("FieldProcessor.processFields")
+                .register(registry()), start);
+        Counter.builder(PREFIX + ".fields")
+                .description("Fields parsed from copybooks")
+                .register(registry())
+                .increment(fields);
+    }
+
+    public static void layoutProcessed(int totalLength, long start) {
+        if (start == 0) {
+            return;
+        }
+        stop(Timer.builder(PREFIX + ".layout.process")
+                .description("LayoutProcessor.processLayout")
+                .register(registry()), start);
+        Counter.builder(PREFIX + ".layout.bytes")
+                .description("Record length of the layouts built")
+                .baseUnit("bytes")
+                .register(registry())
+                .increment(totalLength);
+    }
+
+    // Meter for one classification call: strategy is the rule type, source how records arrive
+    // (lines, stream, bytes or chunks)
+    public static ClassificationMeter classification(String strategy, String source) {
+        return isEnabled() ? new ClassificationMeter(strategy.toLowerCase(), source, System.nanoTime())
+                : ClassificationMeter.NOOP;
+    }
+
+    // One batch of records decoded and written in the given output format
+    public static void recordsDecoded(String format, long records, long bytes, long start) {
+        if (start == 0) {
+            return;
+        }
+        stop(Timer.builder(PREFIX + ".decode")
+                .description("Decoding and encoding one output batch")
+                .tag("format", format)
+                .register(registry()), start);
+        Counter.builder(PREFIX + ".decode.records")
+                .tag("format", format)
+                .register(registry())
+                .increment(records);
+        Counter.builder(PREFIX + ".decode.bytes")
+                .tag("format", format)
+                .baseUnit("bytes")
+                .register(registry())
+                .increment(bytes);
+    }
+
+    // One parse service request; status is the HTTP status sent, or -1 when none was
+    public static void serviceRequest(String endpoint, int status, long start) {
+        if (start == 0) {
+            return;
+        }
+        stop(Timer.builder(PREFIX + ".service.requests")
+                .description("Parse service requests")
+                .tags("endpoint", endpoint, "status", Integer.toString(status))
+                .register(registry()), start);
+    }
+
+    // Cache counters are read from the cache's own statistics whenever the registry is scraped; bound by
+    // MetricsConfiguration once a registry is configured
+    public static void bindLayoutCache(LayoutCache cache) {
+        if (!isEnabled()) {
+            return;
+        }
+        cacheRequests(cache, "hit", LayoutCacheStats::hits);
+        cacheRequests(cache, "disk_hit", LayoutCacheStats::diskHits);
+        cacheRequests(cache, "miss", LayoutCacheStats::misses);
+        FunctionCounter.builder(PREFIX + ".layout.cache.evictions", cache, c -> c.getStats().evictions())
+                .register(registry());
+        Gauge.builder(PREFIX + ".layout.cache.hit.ratio", cache, c -> c.getStats().hitRatio())
+                .register(registry());
+        Gauge.builder(PREFIX + ".layout.cache.size", cache, c -> c.getStats().size())
+                .register(registry());
+        Gauge.builder(PREFIX + ".layout.cache.weight", cache, c -> c.getStats().weight())
+                .register(registry());
+    }
+
+    private static void cacheRequests(LayoutCache cache, String result, ToDoubleFunction<LayoutCacheStats> count) {
+        FunctionCounter.builder(PREFIX + ".layout.cache.requests", cache, c -> count.applyAsDouble(c.getStats()))
+                .tag("result", result)
+                .register(registry());
+    }
+
+    static void stop(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
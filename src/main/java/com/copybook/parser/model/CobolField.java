@@ -4,29 +4,68 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.extern.jackson.Jacksonized;
 
+import java.util.List;
+import java.util.Set;
+
 @Data
 @Builder
 @Jacksonized
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class CobolField {
 
+    // Usages that define an elementary item without a PICTURE clause
+    private static final Set<String> PICTURELESS_USAGES = Set.of(
+            "COMP-1", "COMP-2", "INDEX", "POINTER", "PROCEDURE-POINTER", "FUNCTION-POINTER"
+    );
+
     private int level;
     private String name;
     private String picture;
+    private String usage;
     private String value;
 
+    // Clauses that shape the storage layout
+    private String redefines;
+    private Integer occurs;
+    private Integer occursMin;
+    private String dependingOn;
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean signLeading;
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean signSeparate;
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean sync;
+
     // Position and Length
     private int startPosition;
     private int endPosition;
     private int length;
 
+    // Enclosing OCCURS dimensions, outermost first (this field's own OCCURS last). The byte offset of an
+    // element is startPosition - 1 + sum(index[d] * dimensionStrides[d]).
+    private List<Integer> dimensionCounts;
+    private List<Integer> dimensionStrides;
+
+    // Hierarchy, rebuilt from level numbers by FieldTree.link and never serialized
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private CobolField parent;
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<CobolField> children;
+
     // Helper methods to determine field type
     @JsonIgnore
     public boolean isGroup() {
         // A group field has no PICTURE clause and is not a condition level.
-        return (picture == null || picture.trim().isEmpty()) && !isCondition();
+        return (picture == null || picture.trim().isEmpty()) && !isCondition()
+                && (usage == null || !PICTURELESS_USAGES.contains(usage));
     }
 
     @JsonIgnore
@@ -35,6 +74,25 @@ public class CobolField {
         return level == 88;
     }
 
+    @JsonIgnore
+    public boolean isRenames() {
+        return level == 66;
+    }
+
+    // Zero-based byte offset of one element, given zero-based indices for each OCCURS dimension
+    public int offsetOf(int... indices) {
+        int offset = startPosition - 1;
+        for (int d = 0; d < indices.length; d++) {
+            offset += indices[d] * dimensionStrides.get(d);
+        }
+        return offset;
+    }
+
+    @JsonIgnore
+    public int getDimensions() {
+        return dimensionCounts != null ? dimensionCounts.size() : 0;
+    }
+
     @JsonIgnore
     public boolean isFiller() {
         return name != null && "FILLER".equalsIgnoreCase(name.trim());
@@ -0,0 +1,376 @@
+package com.copybook.parser.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Immutable, struct-of-arrays form of a RecordLayout. Field i (in source order, as in RecordLayout.getFields())
+// is described by index i of parallel primitive arrays; names and clause strings are interned so layouts built
+// from the same copybooks share them, and the CobolField helpers (isGroup, isFiller, ...) are precomputed into
+// one flag word per field. Instances are thread-safe and can be shared by processors and decoders without copying.
+public final class CompactLayout {
+
+    // Field flags
+    public static final int GROUP = 1;
+    public static final int ELEMENTARY = 1 << 1;
+    public static final int CONDITION = 1 << 2;
+    public static final int RENAMES = 1 << 3;
+    public static final int FILLER = 1 << 4;
+    public static final int REDEFINES = 1 << 5;
+    public static final int OCCURS = 1 << 6;
+    public static final int OCCURS_DEPENDING = 1 << 7;
+    public static final int SIGN_LEADING = 1 << 8;
+    public static final int SIGN_SEPARATE = 1 << 9;
+    public static final int SYNC = 1 << 10;
+
+    private final String layoutName;
+    private final String recordType;
+    private final int totalLength;
+    private final int minLength;
+    private final int maxLength;
+    private final boolean variableLength;
+    // Union of all field flags
+    private final int layoutFlags;
+
+    private final String[] names;
+    private final String[] pictures;
+    private final String[] usages;
+    private final String[] values;
+    private final String[] redefines;
+    private final String[] dependingOn;
+    private final byte[] levels;
+    private final short[] flags;
+    // Zero-based
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int[] occurs;
+    private final int[] occursMin;
+
+    // Hierarchy as indexes, -1 where absent
+    private final int[] parents;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final int[] roots;
+
+    // OCCURS dimensions of field i are dimensionCounts/Strides[dimensionStarts[i] .. dimensionStarts[i + 1])
+    private final int[] dimensionStarts;
+    private final int[] dimensionCounts;
+    private final int[] dimensionStrides;
+
+    private CompactLayout(RecordLayout layout) {
+        List<CobolField> fields = layout.getFields() != null ? layout.getFields() : List.of();
+        int count = fields.size();
+        this.layoutName = intern(layout.getLayoutName());
+        this.recordType = intern(layout.getRecordType());
+        this.totalLength = layout.getTotalLength();
+        this.minLength = layout.getMinLength();
+        this.maxLength = layout.getMaxLength();
+        this.variableLength = layout.isVariableLength();
+
+        this.names = new String[count];
+        this.pictures = new String[count];
+        this.usages = new String[count];
+        this.values = new String[count];
+        this.redefines = new String[count];
+        this.dependingOn = new String[count];
+        this.levels = new byte[count];
+        this.flags = new short[count];
+        this.offsets = new int[count];
+        this.lengths = new int[count];
+        this.occurs = new int[count];
+        this.occursMin = new int[count];
+        this.dimensionStarts = new int[count + 1];
+
+        int union = 0;
+        int dimensions = 0;
+        for (int i = 0; i < count; i++) {
+            CobolField field = fields.get(i);
+            names[i] = intern(field.getName());
+            pictures[i] = intern(field.getPicture());
+            usages[i] = intern(field.getUsage());
+            values[i] = intern(field.getValue());
+            redefines[i] = intern(field.getRedefines());
+            dependingOn[i] = intern(field.getDependingOn());
+            levels[i] = (byte) field.getLevel();
+            offsets[i] = field.getStartPosition() - 1;
+            lengths[i] = field.getLength();
+            occurs[i] = field.getOccurs() != null ? field.getOccurs() : 0;
+            occursMin[i] = field.getOccursMin() != null ? field.getOccursMin() : occurs[i];
+            flags[i] = (short) flagsOf(field);
+            union |= flags[i];
+            dimensionStarts[i] = dimensions;
+            dimensions += field.getDimensions();
+        }
+        dimensionStarts[count] = dimensions;
+        this.layoutFlags = union;
+
+        this.dimensionCounts = new int[dimensions];
+        this.dimensionStrides = new int[dimensions];
+        for (int i = 0; i < count; i++) {
+            CobolField field = fields.get(i);
+            for (int d = 0; d < field.getDimensions(); d++) {
+                dimensionCounts[dimensionStarts[i] + d] = field.getDimensionCounts().get(d);
+                dimensionStrides[dimensionStarts[i] + d] = field.getDimensionStrides().get(d);
+            }
+        }
+
+        this.parents = FieldTree.parents(fields);
+        this.firstChildren = new int[count];
+        this.nextSiblings = new int[count];
+        Arrays.fill(firstChildren, -1);
+        Arrays.fill(nextSiblings, -1);
+        int[] lastChildren = new int[count];
+        int rootCount = 0;
+        for (int i = 0; i < count; i++) {
+            int parent = parents[i];
+            if (parent < 0) {
+                rootCount++;
+            } else if (firstChildren[parent] < 0) {
+                firstChildren[parent] = i;
+                lastChildren[parent] = i;
+            } else {
+                nextSiblings[lastChildren[parent]] = i;
+                lastChildren[parent] = i;
+            }
+        }
+        this.roots = new int[rootCount];
+        for (int i = 0, r = 0; i < count; i++) {
+            if (parents[i] < 0) {
+                roots[r++] = i;
+            }
+        }
+    }
+
+    // Reads the layout without modifying it, so a layout shared through the cache can be converted concurrently
+    public static CompactLayout of(RecordLayout layout) {
+        return new CompactLayout(layout);
+    }
+
+    private static int flagsOf(CobolField field) {
+        int flags = 0;
+        if (field.isGroup()) {
+            flags |= GROUP;
+        } else if (!field.isCondition() && !field.isRenames()) {
+            flags |= ELEMENTARY;
+        }
+        if (field.isCondition()) {
+            flags |= CONDITION;
+        }
+        if (field.isRenames()) {
+            flags |= RENAMES;
+        }
+        if (field.isFiller()) {
+            flags |= FILLER;
+        }
+        if (field.getRedefines() != null) {
+            flags |= REDEFINES;
+        }
+        if (field.getOccurs() != null) {
+            flags |= OCCURS;
+        }
+        if (field.getDependingOn() != null) {
+            flags |= OCCURS_DEPENDING;
+        }
+        if (field.isSignLeading()) {
+            flags |= SIGN_LEADING;
+        }
+        if (field.isSignSeparate()) {
+            flags |= SIGN_SEPARATE;
+        }
+        if (field.isSync()) {
+            flags |= SYNC;
+        }
+        return flags;
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    public String getLayoutName() {
+        return layoutName;
+    }
+
+    public String getRecordType() {
+        return recordType;
+    }
+
+    public int getTotalLength() {
+        return totalLength;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public boolean isVariableLength() {
+        return variableLength;
+    }
+
+    // True when any field has the flag, e.g. hasAny(REDEFINES)
+    public boolean hasAny(int flag) {
+        return (layoutFlags & flag) != 0;
+    }
+
+    public int getFieldCount() {
+        return names.length;
+    }
+
+    public String getName(int field) {
+        return names[field];
+    }
+
+    public int getLevel(int field) {
+        return levels[field];
+    }
+
+    public String getPicture(int field) {
+        return pictures[field];
+    }
+
+    public String getUsage(int field) {
+        return usages[field];
+    }
+
+    public String getValue(int field) {
+        return values[field];
+    }
+
+    public String getRedefines(int field) {
+        return redefines[field];
+    }
+
+    public String getDependingOn(int field) {
+        return dependingOn[field];
+    }
+
+    public int getFlags(int field) {
+        return flags[field];
+    }
+
+    public boolean is(int field, int flag) {
+        return (flags[field] & flag) != 0;
+    }
+
+    public int getOffset(int field) {
+        return offsets[field];
+    }
+
+    public int getLength(int field) {
+        return lengths[field];
+    }
+
+    // OCCURS count (the maximum for OCCURS DEPENDING ON), or 0 for fields without OCCURS
+    public int getOccurs(int field) {
+        return occurs[field];
+    }
+
+    public int getOccursMin(int field) {
+        return occursMin[field];
+    }
+
+    public int getParent(int field) {
+        return parents[field];
+    }
+
+    public int getFirstChild(int field) {
+        return firstChildren[field];
+    }
+
+    public int getNextSibling(int field) {
+        return nextSiblings[field];
+    }
+
+    // Root entries (01, 77 and orphan 66 levels); the array is a copy
+    public int[] getRoots() {
+        return roots.clone();
+    }
+
+    public int getDimensions(int field) {
+        return dimensionStarts[field + 1] - dimensionStarts[field];
+    }
+
+    public int getDimensionCount(int field, int dimension) {
+        return dimensionCounts[dimensionStarts[field] + dimension];
+    }
+
+    public int getDimensionStride(int field, int dimension) {
+        return dimensionStrides[dimensionStarts[field] + dimension];
+    }
+
+    // Zero-based byte offset of one element, given zero-based indices for each OCCURS dimension
+    public int offsetOf(int field, int... indices) {
+        int offset = offsets[field];
+        int base = dimensionStarts[field];
+        for (int d = 0; d < indices.length; d++) {
+            offset += indices[d] * dimensionStrides[base + d];
+        }
+        return offset;
+    }
+
+    public int indexOf(String fieldName) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null && names[i].equalsIgnoreCase(fieldName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public Field field(int field) {
+        return new Field(this, field);
+    }
+
+    public List<Field> children(int field) {
+        List<Field> children = new ArrayList<>();
+        for (int child = firstChildren[field]; child >= 0; child = nextSiblings[child]) {
+            children.add(new Field(this, child));
+        }
+        return children;
+    }
+
+    // Flyweight view of one field; holds only the layout and an index
+    public record Field(CompactLayout layout, int index) {
+
+        public String name() {
+            return layout.getName(index);
+        }
+
+        public int level() {
+            return layout.getLevel(index);
+        }
+
+        public String picture() {
+            return layout.getPicture(index);
+        }
+
+        public String usage() {
+            return layout.getUsage(index);
+        }
+
+        public int offset() {
+            return layout.getOffset(index);
+        }
+
+        public int length() {
+            return layout.getLength(index);
+        }
+
+        public boolean is(int flag) {
+            return layout.is(index, flag);
+        }
+
+        public Field parent() {
+            int parent = layout.getParent(index);
+            return parent >= 0 ? new Field(layout, parent) : null;
+        }
+
+        public List<Field> children() {
+            return layout.children(index);
+        }
+    }
+}
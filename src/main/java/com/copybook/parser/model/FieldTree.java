@@ -0,0 +1,73 @@
+package com.copybook.parser.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Rebuilds the parent/child hierarchy of a flat, source-ordered field list from its level numbers
+public final class FieldTree {
+
+    private FieldTree() {
+    }
+
+    // Links every field to its parent and children and returns the root entries (01, 77 and orphan 66 levels)
+    public static List<CobolField> link(List<CobolField> fields) {
+        int[] parents = parents(fields);
+        List<CobolField> roots = new ArrayList<>();
+        for (CobolField field : fields) {
+            field.setChildren(new ArrayList<>());
+            field.setParent(null);
+        }
+        for (int i = 0; i < parents.length; i++) {
+            CobolField field = fields.get(i);
+            if (parents[i] < 0) {
+                roots.add(field);
+            } else {
+                CobolField parent = fields.get(parents[i]);
+                field.setParent(parent);
+                parent.getChildren().add(field);
+            }
+        }
+        return roots;
+    }
+
+    // Index of each field's parent in the list, or -1 for roots. Reads only level numbers, so the fields
+    // themselves are left untouched.
+    public static int[] parents(List<CobolField> fields) {
+        int[] parents = new int[fields.size()];
+        Arrays.fill(parents, -1);
+        // Open entries, innermost last
+        int[] open = new int[fields.size()];
+        int depth = 0;
+
+        for (int i = 0; i < parents.length; i++) {
+            int level = fields.get(i).getLevel();
+
+            if (level == 88) {
+                // Conditions belong to the entry they follow
+                if (depth > 0) {
+                    parents[i] = open[depth - 1];
+                }
+                continue;
+            }
+            if (level == 66) {
+                // RENAMES entries belong to the record, after all of its other entries
+                if (depth > 0) {
+                    parents[i] = open[0];
+                }
+                continue;
+            }
+            if (level == 1 || level == 77) {
+                depth = 0;
+            }
+            while (depth > 0 && fields.get(open[depth - 1]).getLevel() >= level) {
+                depth--;
+            }
+            if (depth > 0) {
+                parents[i] = open[depth - 1];
+            }
+            open[depth++] = i;
+        }
+        return parents;
+    }
+}
@@ -0,0 +1,38 @@
+package com.copybook.parser.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+// One difference between two versions of a record layout. Field-level changes name the field by its
+// qualified path (e.g. CUSTOMER.ADDRESS.CITY, with #2, #3 ... for repeated names such as FILLER);
+// positions are the 1-based start positions of CobolField.
+@Data
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LayoutDiff {
+
+    public enum Change {
+        LAYOUT_ADDED,
+        LAYOUT_REMOVED,
+        RECORD_LENGTH_CHANGED,
+        FIELD_ADDED,
+        FIELD_REMOVED,
+        OFFSET_MOVED,
+        LENGTH_CHANGED,
+        PICTURE_CHANGED,
+        USAGE_CHANGED,
+        OCCURS_CHANGED,
+        REDEFINES_CHANGED,
+        VALUE_CHANGED
+    }
+
+    private String member;
+    private String layoutName;
+    private Change change;
+    private String field;
+    private String oldValue;
+    private String newValue;
+}
@@ -0,0 +1,38 @@
+package com.copybook.parser.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LibraryAnalysis {
+
+    private String library;
+    private int parallelism;
+
+    // Member counts
+    private int members;
+    private int succeeded;
+    private int failed;
+    private int totalLayouts;
+
+    // Timing; parse times are per member and summed across workers
+    private long wallTimeMs;
+    private long totalParseTimeMs;
+    private long maxParseTimeMs;
+    private String slowestMember;
+    private double membersPerSecond;
+
+    // Failed members per exception type
+    private Map<String, Integer> failuresByType;
+
+    // One result per member, in member name order
+    private List<ParseResult> results;
+}
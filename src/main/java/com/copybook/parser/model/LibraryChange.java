@@ -0,0 +1,37 @@
+package com.copybook.parser.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+import java.util.Map;
+
+// Result of re-parsing the part of a watched copybook library affected by a batch of file changes
+@Data
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LibraryChange {
+
+    private String library;
+
+    // Files reported by the watcher, and the members re-parsed because of them
+    private List<String> changedFiles;
+    private List<String> reparsedMembers;
+
+    // Layout differences against the last successful parse of each member
+    private List<LayoutDiff> diffs;
+
+    // Members that no longer parse -> error message; their last good layouts are kept
+    private Map<String, String> errors;
+
+    private long processingTimeMs;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return (diffs == null || diffs.isEmpty()) && (errors == null || errors.isEmpty());
+    }
+}
@@ -15,6 +15,8 @@ public class RecordTypeResult {
     private String processingMethod;
     private Map<String, Integer> recordCounts;
     private List<String> unrecognizedLines;
+    private long totalRecords;
+    private long unrecognizedCount;
     private Map<String, Object> processingMetadata;
     private List<String> processingWarnings;
 }
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.copybook.parser.output;
+
+import com.copybook.parser.codec.ByteTranscoder;
+import com.copybook.parser.codec.DecimalFormatter;
+import com.copybook.parser.config.LayoutGenerationRule;
+import com.copybook.parser.decoder.FieldType;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.copybook.parser.metrics.ParserMetrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+// Shared plumbing for the built-in writers. Each record is copied once into a reusable array (reader views
+// are usually direct or read-only), encoded into a growable batch buffer, and the buffer goes to the
+// stream once per batch. Numbers are formatted with DecimalFormatter and text is transcoded straight to
+// UTF-8, so the per-record path allocates nothing for text, zoned, packed or binary fields.
+abstract class AbstractRecordWriter implements RecordWriter {
+
+    protected final RecordDecoder decoder;
+    protected final ByteTranscoder transcoder;
+    // Output column names: field names after outputMappings
+    protected final String[] columns;
+    private final OutputStream output;
+    private final int batchSize;
+
+    private byte[] recordBytes = new byte[512];
+    private ByteBuffer recordView = ByteBuffer.wrap(recordBytes);
+
+    // Encoded bytes of the current batch
+    protected byte[] batch = new byte[1 << 16];
+    protected int batchLength;
+    protected int batchRecords;
+    private long recordsWritten;
+
+    // Metrics are published once per batch
+    private long batchStart;
+    private long batchInputBytes;
+    private long meteredRecords;
+
+    protected AbstractRecordWriter(OutputStream output, RecordDecoder decoder, LayoutGenerationRule options) {
+        if (options.getOutputBatchSize() < 1) {
+            throw new IllegalArgumentException("outputBatchSize must be >= 1");
+        }
+        this.output = output;
+        this.decoder = decoder;
+        this.transcoder = decoder.getTranscoder();
+        this.batchSize = options.getOutputBatchSize();
+        Map<String, String> mappings = options.getOutputMappings() != null ? options.getOutputMappings() : Map.of();
+        this.columns = new String[decoder.getFieldCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = mappings.getOrDefault(decoder.getFieldName(i), decoder.getFieldName(i));
+        }
+    }
+
+    // Output format name, used as the metrics tag
+    protected abstract String format();
+
+    // Encodes one record; the buffer is the writer's own copy and its array backs offsets from 0
+    protected abstract void writeRecord(ByteBuffer record) throws IOException;
+
+    // Hands the finished batch to the stream; columnar writers encode their vectors here first
+    protected void writeBatch() throws IOException {
+        output.write(batch, 0, batchLength);
+        batchLength = 0;
+        batchRecords = 0;
+    }
+
+    // Anything that follows the last batch
+    protected void finish() throws IOException {
+    }
+
+    @Override
+    public void write(ByteBuffer record) throws IOException {
+        int length = record.remaining();
+        if (length > recordBytes.length) {
+            recordBytes = new byte[Math.max(length, recordBytes.length * 2)];
+            recordView = ByteBuffer.wrap(recordBytes);
+        }
+        record.get(record.position(), recordBytes, 0, length);
+        recordView.limit(length);
+        if (batchRecords == 0) {
+            batchStart = ParserMetrics.start();
+        }
+        batchInputBytes += length;
+
+        writeRecord(recordView);
+        recordsWritten++;
+        if (++batchRecords >= batchSize) {
+            completeBatch();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (batchRecords > 0) {
+            completeBatch();
+        }
+        output.flush();
+    }
+
+    @Override
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (batchRecords > 0) {
+                completeBatch();
+            }
+            finish();
+            output.flush();
+        } finally {
+            output.close();
+        }
+    }
+
+    private void completeBatch() throws IOException {
+        writeBatch();
+        ParserMetrics.recordsDecoded(format(), recordsWritten - meteredRecords, batchInputBytes, batchStart);
+        meteredRecords = recordsWritten;
+        batchInputBytes = 0;
+    }
+
+    protected void emit(byte[] bytes, int offset, int length) throws IOException {
+        output.write(bytes, offset, length);
+    }
+
+    protected void ensure(int free) {
+        if (batchLength + free > batch.length) {
+            batch = Arrays.copyOf(batch, Math.max(batchLength + free, batch.length * 2));
+        }
+    }
+
+    protected void put(byte b) {
+        ensure(1);
+        batch[batchLength++] = b;
+    }
+
+    protected void put(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, batch, batchLength, bytes.length);
+        batchLength += bytes.length;
+    }
+
+    protected void putAscii(String text) {
+        put(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    // UTF-8 of a text field appended to the batch; returns the index of its first byte
+    protected int putText(ByteBuffer record, int field) {
+        int length = decoder.getLength(field);
+        ensure(length * 2);
+        int start = batchLength;
+        batchLength += transcoder.toUtf8(recordBytes, record.position() + decoder.getOffset(field), length, batch, start);
+        return start;
+    }
+
+    // Plain decimal text of a numeric field; false for NaN or infinite floating-point values
+    protected boolean putNumber(ByteBuffer record, int field) {
+        FieldType type = decoder.getFieldType(field);
+        if (type == FieldType.FLOAT || type == FieldType.DOUBLE) {
+            double value = decoder.decodeDouble(record, field);
+            if (!Double.isFinite(value)) {
+                return false;
+            }
+            // Shortest repr of the value, without the exponent Float/Double.toString use past 10^7
+            putAscii(new BigDecimal(type == FieldType.FLOAT ? Float.toString((float) value) : Double.toString(value))
+                    .toPlainString());
+        } else if (decoder.isLongValued(field)) {
+            int scale = decoder.getScale(field);
+            ensure(DecimalFormatter.MAX_LENGTH + Math.max(0, -scale));
+            batchLength += DecimalFormatter.format(decoder.decodeLong(record, field), scale, batch, batchLength);
+        } else {
+            putAscii(((BigDecimal) decoder.decodeField(record, field)).toPlainString());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,196 @@
+package com.copybook.parser.output;
+
+import com.copybook.parser.config.LayoutGenerationRule;
+import com.copybook.parser.decoder.FieldType;
+import com.copybook.parser.decoder.RecordDecoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Column-oriented output in the spirit of Arrow record batches. Each field becomes a primitive vector that
+// is filled record by record and written once per batch, so loaders can read whole columns without parsing
+// text. All integers are big-endian.
+//
+//   file    := "CBC1" int:columns column* batch* int:0 long:totalRows
+//   column  := short:nameLength utf8:name byte:kind int:scale
+//   batch   := int:rows vector*            (rows > 0, one vector per column in order)
+//   vector  := validity data               (validity: (rows + 7) / 8 bytes, bit i set = row i present)
+//   data    := INT64: rows * long (unscaled; value = unscaled * 10^-scale)  | FLOAT64: rows * double
+//            | UTF8, DECIMAL: (rows + 1) * int end-exclusive offsets, then the bytes (DECIMAL is plain text)
+public final class ColumnarRecordWriter extends AbstractRecordWriter {
+
+    public static final byte INT64 = 0;
+    public static final byte FLOAT64 = 1;
+    public static final byte UTF8 = 2;
+    public static final byte DECIMAL = 3;
+
+    private static final byte[] MAGIC = {'C', 'B', 'C', '1'};
+    private static final int INITIAL_TEXT_BYTES = 256;
+
+    private final int capacity;
+    private final byte[] kinds;
+    private final long[][] validity;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private final int[][] textOffsets;
+    private final byte[][] textData;
+    private final int[] textLengths;
+    private int rows;
+    private long totalRows;
+    private ByteBuffer encoded = ByteBuffer.allocate(1 << 16);
+
+    public ColumnarRecordWriter(OutputStream output, RecordDecoder decoder, LayoutGenerationRule options) throws IOException {
+        super(output, decoder, options);
+        int count = columns.length;
+        this.capacity = options.getOutputBatchSize();
+        this.kinds = new byte[count];
+        this.validity = new long[count][(capacity + 63) >>> 6];
+        this.longs = new long[count][];
+        this.doubles = new double[count][];
+        this.textOffsets = new int[count][];
+        this.textData = new byte[count][];
+        this.textLengths = new int[count];
+
+        ByteBuffer header = ByteBuffer.allocate(8 + count * 9 + Arrays.stream(columns).mapToInt(c -> c.length() * 3).sum());
+        header.put(MAGIC).putInt(count);
+        for (int i = 0; i < count; i++) {
+            FieldType type = decoder.getFieldType(i);
+            kinds[i] = type == FieldType.TEXT ? UTF8
+                    : type == FieldType.FLOAT || type == FieldType.DOUBLE ? FLOAT64
+                    : decoder.isLongValued(i) ? INT64
+                    : DECIMAL;
+            switch (kinds[i]) {
+                case INT64 -> longs[i] = new long[capacity];
+                case FLOAT64 -> doubles[i] = new double[capacity];
+                default -> {
+                    textOffsets[i] = new int[capacity + 1];
+                    // Starts small: ensureText doubles it to what a batch needs and it is kept across batches
+                    textData[i] = new byte[INITIAL_TEXT_BYTES];
+                }
+            }
+            byte[] name = columns[i].getBytes(StandardCharsets.UTF_8);
+            header.putShort((short) name.length).put(name).put(kinds[i])
+                    .putInt(kinds[i] == INT64 || kinds[i] == DECIMAL ? decoder.getScale(i) : 0);
+        }
+        emit(header.array(), 0, header.position());
+    }
+
+    @Override
+    protected String format() {
+        return "columnar";
+    }
+
+    @Override
+    protected void writeRecord(ByteBuffer record) {
+        int row = rows++;
+        for (int i = 0; i < kinds.length; i++) {
+            boolean present = decoder.isPresent(record, i);
+            if (present) {
+                validity[i][row >>> 6] |= 1L << row;
+            } else {
+                validity[i][row >>> 6] &= ~(1L << row);
+            }
+            switch (kinds[i]) {
+                case INT64 -> longs[i][row] = present ? decoder.decodeLong(record, i) : 0;
+                case FLOAT64 -> doubles[i][row] = present ? decoder.decodeDouble(record, i) : 0;
+                case UTF8 -> {
+                    if (present) {
+                        int length = decoder.getLength(i);
+                        ensureText(i, length * 2);
+                        textLengths[i] += transcoder.toUtf8(record.array(), record.position() + decoder.getOffset(i),
+                                length, textData[i], textLengths[i]);
+                    }
+                    textOffsets[i][row + 1] = textLengths[i];
+                }
+                default -> {
+                    if (present) {
+                        byte[] text = ((BigDecimal) decoder.decodeField(record, i)).toPlainString()
+                                .getBytes(StandardCharsets.ISO_8859_1);
+                        ensureText(i, text.length);
+                        System.arraycopy(text, 0, textData[i], textLengths[i], text.length);
+                        textLengths[i] += text.length;
+                    }
+                    textOffsets[i][row + 1] = textLengths[i];
+                }
+            }
+        }
+    }
+
+    private void ensureText(int column, int free) {
+        if (textLengths[column] + free > textData[column].length) {
+            textData[column] = Arrays.copyOf(textData[column], Math.max(textLengths[column] + free, textData[column].length * 2));
+        }
+    }
+
+    @Override
+    protected void writeBatch() throws IOException {
+        int validityBytes = (rows + 7) >>> 3;
+        int size = 4;
+        for (int i = 0; i < kinds.length; i++) {
+            size += validityBytes + switch (kinds[i]) {
+                case INT64, FLOAT64 -> rows * 8;
+                default -> (rows + 1) * 4 + textLengths[i];
+            };
+        }
+        if (encoded.capacity() < size) {
+            encoded = ByteBuffer.allocate(Math.max(size, encoded.capacity() * 2));
+        }
+        encoded.clear();
+        encoded.putInt(rows);
+        for (int i = 0; i < kinds.length; i++) {
+            for (int b = 0; b < validityBytes; b++) {
+                encoded.put((byte) (validity[i][b >>> 3] >>> ((b & 7) << 3)));
+            }
+            switch (kinds[i]) {
+                case INT64 -> encoded.asLongBuffer().put(longs[i], 0, rows);
+                case FLOAT64 -> encoded.asDoubleBuffer().put(doubles[i], 0, rows);
+                default -> {
+                    encoded.asIntBuffer().put(textOffsets[i], 0, rows + 1);
+                    encoded.position(encoded.position() + (rows + 1) * 4);
+                    encoded.put(textData[i], 0, textLengths[i]);
+                    textLengths[i] = 0;
+                }
+            }
+            if (kinds[i] == INT64 || kinds[i] == FLOAT64) {
+                encoded.position(encoded.position() + rows * 8);
+            }
+        }
+        emit(encoded.array(), 0, encoded.position());
+        totalRows += rows;
+        rows = 0;
+        batchRecords = 0;
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        ByteBuffer footer = ByteBuffer.allocate(12).putInt(0).putLong(totalRows);
+        emit(footer.array(), 0, footer.position());
+    }
+
+    public static final class Factory implements RecordWriterFactory {
+        @Override
+        public String getFormat() {
+            return "columnar";
+        }
+
+        @Override
+        public List<String> getAliases() {
+            return List.of("column", "cbc");
+        }
+
+        @Override
+        public String getExtension() {
+            return "cbc";
+        }
+
+        @Override
+        public RecordWriter create(OutputStream output, RecordDecoder decoder, LayoutGenerationRule options) throws IOException {
+            return new ColumnarRecordWriter(output, decoder, options);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.copybook.parser.output;
+
+import com.copybook.parser.config.LayoutGenerationRule;
+import com.copybook.parser.decoder.FieldType;
+import com.copybook.parser.decoder.RecordDecoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Delimited text in the RFC 4180 style: an optional header row, text quoted only when it contains the
+// delimiter, a quote or a line break, numbers as plain decimals and missing fields left empty
+public final class DelimitedRecordWriter extends AbstractRecordWriter {
+
+    private final byte delimiter;
+
+    public DelimitedRecordWriter(OutputStream output, RecordDecoder decoder, LayoutGenerationRule options) throws IOException {
+        super(output, decoder, options);
+        String configured = options.getOutputDelimiter();
+        if (configured == null || configured.length() != 1 || configured.charAt(0) > 0x7F
+                || configured.charAt(0) == '"' || configured.charAt(0) == '\n' || configured.charAt(0) == '\r') {
+            throw new IllegalArgumentException("outputDelimiter must be a single ASCII character other than a quote "
+                    + "or line break: " + configured);
+        }
+        this.delimiter = (byte) configured.charAt(0);
+
+        if (options.isOutputHeader()) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    put(delimiter);
+                }
+                int start = batchLength;
+                put(columns[i].getBytes(StandardCharsets.UTF_8));
+                quoteIfNeeded(start);
+            }
+            put((byte) '\n');
+            emit(batch, 0, batchLength);
+            batchLength = 0;
+        }
+    }
+
+    @Override
+    protected String format() {
+        return "csv";
+    }
+
+    @Override
+    protected void writeRecord(ByteBuffer record) {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                put(delimiter);
+            }
+            if (!decoder.isPresent(record, i)) {
+                continue;
+            }
+            if (decoder.getFieldType(i) == FieldType.TEXT) {
+                quoteIfNeeded(putText(record, i));
+            } else if (!putNumber(record, i)) {
+                putAscii("NaN");
+            }
+        }
+        put((byte) '\n');
+    }
+
+    // Wraps the bytes from start to the end of the batch in quotes, doubling embedded quotes, when needed
+    private void quoteIfNeeded(int start) {
+        int end = batchLength;
+        int quotes = 0;
+        boolean needed = false;
+        for (int i = start; i < end; i++) {
+            byte b = batch[i];
+            if (b == '"') {
+                quotes++;
+                needed = true;
+            } else if (b == delimiter || b == '\n' || b == '\r') {
+                needed = true;
+            }
+        }
+        if (!needed) {
+            return;
+        }
+        ensure(quotes + 2);
+        int target = end + quotes + 2;
+        batch[--target] = '"';
+        for (int i = end - 1; i >= start; i--) {
+            batch[--target] = batch[i];
+            if (batch[i] == '"') {
+                batch[--target] = '"';
+            }
+        }
+        batch[--target] = '"';
+        batchLength = end + quotes + 2;
+    }
+
+    public static final class Factory implements RecordWriterFactory {
+        @Override
+        public String getFormat() {
+            return "csv";
+        }
+
+        @Override
+        public List<String> getAliases() {
+            return List.of("delimited");
+        }
+
+        @Override
+        public String getExtension() {
+            return "csv";
+        }
+
+        @Override
+        public RecordWriter create(OutputStream output, RecordDecoder decoder, LayoutGenerationRule options) throws IOException {
+            return new DelimitedRecordWriter(output, decoder, options);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.copybook.parser.output;
+
+import com.copybook.parser.config.LayoutGenerationRule;
+import com.copybook.parser.decoder.FieldType;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+// One JSON object per line. Keys are encoded once up front; numbers are written unquoted as plain decimals
+// (scale preserved), text as JSON strings, and fields missing from a short record as null.
+public final class JsonLinesRecordWriter extends AbstractRecordWriter {
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    // {"NAME": for the first column, ,"NAME": for the rest
+    private final byte[][] keys;
+
+    public JsonLinesRecordWriter(OutputStream output, RecordDecoder decoder, LayoutGenerationRule options) {
+        super(output, decoder, options);
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        this.keys = new byte[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            byte[] quoted = encoder.quoteAsUTF8(columns[i]);
+            byte[] key = new byte[quoted.length + 4];
+            key[0] = (byte) (i == 0 ? '{' : ',');
+            key[1] = '"';
+            System.arraycopy(quoted, 0, key, 2, quoted.length);
+            key[quoted.length + 2] = '"';
+            key[quoted.length + 3] = ':';
+            keys[i] = key;
+        }
+    }
+
+    @Override
+    protected String format() {
+        return "jsonl";
+    }
+
+    @Override
+    protected void writeRecord(ByteBuffer record) {
+        if (keys.length == 0) {
+            put((byte) '{');
+        }
+        for (int i = 0; i < keys.length; i++) {
+            put(keys[i]);
+            if (!decoder.isPresent(record, i)) {
+                put(NULL);
+            } else if (decoder.getFieldType(i) == FieldType.TEXT) {
+                putString(record, i);
+            } else if (!putNumber(record, i)) {
+                put(NULL);
+            }
+        }
+        put((byte) '}');
+        put((byte) '\n');
+    }
+
+    // Transcodes into the batch, then escapes in place from the back so nothing is copied twice
+    private void putString(ByteBuffer record, int field) {
+        put((byte) '"');
+        int start = putText(record, field);
+        int end = batchLength;
+        int extra = 0;
+        for (int i = start; i < end; i++) {
+            int b = batch[i] & 0xFF;
+            if (b == '"' || b == '\\') {
+                extra += 1;
+            } else if (b < 0x20) {
+                extra += 5;
+            }
+        }
+        if (extra > 0) {
+            ensure(extra);
+            int target = end + extra;
+            for (int i = end - 1; i >= start; i--) {
+                int b = batch[i] & 0xFF;
+                if (b == '"' || b == '\\') {
+                    batch[--target] = (byte) b;
+                    batch[--target] = '\\';
+                } else if (b < 0x20) {
+                    batch[--target] = HEX[b & 0xF];
+                    batch[--target] = HEX[b >>> 4];
+                    batch[--target] = '0';
+                    batch[--target] = '0';
+                    batch[--target] = 'u';
+                    batch[--target] = '\\';
+                } else {
+                    batch[--target] = (byte) b;
+                }
+            }
+            batchLength = end + extra;
+        }
+        put((byte) '"');
+    }
+
+    public static final class Factory implements RecordWriterFactory {
+        @Override
+        public String getFormat() {
+            return "jsonl";
+        }
+
+        @Override
+        public List<String> getAliases() {
+            return List.of("json", "ndjson", "json_lines");
+        }
+
+        @Override
+        public String getExtension() {
+            return "jsonl";
+        }
+
+        @Override
+        public RecordWriter create(OutputStream output, RecordDecoder decoder, LayoutGenerationRule options) {
+            return new JsonLinesRecordWriter(output, decoder, options);
+        }
+    }
+}
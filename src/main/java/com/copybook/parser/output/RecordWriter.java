@@ -0,0 +1,29 @@
+package com.copybook.parser.output;
+
+import com.copybook.parser.io.RecordReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public interface RecordWriter extends Closeable {
+
+    // Decodes and writes the record between position and limit. The buffer is not modified or retained,
+    // so reader views can be passed straight through.
+    void write(ByteBuffer record) throws IOException;
+
+    // Writes out the current batch, even if it is not full
+    void flush() throws IOException;
+
+    long getRecordsWritten();
+
+    default long writeAll(RecordReader reader) throws IOException {
+        long written = 0;
+        ByteBuffer record;
+        while ((record = reader.next()) != null) {
+            write(record);
+            written++;
+        }
+        return written;
+    }
+}
@@ -0,0 +1,26 @@
+package com.copybook.parser.output;
+
+import com.copybook.parser.config.LayoutGenerationRule;
+import com.copybook.parser.decoder.RecordDecoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+// Creates writers for one output format. Implementations outside this package are picked up through
+// META-INF/services/com.copybook.parser.output.RecordWriterFactory or registered with RecordWriters.register.
+public interface RecordWriterFactory {
+
+    // Name used in outputFormat / additionalFormats, matched case-insensitively
+    String getFormat();
+
+    default List<String> getAliases() {
+        return List.of();
+    }
+
+    // File extension, without the dot, for writers opened on a directory
+    String getExtension();
+
+    // The writer owns the stream and closes it
+    RecordWriter create(OutputStream output, RecordDecoder decoder, LayoutGenerationRule options) throws IOException;
+}
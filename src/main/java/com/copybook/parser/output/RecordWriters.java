@@ -0,0 +1,171 @@
+package com.copybook.parser.output;
+
+import com.copybook.parser.config.LayoutGenerationRule;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.LayoutRouter;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.copybook.parser.io.RecordFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class RecordWriters {
+
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+    private static final Map<String, RecordWriterFactory> FACTORIES = new ConcurrentHashMap<>();
+
+    static {
+        register(new JsonLinesRecordWriter.Factory());
+        register(new DelimitedRecordWriter.Factory());
+        register(new ColumnarRecordWriter.Factory());
+        // Loader-specific writers ship in their own jars
+        ServiceLoader.load(RecordWriterFactory.class).forEach(RecordWriters::register);
+    }
+
+    private RecordWriters() {
+    }
+
+    // Later registrations replace earlier ones for the same name
+    public static void register(RecordWriterFactory factory) {
+        FACTORIES.put(factory.getFormat().toLowerCase(), factory);
+        for (String alias : factory.getAliases()) {
+            FACTORIES.put(alias.toLowerCase(), factory);
+        }
+    }
+
+    public static RecordWriterFactory factory(String format) {
+        RecordWriterFactory factory = format != null ? FACTORIES.get(format.trim().toLowerCase()) : null;
+        if (factory == null) {
+            throw new IllegalArgumentException("Unsupported output format: " + format
+                    + " (available: " + new TreeSet<>(FACTORIES.keySet()) + ")");
+        }
+        return factory;
+    }
+
+    public static RecordWriter create(String format, OutputStream output, RecordDecoder decoder,
+                                      LayoutGenerationRule options) throws IOException {
+        return factory(format).create(output, decoder, options);
+    }
+
+    // outputFormat followed by additionalFormats, one factory per distinct writer
+    public static List<RecordWriterFactory> configuredFactories(LayoutGenerationRule options) {
+        Set<RecordWriterFactory> factories = new LinkedHashSet<>();
+        factories.add(factory(options.getOutputFormat()));
+        if (options.getAdditionalFormats() != null) {
+            for (String format : options.getAdditionalFormats()) {
+                factories.add(factory(format));
+            }
+        }
+        return List.copyOf(factories);
+    }
+
+    // One file per configured format, named <baseName>.<extension> in directory; records written to the
+    // returned writer go to all of them
+    public static RecordWriter open(Path directory, String baseName, RecordDecoder decoder, ParsingRules rules)
+            throws IOException {
+        LayoutGenerationRule options = rules.getLayoutGeneration();
+        List<RecordWriterFactory> factories = configuredFactories(options);
+        Files.createDirectories(directory);
+
+        List<RecordWriter> writers = new ArrayList<>(factories.size());
+        try {
+            for (RecordWriterFactory factory : factories) {
+                Path file = directory.resolve(baseName + "." + factory.getExtension());
+                OutputStream output = new BufferedOutputStream(Files.newOutputStream(file), STREAM_BUFFER_SIZE);
+                try {
+                    writers.add(factory.create(output, decoder, options));
+                } catch (IOException | RuntimeException e) {
+                    output.close();
+                    throw e;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (RecordWriter writer : writers) {
+                try {
+                    writer.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        return writers.size() == 1 ? writers.get(0) : new FanOut(writers);
+    }
+
+    // One set of files per record type of a mixed file, named <baseName>.<name>.<extension> where name follows
+    // the layout generation namingConvention ({record_type}, {01_level_name}); files are created on the first
+    // record of their type
+    public static RoutedRecordWriter openRouted(Path directory, String baseName, LayoutRouter router,
+                                                ParsingRules rules) {
+        // Fail on unknown formats before any record is read
+        configuredFactories(rules.getLayoutGeneration());
+        String convention = rules.getLayoutGeneration().getNamingConvention();
+        RecordFormat format = RecordFormat.of(rules.getDataFormat().getRecordFormat());
+        return new RoutedRecordWriter(router, format, typeId -> {
+            String name = convention != null && !convention.isBlank()
+                    ? convention.replace("{record_type}", router.getTypeName(typeId))
+                            .replace("{01_level_name}", router.getLayoutName(typeId))
+                    : router.getTypeName(typeId);
+            return open(directory, baseName + "." + name.replaceAll("[^A-Za-z0-9_.-]", "_"),
+                    router.getDecoder(typeId), rules);
+        });
+    }
+
+    private static final class FanOut implements RecordWriter {
+        private final List<RecordWriter> writers;
+
+        FanOut(List<RecordWriter> writers) {
+            this.writers = writers;
+        }
+
+        @Override
+        public void write(ByteBuffer record) throws IOException {
+            for (RecordWriter writer : writers) {
+                writer.write(record);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            for (RecordWriter writer : writers) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public long getRecordsWritten() {
+            return writers.get(0).getRecordsWritten();
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (RecordWriter writer : writers) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
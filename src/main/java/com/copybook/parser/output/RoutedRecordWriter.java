@@ -0,0 +1,126 @@
+package com.copybook.parser.output;
+
+import com.copybook.parser.decoder.LayoutRouter;
+import com.copybook.parser.io.RecordFormat;
+import com.copybook.parser.processor.RecordTypeDispatcher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Writes a file that mixes record types in one pass: each record is classified once and handed to the writer
+// of its type, which decodes it with the layout the LayoutRouter selected. Writers are opened on the first
+// record of their type, so types absent from the data leave no empty files. Comment and empty lines of LINE
+// text are skipped as in RecordTypeProcessor; F/FB/V/VB records never are, since a '*' or all-space byte
+// pattern is valid data there. Records of types without a layout are counted and skipped.
+public final class RoutedRecordWriter implements RecordWriter {
+
+    interface Opener {
+        RecordWriter open(int typeId) throws IOException;
+    }
+
+    private final LayoutRouter router;
+    private final RecordTypeDispatcher dispatcher;
+    private final Opener opener;
+    private final boolean skipComments;
+    // By type id
+    private final RecordWriter[] writers;
+    private final long[] counts;
+    private long unrouted;
+    private long skipped;
+    private boolean closed;
+
+    RoutedRecordWriter(LayoutRouter router, RecordFormat format, Opener opener) {
+        this.router = router;
+        this.dispatcher = router.getDispatcher();
+        this.opener = opener;
+        this.skipComments = format == RecordFormat.LINE;
+        this.writers = new RecordWriter[router.getTypeCount()];
+        this.counts = new long[router.getTypeCount()];
+    }
+
+    @Override
+    public void write(ByteBuffer record) throws IOException {
+        if (skipComments && dispatcher.isCommentOrEmpty(record)) {
+            skipped++;
+            return;
+        }
+        int typeId = router.classify(record);
+        RecordWriter writer = writers[typeId];
+        if (writer == null) {
+            if (router.getDecoder(typeId) == null) {
+                unrouted++;
+                return;
+            }
+            writer = writers[typeId] = opener.open(typeId);
+        }
+        writer.write(record);
+        counts[typeId]++;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        for (RecordWriter writer : writers) {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+    }
+
+    @Override
+    public long getRecordsWritten() {
+        long written = 0;
+        for (long count : counts) {
+            written += count;
+        }
+        return written;
+    }
+
+    // Records written per record type, in rule order; types without records are left out
+    public Map<String, Long> getRecordCounts() {
+        Map<String, Long> recordCounts = new LinkedHashMap<>();
+        for (int typeId = 0; typeId < counts.length; typeId++) {
+            if (counts[typeId] > 0) {
+                recordCounts.put(router.getTypeName(typeId), counts[typeId]);
+            }
+        }
+        return recordCounts;
+    }
+
+    // Records whose type has no layout
+    public long getUnroutedCount() {
+        return unrouted;
+    }
+
+    // Comment and empty lines of LINE text
+    public long getSkippedCount() {
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        IOException failure = null;
+        for (RecordWriter writer : writers) {
+            if (writer == null) {
+                continue;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.copybook.parser.processor;
+
+import com.copybook.parser.codec.ByteTranscoder;
+import com.copybook.parser.codec.CodePage;
+import com.copybook.parser.config.DataFormatRule;
+import com.copybook.parser.io.RecordFormat;
+import com.copybook.parser.metrics.ClassificationMeter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Classifies a file in record-aligned chunks on a ForkJoinPool. Workers read and classify their chunk
+// independently; the calling thread merges counts and replays each chunk's records into the sink, so the
+// sink is never called concurrently. With preserveOrder the chunks are replayed in file order. Without
+// it they are replayed as they complete: order is kept within a chunk but not across chunks.
+@Slf4j
+final class ChunkedClassifier {
+
+    private static final int BOUNDARY_PROBE = 1 << 16;
+    // Chunk bytes read but not yet merged, which includes the records retained for the sink
+    private static final long MAX_IN_FLIGHT_BYTES = 256L << 20;
+
+    private final RecordTypeProcessor.LineClassifier classifier;
+    // Latin-1 dispatcher used when counting only; null for rules that need the String path
+    private final RecordTypeDispatcher dispatcher;
+    private final String defaultType;
+    private final RecordFormat format;
+    private final int recordLength;
+    private final CodePage codePage;
+    private final ByteTranscoder transcoder;
+    private final int parallelism;
+    private final long chunkSize;
+    private final boolean preserveOrder;
+
+    ChunkedClassifier(RecordTypeProcessor.LineClassifier classifier, RecordTypeDispatcher dispatcher,
+                      String defaultType, DataFormatRule dataFormat) {
+        this.classifier = classifier;
+        this.dispatcher = dispatcher;
+        this.defaultType = defaultType;
+        this.format = RecordFormat.of(dataFormat.getRecordFormat());
+        this.codePage = CodePage.of(dataFormat.getEncoding());
+        this.transcoder = codePage.isEbcdic() ? ByteTranscoder.forCodePage(codePage).forTextLines() : null;
+        this.parallelism = dataFormat.getParallelism() > 0
+                ? dataFormat.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.preserveOrder = dataFormat.isPreserveOrder();
+
+        if (format == RecordFormat.V || format == RecordFormat.VB) {
+            throw new IllegalArgumentException("Variable-length (" + format + ") files cannot be split into chunks");
+        }
+        if (format == RecordFormat.F || format == RecordFormat.FB) {
+            if (dataFormat.getRecordLength() == null || dataFormat.getRecordLength() <= 0) {
+                throw new IllegalArgumentException("recordLength is required to classify " + format + " records");
+            }
+            this.recordLength = dataFormat.getRecordLength();
+            // Fixed-length chunks hold whole records
+            this.chunkSize = Math.max(1, dataFormat.getChunkSize() / recordLength) * (long) recordLength;
+        } else {
+            this.recordLength = 0;
+            this.chunkSize = Math.max(BOUNDARY_PROBE, dataFormat.getChunkSize());
+        }
+    }
+
+    // Per-type record counts plus totals, merged across chunks
+    record Totals(Map<String, long[]> counters, long totalRecords, long unrecognizedCount, int chunks) {
+    }
+
+    Totals classify(FileChannel channel, RecordSink sink, ClassificationMeter meter) throws IOException {
+        List<long[]> chunks = split(channel);
+        log.debug("Classifying {} chunks on {} workers (preserveOrder={})", chunks.size(), parallelism, preserveOrder);
+
+        // Counting-only callers skip buffering the records of each chunk
+        boolean retainRecords = sink != RecordSink.discarding();
+        Map<String, long[]> counters = new HashMap<>();
+        // Records, unrecognized records and bytes merged so far
+        long[] totals = new long[3];
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Only the unordered mode takes results from a completion queue; the ordered mode waits on the
+            // oldest chunk so finished results are never parked anywhere else
+            CompletionService<ChunkResult> completion = preserveOrder ? null : new ExecutorCompletionService<>(pool);
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            // Bounds memory to a couple of chunks per worker and to MAX_IN_FLIGHT_BYTES, though a single chunk is
+            // always let through
+            int window = parallelism * 2;
+            long inFlightBytes = 0;
+            int submitted = 0;
+            int merged = 0;
+            while (merged < chunks.size()) {
+                while (submitted < chunks.size() && submitted - merged < window) {
+                    long[] chunk = chunks.get(submitted);
+                    long length = chunk[1] - chunk[0];
+                    if (submitted > merged && inFlightBytes + length > MAX_IN_FLIGHT_BYTES) {
+                        break;
+                    }
+                    submitted++;
+                    inFlightBytes += length;
+                    Callable<ChunkResult> task = () -> classifyChunk(channel, chunk[0], chunk[1], retainRecords);
+                    inFlight.add(preserveOrder ? pool.submit(task) : completion.submit(task));
+                }
+                Future<ChunkResult> next = preserveOrder ? inFlight.poll() : completion.take();
+                if (!preserveOrder) {
+                    inFlight.remove(next);
+                }
+                ChunkResult result = next.get();
+                merge(result, counters, totals, sink);
+                inFlightBytes -= result.bytes();
+                merged++;
+                meter.flush(counters, totals[1], totals[2]);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while classifying chunks", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Totals(counters, totals[0], totals[1], chunks.size());
+    }
+
+    private record ChunkResult(Map<String, long[]> counters, long records, long unrecognized, long bytes,
+                               String[] lines, String[] types, BitSet unrecognizedAt) {
+    }
+
+    private void merge(ChunkResult result, Map<String, long[]> counters, long[] totals, RecordSink sink) {
+        result.counters().forEach((type, count) -> counters.computeIfAbsent(type, k -> new long[1])[0] += count[0]);
+        totals[0] += result.records();
+        totals[1] += result.unrecognized();
+        totals[2] += result.bytes();
+        if (result.lines() == null) {
+            return;
+        }
+        for (int i = 0; i < result.lines().length; i++) {
+            if (result.unrecognizedAt().get(i)) {
+                sink.unrecognized(result.lines()[i]);
+            }
+            sink.accept(result.types()[i], result.lines()[i]);
+        }
+    }
+
+    // Chunk boundaries as [start, end) pairs. Newline-delimited chunks end just after a line terminator;
+    // fixed-length chunks are whole multiples of the record length.
+    private List<long[]> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + chunkSize);
+            if (end < size && format == RecordFormat.LINE) {
+                // A terminator in the last byte of the nominal chunk already ends it there
+                end = nextLineStart(channel, end - 1, size);
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(BOUNDARY_PROBE);
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (isLineTerminator(probe.get(i))) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private boolean isLineTerminator(byte b) {
+        // EBCDIC text ends lines with NL (0x15) or LF (0x25); everything else with '\n'
+        return transcoder != null ? b == 0x15 || b == 0x25 : b == '\n';
+    }
+
+    private ChunkResult classifyChunk(FileChannel channel, long start, long end, boolean retainRecords) {
+        byte[] bytes = new byte[(int) (end - start)];
+        try {
+            ByteBuffer target = ByteBuffer.wrap(bytes);
+            while (target.hasRemaining()) {
+                if (channel.read(target, start + target.position()) < 0) {
+                    throw new IOException("File shrank while classifying chunk at " + start);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Charset charset = codePage.charset();
+        if (transcoder != null) {
+            transcoder.toLatin1(bytes, 0, bytes, 0, bytes.length);
+            charset = StandardCharsets.ISO_8859_1;
+        }
+
+        // Chunk bytes are Latin-1 (or transcoded to it) when counting only, so records are classified in place
+        if (!retainRecords && dispatcher != null && charset == StandardCharsets.ISO_8859_1) {
+            return countChunk(bytes);
+        }
+
+        Map<String, long[]> counters = new HashMap<>();
+        List<String> lines = retainRecords ? new ArrayList<>() : null;
+        List<String> types = retainRecords ? new ArrayList<>() : null;
+        BitSet unrecognizedAt = retainRecords ? new BitSet() : null;
+        long records = 0;
+        long unrecognized = 0;
+
+        int position = 0;
+        while (position < bytes.length) {
+            int recordEnd;
+            int next;
+            if (recordLength > 0) {
+                recordEnd = Math.min(bytes.length, position + recordLength);
+                next = recordEnd;
+            } else {
+                recordEnd = position;
+                while (recordEnd < bytes.length && bytes[recordEnd] != '\n') {
+                    recordEnd++;
+                }
+                next = recordEnd + 1;
+                if (recordEnd > position && bytes[recordEnd - 1] == '\r') {
+                    recordEnd--;
+                }
+            }
+            String line = new String(bytes, position, recordEnd - position, charset);
+            position = next;
+
+            // Comment and blank lines exist only in LINE text; '*' or all spaces are valid F/FB data
+            if (recordLength == 0 && RecordTypeProcessor.isCommentOrEmpty(line)) continue;
+
+            String recordType = classifier.classify(line);
+            if (recordType == null) {
+                if (retainRecords) {
+                    unrecognizedAt.set(lines.size());
+                }
+                unrecognized++;
+                recordType = defaultType;
+            }
+            counters.computeIfAbsent(recordType, k -> new long[1])[0]++;
+            records++;
+            if (retainRecords) {
+                lines.add(line);
+                types.add(recordType);
+            }
+        }
+
+        if (!retainRecords) {
+            return new ChunkResult(counters, records, unrecognized, bytes.length, null, null, null);
+        }
+        return new ChunkResult(counters, records, unrecognized, bytes.length,
+                lines.toArray(String[]::new), types.toArray(String[]::new), unrecognizedAt);
+    }
+
+    private ChunkResult countChunk(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] counts = new long[dispatcher.getTypeCount()];
+        long records = 0;
+        long unrecognized = 0;
+
+        int position = 0;
+        while (position < bytes.length) {
+            int recordEnd;
+            int next;
+            if (recordLength > 0) {
+                recordEnd = Math.min(bytes.length, position + recordLength);
+                next = recordEnd;
+            } else {
+                recordEnd = position;
+                while (recordEnd < bytes.length && bytes[recordEnd] != '\n') {
+                    recordEnd++;
+                }
+                next = recordEnd + 1;
+                if (recordEnd > position && bytes[recordEnd - 1] == '\r') {
+                    recordEnd--;
+                }
+            }
+            int length = recordEnd - position;
+            int start = position;
+            position = next;
+
+            if (recordLength == 0 && dispatcher.isCommentOrEmpty(buffer, start, length)) continue;
+
+            int typeId = dispatcher.classify(buffer, start, length);
+            if (typeId == RecordTypeDispatcher.UNRECOGNIZED) {
+                unrecognized++;
+                typeId = dispatcher.getDefaultTypeId();
+            }
+            counts[typeId]++;
+            records++;
+        }
+
+        Map<String, long[]> counters = new HashMap<>();
+        for (int typeId = 0; typeId < counts.length; typeId++) {
+            if (counts[typeId] > 0) {
+                counters.put(dispatcher.getTypeName(typeId), new long[]{counts[typeId]});
+            }
+        }
+        return new ChunkResult(counters, records, unrecognized, bytes.length, null, null, null);
+    }
+}
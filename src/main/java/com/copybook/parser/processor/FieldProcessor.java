@@ -1,119 +1,102 @@
 package com.copybook.parser.processor;
 
+import com.copybook.parser.cache.CopyMemberCache;
 import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.metrics.ParserMetrics;
 import com.copybook.parser.model.CobolField;
+import com.copybook.parser.model.FieldTree;
+import com.copybook.parser.syntax.CopybookLexer;
+import com.copybook.parser.syntax.DataEntry;
+import com.copybook.parser.syntax.DataEntryParser;
+import com.copybook.parser.syntax.SourceFormat;
+import com.copybook.parser.syntax.Token;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 @Component
 public class FieldProcessor {
 
-    // Pattern to capture level, name, and the rest of the line
-    private static final Pattern GENERIC_FIELD_PATTERN = Pattern.compile(
-            "^\\s*(\\d{2})\\s+([A-Z0-9\\-]+)(.*)$", Pattern.CASE_INSENSITIVE
-    );
-
-    // Pattern to find a PIC clause
-    private static final Pattern PIC_PATTERN = Pattern.compile("PIC\\s+([^\\s]+)");
-    // Pattern to find a VALUE clause
-    private static final Pattern VALUE_PATTERN = Pattern.compile("VALUE\\s+(?:'([^']*)'|\"([^\"]*)\"|([^\\s.]+))");
+    @Autowired
+    private CopyMemberCache copyMemberCache;
 
     public List<CobolField> processFields(List<String> lines, ParsingRules rules) {
-        List<CobolField> fields = new ArrayList<>();
-        int currentPosition = 1; // COBOL positions start at 1
+        return processFields(lines, rules, new CopyMemberCache.Resolution());
+    }
 
-        for (String line : lines) {
-            String trimmedLine = line.trim();
-            if (trimmedLine.isEmpty() || trimmedLine.startsWith("*")) {
-                continue; // Skip empty or comment lines
+    // COPY statements are expanded from the configured copy libraries; the members pulled in are recorded in copies
+    public List<CobolField> processFields(List<String> lines, ParsingRules rules, CopyMemberCache.Resolution copies) {
+        long start = ParserMetrics.start();
+        SourceFormat format = rules != null && rules.getFieldProcessing() != null
+                ? SourceFormat.of(rules.getFieldProcessing().getSourceFormat())
+                : SourceFormat.AUTO;
+        List<Token> tokens = copyMemberCache.expand(CopybookLexer.tokenize(lines, format), rules, copies);
+        List<DataEntry> entries = DataEntryParser.parse(tokens);
+
+        List<CobolField> fields = new ArrayList<>(entries.size());
+        for (DataEntry entry : entries) {
+            CobolField.CobolFieldBuilder builder = CobolField.builder()
+                    .level(entry.getLevel())
+                    .name(entry.getName())
+                    .usage(entry.getUsage())
+                    .value(entry.getValue())
+                    .redefines(entry.getRedefines())
+                    .occurs(entry.getOccurs())
+                    .occursMin(entry.getOccursMin())
+                    .dependingOn(entry.getDependingOn())
+                    .signLeading(entry.isSignLeading())
+                    .signSeparate(entry.isSignSeparate())
+                    .sync(entry.isSync());
+
+            // Elementary fields carry a PICTURE clause (or a USAGE that implies their size)
+            if (entry.getPicture() != null) {
+                builder.picture(entry.getPicture());
             }
+            fields.add(builder.build());
+        }
 
-            Matcher matcher = GENERIC_FIELD_PATTERN.matcher(trimmedLine);
-            if (matcher.matches()) {
-                int level = Integer.parseInt(matcher.group(1));
-                String name = matcher.group(2).toUpperCase();
-                String remainder = matcher.group(3);
-
-                CobolField.CobolFieldBuilder builder = CobolField.builder()
-                        .level(level)
-                        .name(name);
-
-                // Check for PIC clause to identify elementary fields
-                Matcher picMatcher = PIC_PATTERN.matcher(remainder);
-                if (picMatcher.find()) {
-                    String picture = picMatcher.group(1);
-                    int length = calculateFieldLength(picture);
-
-                    // Calculate start and end positions
-                    int startPosForThisField = currentPosition;
-                    int endPosition = startPosForThisField + length - 1;
-
-                    builder.picture(picture)
-                            .length(length)
-                            .startPosition(startPosForThisField)
-                            .endPosition(endPosition);
-
-                    // Update the running position for the *next* field
-                    currentPosition = endPosition + 1;
-                }
-
-                // Check for VALUE clause
-                Matcher valueMatcher = VALUE_PATTERN.matcher(remainder);
-                if (valueMatcher.find()) {
-                    String value = valueMatcher.group(1) != null ? valueMatcher.group(1) :
-                            valueMatcher.group(2) != null ? valueMatcher.group(2) :
-                                    valueMatcher.group(3);
-                    builder.value(value);
-                }
-
-                fields.add(builder.build());
-            }
+        LayoutCalculator calculator = new LayoutCalculator(rules);
+        for (CobolField root : FieldTree.link(fields)) {
+            calculator.layout(root);
         }
+        resolveRenames(entries, fields);
+        ParserMetrics.fieldsProcessed(fields.size(), start);
         return fields;
     }
 
-    private int calculateFieldLength(String picture) {
-        if (picture == null || picture.isEmpty()) return 0;
-
-        picture = picture.replaceAll("\\s+", "").toUpperCase();
-        int totalLength = 0;
-        int i = 0;
-
-        while (i < picture.length()) {
-            char currentChar = picture.charAt(i);
-            if (currentChar == 'X' || currentChar == '9' || currentChar == 'S') {
-                if (i + 1 < picture.length() && picture.charAt(i + 1) == '(') {
-                    int closeParenIndex = picture.indexOf(')', i + 2);
-                    if (closeParenIndex != -1) {
-                        try {
-                            totalLength += Integer.parseInt(picture.substring(i + 2, closeParenIndex));
-                            i = closeParenIndex + 1;
-                        } catch (NumberFormatException e) { i++; }
-                    } else { i++; }
-                } else {
-                    totalLength++;
-                    i++;
+    // 66 RENAMES a [THRU b] spans from the start of a to the end of b
+    private void resolveRenames(List<DataEntry> entries, List<CobolField> fields) {
+        Map<String, CobolField> byName = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            CobolField field = fields.get(i);
+            DataEntry entry = entries.get(i);
+            if (field.isRenames() && entry.getRenames() != null) {
+                CobolField from = byName.get(entry.getRenames());
+                CobolField to = entry.getRenamesThrough() != null ? byName.get(entry.getRenamesThrough()) : from;
+                if (from == null || to == null) {
+                    throw new IllegalStateException(field.getName() + " renames an undefined field");
                 }
-            } else if (currentChar == 'V') {
-                i++; // Implied decimal, no length
-            } else if (currentChar == '.' || currentChar == '+' || currentChar == '-') {
-                totalLength++;
-                i++;
-            } else {
-                i++;
+                field.setStartPosition(from.getStartPosition());
+                field.setEndPosition(Math.max(from.getEndPosition(), to.getEndPosition()));
+                field.setLength(field.getEndPosition() - field.getStartPosition() + 1);
+            } else if (!field.isCondition()) {
+                byName.put(field.getName(), field);
             }
         }
-        return Math.max(totalLength, 1);
     }
 
     public void validateFieldStructure(List<CobolField> fields, ParsingRules rules) {
         CobolField lastField = null;
         for (CobolField current : fields) {
-            if (!current.isGroup() && !current.isCondition()) {
+            if (current.getParent() == null) {
+                // Each record starts again at position 1
+                lastField = null;
+            }
+            if (!current.isGroup() && !current.isCondition() && !isOverlay(current)) {
                 if (lastField != null) {
                     if (lastField.getEndPosition() >= current.getStartPosition()) {
                         throw new IllegalStateException(
@@ -127,4 +110,14 @@ public class FieldProcessor {
             }
         }
     }
+
+    // Fields under a REDEFINES share storage with the entry they redefine by design
+    private static boolean isOverlay(CobolField field) {
+        for (CobolField f = field; f != null; f = f.getParent()) {
+            if (f.getRedefines() != null && f.getParent() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,162 @@
+package com.copybook.parser.processor;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.CobolField;
+import com.copybook.parser.util.StorageCalculator;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Assigns storage lengths and offsets to a linked field tree. Elementary lengths and alignments are measured
+// bottom-up, then offsets and group lengths assigned top-down; every record starts at position 1. As with IBM
+// COBOL, slack bytes go directly before a synchronized elementary item so that its offset from the start of
+// the record is a multiple of its alignment; the groups around it are never moved. One instance per layout run.
+final class LayoutCalculator {
+
+    private final Map<String, String> usageMappings;
+    private final boolean alignSync;
+    private final Map<CobolField, Integer> alignments = new IdentityHashMap<>();
+    // Zero-based offsets from the start of the record
+    private final Map<CobolField, Integer> offsets = new IdentityHashMap<>();
+
+    LayoutCalculator(ParsingRules rules) {
+        this.usageMappings = rules != null && rules.getFieldProcessing() != null
+                ? rules.getFieldProcessing().getUsageMappings()
+                : null;
+        String alignment = rules != null && rules.getLayoutGeneration() != null
+                ? rules.getLayoutGeneration().getAlignment()
+                : null;
+        this.alignSync = alignment != null && !"byte".equalsIgnoreCase(alignment);
+    }
+
+    void layout(CobolField root) {
+        measure(root, null);
+        arrange(root, 0);
+        place(root, List.of(), List.of());
+    }
+
+    // Stores elementary lengths and the alignment of every field on the way up. Items without their own USAGE
+    // inherit the USAGE of their group.
+    private void measure(CobolField field, String groupUsage) {
+        if (field.isCondition() || field.isRenames()) {
+            return;
+        }
+        if (field.getUsage() == null && groupUsage != null) {
+            field.setUsage(groupUsage);
+        }
+        if (!field.isGroup()) {
+            field.setLength(StorageCalculator.storageLength(field.getPicture(), field.getUsage(),
+                    field.isSignSeparate(), usageMappings));
+            alignments.put(field, alignSync && field.isSync()
+                    ? StorageCalculator.naturalAlignment(field.getPicture(), field.getUsage(), usageMappings)
+                    : 1);
+            return;
+        }
+
+        int alignment = 1;
+        for (CobolField child : field.getChildren()) {
+            measure(child, field.getUsage());
+            alignment = Math.max(alignment, alignmentOf(child));
+        }
+        // The strictest alignment inside the group, used to pad its occurrences
+        alignments.put(field, alignment);
+    }
+
+    // Places the field (its first occurrence) at offset and returns the length of one occurrence. Children follow
+    // each other, with slack bytes before synchronized elementary items, except that a REDEFINES entry overlays
+    // the sibling it names.
+    private int arrange(CobolField field, int offset) {
+        if (field.isCondition() || field.isRenames()) {
+            return 0;
+        }
+        offsets.put(field, offset);
+        if (!field.isGroup()) {
+            return field.getLength();
+        }
+
+        List<CobolField> children = field.getChildren();
+        int[] starts = new int[children.size()];
+        int cursor = offset;
+        int end = offset;
+        for (int i = 0; i < children.size(); i++) {
+            CobolField child = children.get(i);
+            if (child.getRedefines() == null) {
+                starts[i] = child.isGroup() ? cursor : align(cursor, alignmentOf(child));
+            } else {
+                starts[i] = starts[redefined(field, children, i)];
+            }
+            arrange(child, starts[i]);
+            int childEnd = starts[i] + extent(child);
+            if (child.getRedefines() == null) {
+                cursor = childEnd;
+            }
+            end = Math.max(end, childEnd);
+        }
+        int length = end - offset;
+        // A table of groups holding synchronized items gets slack bytes at the end of each occurrence, so every
+        // occurrence keeps the alignment of the first
+        if (field.getOccurs() != null) {
+            length = align(length, alignmentOf(field));
+        }
+        field.setLength(length);
+        return length;
+    }
+
+    private void place(CobolField field, List<Integer> counts, List<Integer> strides) {
+        if (field.isCondition() || field.isRenames()) {
+            return;
+        }
+        if (field.getOccurs() != null) {
+            counts = append(counts, field.getOccurs());
+            strides = append(strides, field.getLength());
+        }
+        int offset = offsets.get(field);
+        field.setStartPosition(offset + 1);
+        field.setEndPosition(offset + field.getLength());
+        field.setDimensionCounts(counts.isEmpty() ? null : counts);
+        field.setDimensionStrides(strides.isEmpty() ? null : strides);
+
+        if (field.isGroup()) {
+            for (CobolField child : field.getChildren()) {
+                place(child, counts, strides);
+            }
+        }
+    }
+
+    // Index of the preceding sibling the REDEFINES entry at index overlays
+    private static int redefined(CobolField group, List<CobolField> children, int index) {
+        CobolField child = children.get(index);
+        for (int j = index - 1; j >= 0; j--) {
+            if (child.getRedefines().equals(children.get(j).getName())) {
+                return j;
+            }
+        }
+        throw new IllegalStateException(String.format("%s redefines %s, which is not a preceding entry of %s",
+                child.getName(), child.getRedefines(), group.getName()));
+    }
+
+    private int alignmentOf(CobolField field) {
+        return alignments.getOrDefault(field, 1);
+    }
+
+    // Bytes a field occupies within its parent, all occurrences included
+    private static int extent(CobolField field) {
+        if (field.isCondition() || field.isRenames()) {
+            return 0;
+        }
+        return field.getOccurs() != null ? field.getLength() * field.getOccurs() : field.getLength();
+    }
+
+    private static int align(int offset, int alignment) {
+        return alignment <= 1 ? offset : (offset + alignment - 1) / alignment * alignment;
+    }
+
+    private static List<Integer> append(List<Integer> list, int value) {
+        List<Integer> extended = new ArrayList<>(list.size() + 1);
+        extended.addAll(list);
+        extended.add(value);
+        return extended;
+    }
+}
@@ -1,13 +1,14 @@
 package com.copybook.parser.processor;
 
+import com.copybook.parser.cache.CopyMemberCache;
 import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.metrics.ParserMetrics;
 import com.copybook.parser.model.CobolField;
 import com.copybook.parser.model.RecordLayout;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,10 +18,70 @@ public class LayoutProcessor {
     @Autowired
     private FieldProcessor fieldProcessor;
 
+    // Name used when a copybook has no record (01) or standalone (77) entry to take it from
+    static final String UNNAMED_LAYOUT = "LAYOUT-NAME";
+
     public RecordLayout processLayout(List<String> copybookLines, ParsingRules rules) {
-        List<CobolField> fields = fieldProcessor.processFields(copybookLines, rules);
+        long start = ParserMetrics.start();
+        CopyMemberCache.Resolution copies = new CopyMemberCache.Resolution();
+        List<CobolField> fields = fieldProcessor.processFields(copybookLines, rules, copies);
         fieldProcessor.validateFieldStructure(fields, rules);
 
+        RecordLayout layout = buildLayout(layoutName(fields), fields);
+        if (!copies.isEmpty()) {
+            // Members copied in, transitively, and the file stamps LayoutCache checks before reusing the layout
+            layout.setDependencies(copies.getDependencies());
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put(CopyMemberCache.COPY_MEMBERS_METADATA, new LinkedHashMap<>(copies.getStamps()));
+            layout.setLayoutMetadata(metadata);
+        }
+        ParserMetrics.layoutProcessed(layout.getTotalLength(), start);
+        return layout;
+    }
+
+    // One layout per 01-level record of a parsed copybook, keyed by record name in source order. Each holds
+    // the record's own entries (its conditions and RENAMES included); the field objects are shared with the
+    // whole-copybook layout, not copied. Copybooks without 01 entries map to the whole layout.
+    public Map<String, RecordLayout> recordLayouts(RecordLayout layout) {
+        List<CobolField> fields = layout.getFields();
+        Map<String, RecordLayout> records = new LinkedHashMap<>();
+        int start = -1;
+        for (int i = 0; i <= fields.size(); i++) {
+            boolean boundary = i == fields.size() || fields.get(i).getLevel() == 1 || fields.get(i).getLevel() == 77;
+            if (!boundary) {
+                continue;
+            }
+            if (start >= 0) {
+                List<CobolField> recordFields = List.copyOf(fields.subList(start, i));
+                String name = recordFields.get(0).getName();
+                // Repeated 01 names (legal across separate records) are numbered from the second one on
+                String key = name;
+                for (int n = 2; records.containsKey(key); n++) {
+                    key = name + "#" + n;
+                }
+                RecordLayout record = buildLayout(name, recordFields);
+                record.setDependencies(layout.getDependencies());
+                record.setLayoutMetadata(layout.getLayoutMetadata());
+                records.put(key, record);
+            }
+            start = i < fields.size() && fields.get(i).getLevel() == 1 ? i : -1;
+        }
+        if (records.isEmpty()) {
+            records.put(layout.getLayoutName(), layout);
+        }
+        return records;
+    }
+
+    private static String layoutName(List<CobolField> fields) {
+        for (CobolField field : fields) {
+            if ((field.getLevel() == 1 || field.getLevel() == 77) && field.getName() != null) {
+                return field.getName();
+            }
+        }
+        return UNNAMED_LAYOUT;
+    }
+
+    private static RecordLayout buildLayout(String layoutName, List<CobolField> fields) {
         int groupFields = 0;
         int elementaryFields = 0;
         int conditionFields = 0;
@@ -39,18 +100,35 @@ public class LayoutProcessor {
             }
         }
 
+        // Records overlay each other from position 1, so the layout is as long as its longest record
         int totalLength = fields.stream()
-                .filter(f -> !f.isGroup() && !f.isCondition())
+                .filter(f -> f.getParent() == null && !f.isCondition())
                 .mapToInt(CobolField::getEndPosition)
                 .max()
                 .orElse(0);
 
+        // OCCURS DEPENDING ON tables shrink to their minimum count in the shortest record
+        int variablePart = 0;
+        for (CobolField field : fields) {
+            if (field.getDependingOn() != null && field.getOccursMin() != null) {
+                variablePart += (field.getOccurs() - field.getOccursMin()) * field.getLength();
+            }
+        }
+        boolean hasRedefines = fields.stream().anyMatch(f -> f.getRedefines() != null);
+        boolean hasOccurs = fields.stream().anyMatch(f -> f.getOccurs() != null);
+
         return RecordLayout.builder()
                 .recordType("FIXED")
-                .layoutName("LAYOUT-NAME")
+                .layoutName(layoutName)
                 .fields(fields)
                 .fieldCount(fields.size())
                 .totalLength(totalLength)
+                .minLength(totalLength - variablePart)
+                .maxLength(totalLength)
+                .hasRedefines(hasRedefines)
+                .hasOccurs(hasOccurs)
+                .hasConditions(conditionFields > 0)
+                .isVariableLength(variablePart > 0)
                 .groupFields(groupFields)
                 .elementaryFields(elementaryFields)
                 .conditionFields(conditionFields)
@@ -0,0 +1,465 @@
+package com.copybook.parser.processor;
+
+import com.copybook.parser.config.RecordTypeRule;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Pattern-based classification over several regexes in one pass per line. Every pattern is analysed once
+// for a literal any match must contain: anchored patterns ("^lit", "^\s*lit") are rejected by a prefix
+// check, the others by a single Aho-Corasick scan over all their literals. Only patterns whose literal is
+// present reach java.util.regex, and patterns are still tried in rule order so the first match wins.
+final class MultiPatternMatcher {
+
+    // Prefilter bits are a single long per line
+    private static final int MAX_PREFILTERED = 64;
+    private static final String METACHARACTERS = ".^$|?*+()[]{}\\";
+
+    private final Entry[] entries;
+    private final String defaultType;
+    private final Automaton automaton;
+    private final ThreadLocal<Matcher[]> matchers;
+
+    private static final class Entry {
+        Pattern pattern;
+        // Type named by the pattern, or null when the matched group is looked up in mappings
+        String recordType;
+        Map<String, String> mappings;
+        boolean anchored;
+        String anchoredPrefix;
+        boolean skipLeadingBlanks;
+        // Bit in the Aho-Corasick output, or -1 when the pattern is not prefiltered that way
+        int literalBit = -1;
+    }
+
+    private MultiPatternMatcher(Entry[] entries, String defaultType, Automaton automaton) {
+        this.entries = entries;
+        this.defaultType = defaultType;
+        this.automaton = automaton;
+        this.matchers = ThreadLocal.withInitial(() -> {
+            Matcher[] perThread = new Matcher[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                perThread[i] = entries[i].pattern.matcher("");
+            }
+            return perThread;
+        });
+    }
+
+    // The rule's pattern (with patternMappings on its first group) comes first, then patterns in order
+    static MultiPatternMatcher compile(RecordTypeRule rule) {
+        List<Entry> entries = new ArrayList<>();
+        if (rule.getPattern() != null) {
+            Entry entry = analyse(rule.getPattern());
+            entry.mappings = rule.getPatternMappings() != null ? rule.getPatternMappings() : Map.of();
+            entries.add(entry);
+        }
+        if (rule.getPatterns() != null) {
+            for (RecordTypeRule.PatternRule patternRule : rule.getPatterns()) {
+                Entry entry = analyse(patternRule.getPattern());
+                entry.recordType = patternRule.getRecordType();
+                entries.add(entry);
+            }
+        }
+
+        List<String> literals = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.anchoredPrefix != null || literals.size() == MAX_PREFILTERED) {
+                continue;
+            }
+            String literal = requiredLiteral(entry.pattern.pattern());
+            if (!literal.isEmpty()) {
+                entry.literalBit = literals.size();
+                literals.add(literal);
+            }
+        }
+        return new MultiPatternMatcher(entries.toArray(Entry[]::new), rule.getDefaultType(),
+                literals.isEmpty() ? null : new Automaton(literals));
+    }
+
+    // Every type classify can return: pattern types, mapped values and the default for unmapped groups
+    List<String> recordTypes() {
+        List<String> types = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.mappings == null) {
+                types.add(entry.recordType);
+            } else {
+                types.addAll(entry.mappings.values());
+                types.add(defaultType);
+            }
+        }
+        return types;
+    }
+
+    // Record type of the first matching pattern, or null when none matches
+    String classify(String line) {
+        long present = automaton != null ? automaton.scan(line) : 0;
+        Matcher[] perThread = null;
+        for (int i = 0; i < entries.length; i++) {
+            Entry entry = entries[i];
+            if (entry.anchoredPrefix != null && !hasPrefix(line, entry)) {
+                continue;
+            }
+            if (entry.literalBit >= 0 && (present & 1L << entry.literalBit) == 0) {
+                continue;
+            }
+            if (perThread == null) {
+                perThread = matchers.get();
+            }
+            Matcher matcher = perThread[i].reset(line);
+            // A pattern anchored with a leading '^' can only match at the start of the line
+            if (!(entry.anchored ? matcher.lookingAt() : matcher.find())) {
+                continue;
+            }
+            if (entry.mappings == null) {
+                return entry.recordType;
+            }
+            String value = matcher.groupCount() >= 1 ? matcher.group(1) : matcher.group();
+            return entry.mappings.getOrDefault(value, defaultType);
+        }
+        return null;
+    }
+
+    private static boolean hasPrefix(String line, Entry entry) {
+        int from = 0;
+        if (entry.skipLeadingBlanks) {
+            while (from < line.length() && isRegexSpace(line.charAt(from))) {
+                from++;
+            }
+        }
+        return line.startsWith(entry.anchoredPrefix, from);
+    }
+
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static Entry analyse(String regex) {
+        Entry entry = new Entry();
+        entry.pattern = Pattern.compile(regex);
+        if (!regex.startsWith("^") || hasTopLevelAlternation(regex) || hasInlineFlags(regex)) {
+            return entry;
+        }
+        entry.anchored = true;
+        int i = 1;
+        if (regex.startsWith("\\s*", i)) {
+            entry.skipLeadingBlanks = true;
+            i += 3;
+        }
+        StringBuilder prefix = new StringBuilder();
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length() && !Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                prefix.append(regex.charAt(i + 1));
+                i += 2;
+            } else if (METACHARACTERS.indexOf(c) < 0) {
+                prefix.append(c);
+                i++;
+            } else {
+                break;
+            }
+        }
+        // A quantifier on the last character makes that character optional or repeatable
+        if (i < regex.length() && "?*{+".indexOf(regex.charAt(i)) >= 0 && !prefix.isEmpty()) {
+            prefix.setLength(prefix.length() - 1);
+        }
+        // With "\s*" in front, a prefix starting with a blank could be swallowed by the skip
+        if (!prefix.isEmpty() && !(entry.skipLeadingBlanks && isRegexSpace(prefix.charAt(0)))) {
+            entry.anchoredPrefix = prefix.toString();
+        }
+        return entry;
+    }
+
+    // Longest run of characters every match must contain, or "" when none can be proven. Only the top
+    // level is considered; groups, classes and escapes such as \s end a run.
+    static String requiredLiteral(String regex) {
+        if (hasTopLevelAlternation(regex) || hasInlineFlags(regex) || regex.contains("\\Q")) {
+            return "";
+        }
+        String best = "";
+        StringBuilder run = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            boolean literal = false;
+            char value = c;
+            int next = i + 1;
+            if (c == '\\') {
+                if (i + 1 >= regex.length()) {
+                    break;
+                }
+                char escaped = regex.charAt(i + 1);
+                if (!Character.isLetterOrDigit(escaped)) {
+                    literal = true;
+                    value = escaped;
+                    next = i + 2;
+                } else {
+                    // Letter and digit escapes are never taken as literal text, whatever they stand for
+                    next = escapeEnd(regex, i);
+                }
+            } else if (c == '[') {
+                next = skipClass(regex, i);
+            } else if (c == '(') {
+                next = skipGroup(regex, i);
+            } else if (METACHARACTERS.indexOf(c) < 0) {
+                literal = true;
+            }
+
+            // Quantifier applying to the atom just read
+            int quantifierEnd = next;
+            boolean optional = false;
+            boolean repeated = false;
+            if (next > 0 && next < regex.length()) {
+                char q = regex.charAt(next);
+                if (q == '?' || q == '*') {
+                    optional = true;
+                    quantifierEnd = next + 1;
+                } else if (q == '+') {
+                    repeated = true;
+                    quantifierEnd = next + 1;
+                } else if (q == '{') {
+                    int close = regex.indexOf('}', next);
+                    String bounds = close < 0 ? "" : regex.substring(next + 1, close);
+                    optional = bounds.isEmpty() || bounds.startsWith("0") || bounds.startsWith(",");
+                    repeated = true;
+                    quantifierEnd = close < 0 ? regex.length() : close + 1;
+                }
+                // Lazy and possessive suffixes
+                if (quantifierEnd > next && quantifierEnd < regex.length()
+                        && (regex.charAt(quantifierEnd) == '?' || regex.charAt(quantifierEnd) == '+')) {
+                    quantifierEnd++;
+                }
+            }
+            if (next <= 0) {
+                break;
+            }
+
+            if (literal && !optional && value <= 0xFF) {
+                run.append(value);
+                if (repeated) {
+                    best = longer(best, run);
+                    run.setLength(0);
+                }
+            } else {
+                best = longer(best, run);
+                run.setLength(0);
+            }
+            i = quantifierEnd;
+        }
+        return longer(best, run);
+    }
+
+    // Index just past the letter or digit escape whose backslash is at from; the pattern has already compiled
+    private static int escapeEnd(String regex, int from) {
+        int i = from + 2;
+        boolean braced = i < regex.length() && regex.charAt(i) == '{';
+        return switch (regex.charAt(from + 1)) {
+            case 'x' -> braced ? regex.indexOf('}', i) + 1 : i + 2;
+            case 'u' -> i + 4;
+            case 'c' -> i + 1;
+            case 'k' -> regex.indexOf('>', i) + 1;
+            case 'p', 'P' -> braced ? regex.indexOf('}', i) + 1 : i + 1;
+            case 'N', 'b' -> braced ? regex.indexOf('}', i) + 1 : i;
+            // Up to three octal digits, the first of a three-digit value at most 3
+            case '0' -> {
+                int end = i;
+                while (end < regex.length() && end - i < 3 && regex.charAt(end) >= '0' && regex.charAt(end) <= '7'
+                        && (end - i < 2 || regex.charAt(i) <= '3')) {
+                    end++;
+                }
+                yield end;
+            }
+            // A back reference takes as many digits as name an existing group; skipping them all is safe
+            case '1', '2', '3', '4', '5', '6', '7', '8', '9' -> {
+                int end = i;
+                while (end < regex.length() && Character.isDigit(regex.charAt(end))) {
+                    end++;
+                }
+                yield end;
+            }
+            default -> i;
+        };
+    }
+
+    private static String longer(String best, StringBuilder run) {
+        return run.length() > best.length() ? run.toString() : best;
+    }
+
+    private static boolean hasInlineFlags(String regex) {
+        int at = regex.indexOf("(?");
+        while (at >= 0) {
+            if (at + 2 < regex.length() && Character.isLetter(regex.charAt(at + 2))) {
+                return true;
+            }
+            at = regex.indexOf("(?", at + 2);
+        }
+        return false;
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i) - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Index just past the character class opening at from, or 0 when it is malformed
+    private static int skipClass(String regex, int from) {
+        int i = from + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        int depth = 1;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return 0;
+    }
+
+    // Index just past the group opening at from, or 0 when it is malformed
+    private static int skipGroup(String regex, int from) {
+        int depth = 0;
+        int i = from;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                int end = skipClass(regex, i);
+                if (end == 0) {
+                    return 0;
+                }
+                i = end;
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return 0;
+    }
+
+    // Aho-Corasick automaton over Latin-1 literals, flattened to a full transition table over the
+    // characters that occur in them; every other character maps to column 0
+    private static final class Automaton {
+        private final int[] alphabet = new int[256];
+        private final int width;
+        private final int[] transitions;
+        private final long[] outputs;
+
+        Automaton(List<String> literals) {
+            int symbols = 0;
+            for (String literal : literals) {
+                for (int i = 0; i < literal.length(); i++) {
+                    char c = literal.charAt(i);
+                    if (alphabet[c] == 0) {
+                        alphabet[c] = ++symbols;
+                    }
+                }
+            }
+            width = symbols + 1;
+
+            // Trie with -1 for missing edges
+            List<int[]> edges = new ArrayList<>();
+            List<Long> output = new ArrayList<>();
+            edges.add(newRow());
+            output.add(0L);
+            for (int bit = 0; bit < literals.size(); bit++) {
+                int state = 0;
+                for (char c : literals.get(bit).toCharArray()) {
+                    int symbol = alphabet[c];
+                    if (edges.get(state)[symbol] < 0) {
+                        edges.get(state)[symbol] = edges.size();
+                        edges.add(newRow());
+                        output.add(0L);
+                    }
+                    state = edges.get(state)[symbol];
+                }
+                output.set(state, output.get(state) | 1L << bit);
+            }
+
+            // Breadth-first failure links, folded into the transition table
+            int states = edges.size();
+            transitions = new int[states * width];
+            outputs = new long[states];
+            int[] failure = new int[states];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int symbol = 0; symbol < width; symbol++) {
+                int target = edges.get(0)[symbol];
+                transitions[symbol] = Math.max(target, 0);
+                if (target > 0) {
+                    queue.add(target);
+                }
+            }
+            outputs[0] = output.get(0);
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                outputs[state] = output.get(state) | outputs[failure[state]];
+                for (int symbol = 0; symbol < width; symbol++) {
+                    int target = edges.get(state)[symbol];
+                    int fallback = transitions[failure[state] * width + symbol];
+                    if (target < 0) {
+                        transitions[state * width + symbol] = fallback;
+                    } else {
+                        failure[target] = fallback;
+                        transitions[state * width + symbol] = target;
+                        queue.add(target);
+                    }
+                }
+            }
+        }
+
+        private int[] newRow() {
+            int[] row = new int[width];
+            Arrays.fill(row, -1);
+            return row;
+        }
+
+        // Bits of every literal that occurs in the line
+        long scan(String line) {
+            int state = 0;
+            long found = 0;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                state = transitions[state * width + (c <= 0xFF ? alphabet[c] : 0)];
+                found |= outputs[state];
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.copybook.parser.processor;
+
+import java.nio.ByteBuffer;
+
+@FunctionalInterface
+public interface RecordByteSink {
+
+    // Called once per classified record, in input order, with the dispatcher's type id. The buffer is the
+    // reader's view of the record and is only valid for the duration of the call.
+    void accept(int typeId, ByteBuffer record);
+
+    // Called before accept() for records no rule matched
+    default void unrecognized(ByteBuffer record) {
+    }
+
+    RecordByteSink DISCARDING = (typeId, record) -> {
+    };
+
+    static RecordByteSink discarding() {
+        return DISCARDING;
+    }
+}
@@ -0,0 +1,34 @@
+package com.copybook.parser.processor;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface RecordSink {
+
+    // Called once per classified record, in input order. Unrecognized records arrive with the default type.
+    void accept(String recordType, String record);
+
+    // Called before accept() for records no rule matched
+    default void unrecognized(String record) {
+    }
+
+    static RecordSink byType(Map<String, ? extends Consumer<String>> sinks, RecordSink fallback) {
+        return (recordType, record) -> {
+            Consumer<String> sink = sinks.get(recordType);
+            if (sink != null) {
+                sink.accept(record);
+            } else if (fallback != null) {
+                fallback.accept(recordType, record);
+            }
+        };
+    }
+
+    // Shared no-op sink; processors recognise it and skip handing records over at all
+    RecordSink DISCARDING = (recordType, record) -> {
+    };
+
+    static RecordSink discarding() {
+        return DISCARDING;
+    }
+}
@@ -0,0 +1,599 @@
+package com.copybook.parser.processor;
+
+import com.copybook.parser.cache.LayoutFingerprints;
+import com.copybook.parser.codec.ByteTranscoder;
+import com.copybook.parser.codec.CodePage;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.config.RecordTypeRule;
+import com.copybook.parser.expression.RecordCursor;
+import com.copybook.parser.expression.RecordExpression;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// A record-type rule compiled into byte-level lookups: a direct array index for one- and two-byte keys, a
+// perfect hash over longer keys, a sequence of byte comparisons for multi-field rules, or a compiled
+// expression tree for conditional rules. Pattern rules still run their regexes on the decoded record, but
+// return interned ids like the others. Classification reads record bytes (or Latin-1 chars) in place and
+// returns an interned type id, so callers can tally with int counters and never build a substring.
+// Semantics match RecordTypeProcessor's String-based strategies (trimValues, ignoreCase, caseSensitive,
+// validCharacters), with positions counted in bytes.
+public final class RecordTypeDispatcher {
+
+    public static final int UNRECOGNIZED = -1;
+
+    private static final int MAX_CACHED = 64;
+    private static final Map<String, RecordTypeDispatcher> CACHE = new ConcurrentHashMap<>();
+
+    private final String[] typeNames;
+    private final int defaultTypeId;
+    private final KeyMatcher matcher;
+    private final boolean[] blank;
+    private final byte asterisk;
+
+    private RecordTypeDispatcher(String[] typeNames, int defaultTypeId, KeyMatcher matcher, CodePage codePage) {
+        this.typeNames = typeNames;
+        this.defaultTypeId = defaultTypeId;
+        this.matcher = matcher;
+        this.blank = blanks(codePage);
+        this.asterisk = "*".getBytes(codePage.charset())[0];
+    }
+
+    // Dispatcher over Latin-1 text: chars of decoded lines, or bytes already transcoded to Latin-1
+    public static RecordTypeDispatcher forRules(ParsingRules rules) {
+        return forRules(rules, CodePage.ISO_8859_1);
+    }
+
+    // Dispatcher over raw record bytes in the given code page; null when the rule cannot be compiled (keys the
+    // code page cannot represent)
+    public static RecordTypeDispatcher forRules(ParsingRules rules, CodePage codePage) {
+        String key = codePage + ":" + LayoutFingerprints.rulesFingerprint(rules);
+        RecordTypeDispatcher cached = CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        RecordTypeDispatcher compiled = compile(rules, codePage);
+        if (compiled != null) {
+            if (CACHE.size() >= MAX_CACHED) {
+                CACHE.clear();
+            }
+            CACHE.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    public int getTypeCount() {
+        return typeNames.length;
+    }
+
+    public String getTypeName(int typeId) {
+        return typeNames[typeId];
+    }
+
+    public int getDefaultTypeId() {
+        return defaultTypeId;
+    }
+
+    // Type id of the record between position and limit, or UNRECOGNIZED; the buffer is not modified
+    public int classify(ByteBuffer record) {
+        return matcher.match(record, record.position(), record.remaining());
+    }
+
+    // Record at [offset, offset + length) of a larger buffer, such as a chunk or a mapped region
+    public int classify(ByteBuffer record, int offset, int length) {
+        return matcher.match(record, offset, length);
+    }
+
+    // Type id of a decoded text line; only meaningful on a Latin-1 dispatcher
+    public int classify(CharSequence line) {
+        return matcher.match(line);
+    }
+
+    // Byte-level RecordTypeProcessor.isCommentOrEmpty: blank records, '*' in column 7, or '*' as the first
+    // non-blank byte
+    public boolean isCommentOrEmpty(ByteBuffer record) {
+        return isCommentOrEmpty(record, record.position(), record.remaining());
+    }
+
+    public boolean isCommentOrEmpty(ByteBuffer record, int offset, int length) {
+        int first = offset;
+        int end = offset + length;
+        while (first < end && blank[record.get(first) & 0xFF]) {
+            first++;
+        }
+        return first == end
+                || record.get(first) == asterisk
+                || (length > 6 && record.get(offset + 6) == asterisk);
+    }
+
+    private interface KeyMatcher {
+        int match(ByteBuffer record, int offset, int length);
+
+        int match(CharSequence line);
+    }
+
+    static RecordTypeDispatcher compile(ParsingRules rules, CodePage codePage) {
+        RecordTypeRule rule = rules.getRecordTypeField();
+        String defaultType = rule != null && rule.getDefaultType() != null ? rule.getDefaultType() : "DATA";
+        TypeIds ids = new TypeIds(defaultType);
+        Charset charset = codePage.charset();
+
+        KeyMatcher matcher = switch (rules.getRuleType().toLowerCase()) {
+            case "position-based" -> {
+                Map<String, String> values = new TreeMap<>(rule.getValues());
+                Function<String, String> semantics = window -> {
+                    String value = rule.isTrimValues() ? window.trim() : window;
+                    return values.get(rule.isIgnoreCase() ? value.toUpperCase() : value);
+                };
+                if (rule.getLength() <= 2) {
+                    yield DirectTable.build(rule.getStart() - 1, rule.getLength(), semantics, charset, ids);
+                }
+                yield HashedKeys.build(rule, values, codePage, ids);
+            }
+            case "character-based" -> {
+                Map<String, String> values = new TreeMap<>(rule.getValues());
+                Function<String, String> semantics = window -> {
+                    String character = rule.isCaseSensitive() ? window : window.toUpperCase();
+                    if (rule.getValidCharacters() != null && !rule.getValidCharacters().contains(character)) {
+                        return null;
+                    }
+                    return values.get(character);
+                };
+                yield DirectTable.build(rule.getStart() - 1, 1, semantics, charset, ids);
+            }
+            case "conditional-based" -> {
+                String source = rule.getConditionalExpression() != null
+                        ? rule.getConditionalExpression()
+                        : rule.getConditionalLogic();
+                if (source == null) {
+                    yield new Constant(ids.idOf(defaultType));
+                }
+                int charPosition = rule.getStart() != null ? rule.getStart() : 0;
+                yield new Expression(RecordExpression.compile(source, charPosition), codePage, ids);
+            }
+            case "multi-field" -> MultiField.build(rule, codePage, ids);
+            case "pattern-based" -> new Patterns(MultiPatternMatcher.compile(rule), codePage, ids);
+            case "no-record-type" -> new Constant(ids.idOf("DATA"));
+            default -> null;
+        };
+        return matcher == null ? null : new RecordTypeDispatcher(ids.names(), ids.idOf(defaultType), matcher, codePage);
+    }
+
+    // Interns type names to dense ids, the default type first
+    private static final class TypeIds {
+        private final Map<String, Integer> ids = new LinkedHashMap<>();
+
+        TypeIds(String defaultType) {
+            idOf(defaultType);
+        }
+
+        int idOf(String type) {
+            return type == null ? UNRECOGNIZED : ids.computeIfAbsent(type, k -> ids.size());
+        }
+
+        String[] names() {
+            return ids.keySet().toArray(String[]::new);
+        }
+    }
+
+    // Every possible one- or two-byte window is evaluated once at compile time with the String semantics
+    private static final class DirectTable implements KeyMatcher {
+        private final int start;
+        private final int width;
+        private final int[] table;
+        private final Function<String, String> semantics;
+        private final TypeIds ids;
+
+        private DirectTable(int start, int width, int[] table, Function<String, String> semantics, TypeIds ids) {
+            this.start = start;
+            this.width = width;
+            this.table = table;
+            this.semantics = semantics;
+            this.ids = ids;
+        }
+
+        static DirectTable build(int start, int width, Function<String, String> semantics, Charset charset, TypeIds ids) {
+            int[] table = new int[1 << (8 * width)];
+            byte[] window = new byte[width];
+            for (int w = 0; w < table.length; w++) {
+                for (int i = 0; i < width; i++) {
+                    window[i] = (byte) (w >>> (8 * (width - 1 - i)));
+                }
+                table[w] = ids.idOf(semantics.apply(new String(window, charset)));
+            }
+            return new DirectTable(start, width, table, semantics, ids);
+        }
+
+        @Override
+        public int match(ByteBuffer record, int offset, int length) {
+            if (length < start + width) {
+                return UNRECOGNIZED;
+            }
+            int index = record.get(offset + start) & 0xFF;
+            if (width == 2) {
+                index = index << 8 | (record.get(offset + start + 1) & 0xFF);
+            }
+            return table[index];
+        }
+
+        @Override
+        public int match(CharSequence line) {
+            if (line.length() < start + width) {
+                return UNRECOGNIZED;
+            }
+            int index = line.charAt(start);
+            if (width == 2) {
+                int second = line.charAt(start + 1);
+                if (index > 0xFF || second > 0xFF) {
+                    return ids.idOf(semantics.apply(line.subSequence(start, start + 2).toString()));
+                }
+                index = index << 8 | second;
+            } else if (index > 0xFF) {
+                return ids.idOf(semantics.apply(String.valueOf(line.charAt(start))));
+            }
+            return table[index];
+        }
+    }
+
+    // Keys longer than two bytes: a collision-free (perfect) hash over the normalized key bytes
+    private static final class HashedKeys implements KeyMatcher {
+        private final int start;
+        private final int width;
+        private final boolean trim;
+        // Byte -> byte used for hashing and comparison (upper-casing when ignoreCase)
+        private final byte[] fold;
+        // Bytes String.trim() would strip, as seen through the code page
+        private final boolean[] blank;
+        private final int seed;
+        private final int mask;
+        private final byte[][] keys;
+        private final int[] slotIds;
+
+        private HashedKeys(int start, int width, boolean trim, byte[] fold, boolean[] blank, int seed,
+                           byte[][] keys, int[] slotIds) {
+            this.start = start;
+            this.width = width;
+            this.trim = trim;
+            this.fold = fold;
+            this.blank = blank;
+            this.seed = seed;
+            this.mask = keys.length - 1;
+            this.keys = keys;
+            this.slotIds = slotIds;
+        }
+
+        static HashedKeys build(RecordTypeRule rule, Map<String, String> values, CodePage codePage, TypeIds ids) {
+            Charset charset = codePage.charset();
+            boolean[] blank = blanks(codePage);
+            byte[] fold = new byte[256];
+            for (int b = 0; b < 256; b++) {
+                fold[b] = (byte) b;
+                if (rule.isIgnoreCase() && (codePage != CodePage.UTF_8 || b < 0x80)) {
+                    String decoded = new String(new byte[]{(byte) b}, charset);
+                    String upper = decoded.toUpperCase();
+                    // Characters whose upper case falls outside the code page can never be part of a key
+                    if (charset.newEncoder().canEncode(upper)) {
+                        byte[] folded = upper.getBytes(charset);
+                        if (folded.length == 1) {
+                            fold[b] = folded[0];
+                        }
+                    }
+                }
+            }
+
+            // Keys the String path could never match (untrimmed, or not upper case under ignoreCase) are dropped;
+            // a matchable key the code page cannot represent leaves the rule to the String path
+            CharsetEncoder encoder = charset.newEncoder();
+            List<byte[]> keyBytes = new ArrayList<>();
+            List<Integer> keyIds = new ArrayList<>();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                String key = entry.getKey();
+                if ((rule.isTrimValues() && !key.equals(key.trim()))
+                        || (rule.isIgnoreCase() && !key.equals(key.toUpperCase()))) {
+                    continue;
+                }
+                if (!encoder.canEncode(key)) {
+                    return null;
+                }
+                byte[] bytes = key.getBytes(charset);
+                if (bytes.length <= rule.getLength()) {
+                    keyBytes.add(bytes);
+                    keyIds.add(ids.idOf(entry.getValue()));
+                }
+            }
+
+            int size = Integer.highestOneBit(Math.max(2, keyBytes.size() * 2 - 1)) << 1;
+            while (true) {
+                for (int seed = 1; seed <= 1024; seed++) {
+                    byte[][] slots = new byte[size][];
+                    int[] slotIds = new int[size];
+                    Arrays.fill(slotIds, UNRECOGNIZED);
+                    boolean perfect = true;
+                    for (int k = 0; k < keyBytes.size() && perfect; k++) {
+                        byte[] key = keyBytes.get(k);
+                        int slot = hash(key, 0, key.length, fold, seed) & (size - 1);
+                        if (slots[slot] != null) {
+                            perfect = false;
+                        } else {
+                            slots[slot] = key;
+                            slotIds[slot] = keyIds.get(k);
+                        }
+                    }
+                    if (perfect) {
+                        return new HashedKeys(rule.getStart() - 1, rule.getLength(), rule.isTrimValues(), fold, blank,
+                                seed, slots, slotIds);
+                    }
+                }
+                size <<= 1;
+            }
+        }
+
+        private static int hash(byte[] bytes, int from, int to, byte[] fold, int seed) {
+            int h = seed * 0x9E3779B9;
+            for (int i = from; i < to; i++) {
+                h = (h ^ (fold[bytes[i] & 0xFF] & 0xFF)) * 0x01000193;
+            }
+            return h ^ (h >>> 16);
+        }
+
+        @Override
+        public int match(ByteBuffer record, int offset, int length) {
+            if (length < start + width) {
+                return UNRECOGNIZED;
+            }
+            int from = offset + start;
+            int to = from + width;
+            if (trim) {
+                while (from < to && blank[record.get(from) & 0xFF]) {
+                    from++;
+                }
+                while (to > from && blank[record.get(to - 1) & 0xFF]) {
+                    to--;
+                }
+            }
+            int h = seed * 0x9E3779B9;
+            for (int i = from; i < to; i++) {
+                h = (h ^ (fold[record.get(i) & 0xFF] & 0xFF)) * 0x01000193;
+            }
+            int slot = (h ^ (h >>> 16)) & mask;
+            byte[] key = keys[slot];
+            if (key == null || key.length != to - from) {
+                return UNRECOGNIZED;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (fold[record.get(from + i) & 0xFF] != key[i]) {
+                    return UNRECOGNIZED;
+                }
+            }
+            return slotIds[slot];
+        }
+
+        @Override
+        public int match(CharSequence line) {
+            if (line.length() < start + width) {
+                return UNRECOGNIZED;
+            }
+            int from = start;
+            int to = start + width;
+            if (trim) {
+                while (from < to && line.charAt(from) <= ' ') {
+                    from++;
+                }
+                while (to > from && line.charAt(to - 1) <= ' ') {
+                    to--;
+                }
+            }
+            int h = seed * 0x9E3779B9;
+            for (int i = from; i < to; i++) {
+                char c = line.charAt(i);
+                if (c > 0xFF) {
+                    // Keys are Latin-1, so a wider char can never be part of a match
+                    return UNRECOGNIZED;
+                }
+                h = (h ^ (fold[c] & 0xFF)) * 0x01000193;
+            }
+            int slot = (h ^ (h >>> 16)) & mask;
+            byte[] key = keys[slot];
+            if (key == null || key.length != to - from) {
+                return UNRECOGNIZED;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (fold[line.charAt(from + i)] != key[i]) {
+                    return UNRECOGNIZED;
+                }
+            }
+            return slotIds[slot];
+        }
+    }
+
+    // First multi-field rule whose trimmed window equals its expected value wins
+    private static final class MultiField implements KeyMatcher {
+        private final int[] starts;
+        private final int[] widths;
+        private final byte[][] expected;
+        private final int[] typeIds;
+        private final boolean[] blank;
+
+        private MultiField(int[] starts, int[] widths, byte[][] expected, int[] typeIds, boolean[] blank) {
+            this.starts = starts;
+            this.widths = widths;
+            this.expected = expected;
+            this.typeIds = typeIds;
+            this.blank = blank;
+        }
+
+        static MultiField build(RecordTypeRule rule, CodePage codePage, TypeIds ids) {
+            Charset charset = codePage.charset();
+            List<RecordTypeRule.FieldRule> fieldRules = rule.getMultiFieldRules();
+            int count = fieldRules.size();
+            int[] starts = new int[count];
+            int[] widths = new int[count];
+            byte[][] expected = new byte[count][];
+            int[] typeIds = new int[count];
+            for (int i = 0; i < count; i++) {
+                RecordTypeRule.FieldRule fieldRule = fieldRules.get(i);
+                starts[i] = fieldRule.getStart() - 1;
+                widths[i] = fieldRule.getLength();
+                if (!charset.newEncoder().canEncode(fieldRule.getExpectedValue())) {
+                    return null;
+                }
+                expected[i] = fieldRule.getExpectedValue().getBytes(charset);
+                typeIds[i] = ids.idOf(fieldRule.getRecordType());
+            }
+            return new MultiField(starts, widths, expected, typeIds, blanks(codePage));
+        }
+
+        @Override
+        public int match(ByteBuffer record, int offset, int length) {
+            for (int r = 0; r < starts.length; r++) {
+                if (length < starts[r] + widths[r]) {
+                    continue;
+                }
+                int from = offset + starts[r];
+                int to = from + widths[r];
+                while (from < to && blank[record.get(from) & 0xFF]) {
+                    from++;
+                }
+                while (to > from && blank[record.get(to - 1) & 0xFF]) {
+                    to--;
+                }
+                byte[] value = expected[r];
+                if (value.length == to - from && regionEquals(record, from, value)) {
+                    return typeIds[r];
+                }
+            }
+            return UNRECOGNIZED;
+        }
+
+        @Override
+        public int match(CharSequence line) {
+            for (int r = 0; r < starts.length; r++) {
+                if (line.length() < starts[r] + widths[r]) {
+                    continue;
+                }
+                int from = starts[r];
+                int to = from + widths[r];
+                while (from < to && line.charAt(from) <= ' ') {
+                    from++;
+                }
+                while (to > from && line.charAt(to - 1) <= ' ') {
+                    to--;
+                }
+                byte[] value = expected[r];
+                if (value.length == to - from && regionEquals(line, from, value)) {
+                    return typeIds[r];
+                }
+            }
+            return UNRECOGNIZED;
+        }
+
+        private static boolean regionEquals(ByteBuffer record, int from, byte[] value) {
+            for (int i = 0; i < value.length; i++) {
+                if (record.get(from + i) != value[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean regionEquals(CharSequence line, int from, byte[] value) {
+            for (int i = 0; i < value.length; i++) {
+                if (line.charAt(from + i) != (value[i] & 0xFF)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // Conditional rules: the compiled expression's results are interned once, then mapped by index
+    private static final class Expression implements KeyMatcher {
+        private final RecordExpression expression;
+        private final RecordCursor cursor;
+        private final int[] resultIds;
+
+        Expression(RecordExpression expression, CodePage codePage, TypeIds ids) {
+            this.expression = expression;
+            this.cursor = RecordCursor.bytes(codePage);
+            this.resultIds = expression.getResults().stream().mapToInt(ids::idOf).toArray();
+        }
+
+        @Override
+        public int match(ByteBuffer record, int offset, int length) {
+            int result = expression.evaluate(cursor, record, offset, length);
+            return result == RecordExpression.NO_RESULT ? UNRECOGNIZED : resultIds[result];
+        }
+
+        @Override
+        public int match(CharSequence line) {
+            int result = expression.evaluate(line);
+            return result == RecordExpression.NO_RESULT ? UNRECOGNIZED : resultIds[result];
+        }
+    }
+
+    // Pattern rules: the record is decoded to a String for the regexes, the matched type looked up once
+    private static final class Patterns implements KeyMatcher {
+        private final MultiPatternMatcher matcher;
+        private final ByteTranscoder transcoder;
+        private final Map<String, Integer> typeIds = new HashMap<>();
+
+        Patterns(MultiPatternMatcher matcher, CodePage codePage, TypeIds ids) {
+            this.matcher = matcher;
+            this.transcoder = ByteTranscoder.forCodePage(codePage);
+            for (String type : matcher.recordTypes()) {
+                if (type != null) {
+                    typeIds.put(type, ids.idOf(type));
+                }
+            }
+        }
+
+        @Override
+        public int match(ByteBuffer record, int offset, int length) {
+            return idOf(matcher.classify(transcoder.decode(record, offset, length)));
+        }
+
+        @Override
+        public int match(CharSequence line) {
+            return idOf(matcher.classify(line.toString()));
+        }
+
+        private int idOf(String type) {
+            return type == null ? UNRECOGNIZED : typeIds.getOrDefault(type, UNRECOGNIZED);
+        }
+    }
+
+    // Bytes String.trim() would strip, as seen through the code page
+    private static boolean[] blanks(CodePage codePage) {
+        boolean[] blank = new boolean[256];
+        for (int b = 0; b < 256; b++) {
+            if (codePage == CodePage.UTF_8 && b >= 0x80) {
+                continue;
+            }
+            String decoded = new String(new byte[]{(byte) b}, codePage.charset());
+            blank[b] = decoded.length() == 1 && decoded.charAt(0) <= ' ';
+        }
+        return blank;
+    }
+
+    private record Constant(int typeId) implements KeyMatcher {
+        @Override
+        public int match(ByteBuffer record, int offset, int length) {
+            return typeId;
+        }
+
+        @Override
+        public int match(CharSequence line) {
+            return typeId;
+        }
+    }
+}
@@ -1,136 +1,255 @@
 package com.copybook.parser.processor;
 
+import com.copybook.parser.codec.ByteTranscoder;
+import com.copybook.parser.codec.CodePage;
+import com.copybook.parser.codec.TranscodingChannel;
 import com.copybook.parser.config.ParsingRules;
 import com.copybook.parser.config.RecordTypeRule;
+import com.copybook.parser.expression.RecordExpression;
+import com.copybook.parser.io.LineRecordReader;
+import com.copybook.parser.io.RecordFormat;
+import com.copybook.parser.io.RecordReader;
+import com.copybook.parser.metrics.ClassificationMeter;
+import com.copybook.parser.metrics.ParserMetrics;
 import com.copybook.parser.model.RecordTypeResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
-import java.util.regex.Pattern;
 
 @Component
 @Slf4j
 public class RecordTypeProcessor {
 
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
     public RecordTypeResult process(List<String> lines, ParsingRules rules) {
         log.debug("Processing record types with strategy: {}", rules.getRuleType());
 
-        return switch (rules.getRuleType().toLowerCase()) {
-            case "position-based" -> processPositionBased(lines, rules.getRecordTypeField());
-            case "character-based" -> processCharacterBased(lines, rules.getRecordTypeField());
-            case "conditional-based" -> processConditionalBased(lines, rules.getRecordTypeField());
-            case "pattern-based" -> processPatternBased(lines, rules.getRecordTypeField());
-            case "multi-field" -> processMultiField(lines, rules.getRecordTypeField());
+        var meter = ParserMetrics.classification(rules.getRuleType(), "lines");
+        var result = switch (rules.getRuleType().toLowerCase()) {
+            case "position-based", "character-based", "conditional-based", "pattern-based", "multi-field" ->
+                    processClassified(lines, rules.getRecordTypeField(), lineClassifier(rules),
+                            rules.getRuleType().toLowerCase());
             case "no-record-type" -> processNoRecordType(lines);
             default -> throw new IllegalArgumentException("Unsupported rule type: " + rules.getRuleType());
         };
+        if (meter.isEnabled()) {
+            meter.flushCounts(result.getRecordCounts(), result.getUnrecognizedLines() != null
+                    ? result.getUnrecognizedLines().size() : result.getUnrecognizedCount());
+            meter.stop();
+        }
+        return result;
     }
 
-    private RecordTypeResult processPositionBased(List<String> lines, RecordTypeRule rule) {
-        var recordsByType = new HashMap<String, List<String>>();
-        var recordCounts = new HashMap<String, Integer>();
-        var unrecognizedLines = new ArrayList<String>();
+    public RecordTypeResult process(Path dataFile, ParsingRules rules, RecordSink sink) throws IOException {
+        try (var channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            var dataFormat = rules.getDataFormat();
+            var recordFormat = RecordFormat.of(dataFormat.getRecordFormat());
+            if (dataFormat.getParallelism() != 1 || recordFormat == RecordFormat.F || recordFormat == RecordFormat.FB) {
+                return processChunked(channel, rules, sink);
+            }
+            return process(channel, rules, sink);
+        }
+    }
 
-        for (var line : lines) {
+    public RecordTypeResult process(InputStream input, ParsingRules rules, RecordSink sink) throws IOException {
+        // The caller owns the stream, so it is deliberately left open
+        return process(Channels.newChannel(input), rules, sink);
+    }
+
+    public RecordTypeResult process(ReadableByteChannel channel, ParsingRules rules, RecordSink sink) throws IOException {
+        log.debug("Streaming record types with strategy: {}", rules.getRuleType());
+
+        var classifier = lineClassifier(rules);
+        var defaultType = defaultType(rules.getRecordTypeField());
+        var meter = ParserMetrics.classification(rules.getRuleType(), "stream");
+        // Only one counter per distinct record type is retained, never the records themselves
+        var counters = new HashMap<String, long[]>();
+        long totalRecords = 0;
+        long unrecognizedCount = 0;
+
+        var reader = new BufferedReader(textReader(channel, rules), STREAM_BUFFER_SIZE);
+        String line;
+        while ((line = reader.readLine()) != null) {
             if (isCommentOrEmpty(line)) continue;
 
-            var recordType = extractRecordTypeByPosition(line, rule);
+            var recordType = classifier.classify(line);
             if (recordType == null) {
-                unrecognizedLines.add(line);
-                recordType = rule.getDefaultType();
+                unrecognizedCount++;
+                sink.unrecognized(line);
+                recordType = defaultType;
             }
 
-            recordsByType.computeIfAbsent(recordType, k -> new ArrayList<>()).add(line);
-            recordCounts.merge(recordType, 1, Integer::sum);
+            counters.computeIfAbsent(recordType, k -> new long[1])[0]++;
+            totalRecords++;
+            sink.accept(recordType, line);
+            if (totalRecords % ClassificationMeter.FLUSH_INTERVAL == 0) {
+                meter.flush(counters, unrecognizedCount, 0);
+            }
         }
+        meter.flush(counters, unrecognizedCount, 0);
+        meter.stop();
+
+        var recordCounts = new HashMap<String, Integer>();
+        counters.forEach((type, count) -> recordCounts.put(type, (int) Math.min(count[0], Integer.MAX_VALUE)));
 
         return RecordTypeResult.builder()
-                .recordsByType(recordsByType)
-                .processingMethod("position-based")
+                .recordsByType(Map.of())
+                .processingMethod(rules.getRuleType().toLowerCase())
                 .recordCounts(recordCounts)
-                .unrecognizedLines(unrecognizedLines)
+                .totalRecords(totalRecords)
+                .unrecognizedCount(unrecognizedCount)
                 .build();
     }
 
-    private RecordTypeResult processCharacterBased(List<String> lines, RecordTypeRule rule) {
-        var recordsByType = new HashMap<String, List<String>>();
-        var recordCounts = new HashMap<String, Integer>();
-        var unrecognizedLines = new ArrayList<String>();
+    // Classifies raw records without decoding them: positions in the rule are byte positions in the data's
+    // code page, and the sink receives interned type ids rather than type names
+    public RecordTypeResult process(RecordReader reader, ParsingRules rules, RecordByteSink sink) throws IOException {
+        log.debug("Dispatching record types on raw bytes with strategy: {}", rules.getRuleType());
 
-        for (var line : lines) {
-            if (isCommentOrEmpty(line)) continue;
+        var dispatcher = RecordTypeDispatcher.forRules(rules, CodePage.of(rules.getDataFormat().getEncoding()));
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Rule type " + rules.getRuleType() + " cannot be classified on raw bytes");
+        }
+        var meter = ParserMetrics.classification(rules.getRuleType(), "bytes");
+        var counters = new long[dispatcher.getTypeCount()];
+        long unrecognizedCount = 0;
+        // Comment and blank lines exist only in text; in F/FB/V/VB data a '*' or all-space record is valid data
+        boolean skipComments = reader instanceof LineRecordReader;
+
+        ByteBuffer record;
+        while ((record = reader.next()) != null) {
+            if (reader.getRecordsRead() % ClassificationMeter.FLUSH_INTERVAL == 0) {
+                meter.flush(counters, dispatcher::getTypeName, unrecognizedCount, reader.getBytesRead());
+            }
+            if (skipComments && dispatcher.isCommentOrEmpty(record)) continue;
 
-            var recordType = extractRecordTypeByCharacter(line, rule);
-            if (recordType == null) {
-                unrecognizedLines.add(line);
-                recordType = rule.getDefaultType();
+            int typeId = dispatcher.classify(record);
+            if (typeId == RecordTypeDispatcher.UNRECOGNIZED) {
+                unrecognizedCount++;
+                sink.unrecognized(record);
+                typeId = dispatcher.getDefaultTypeId();
             }
+            counters[typeId]++;
+            sink.accept(typeId, record);
+        }
+        meter.flush(counters, dispatcher::getTypeName, unrecognizedCount, reader.getBytesRead());
+        meter.stop();
 
-            recordsByType.computeIfAbsent(recordType, k -> new ArrayList<>()).add(line);
-            recordCounts.merge(recordType, 1, Integer::sum);
+        var recordCounts = new HashMap<String, Integer>();
+        long totalRecords = 0;
+        for (int typeId = 0; typeId < counters.length; typeId++) {
+            if (counters[typeId] > 0) {
+                recordCounts.put(dispatcher.getTypeName(typeId), (int) Math.min(counters[typeId], Integer.MAX_VALUE));
+                totalRecords += counters[typeId];
+            }
         }
 
         return RecordTypeResult.builder()
-                .recordsByType(recordsByType)
-                .processingMethod("character-based")
+                .recordsByType(Map.of())
+                .processingMethod(rules.getRuleType().toLowerCase())
                 .recordCounts(recordCounts)
-                .unrecognizedLines(unrecognizedLines)
+                .totalRecords(totalRecords)
+                .unrecognizedCount(unrecognizedCount)
                 .build();
     }
 
-    private RecordTypeResult processConditionalBased(List<String> lines, RecordTypeRule rule) {
-        var recordsByType = new HashMap<String, List<String>>();
-        var recordCounts = new HashMap<String, Integer>();
+    private RecordTypeResult processChunked(FileChannel channel, ParsingRules rules, RecordSink sink) throws IOException {
+        var dataFormat = rules.getDataFormat();
+        log.debug("Classifying {} chunks with strategy: {}, parallelism: {}",
+                dataFormat.getRecordFormat(), rules.getRuleType(), dataFormat.getParallelism());
 
-        for (var line : lines) {
-            if (isCommentOrEmpty(line)) continue;
+        var chunked = new ChunkedClassifier(lineClassifier(rules), RecordTypeDispatcher.forRules(rules),
+                defaultType(rules.getRecordTypeField()), dataFormat);
+        var meter = ParserMetrics.classification(rules.getRuleType(), "chunks");
+        var totals = chunked.classify(channel, sink, meter);
+        meter.stop();
 
-            var recordType = evaluateConditionalLogic(line, rule);
-            recordsByType.computeIfAbsent(recordType, k -> new ArrayList<>()).add(line);
-            recordCounts.merge(recordType, 1, Integer::sum);
-        }
+        var recordCounts = new HashMap<String, Integer>();
+        totals.counters().forEach((type, count) -> recordCounts.put(type, (int) Math.min(count[0], Integer.MAX_VALUE)));
 
         return RecordTypeResult.builder()
-                .recordsByType(recordsByType)
-                .processingMethod("conditional-based")
+                .recordsByType(Map.of())
+                .processingMethod(rules.getRuleType().toLowerCase())
                 .recordCounts(recordCounts)
+                .totalRecords(totals.totalRecords())
+                .unrecognizedCount(totals.unrecognizedCount())
+                .processingMetadata(Map.of(
+                        "chunks", totals.chunks(),
+                        "parallelism", dataFormat.getParallelism(),
+                        "preserveOrder", dataFormat.isPreserveOrder()))
                 .build();
     }
 
-    private RecordTypeResult processPatternBased(List<String> lines, RecordTypeRule rule) {
-        var pattern = Pattern.compile(rule.getPattern());
-        var recordsByType = new HashMap<String, List<String>>();
-        var recordCounts = new HashMap<String, Integer>();
-        var unrecognizedLines = new ArrayList<String>();
+    private Reader textReader(ReadableByteChannel channel, ParsingRules rules) {
+        var codePage = CodePage.of(rules.getDataFormat().getEncoding());
+        if (!codePage.isEbcdic()) {
+            return Channels.newReader(channel, codePage.charset());
+        }
+        // Table-driven EBCDIC -> Latin-1 on raw bytes, then the JDK's intrinsic Latin-1 decoding
+        var transcoder = ByteTranscoder.forCodePage(codePage).forTextLines();
+        return Channels.newReader(new TranscodingChannel(channel, transcoder), StandardCharsets.ISO_8859_1);
+    }
 
-        for (var line : lines) {
-            if (isCommentOrEmpty(line)) continue;
+    private LineClassifier lineClassifier(ParsingRules rules) {
+        // Position, character, conditional and multi-field rules compile to a byte-level dispatcher; pattern
+        // rules (whose dispatcher would match the same String), or keys outside Latin-1, stay on the String
+        // strategies of stringClassifier
+        var dispatcher = "pattern-based".equalsIgnoreCase(rules.getRuleType()) ? null : RecordTypeDispatcher.forRules(rules);
+        if (dispatcher != null) {
+            return line -> {
+                int typeId = dispatcher.classify(line);
+                return typeId == RecordTypeDispatcher.UNRECOGNIZED ? null : dispatcher.getTypeName(typeId);
+            };
+        }
+        return stringClassifier(rules);
+    }
 
-            var matcher = pattern.matcher(line);
-            String recordType;
+    // The String strategies, which define what the compiled dispatcher must reproduce
+    LineClassifier stringClassifier(ParsingRules rules) {
+        var rule = rules.getRecordTypeField();
+        return switch (rules.getRuleType().toLowerCase()) {
+            case "position-based" -> line -> extractRecordTypeByPosition(line, rule);
+            case "character-based" -> line -> extractRecordTypeByCharacter(line, rule);
+            case "conditional-based" -> conditionalExpression(rule)::classify;
+            case "pattern-based" -> MultiPatternMatcher.compile(rule)::classify;
+            case "multi-field" -> line -> evaluateMultiFieldRules(line, rule);
+            case "no-record-type" -> line -> "DATA";
+            default -> throw new IllegalArgumentException("Unsupported rule type: " + rules.getRuleType());
+        };
+    }
 
-            if (matcher.find()) {
-                var matchedValue = matcher.group(1);
-                recordType = rule.getPatternMappings().getOrDefault(matchedValue, rule.getDefaultType());
-            } else {
-                unrecognizedLines.add(line);
-                recordType = rule.getDefaultType();
-            }
+    private RecordExpression conditionalExpression(RecordTypeRule rule) {
+        var source = rule.getConditionalExpression() != null ? rule.getConditionalExpression() : rule.getConditionalLogic();
+        return RecordExpression.compile(source, rule.getStart() != null ? rule.getStart() : 0);
+    }
 
-            recordsByType.computeIfAbsent(recordType, k -> new ArrayList<>()).add(line);
-            recordCounts.merge(recordType, 1, Integer::sum);
-        }
+    private String defaultType(RecordTypeRule rule) {
+        return rule != null && rule.getDefaultType() != null ? rule.getDefaultType() : "DATA";
+    }
 
-        return RecordTypeResult.builder()
-                .recordsByType(recordsByType)
-                .processingMethod("pattern-based")
-                .recordCounts(recordCounts)
-                .unrecognizedLines(unrecognizedLines)
-                .build();
+    @FunctionalInterface
+    interface LineClassifier {
+        // Returns null when no rule recognizes the line
+        String classify(String line);
     }
 
-    private RecordTypeResult processMultiField(List<String> lines, RecordTypeRule rule) {
+    // Every strategy but no-record-type: the classifier returns null for lines no rule recognizes (an if-chain
+    // without a final else may select nothing), which fall back to the rule's default type
+    private RecordTypeResult processClassified(List<String> lines, RecordTypeRule rule, LineClassifier classifier,
+                                               String processingMethod) {
         var recordsByType = new HashMap<String, List<String>>();
         var recordCounts = new HashMap<String, Integer>();
         var unrecognizedLines = new ArrayList<String>();
@@ -138,7 +257,7 @@ public class RecordTypeProcessor {
         for (var line : lines) {
             if (isCommentOrEmpty(line)) continue;
 
-            var recordType = evaluateMultiFieldRules(line, rule);
+            var recordType = classifier.classify(line);
             if (recordType == null) {
                 unrecognizedLines.add(line);
                 recordType = rule.getDefaultType();
@@ -150,7 +269,7 @@ public class RecordTypeProcessor {
 
         return RecordTypeResult.builder()
                 .recordsByType(recordsByType)
-                .processingMethod("multi-field")
+                .processingMethod(processingMethod)
                 .recordCounts(recordCounts)
                 .unrecognizedLines(unrecognizedLines)
                 .build();
@@ -213,61 +332,6 @@ public class RecordTypeProcessor {
         return rule.getValues().get(character);
     }
 
-    private String evaluateConditionalLogic(String line, RecordTypeRule rule) {
-        if (rule.getConditionalExpression() != null) {
-            return evaluateExpression(line, rule.getConditionalExpression(), rule);
-        }
-
-        if (rule.getConditionalLogic() != null) {
-            return evaluateSimpleLogic(line, rule.getConditionalLogic(), rule);
-        }
-
-        return rule.getDefaultType();
-    }
-
-    private String evaluateExpression(String line, String expression, RecordTypeRule rule) {
-        // Simple expression evaluator - can be enhanced for complex expressions
-        if (line.length() < rule.getStart()) {
-            return rule.getDefaultType();
-        }
-
-        var character = String.valueOf(line.charAt(rule.getStart() - 1));
-
-        // Replace placeholders in expression
-        var evaluatedExpression = expression
-                .replace("{char}", "'" + character + "'")
-                .replace("{line}", "'" + line + "'")
-                .replace("{length}", String.valueOf(line.length()));
-
-        // Simple evaluation - in production, use a proper expression evaluator
-        if (evaluatedExpression.contains("== 'H'")) {
-            return "H".equals(character) ? "HEADER" : null;
-        } else if (evaluatedExpression.contains("== 'T'")) {
-            return "T".equals(character) ? "TRAILER" : null;
-        }
-
-        return rule.getDefaultType();
-    }
-
-    private String evaluateSimpleLogic(String line, String logic, RecordTypeRule rule) {
-        if (line.length() < rule.getStart()) {
-            return rule.getDefaultType();
-        }
-
-        var character = String.valueOf(line.charAt(rule.getStart() - 1));
-
-        // Simple logic evaluation
-        if (logic.contains("== 'H'") && "H".equals(character)) {
-            return "HEADER";
-        } else if (logic.contains("== 'T'") && "T".equals(character)) {
-            return "TRAILER";
-        } else if (logic.contains("else")) {
-            return "DATA";
-        }
-
-        return rule.getDefaultType();
-    }
-
     private String evaluateMultiFieldRules(String line, RecordTypeRule rule) {
         for (var fieldRule : rule.getMultiFieldRules()) {
             if (line.length() >= fieldRule.getStart() + fieldRule.getLength() - 1) {
@@ -282,7 +346,7 @@ public class RecordTypeProcessor {
         return null;
     }
 
-    private boolean isCommentOrEmpty(String line) {
+    static boolean isCommentOrEmpty(String line) {
         return line.trim().isEmpty() ||
                 (line.length() > 6 && line.charAt(6) == '*') ||
                 line.trim().startsWith("*");
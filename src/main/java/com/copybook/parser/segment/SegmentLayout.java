@@ -0,0 +1,180 @@
+package com.copybook.parser.segment;
+
+import com.copybook.parser.decoder.FieldType;
+import com.copybook.parser.decoder.RecordDecoder;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemoryLayout.PathElement;
+import java.lang.foreign.SequenceLayout;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// A record layout as a foreign-memory struct. Fields are taken from a compiled RecordDecoder, so OCCURS are
+// expanded and offsets come from the CobolField positions. Binary and floating-point fields get a VarHandle
+// with (MemorySegment, long recordIndex) coordinates that reads the field straight out of a segment of
+// consecutive records. Packed fields of up to 8 bytes are read in place too; character, zoned and wider
+// packed fields are byte sequences handed to the decoder.
+// Immutable and safe to share between threads.
+public final class SegmentLayout {
+
+    static final byte BYTES = 0;
+    static final byte SHORT = 1;
+    static final byte INT = 2;
+    static final byte LONG = 3;
+    static final byte FLOAT = 4;
+    static final byte DOUBLE = 5;
+    static final byte HEX_FLOAT = 6;
+    static final byte HEX_DOUBLE = 7;
+    static final byte PACKED = 8;
+
+    static final ValueLayout.OfShort BIG_SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    static final ValueLayout.OfInt BIG_INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    static final ValueLayout.OfLong BIG_LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    static final ValueLayout.OfFloat BIG_FLOAT = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    static final ValueLayout.OfDouble BIG_DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private final RecordDecoder decoder;
+    private final int recordLength;
+    private final StructLayout structLayout;
+    private final byte[] access;
+    private final VarHandle[] handles;
+
+    private SegmentLayout(RecordDecoder decoder) {
+        this.decoder = decoder;
+        this.recordLength = decoder.getRecordLength();
+        int fieldCount = decoder.getFieldCount();
+        this.access = new byte[fieldCount];
+        this.handles = new VarHandle[fieldCount];
+
+        MemoryLayout[] fieldLayouts = new MemoryLayout[fieldCount];
+        for (int f = 0; f < fieldCount; f++) {
+            // Fields past the end of the record decode to null through the decoder
+            access[f] = decoder.getOffset(f) + decoder.getLength(f) <= recordLength ? accessOf(decoder, f) : BYTES;
+            fieldLayouts[f] = layoutOf(access[f], decoder.getLength(f)).withName(decoder.getFieldName(f));
+        }
+
+        // The struct holds the fields that do not overlap an earlier one, in offset order; REDEFINES
+        // alternatives and fields past the record length are left out of it but still get handles below
+        List<MemoryLayout> members = new ArrayList<>();
+        int[] memberIndex = new int[fieldCount];
+        Arrays.fill(memberIndex, -1);
+        int cursor = 0;
+        int[] byOffset = IntStream.range(0, fieldCount).boxed()
+                .sorted(Comparator.comparingInt(decoder::getOffset))
+                .mapToInt(Integer::intValue).toArray();
+        for (int f : byOffset) {
+            int offset = decoder.getOffset(f);
+            if (offset < cursor || offset + decoder.getLength(f) > recordLength) {
+                continue;
+            }
+            if (offset > cursor) {
+                members.add(MemoryLayout.paddingLayout(offset - cursor));
+            }
+            memberIndex[f] = members.size();
+            members.add(fieldLayouts[f]);
+            cursor = offset + decoder.getLength(f);
+        }
+        if (cursor < recordLength) {
+            members.add(MemoryLayout.paddingLayout(recordLength - cursor));
+        }
+        this.structLayout = MemoryLayout.structLayout(members.toArray(MemoryLayout[]::new))
+                .withName(decoder.getLayoutName());
+        SequenceLayout records = recordsOf(structLayout);
+
+        for (int f = 0; f < fieldCount; f++) {
+            if (access[f] == BYTES || access[f] == PACKED) {
+                continue;
+            }
+            handles[f] = memberIndex[f] >= 0
+                    ? records.varHandle(PathElement.sequenceElement(), PathElement.groupElement(memberIndex[f]))
+                    : standalone(fieldLayouts[f], decoder.getOffset(f));
+        }
+    }
+
+    public static SegmentLayout of(RecordDecoder decoder) {
+        if (decoder.getRecordLength() < 1) {
+            throw new IllegalArgumentException("Layout " + decoder.getLayoutName() + " has no fixed record length");
+        }
+        return new SegmentLayout(decoder);
+    }
+
+    public RecordDecoder getDecoder() {
+        return decoder;
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    // One record; padding stands in for gaps and for the bytes of fields that overlap earlier ones
+    public StructLayout getStructLayout() {
+        return structLayout;
+    }
+
+    // VarHandle with (MemorySegment, long recordIndex) coordinates, or null for byte-sequence fields
+    public VarHandle getHandle(int field) {
+        return handles[field];
+    }
+
+    byte access(int field) {
+        return access[field];
+    }
+
+    private VarHandle standalone(MemoryLayout field, int offset) {
+        List<MemoryLayout> members = new ArrayList<>(3);
+        if (offset > 0) {
+            members.add(MemoryLayout.paddingLayout(offset));
+        }
+        members.add(field);
+        long tail = recordLength - offset - field.byteSize();
+        if (tail > 0) {
+            members.add(MemoryLayout.paddingLayout(tail));
+        }
+        StructLayout single = MemoryLayout.structLayout(members.toArray(MemoryLayout[]::new));
+        return recordsOf(single).varHandle(PathElement.sequenceElement(),
+                PathElement.groupElement(offset > 0 ? 1 : 0));
+    }
+
+    // Open-ended run of records; accesses are bounds-checked against the segment actually passed in
+    private static SequenceLayout recordsOf(StructLayout record) {
+        return MemoryLayout.sequenceLayout(Long.MAX_VALUE / record.byteSize(), record);
+    }
+
+    private static byte accessOf(RecordDecoder decoder, int field) {
+        FieldType type = decoder.getFieldType(field);
+        int length = decoder.getLength(field);
+        return switch (type) {
+            case BINARY -> switch (length) {
+                case 2 -> SHORT;
+                case 4 -> INT;
+                // Unsigned doublewords above Long.MAX_VALUE decode to BigDecimal through the decoder
+                case 8 -> decoder.isLongValued(field) ? LONG : BYTES;
+                default -> BYTES;
+            };
+            // Packed fields of up to 8 bytes are gathered into one word and decoded without a copy
+            case PACKED_DECIMAL -> length <= 8 ? PACKED : BYTES;
+            // Hex floats are read as their bit patterns and converted by HexFloatCodec
+            case FLOAT -> decoder.isHexFloat() ? HEX_FLOAT : FLOAT;
+            case DOUBLE -> decoder.isHexFloat() ? HEX_DOUBLE : DOUBLE;
+            default -> BYTES;
+        };
+    }
+
+    private static MemoryLayout layoutOf(byte access, int length) {
+        return switch (access) {
+            case SHORT -> BIG_SHORT;
+            case INT, HEX_FLOAT -> BIG_INT;
+            case LONG, HEX_DOUBLE -> BIG_LONG;
+            case FLOAT -> BIG_FLOAT;
+            case DOUBLE -> BIG_DOUBLE;
+            default -> MemoryLayout.sequenceLayout(length, ValueLayout.JAVA_BYTE);
+        };
+    }
+}
@@ -0,0 +1,122 @@
+package com.copybook.parser.segment;
+
+import com.copybook.parser.codec.HexFloatCodec;
+import com.copybook.parser.codec.PackedDecimalCodec;
+import com.copybook.parser.decoder.RecordDecoder;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+// Decodes fields of record N of a segment of consecutive fixed-length records. Binary, floating-point and
+// short packed fields are read in place through constant big-endian value layouts; these are the reads the
+// SegmentLayout's VarHandles perform, minus the cost of invoking a handle that is not a JIT constant. Other
+// fields are copied (only their own bytes) into a record-sized scratch buffer and decoded there by the
+// RecordDecoder, so results match it exactly. Holds that scratch buffer, so use one instance per thread;
+// the SegmentLayout itself can be shared.
+public final class SegmentRecordDecoder {
+
+    private final SegmentLayout layout;
+    private final RecordDecoder decoder;
+    private final long recordLength;
+    private final byte[] scratch;
+    private final ByteBuffer scratchView;
+
+    public SegmentRecordDecoder(SegmentLayout layout) {
+        this.layout = layout;
+        this.decoder = layout.getDecoder();
+        this.recordLength = layout.getRecordLength();
+        this.scratch = new byte[layout.getRecordLength()];
+        this.scratchView = ByteBuffer.wrap(scratch);
+    }
+
+    public SegmentLayout getLayout() {
+        return layout;
+    }
+
+    // Records held by a segment; a trailing partial record is not counted
+    public long recordCount(MemorySegment records) {
+        return records.byteSize() / recordLength;
+    }
+
+    public Object[] decode(MemorySegment records, long record) {
+        Object[] values = new Object[decoder.getFieldCount()];
+        decode(records, record, values);
+        return values;
+    }
+
+    public void decode(MemorySegment records, long record, Object[] values) {
+        for (int f = 0; f < values.length; f++) {
+            values[f] = decodeField(records, record, f);
+        }
+    }
+
+    public Object decodeField(MemorySegment records, long record, int field) {
+        return switch (layout.access(field)) {
+            case SegmentLayout.FLOAT, SegmentLayout.HEX_FLOAT -> (float) decodeDouble(records, record, field);
+            case SegmentLayout.DOUBLE, SegmentLayout.HEX_DOUBLE -> decodeDouble(records, record, field);
+            case SegmentLayout.SHORT, SegmentLayout.INT, SegmentLayout.LONG, SegmentLayout.PACKED -> {
+                long unscaled = decodeLong(records, record, field);
+                int scale = decoder.getScale(field);
+                yield scale == 0 ? (Object) unscaled : BigDecimal.valueOf(unscaled, scale);
+            }
+            default -> decoder.decodeField(stage(records, record, field), field);
+        };
+    }
+
+    // Unscaled value of a numeric field, as RecordDecoder.decodeLong
+    public long decodeLong(MemorySegment records, long record, int field) {
+        long position = record * recordLength + decoder.getOffset(field);
+        return switch (layout.access(field)) {
+            case SegmentLayout.SHORT -> {
+                short value = records.get(SegmentLayout.BIG_SHORT, position);
+                yield decoder.isSigned(field) ? value : Short.toUnsignedLong(value);
+            }
+            case SegmentLayout.INT -> {
+                int value = records.get(SegmentLayout.BIG_INT, position);
+                yield decoder.isSigned(field) ? value : Integer.toUnsignedLong(value);
+            }
+            case SegmentLayout.LONG -> records.get(SegmentLayout.BIG_LONG, position);
+            case SegmentLayout.PACKED -> PackedDecimalCodec.decodeWord(word(records, position, field), decoder.getLength(field));
+            case SegmentLayout.BYTES -> decoder.decodeLong(stage(records, record, field), field);
+            default -> throw new IllegalStateException(decoder.getFieldName(field) + " is not a numeric field");
+        };
+    }
+
+    // Value of a FLOAT or DOUBLE field, as RecordDecoder.decodeDouble
+    public double decodeDouble(MemorySegment records, long record, int field) {
+        long position = record * recordLength + decoder.getOffset(field);
+        return switch (layout.access(field)) {
+            case SegmentLayout.FLOAT -> records.get(SegmentLayout.BIG_FLOAT, position);
+            case SegmentLayout.DOUBLE -> records.get(SegmentLayout.BIG_DOUBLE, position);
+            case SegmentLayout.HEX_FLOAT -> (float) HexFloatCodec.fromShortBits(records.get(SegmentLayout.BIG_INT, position));
+            case SegmentLayout.HEX_DOUBLE -> HexFloatCodec.fromLongBits(records.get(SegmentLayout.BIG_LONG, position));
+            default -> decoder.decodeDouble(stage(records, record, field), field);
+        };
+    }
+
+    // The field's bytes (at most 8) as a big-endian word: one 8-byte load shifted down when the field is not
+    // too close to the end of the segment
+    private long word(MemorySegment records, long position, int field) {
+        int length = decoder.getLength(field);
+        if (position + Long.BYTES <= records.byteSize()) {
+            return records.get(SegmentLayout.BIG_LONG, position) >>> ((Long.BYTES - length) * 8);
+        }
+        long word = 0;
+        for (int i = 0; i < length; i++) {
+            word = word << 8 | records.get(ValueLayout.JAVA_BYTE, position + i) & 0xFF;
+        }
+        return word;
+    }
+
+    // Copies the field's bytes to the same offset of the scratch record
+    private ByteBuffer stage(MemorySegment records, long record, int field) {
+        int offset = decoder.getOffset(field);
+        int length = Math.min(decoder.getLength(field), scratch.length - offset);
+        if (length > 0) {
+            MemorySegment.copy(records, ValueLayout.JAVA_BYTE, record * recordLength + offset, scratch, offset, length);
+        }
+        return scratchView;
+    }
+}
@@ -0,0 +1,165 @@
+package com.copybook.parser.segment;
+
+import com.copybook.parser.config.DataFormatRule;
+import com.copybook.parser.io.RecordFormat;
+import com.copybook.parser.io.RecordReader;
+import com.copybook.parser.io.RecordReaders;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.processor.RecordByteSink;
+import com.copybook.parser.processor.RecordTypeDispatcher;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// A fixed-length (F/FB) file mapped off-heap as one MemorySegment owned by a shared Arena, so any thread may
+// read it and close() unmaps it immediately instead of waiting for the GC as MappedByteBuffer does. Reads after
+// close fail with IllegalStateException rather than touching unmapped memory.
+public final class SegmentRecordFile implements Closeable {
+
+    // ByteBuffer views handed to byte-oriented code cover whole records and stay under 2 GB
+    private static final long MAX_VIEW = Integer.MAX_VALUE - 8;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final int recordLength;
+    private final long recordCount;
+
+    private SegmentRecordFile(Arena arena, MemorySegment segment, int recordLength) {
+        this.arena = arena;
+        this.segment = segment;
+        this.recordLength = recordLength;
+        this.recordCount = segment.byteSize() / recordLength;
+    }
+
+    public static SegmentRecordFile open(Path dataFile, DataFormatRule format, RecordLayout layout) throws IOException {
+        RecordFormat recordFormat = RecordFormat.of(format.getRecordFormat());
+        if (recordFormat != RecordFormat.F && recordFormat != RecordFormat.FB) {
+            throw new IllegalArgumentException("Off-heap mapping requires fixed-length (F/FB) records, not " + recordFormat);
+        }
+        int recordLength = RecordReaders.resolveRecordLength(format, layout);
+
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % recordLength != 0) {
+                throw new IllegalArgumentException(String.format(
+                        "%s is %d bytes, not a whole number of %d-byte records", dataFile, size, recordLength));
+            }
+            MemorySegment segment = size == 0
+                    ? MemorySegment.NULL
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            return new SegmentRecordFile(arena, segment, recordLength);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    // All records back to back: the segment SegmentRecordDecoder reads record N from
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    public MemorySegment record(long index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + index + " out of range [0, " + recordCount + ")");
+        }
+        return segment.asSlice(index * recordLength, recordLength);
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    public long size() {
+        return recordCount;
+    }
+
+    // Streams the records as read-only ByteBuffer views of the mapping, so RecordTypeProcessor, RecordWriters
+    // and anything else written against RecordReader run on the off-heap data without copying it
+    public RecordReader reader() {
+        return new RecordReader() {
+            private ByteBuffer view;
+            private long viewStart;
+            private long next;
+
+            @Override
+            public ByteBuffer next() {
+                if (next >= recordCount) {
+                    return null;
+                }
+                long position = next * recordLength;
+                if (view == null || position - viewStart >= view.capacity()) {
+                    viewStart = position;
+                    view = view(position);
+                }
+                next++;
+                return view.slice((int) (position - viewStart), recordLength);
+            }
+
+            @Override
+            public long getRecordsRead() {
+                return next;
+            }
+
+            @Override
+            public long getBytesRead() {
+                return next * recordLength;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    // Records per dispatcher type id, with unrecognized records counted under the default type as well
+    public record Classification(long[] counts, long records, long unrecognized) {
+    }
+
+    // Classifies in place without creating a view per record; the sink, unless discarding, gets each record
+    // as it would from a RecordReader. Every record counts: '*' or all spaces are valid F/FB data, not comments.
+    public Classification classify(RecordTypeDispatcher dispatcher, RecordByteSink sink) {
+        long[] counts = new long[dispatcher.getTypeCount()];
+        long records = 0;
+        long unrecognized = 0;
+        boolean emit = sink != RecordByteSink.discarding();
+        for (long viewStart = 0; viewStart < segment.byteSize(); ) {
+            ByteBuffer view = view(viewStart);
+            for (int offset = 0; offset < view.capacity(); offset += recordLength) {
+                int typeId = dispatcher.classify(view, offset, recordLength);
+                if (typeId == RecordTypeDispatcher.UNRECOGNIZED) {
+                    typeId = dispatcher.getDefaultTypeId();
+                    unrecognized++;
+                    if (emit) {
+                        sink.unrecognized(view.slice(offset, recordLength));
+                    }
+                }
+                counts[typeId]++;
+                records++;
+                if (emit) {
+                    sink.accept(typeId, view.slice(offset, recordLength));
+                }
+            }
+            viewStart += view.capacity();
+        }
+        return new Classification(counts, records, unrecognized);
+    }
+
+    private ByteBuffer view(long start) {
+        long wholeRecords = MAX_VIEW / recordLength * recordLength;
+        long length = Math.min(wholeRecords, segment.byteSize() - start);
+        return segment.asSlice(start, length).asByteBuffer().asReadOnlyBuffer();
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
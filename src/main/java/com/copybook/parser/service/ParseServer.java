@@ -0,0 +1,336 @@
+package com.copybook.parser.service;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.copybook.parser.engine.CopybookAnalyzer;
+import com.copybook.parser.io.RecordReader;
+import com.copybook.parser.io.RecordReaders;
+import com.copybook.parser.metrics.MetricsConfiguration.ParserMeterRegistry;
+import com.copybook.parser.metrics.ParserMetrics;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.model.RecordTypeResult;
+import com.copybook.parser.output.RecordWriter;
+import com.copybook.parser.output.RecordWriters;
+import com.copybook.parser.processor.RecordSink;
+import com.copybook.parser.processor.RecordTypeProcessor;
+import com.copybook.parser.util.CopybookReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Resident parse service (copybook.parser.service.enabled=true), so batch schedulers pay JVM and Spring startup
+// once instead of per file. Requests run on virtual threads; at most max-concurrent-requests are processed at a
+// time and the rest wait up to acquire-timeout for a permit before being turned away with 503. Request and
+// response bodies are streamed, so a slow client throttles its own decode through TCP flow control.
+//
+//   POST /layouts                   copybook text; responds with the layout JSON and its id (X-Layout-Id)
+//   POST /decode?layout=ID[&format] data records in the configured DataFormatRule; responds with decoded records
+//   POST /classify                  data lines; responds with the record counts per type
+//   GET  /health, GET /metrics      liveness and Prometheus text (when that registry is configured)
+//
+// Layouts are parsed through the shared LayoutCache, so they stay warm across requests and clients.
+@Component
+@ConditionalOnProperty(prefix = "copybook.parser.service", name = "enabled", havingValue = "true")
+@Slf4j
+public class ParseServer implements SmartLifecycle {
+
+    private static final String PARALLELISM = "jdk.virtualThreadScheduler.parallelism";
+
+    @Autowired
+    private CopybookAnalyzer copybookAnalyzer;
+
+    @Autowired
+    private RecordTypeProcessor recordTypeProcessor;
+
+    @Autowired
+    private ParsingRules parsingRules;
+
+    @Autowired
+    private ParserMeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${copybook.parser.service.host:127.0.0.1}")
+    private String host;
+
+    @Value("${copybook.parser.service.port:8780}")
+    private int port;
+
+    @Value("${copybook.parser.service.max-concurrent-requests:0}")
+    private int maxConcurrentRequests;
+
+    @Value("${copybook.parser.service.acquire-timeout:5s}")
+    private Duration acquireTimeout;
+
+    @Value("${copybook.parser.service.shutdown-timeout:30s}")
+    private Duration shutdownTimeout;
+
+    @Value("${copybook.parser.service.max-layouts:1024}")
+    private int maxLayouts;
+
+    @Value("${copybook.parser.max-file-size:10MB}")
+    private DataSize maxCopybookSize;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private int concurrency;
+    private Semaphore permits;
+    private RegisteredLayouts layouts;
+    private volatile boolean stopping;
+
+    @Override
+    public synchronized void start() {
+        int carriers = carrierThreads();
+        // One carrier stays spare by default, see carrierThreads
+        concurrency = maxConcurrentRequests > 0 ? maxConcurrentRequests : Math.max(1, carriers - 1);
+        stopping = false;
+        permits = new Semaphore(concurrency);
+        layouts = new RegisteredLayouts(maxLayouts);
+        if (carriers <= concurrency) {
+            log.warn("{} virtual thread carriers for {} concurrent requests: slow uploads can keep waiting requests "
+                    + "from being turned away; start the JVM with -D{}={}", carriers, concurrency, PARALLELISM,
+                    concurrency + 1);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen on " + host + ":" + port, e);
+        }
+        server.setExecutor(executor);
+        server.createContext("/health", exchange -> handle(exchange, "health", "GET", false, this::health));
+        server.createContext("/metrics", exchange -> handle(exchange, "metrics", "GET", false, this::metrics));
+        server.createContext("/layouts", exchange -> handle(exchange, "layouts", "POST", true, this::layout));
+        server.createContext("/decode", exchange -> handle(exchange, "decode", "POST", true, this::decode));
+        server.createContext("/classify", exchange -> handle(exchange, "classify", "POST", true, this::classify));
+        server.start();
+        log.info("Parse service listening on {}:{} ({} concurrent requests)", host, getPort(), concurrency);
+    }
+
+    // The JDK server's request body streams are synchronized, so a handler blocked reading a slow upload pins its
+    // carrier thread. With no more carriers than permits, waiting requests could not even run far enough to be
+    // turned away. The carrier count is JVM-wide and fixed when the first virtual thread starts, so it belongs on
+    // the launch command line (-Djdk.virtualThreadScheduler.parallelism=N); here it is only read.
+    private static int carrierThreads() {
+        String configured = System.getProperty(PARALLELISM);
+        try {
+            return configured != null ? Integer.parseInt(configured.trim()) : Runtime.getRuntime().availableProcessors();
+        } catch (NumberFormatException e) {
+            // The JDK rejects it as well and keeps its default
+            return Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        // New requests are turned away while in-flight ones finish: each holds a permit, so owning all of them
+        // means none is left. HttpServer.stop(delay) itself waits out the whole delay even when idle.
+        stopping = true;
+        try {
+            if (!permits.tryAcquire(concurrency, shutdownTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                log.warn("Stopping parse service with requests still in progress");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server.stop(0);
+        executor.close();
+        server = null;
+        log.info("Parse service stopped");
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange, Map<String, String> query) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, String endpoint, String method, boolean limited, Handler handler) {
+        long start = ParserMetrics.start();
+        boolean acquired = false;
+        try {
+            if (!method.equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", method);
+                sendText(exchange, 405, method + " required");
+                return;
+            }
+            if (limited && stopping) {
+                sendText(exchange, 503, "Service is shutting down");
+                return;
+            }
+            if (limited) {
+                acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+                if (!acquired) {
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    sendText(exchange, 503, "Too many concurrent requests");
+                    return;
+                }
+            }
+            handler.handle(exchange, query(exchange));
+        } catch (IllegalArgumentException e) {
+            trySendText(exchange, 400, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            trySendText(exchange, 503, "Service is shutting down");
+        } catch (Exception e) {
+            log.warn("{} request failed: {}", endpoint, e.getMessage(), e);
+            trySendText(exchange, 500, "Internal error: " + e.getMessage());
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+            exchange.close();
+            ParserMetrics.serviceRequest(endpoint, exchange.getResponseCode(), start);
+        }
+    }
+
+    private void health(HttpExchange exchange, Map<String, String> query) throws IOException {
+        sendText(exchange, 200, "UP");
+    }
+
+    private void metrics(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String text = meterRegistry.scrape();
+        if (text == null) {
+            sendText(exchange, 404, "Set copybook.parser.metrics.registry=prometheus to expose metrics");
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        send(exchange, 200, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void layout(HttpExchange exchange, Map<String, String> query) throws IOException {
+        byte[] copybook = readLimited(exchange.getRequestBody(), maxCopybookSize.toBytes());
+        List<String> lines = CopybookReader.readLines(copybook, parsingRules.getDataFormat().getCopybookEncoding());
+        String id = layouts.register(lines);
+        RecordLayout layout = copybookAnalyzer.analyze(lines, parsingRules);
+        exchange.getResponseHeaders().set("X-Layout-Id", id);
+        sendJson(exchange, Map.of("id", id, "layout", layout));
+    }
+
+    private void decode(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String id = query.get("layout");
+        if (id == null) {
+            throw new IllegalArgumentException("layout query parameter required (the id returned by /layouts)");
+        }
+        List<String> lines = layouts.lines(id);
+        if (lines == null) {
+            sendText(exchange, 404, "Unknown layout " + id + "; register the copybook with POST /layouts");
+            return;
+        }
+        RecordLayout layout = copybookAnalyzer.analyze(lines, parsingRules);
+        RecordDecoder decoder = layouts.decoder(id, layout, parsingRules);
+        String format = query.getOrDefault("format", parsingRules.getLayoutGeneration().getOutputFormat());
+        // Resolved before the response starts so an unknown format is still a 400
+        RecordWriters.factory(format);
+
+        // The reader validates the data format, so configuration errors are still a 400 rather than a truncated 200
+        try (RecordReader reader = RecordReaders.open(Channels.newChannel(exchange.getRequestBody()),
+                parsingRules.getDataFormat(), layout)) {
+            exchange.sendResponseHeaders(200, 0);
+            try (RecordWriter writer = RecordWriters.create(format, exchange.getResponseBody(), decoder,
+                    parsingRules.getLayoutGeneration())) {
+                writer.writeAll(reader);
+            }
+        }
+    }
+
+    private void classify(HttpExchange exchange, Map<String, String> query) throws IOException {
+        RecordTypeResult result = recordTypeProcessor.process(exchange.getRequestBody(), parsingRules,
+                RecordSink.discarding());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("processingMethod", result.getProcessingMethod());
+        body.put("totalRecords", result.getTotalRecords());
+        body.put("unrecognizedCount", result.getUnrecognizedCount());
+        body.put("recordCounts", result.getRecordCounts());
+        sendJson(exchange, body);
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        String raw = exchange.getRequestURI().getRawQuery();
+        Map<String, String> query = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.put(key, value);
+        }
+        return query;
+    }
+
+    private static byte[] readLimited(InputStream input, long limit) throws IOException {
+        byte[] content = input.readNBytes((int) Math.min(limit, Integer.MAX_VALUE - 8) + 1);
+        if (content.length > limit) {
+            throw new IllegalArgumentException("Copybook exceeds " + limit + " bytes");
+        }
+        return content;
+    }
+
+    private void sendJson(HttpExchange exchange, Object body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        send(exchange, 200, objectMapper.writeValueAsBytes(body));
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        send(exchange, status, (text + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Error replies are only possible while the response has not started
+    private static void trySendText(HttpExchange exchange, int status, String text) {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            sendText(exchange, status, text);
+        } catch (IOException ignored) {
+            // Client already gone
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.copybook.parser.service;
+
+import com.copybook.parser.cache.LayoutFingerprints;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.RecordDecoder;
+import com.copybook.parser.model.RecordLayout;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Copybooks registered with the parse service, by content hash, least recently used first. Only the source
+// lines are kept here; layouts come from the shared LayoutCache and the compiled decoder is reused for as long
+// as the cache hands back the same layout instance.
+final class RegisteredLayouts {
+
+    private final Map<String, Entry> entries;
+
+    RegisteredLayouts(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("max-layouts must be >= 1");
+        }
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized String register(List<String> copybookLines) {
+        String id = LayoutFingerprints.contentHash(copybookLines);
+        entries.computeIfAbsent(id, k -> new Entry(List.copyOf(copybookLines)));
+        return id;
+    }
+
+    synchronized List<String> lines(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? entry.lines : null;
+    }
+
+    RecordDecoder decoder(String id, RecordLayout layout, ParsingRules rules) {
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.layout == layout) {
+                return entry.decoder;
+            }
+        }
+        // Compiled outside the lock; concurrent first requests may both compile
+        RecordDecoder decoder = RecordDecoder.compile(layout, rules);
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                entry.layout = layout;
+                entry.decoder = decoder;
+            }
+        }
+        return decoder;
+    }
+
+    private static final class Entry {
+        private final List<String> lines;
+        private RecordLayout layout;
+        private RecordDecoder decoder;
+
+        Entry(List<String> lines) {
+            this.lines = lines;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.copybook.parser.syntax;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// COPY member [OF|IN library] [SUPPRESS] [REPLACING [LEADING|TRAILING] operand BY operand ...] .
+// Operands are pseudo-text (==...==), identifiers, literals or numbers. Replacement works on text words:
+// a run of tokens equal to the operand is swapped for the replacement tokens, first matching operand wins,
+// and replaced text is not scanned again. Two extensions used by real libraries also apply: LEADING and
+// TRAILING replace the start or end of words, and a single-word operand written as a tag (:TAG: or (TAG))
+// is replaced wherever it occurs inside a word.
+public record CopyStatement(String member, String library, List<Replacement> replacements, int line) {
+
+    public enum Mode {
+        FULL, LEADING, TRAILING
+    }
+
+    public record Replacement(Mode mode, List<Token> from, List<Token> to) {
+    }
+
+    // Parses the statement whose COPY word is at start; returns it with the index just past its period
+    public static Parsed parse(List<Token> tokens, int start) {
+        int pos = start + 1;
+        Token memberToken = tokenAt(tokens, pos++, "member name");
+        String member = memberToken.text();
+        String library = null;
+
+        Token next = pos < tokens.size() ? tokens.get(pos) : null;
+        if (next != null && (next.isWord("OF") || next.isWord("IN"))) {
+            library = tokenAt(tokens, pos + 1, "library name").text();
+            pos += 2;
+        }
+        if (pos < tokens.size() && tokens.get(pos).isWord("SUPPRESS")) {
+            pos++;
+        }
+
+        List<Replacement> replacements = new ArrayList<>();
+        if (pos < tokens.size() && tokens.get(pos).isWord("REPLACING")) {
+            pos++;
+            while (pos < tokens.size() && !tokens.get(pos).is(TokenType.PERIOD)) {
+                Mode mode = Mode.FULL;
+                if (tokens.get(pos).isWord("LEADING") || tokens.get(pos).isWord("TRAILING")) {
+                    mode = Mode.valueOf(tokens.get(pos++).text());
+                }
+                List<Token> from = operand(tokenAt(tokens, pos++, "REPLACING operand"));
+                if (!tokenAt(tokens, pos++, "BY").isWord("BY")) {
+                    throw new IllegalStateException("COPY " + member + " at line " + memberToken.line()
+                            + ": REPLACING operand must be followed by BY");
+                }
+                List<Token> to = operand(tokenAt(tokens, pos++, "REPLACING BY operand"));
+                if (from.isEmpty() || (mode != Mode.FULL && from.size() != 1)) {
+                    throw new IllegalStateException("COPY " + member + " at line " + memberToken.line()
+                            + ": invalid REPLACING operand");
+                }
+                replacements.add(new Replacement(mode, from, to));
+            }
+        }
+        if (pos < tokens.size() && tokens.get(pos).is(TokenType.PERIOD)) {
+            pos++;
+        }
+        return new Parsed(new CopyStatement(member, library, List.copyOf(replacements), tokens.get(start).line()), pos);
+    }
+
+    public record Parsed(CopyStatement statement, int end) {
+    }
+
+    // Stable text of the REPLACING phrase, for caching replaced member streams
+    public String replacingKey() {
+        if (replacements.isEmpty()) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder();
+        for (Replacement replacement : replacements) {
+            key.append(replacement.mode()).append(' ');
+            replacement.from().forEach(token -> key.append(token.type()).append(':').append(token.text()).append(' '));
+            key.append("BY ");
+            replacement.to().forEach(token -> key.append(token.type()).append(':').append(token.text()).append(' '));
+            key.append('\n');
+        }
+        return key.toString();
+    }
+
+    // The member's tokens with every replacement applied
+    public List<Token> apply(List<Token> tokens) {
+        if (replacements.isEmpty()) {
+            return tokens;
+        }
+        List<Token> out = new ArrayList<>(tokens.size());
+        int i = 0;
+        while (i < tokens.size()) {
+            int consumed = 0;
+            for (Replacement replacement : replacements) {
+                consumed = switch (replacement.mode()) {
+                    case FULL -> replaceRun(tokens, i, replacement, out);
+                    case LEADING, TRAILING -> replaceAffix(tokens.get(i), replacement, out);
+                };
+                if (consumed > 0) {
+                    break;
+                }
+            }
+            if (consumed == 0) {
+                out.add(tokens.get(i));
+                consumed = 1;
+            }
+            i += consumed;
+        }
+        return retypePictures(out);
+    }
+
+    private static int replaceRun(List<Token> tokens, int at, Replacement replacement, List<Token> out) {
+        List<Token> from = replacement.from();
+        if (from.size() == 1 && isTag(from.get(0).text())) {
+            Token token = tokens.get(at);
+            String tag = from.get(0).text();
+            if (!token.is(TokenType.WORD) || !token.text().contains(tag)) {
+                return 0;
+            }
+            out.add(new Token(token.type(), token.text().replace(tag, joined(replacement.to())), token.line(), token.column()));
+            return 1;
+        }
+        if (at + from.size() > tokens.size()) {
+            return 0;
+        }
+        for (int k = 0; k < from.size(); k++) {
+            if (!tokens.get(at + k).text().equals(from.get(k).text())) {
+                return 0;
+            }
+        }
+        Token first = tokens.get(at);
+        for (Token token : replacement.to()) {
+            out.add(new Token(token.type(), token.text(), first.line(), first.column()));
+        }
+        return from.size();
+    }
+
+    private static int replaceAffix(Token token, Replacement replacement, List<Token> out) {
+        String affix = replacement.from().get(0).text();
+        String text = token.text();
+        if (!token.is(TokenType.WORD) || text.length() <= affix.length()) {
+            return 0;
+        }
+        String by = joined(replacement.to());
+        String replaced;
+        if (replacement.mode() == Mode.LEADING && text.startsWith(affix)) {
+            replaced = by + text.substring(affix.length());
+        } else if (replacement.mode() == Mode.TRAILING && text.endsWith(affix)) {
+            replaced = text.substring(0, text.length() - affix.length()) + by;
+        } else {
+            return 0;
+        }
+        out.add(new Token(token.type(), replaced, token.line(), token.column()));
+        return 1;
+    }
+
+    // Replacement text lexed out of context; whatever follows PIC / PICTURE [IS] is a character-string
+    private static List<Token> retypePictures(List<Token> tokens) {
+        for (int i = 1; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.is(TokenType.PICTURE) || !(token.is(TokenType.WORD) || token.is(TokenType.NUMBER))
+                    || token.isWord("IS")) {
+                continue;
+            }
+            Token previous = tokens.get(i - 1);
+            boolean afterPic = isPicWord(previous)
+                    || (previous.isWord("IS") && i >= 2 && isPicWord(tokens.get(i - 2)));
+            if (afterPic) {
+                tokens.set(i, new Token(TokenType.PICTURE, token.text(), token.line(), token.column()));
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isPicWord(Token token) {
+        return token.isWord("PIC") || token.isWord("PICTURE");
+    }
+
+    private static boolean isTag(String text) {
+        return text.length() > 2 && ((text.startsWith(":") && text.endsWith(":"))
+                || (text.startsWith("(") && text.endsWith(")")));
+    }
+
+    private static String joined(List<Token> tokens) {
+        StringBuilder text = new StringBuilder();
+        for (Token token : tokens) {
+            text.append(token.text());
+        }
+        return text.toString();
+    }
+
+    private static List<Token> operand(Token token) {
+        if (token.is(TokenType.PSEUDO_TEXT)) {
+            return token.text().isEmpty() ? List.of() : CopybookLexer.tokenize(List.of(token.text()), SourceFormat.FREE);
+        }
+        return List.of(token);
+    }
+
+    private static Token tokenAt(List<Token> tokens, int index, String expected) {
+        if (index >= tokens.size() || tokens.get(index).is(TokenType.PERIOD)) {
+            Token copy = tokens.get(Math.min(index, tokens.size()) - 1);
+            throw new IllegalStateException("Incomplete COPY statement at line " + copy.line() + ": missing " + expected);
+        }
+        return tokens.get(index);
+    }
+}
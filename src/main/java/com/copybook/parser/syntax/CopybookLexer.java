@@ -0,0 +1,275 @@
+package com.copybook.parser.syntax;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Single-pass, column-aware tokenizer for copybook source. Each line is scanned once; literals,
+// pseudo-text and words may continue across lines (fixed format '-' indicator), and entries may span
+// any number of lines since only the parser looks for the terminating period.
+public final class CopybookLexer {
+
+    private static final int INDICATOR_COLUMN = 6;
+    private static final int AREA_A_COLUMN = 7;
+    private static final int AREA_B_END = 72;
+
+    private final SourceFormat format;
+    private final List<Token> tokens;
+
+    // Literal or pseudo-text still open at the end of the previous line
+    private StringBuilder pending;
+    private char pendingQuote;
+    private boolean pendingPseudoText;
+    private int pendingLine;
+    private int pendingColumn;
+
+    // The next token continues the previous word (fixed-format continuation line)
+    private boolean joinWord;
+    private boolean pictureExpected;
+
+    private CopybookLexer(SourceFormat format, int expectedTokens) {
+        this.format = format;
+        this.tokens = new ArrayList<>(expectedTokens);
+    }
+
+    public static List<Token> tokenize(List<String> lines, SourceFormat format) {
+        SourceFormat resolved = format == SourceFormat.AUTO ? SourceFormat.detect(lines) : format;
+        CopybookLexer lexer = new CopybookLexer(resolved, lines.size() * 4);
+        for (int i = 0; i < lines.size(); i++) {
+            lexer.scanLine(lines.get(i), i + 1);
+        }
+        lexer.flushPending();
+        return lexer.tokens;
+    }
+
+    private void scanLine(String line, int lineNumber) {
+        int start;
+        int end;
+        boolean continuation = false;
+
+        if (format == SourceFormat.FIXED) {
+            if (line.length() <= AREA_A_COLUMN) {
+                return;
+            }
+            char indicator = line.charAt(INDICATOR_COLUMN);
+            if (indicator == '*' || indicator == '/' || indicator == 'D' || indicator == 'd' || indicator == '$') {
+                return;
+            }
+            continuation = indicator == '-';
+            start = AREA_A_COLUMN;
+            end = Math.min(line.length(), AREA_B_END);
+        } else {
+            start = 0;
+            end = line.length();
+        }
+
+        int first = skipSpaces(line, start, end);
+        if (first >= end) {
+            return;
+        }
+        // Full-line comments: '*' as the first character of the text (kept for copybooks that were
+        // shifted out of the indicator column)
+        if (line.charAt(first) == '*' && (first + 1 >= end || line.charAt(first + 1) != '>')) {
+            return;
+        }
+
+        int i = start;
+        if (pending != null) {
+            if (continuation && !pendingPseudoText) {
+                // The continued literal resumes after the quote that opens the continuation text
+                int quote = skipSpaces(line, start, end);
+                if (quote < end && line.charAt(quote) == pendingQuote) {
+                    i = scanLiteralBody(line, quote + 1, end);
+                } else {
+                    flushPending();
+                }
+            } else if (pendingPseudoText) {
+                pending.append(' ');
+                i = scanPseudoTextBody(line, start, end);
+            } else {
+                flushPending();
+            }
+        } else if (continuation) {
+            joinWord = true;
+            i = first;
+        }
+
+        while (i < end) {
+            char c = line.charAt(i);
+            if (c == ' ' || c == '\t') {
+                joinWord = false;
+                i++;
+            } else if (c == '*' && i + 1 < end && line.charAt(i + 1) == '>') {
+                // Inline comment runs to the end of the line
+                return;
+            } else if ((c == ',' || c == ';') && isSeparatorEnd(line, i + 1, end)) {
+                i++;
+            } else if (c == '.' && isSeparatorEnd(line, i + 1, end)) {
+                pictureExpected = false;
+                emit(TokenType.PERIOD, ".", lineNumber, i);
+                i++;
+            } else if (c == '\'' || c == '"') {
+                pending = new StringBuilder();
+                pendingQuote = c;
+                pendingPseudoText = false;
+                pendingLine = lineNumber;
+                pendingColumn = i;
+                i = scanLiteralBody(line, i + 1, end);
+            } else if (c == '=' && i + 1 < end && line.charAt(i + 1) == '=') {
+                pending = new StringBuilder();
+                pendingPseudoText = true;
+                pendingLine = lineNumber;
+                pendingColumn = i;
+                i = scanPseudoTextBody(line, i + 2, end);
+            } else {
+                i = scanWord(line, i, end, lineNumber);
+            }
+        }
+
+        // A literal left open in fixed format runs to column 72, trailing spaces included
+        if (pending != null && !pendingPseudoText && format == SourceFormat.FIXED) {
+            for (int column = end; column < AREA_B_END; column++) {
+                pending.append(' ');
+            }
+        }
+    }
+
+    // Returns the index after the closing quote, or end when the literal continues on the next line
+    private int scanLiteralBody(String line, int from, int end) {
+        int i = from;
+        while (i < end) {
+            char c = line.charAt(i);
+            if (c == pendingQuote) {
+                if (i + 1 < end && line.charAt(i + 1) == pendingQuote) {
+                    pending.append(c);
+                    i += 2;
+                    continue;
+                }
+                emitPendingLiteral();
+                return i + 1;
+            }
+            pending.append(c);
+            i++;
+        }
+        return end;
+    }
+
+    private int scanPseudoTextBody(String line, int from, int end) {
+        int i = from;
+        while (i < end) {
+            char c = line.charAt(i);
+            if (c == '=' && i + 1 < end && line.charAt(i + 1) == '=') {
+                tokens.add(new Token(TokenType.PSEUDO_TEXT, pending.toString().trim(), pendingLine, pendingColumn + 1));
+                pending = null;
+                return i + 2;
+            }
+            pending.append(c);
+            i++;
+        }
+        return end;
+    }
+
+    private int scanWord(String line, int from, int end, int lineNumber) {
+        int i = from;
+        while (i < end) {
+            char c = line.charAt(i);
+            if (c == ' ' || c == '\t') {
+                break;
+            }
+            if ((c == '.' || c == ',' || c == ';') && isSeparatorEnd(line, i + 1, end)) {
+                break;
+            }
+            if ((c == '\'' || c == '"') && !pictureExpected) {
+                // Hex / national literal prefix such as X'C1' or N"AB"
+                if (i > from && isLiteralPrefix(line, from, i)) {
+                    int close = line.indexOf(c, i + 1);
+                    int stop = close < 0 || close >= end ? end : close + 1;
+                    emit(TokenType.STRING, line.substring(from, stop).toUpperCase(), lineNumber, from);
+                    return stop;
+                }
+                break;
+            }
+            i++;
+        }
+
+        String text = line.substring(from, i).toUpperCase();
+        if (joinWord && !tokens.isEmpty() && tokens.get(tokens.size() - 1).type() != TokenType.PERIOD) {
+            Token previous = tokens.remove(tokens.size() - 1);
+            joinWord = false;
+            tokens.add(new Token(previous.type(), previous.text() + text, previous.line(), previous.column()));
+            return i;
+        }
+        joinWord = false;
+
+        if (pictureExpected && !text.equals("IS")) {
+            pictureExpected = false;
+            emit(TokenType.PICTURE, text, lineNumber, from);
+        } else if (isNumeric(text)) {
+            emit(TokenType.NUMBER, text, lineNumber, from);
+        } else {
+            emit(TokenType.WORD, text, lineNumber, from);
+            if (text.equals("PIC") || text.equals("PICTURE")) {
+                pictureExpected = true;
+            }
+        }
+        return i;
+    }
+
+    private void emit(TokenType type, String text, int line, int index) {
+        tokens.add(new Token(type, text, line, index + 1));
+    }
+
+    private void emitPendingLiteral() {
+        tokens.add(new Token(TokenType.STRING, pending.toString(), pendingLine, pendingColumn + 1));
+        pending = null;
+    }
+
+    private void flushPending() {
+        if (pending == null) {
+            return;
+        }
+        if (pendingPseudoText) {
+            tokens.add(new Token(TokenType.PSEUDO_TEXT, pending.toString().trim(), pendingLine, pendingColumn + 1));
+            pending = null;
+        } else {
+            emitPendingLiteral();
+        }
+    }
+
+    private static boolean isSeparatorEnd(String line, int next, int end) {
+        return next >= end || line.charAt(next) == ' ' || line.charAt(next) == '\t';
+    }
+
+    private static boolean isLiteralPrefix(String line, int from, int to) {
+        String prefix = line.substring(from, to).toUpperCase();
+        return prefix.equals("X") || prefix.equals("N") || prefix.equals("NX") || prefix.equals("Z") || prefix.equals("G");
+    }
+
+    private static boolean isNumeric(String text) {
+        int i = 0;
+        int length = text.length();
+        if (length > 1 && (text.charAt(0) == '+' || text.charAt(0) == '-')) {
+            i = 1;
+        }
+        boolean digits = false;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if ((c == '.' || c == ',') && !point) {
+                point = true;
+            } else {
+                return false;
+            }
+        }
+        return digits;
+    }
+
+    private static int skipSpaces(String line, int from, int end) {
+        int i = from;
+        while (i < end && (line.charAt(i) == ' ' || line.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+}
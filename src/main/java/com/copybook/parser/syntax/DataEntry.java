@@ -0,0 +1,35 @@
+package com.copybook.parser.syntax;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One data description entry as written in the copybook, before any layout computation
+@Data
+public class DataEntry {
+
+    private int level;
+    private String name;
+    private int line;
+
+    private String picture;
+    private String usage;
+    private String value;
+    private List<String> values = new ArrayList<>();
+
+    private String redefines;
+    private String renames;
+    private String renamesThrough;
+
+    // OCCURS n TIMES, or OCCURS min TO max TIMES DEPENDING ON dependingOn
+    private Integer occurs;
+    private Integer occursMin;
+    private String dependingOn;
+
+    private boolean signLeading;
+    private boolean signSeparate;
+    private boolean sync;
+    private boolean justified;
+    private boolean blankWhenZero;
+}
@@ -0,0 +1,301 @@
+package com.copybook.parser.syntax;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Recursive-descent parser for data description entries. Clauses may appear in any order and span any
+// number of lines; an entry ends at its period, or at the next level number when the period is missing.
+public final class DataEntryParser {
+
+    private static final Set<String> USAGE_WORDS = Set.of(
+            "COMP", "COMP-1", "COMP-2", "COMP-3", "COMP-4", "COMP-5", "COMP-X",
+            "COMPUTATIONAL", "COMPUTATIONAL-1", "COMPUTATIONAL-2", "COMPUTATIONAL-3", "COMPUTATIONAL-4",
+            "COMPUTATIONAL-5", "COMPUTATIONAL-X", "BINARY", "PACKED-DECIMAL", "DISPLAY", "DISPLAY-1",
+            "NATIONAL", "INDEX", "POINTER", "PROCEDURE-POINTER", "FUNCTION-POINTER"
+    );
+
+    private static final Set<String> FIGURATIVE_WORDS = Set.of(
+            "ZERO", "ZEROS", "ZEROES", "SPACE", "SPACES", "HIGH-VALUE", "HIGH-VALUES",
+            "LOW-VALUE", "LOW-VALUES", "QUOTE", "QUOTES", "NULL", "NULLS"
+    );
+
+    private static final Set<String> CLAUSE_WORDS = Set.of(
+            "PIC", "PICTURE", "USAGE", "VALUE", "VALUES", "REDEFINES", "RENAMES", "OCCURS", "SIGN",
+            "LEADING", "TRAILING", "SYNC", "SYNCHRONIZED", "JUST", "JUSTIFIED", "BLANK", "EXTERNAL", "GLOBAL",
+            "IS", "TIMES", "DEPENDING", "INDEXED", "ASCENDING", "DESCENDING", "KEY", "BY", "ON", "TO",
+            "THRU", "THROUGH", "SEPARATE", "CHARACTER", "WHEN", "LEFT", "RIGHT", "ARE", "ALL"
+    );
+
+    private final List<Token> tokens;
+    private int pos;
+
+    private DataEntryParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    public static List<DataEntry> parse(List<Token> tokens) {
+        return new DataEntryParser(tokens).parseEntries();
+    }
+
+    private List<DataEntry> parseEntries() {
+        List<DataEntry> entries = new ArrayList<>(tokens.size() / 4 + 1);
+        while (pos < tokens.size()) {
+            Token token = tokens.get(pos);
+            if (isLevelNumber(token)) {
+                entries.add(parseEntry());
+            } else if (token.isWord("COPY")) {
+                // COPY members are resolved before parsing when a library is configured; skip the statement
+                skipPastPeriod();
+            } else {
+                pos++;
+            }
+        }
+        return entries;
+    }
+
+    private DataEntry parseEntry() {
+        Token levelToken = tokens.get(pos++);
+        DataEntry entry = new DataEntry();
+        entry.setLevel(Integer.parseInt(levelToken.text()));
+        entry.setLine(levelToken.line());
+
+        Token next = peek();
+        if (next != null && next.is(TokenType.WORD) && !CLAUSE_WORDS.contains(next.text()) && !USAGE_WORDS.contains(next.text())) {
+            entry.setName(next.text());
+            pos++;
+        } else {
+            entry.setName("FILLER");
+        }
+
+        while (pos < tokens.size()) {
+            Token token = tokens.get(pos);
+            if (token.is(TokenType.PERIOD)) {
+                pos++;
+                return entry;
+            }
+            if (isLevelNumber(token)) {
+                // Missing period: the next entry has already started
+                return entry;
+            }
+            pos++;
+            if (token.is(TokenType.PICTURE)) {
+                entry.setPicture(token.text());
+            } else if (token.is(TokenType.WORD)) {
+                parseClause(token.text(), entry);
+            }
+        }
+        return entry;
+    }
+
+    private void parseClause(String keyword, DataEntry entry) {
+        switch (keyword) {
+            case "PIC", "PICTURE" -> {
+                skipWord("IS");
+                if (peekIs(TokenType.PICTURE)) {
+                    entry.setPicture(tokens.get(pos++).text());
+                }
+            }
+            case "USAGE" -> {
+                skipWord("IS");
+                Token usage = peek();
+                if (usage != null && usage.is(TokenType.WORD) && USAGE_WORDS.contains(usage.text())) {
+                    entry.setUsage(normalizeUsage(usage.text()));
+                    pos++;
+                }
+            }
+            case "VALUE", "VALUES" -> parseValues(entry);
+            case "REDEFINES" -> entry.setRedefines(nextWord());
+            case "RENAMES" -> {
+                entry.setRenames(nextWord());
+                if (skipWord("THRU") || skipWord("THROUGH")) {
+                    entry.setRenamesThrough(nextWord());
+                }
+            }
+            case "OCCURS" -> parseOccurs(entry);
+            case "SIGN" -> {
+                skipWord("IS");
+                Token position = peek();
+                if (position != null && (position.isWord("LEADING") || position.isWord("TRAILING"))) {
+                    pos++;
+                    parseSignPosition(position.text(), entry);
+                }
+            }
+            case "LEADING", "TRAILING" -> parseSignPosition(keyword, entry);
+            case "SYNC", "SYNCHRONIZED" -> {
+                entry.setSync(true);
+                if (!skipWord("LEFT")) {
+                    skipWord("RIGHT");
+                }
+            }
+            case "JUST", "JUSTIFIED" -> {
+                entry.setJustified(true);
+                skipWord("RIGHT");
+            }
+            case "BLANK" -> {
+                skipWord("WHEN");
+                if (skipWord("ZERO") || skipWord("ZEROS") || skipWord("ZEROES")) {
+                    entry.setBlankWhenZero(true);
+                }
+            }
+            default -> {
+                if (USAGE_WORDS.contains(keyword)) {
+                    entry.setUsage(normalizeUsage(keyword));
+                }
+                // EXTERNAL, GLOBAL and vendor clauses carry no layout information
+            }
+        }
+    }
+
+    private void parseValues(DataEntry entry) {
+        if (!skipWord("IS")) {
+            skipWord("ARE");
+        }
+        while (pos < tokens.size()) {
+            Token token = tokens.get(pos);
+            if (!entry.getValues().isEmpty() && isLevelNumber(token) && startsEntry(pos)) {
+                return;
+            }
+            String literal = literal(token);
+            if (literal == null) {
+                return;
+            }
+            pos++;
+            if (token.isWord("ALL") && pos < tokens.size()) {
+                String repeated = literal(tokens.get(pos));
+                if (repeated != null) {
+                    pos++;
+                    literal = "ALL " + repeated;
+                }
+            }
+            entry.getValues().add(literal);
+            if (entry.getValue() == null) {
+                entry.setValue(literal);
+            }
+            if (skipWord("THRU") || skipWord("THROUGH")) {
+                Token upper = peek();
+                if (upper != null && literal(upper) != null) {
+                    entry.getValues().add(literal(upper));
+                    pos++;
+                }
+            }
+        }
+    }
+
+    private void parseOccurs(DataEntry entry) {
+        if (!peekIs(TokenType.NUMBER)) {
+            return;
+        }
+        int first = Integer.parseInt(tokens.get(pos++).text());
+        if (skipWord("TO") && peekIs(TokenType.NUMBER)) {
+            entry.setOccursMin(first);
+            entry.setOccurs(Integer.parseInt(tokens.get(pos++).text()));
+        } else {
+            entry.setOccurs(first);
+        }
+        skipWord("TIMES");
+
+        while (pos < tokens.size()) {
+            if (skipWord("DEPENDING")) {
+                skipWord("ON");
+                entry.setDependingOn(nextWord());
+            } else if (skipWord("ASCENDING") || skipWord("DESCENDING")) {
+                skipWord("KEY");
+                skipWord("IS");
+                skipNames();
+            } else if (skipWord("INDEXED")) {
+                skipWord("BY");
+                skipNames();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void parseSignPosition(String position, DataEntry entry) {
+        entry.setSignLeading(position.equals("LEADING"));
+        if (skipWord("SEPARATE")) {
+            entry.setSignSeparate(true);
+            skipWord("CHARACTER");
+        }
+    }
+
+    private static String literal(Token token) {
+        if (token.is(TokenType.STRING) || token.is(TokenType.NUMBER)) {
+            return token.text();
+        }
+        if (token.is(TokenType.WORD) && (FIGURATIVE_WORDS.contains(token.text()) || token.text().equals("ALL"))) {
+            return token.text();
+        }
+        return null;
+    }
+
+    private static String normalizeUsage(String usage) {
+        return usage.startsWith("COMPUTATIONAL") ? "COMP" + usage.substring("COMPUTATIONAL".length()) : usage;
+    }
+
+    // A level number is an unsigned integer 1-49, 66, 77 or 88
+    private static boolean isLevelNumber(Token token) {
+        if (!token.is(TokenType.NUMBER) || token.text().length() > 2) {
+            return false;
+        }
+        char first = token.text().charAt(0);
+        if (first < '0' || first > '9') {
+            return false;
+        }
+        int level = Integer.parseInt(token.text());
+        return (level >= 1 && level <= 49) || level == 66 || level == 77 || level == 88;
+    }
+
+    // Within a VALUE list a level-like number starts a new entry only when a data name or clause follows it
+    private boolean startsEntry(int index) {
+        if (index + 1 >= tokens.size()) {
+            return false;
+        }
+        Token following = tokens.get(index + 1);
+        return following.is(TokenType.WORD) && !following.isWord("THRU") && !following.isWord("THROUGH");
+    }
+
+    private void skipNames() {
+        while (pos < tokens.size()) {
+            Token token = tokens.get(pos);
+            if (!token.is(TokenType.WORD) || CLAUSE_WORDS.contains(token.text()) || USAGE_WORDS.contains(token.text())) {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private void skipPastPeriod() {
+        while (pos < tokens.size() && !tokens.get(pos++).is(TokenType.PERIOD)) {
+            // consume the statement
+        }
+    }
+
+    private String nextWord() {
+        Token token = peek();
+        if (token != null && token.is(TokenType.WORD)) {
+            pos++;
+            return token.text();
+        }
+        return null;
+    }
+
+    private boolean skipWord(String word) {
+        Token token = peek();
+        if (token != null && token.isWord(word)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean peekIs(TokenType type) {
+        Token token = peek();
+        return token != null && token.is(type);
+    }
+
+    private Token peek() {
+        return pos < tokens.size() ? tokens.get(pos) : null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.copybook.parser.syntax;
+
+import java.util.List;
+
+public enum SourceFormat {
+    FIXED,  // columns 1-6 sequence area, 7 indicator, 8-72 program text, 73-80 identification
+    FREE,   // program text anywhere on the line, *> comments
+    AUTO;
+
+    public static SourceFormat of(String name) {
+        if (name == null || name.isBlank()) {
+            return AUTO;
+        }
+        return switch (name.trim().toLowerCase()) {
+            case "fixed" -> FIXED;
+            case "free" -> FREE;
+            case "auto" -> AUTO;
+            default -> throw new IllegalArgumentException("Unsupported source format: " + name);
+        };
+    }
+
+    // Fixed format unless some line puts program text where fixed format only allows sequence numbers
+    // or an indicator
+    public static SourceFormat detect(List<String> lines) {
+        for (String line : lines) {
+            int first = firstNonBlank(line);
+            if (first < 0 || first >= 7) {
+                continue;
+            }
+            for (int i = first; i < Math.min(6, line.length()); i++) {
+                char c = line.charAt(i);
+                if (c != ' ' && !Character.isDigit(c)) {
+                    return FREE;
+                }
+            }
+            if (line.length() > 6 && " */-Dd$".indexOf(line.charAt(6)) < 0) {
+                return FREE;
+            }
+        }
+        return FIXED;
+    }
+
+    private static int firstNonBlank(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,17 @@
+package com.copybook.parser.syntax;
+
+public record Token(TokenType type, String text, int line, int column) {
+
+    public boolean is(TokenType expected) {
+        return type == expected;
+    }
+
+    public boolean isWord(String word) {
+        return type == TokenType.WORD && text.equals(word);
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + text + ")@" + line + ":" + column;
+    }
+}
@@ -0,0 +1,10 @@
+package com.copybook.parser.syntax;
+
+public enum TokenType {
+    WORD,           // COBOL word or keyword, upper-cased
+    NUMBER,         // numeric literal, including level numbers
+    STRING,         // alphanumeric literal without its quotes; hex/national literals keep their prefix and quotes
+    PICTURE,        // character-string following PIC / PICTURE [IS]
+    PSEUDO_TEXT,    // ==...== operand of COPY REPLACING, without the delimiters
+    PERIOD          // separator period ending an entry
+}
@@ -0,0 +1,44 @@
+package com.copybook.parser.util;
+
+import com.copybook.parser.codec.ByteTranscoder;
+import com.copybook.parser.codec.CodePage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CopybookReader {
+
+    // Members downloaded from a PDS in binary keep their RECFM=FB LRECL=80 framing and have no line breaks
+    private static final int CARD_LENGTH = 80;
+
+    private CopybookReader() {
+    }
+
+    public static List<String> readLines(Path copybook, String encoding) throws IOException {
+        return readLines(Files.readAllBytes(copybook), encoding);
+    }
+
+    public static List<String> readLines(byte[] content, String encoding) {
+        CodePage codePage = CodePage.of(encoding);
+        if (!codePage.isEbcdic()) {
+            return new String(content, codePage.charset()).lines().toList();
+        }
+
+        byte[] latin1 = new byte[content.length];
+        ByteTranscoder.forCodePage(codePage).forTextLines().toLatin1(content, 0, latin1, 0, content.length);
+        String text = new String(latin1, StandardCharsets.ISO_8859_1);
+        if (text.indexOf('\n') >= 0) {
+            return text.lines().toList();
+        }
+
+        List<String> cards = new ArrayList<>(text.length() / CARD_LENGTH + 1);
+        for (int start = 0; start < text.length(); start += CARD_LENGTH) {
+            cards.add(text.substring(start, Math.min(start + CARD_LENGTH, text.length())));
+        }
+        return cards;
+    }
+}
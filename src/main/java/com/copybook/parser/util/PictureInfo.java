@@ -0,0 +1,141 @@
+package com.copybook.parser.util;
+
+public record PictureInfo(
+        String picture,
+        Category category,
+        int displayLength,
+        int digits,
+        int scale,
+        boolean signed
+) {
+
+    public enum Category {
+        ALPHANUMERIC,
+        ALPHABETIC,
+        NUMERIC,
+        NUMERIC_EDITED
+    }
+
+    public boolean isNumeric() {
+        return category == Category.NUMERIC;
+    }
+
+    public static PictureInfo parse(String picture) {
+        if (picture == null || picture.isEmpty()) {
+            return new PictureInfo(picture, Category.ALPHANUMERIC, 0, 0, 0, false);
+        }
+
+        int displayLength = 0;
+        int integerDigits = 0;
+        int fractionDigits = 0;
+        int scalingPositions = 0;
+        boolean signed = false;
+        boolean seenDecimalPoint = false;
+        boolean seenDigit = false;
+        boolean alphanumeric = false;
+        boolean alphabetic = false;
+        boolean edited = false;
+
+        int length = picture.length();
+        int i = 0;
+        while (i < length) {
+            char symbol = Character.toUpperCase(picture.charAt(i));
+            int repeat = 1;
+            int next = i + 1;
+
+            if (next < length && picture.charAt(next) == '(') {
+                int close = picture.indexOf(')', next + 1);
+                if (close > next + 1) {
+                    repeat = parseRepeat(picture, next + 1, close);
+                    next = close + 1;
+                }
+            }
+
+            switch (symbol) {
+                case '9' -> {
+                    displayLength += repeat;
+                    seenDigit = true;
+                    if (seenDecimalPoint) {
+                        fractionDigits += repeat;
+                    } else {
+                        integerDigits += repeat;
+                    }
+                }
+                case 'X' -> {
+                    displayLength += repeat;
+                    alphanumeric = true;
+                }
+                case 'A' -> {
+                    displayLength += repeat;
+                    alphabetic = true;
+                }
+                case 'S' -> signed = true;
+                case 'V' -> seenDecimalPoint = true;
+                case 'P' -> {
+                    // Scaling positions: leading P's shift the point left, trailing P's shift it right
+                    if (seenDigit && !seenDecimalPoint) {
+                        scalingPositions -= repeat;
+                    } else {
+                        scalingPositions += repeat;
+                        seenDecimalPoint = true;
+                    }
+                }
+                case 'C', 'D' -> {
+                    // CR / DB occupy two positions
+                    if (next < length && "RB".indexOf(Character.toUpperCase(picture.charAt(next))) >= 0) {
+                        next++;
+                    }
+                    displayLength += 2;
+                    edited = true;
+                }
+                case 'Z', '*', 'B', '0', '/', ',', '.', '+', '-', '$', 'E' -> {
+                    displayLength += repeat;
+                    edited = true;
+                    if (symbol == 'Z' || symbol == '*') {
+                        if (seenDecimalPoint) {
+                            fractionDigits += repeat;
+                        } else {
+                            integerDigits += repeat;
+                        }
+                    }
+                    if (symbol == '.') {
+                        seenDecimalPoint = true;
+                    }
+                }
+                default -> {
+                    // Unknown symbols still occupy a position
+                    displayLength += repeat;
+                    alphanumeric = true;
+                }
+            }
+            i = next;
+        }
+
+        Category category;
+        if (alphanumeric) {
+            category = Category.ALPHANUMERIC;
+        } else if (alphabetic) {
+            category = Category.ALPHABETIC;
+        } else if (edited) {
+            category = Category.NUMERIC_EDITED;
+        } else {
+            category = Category.NUMERIC;
+        }
+
+        int digits = integerDigits + fractionDigits;
+        int scale = fractionDigits + scalingPositions;
+        return new PictureInfo(picture, category, displayLength, digits, scale, signed);
+    }
+
+    private static int parseRepeat(String picture, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = picture.charAt(i);
+            if (c < '0' || c > '9') {
+                return 1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -1,10 +1,18 @@
 package com.copybook.parser.util;
 
+import com.copybook.parser.codec.BinaryCodec;
 import com.copybook.parser.model.CobolField;
+
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class StorageCalculator {
 
+    // Copybooks repeat a handful of PICTURE/USAGE combinations across thousands of fields
+    private static final int MAX_CACHED_LENGTHS = 10_000;
+    private static final Map<String, Integer> LENGTH_CACHE = new ConcurrentHashMap<>();
+
     public int calculateTotalStorage(List<CobolField> fields) {
         if (fields == null || fields.isEmpty()) {
             return 0;
@@ -26,4 +34,56 @@ public class StorageCalculator {
                 .mapToInt(CobolField::getLength)
                 .sum();
     }
+
+    // Bytes an elementary item occupies, given its PICTURE, USAGE and the configured usage mappings
+    public static int storageLength(String picture, String usage, boolean signSeparate, Map<String, String> usageMappings) {
+        String storageClass = storageClass(usage, usageMappings);
+        String key = picture + '|' + storageClass + (signSeparate ? "|SEPARATE" : "");
+        Integer cached = LENGTH_CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int length = computeLength(PictureInfo.parse(picture), storageClass, signSeparate);
+        if (LENGTH_CACHE.size() < MAX_CACHED_LENGTHS) {
+            LENGTH_CACHE.put(key, length);
+        }
+        return length;
+    }
+
+    // Natural boundary of a binary or floating-point item, used to place SYNCHRONIZED fields; 1 otherwise
+    public static int naturalAlignment(String picture, String usage, Map<String, String> usageMappings) {
+        return switch (storageClass(usage, usageMappings)) {
+            case "binary", "native_binary" -> BinaryCodec.byteLength(PictureInfo.parse(picture).digits());
+            case "float", "index", "pointer" -> 4;
+            case "double" -> 8;
+            default -> 1;
+        };
+    }
+
+    private static String storageClass(String usage, Map<String, String> usageMappings) {
+        if (usage == null) {
+            return "character";
+        }
+        String mapped = usageMappings != null ? usageMappings.get(usage) : null;
+        if (mapped != null) {
+            return mapped;
+        }
+        return switch (usage) {
+            case "INDEX" -> "index";
+            case "POINTER", "PROCEDURE-POINTER", "FUNCTION-POINTER" -> "pointer";
+            case "NATIONAL", "DISPLAY-1" -> "national";
+            default -> "character";
+        };
+    }
+
+    private static int computeLength(PictureInfo picture, String storageClass, boolean signSeparate) {
+        return switch (storageClass) {
+            case "packed_decimal" -> picture.digits() / 2 + 1;
+            case "binary", "native_binary" -> BinaryCodec.byteLength(picture.digits());
+            case "float", "index", "pointer" -> 4;
+            case "double" -> 8;
+            case "national" -> picture.displayLength() * 2;
+            default -> picture.displayLength() + (signSeparate && picture.signed() ? 1 : 0);
+        };
+    }
 }
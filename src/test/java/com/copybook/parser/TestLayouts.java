@@ -0,0 +1,32 @@
+package com.copybook.parser;
+
+import com.copybook.parser.cache.CopyMemberCache;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.RecordLayout;
+import com.copybook.parser.processor.FieldProcessor;
+import com.copybook.parser.processor.LayoutProcessor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+
+// Lays out copybook text with the processors wired as in the application, without starting Spring Boot
+public final class TestLayouts {
+
+    private static final AnnotationConfigApplicationContext CONTEXT =
+            new AnnotationConfigApplicationContext(CopyMemberCache.class, FieldProcessor.class, LayoutProcessor.class);
+
+    private TestLayouts() {
+    }
+
+    public static <T> T component(Class<T> type) {
+        return CONTEXT.getBean(type);
+    }
+
+    public static RecordLayout layout(String copybook) {
+        return layout(copybook, new ParsingRules());
+    }
+
+    public static RecordLayout layout(String copybook, ParsingRules rules) {
+        return component(LayoutProcessor.class).processLayout(List.of(copybook.split("\n")), rules);
+    }
+}
@@ -0,0 +1,76 @@
+package com.copybook.parser.cache;
+
+import com.copybook.parser.TestLayouts;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.CobolField;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A member expanded under one set of library settings must not be served to rules with other settings
+class CopyMemberCacheTest {
+
+    private static final String COPYBOOK = """
+                   01  R.
+                       COPY MEMB.
+            """;
+
+    @TempDir
+    Path directory;
+
+    private static void member(Path file, String field) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "           05  " + field + "  PIC X(4).\n");
+    }
+
+    private static List<String> names(ParsingRules rules) {
+        return TestLayouts.layout(COPYBOOK, rules).getFields().stream().map(CobolField::getName).toList();
+    }
+
+    private static ParsingRules rules(List<String> libraries, List<String> extensions) {
+        ParsingRules rules = new ParsingRules();
+        rules.getFieldProcessing().setCopyLibraries(libraries);
+        rules.getFieldProcessing().setCopyExtensions(extensions);
+        return rules;
+    }
+
+    @Test
+    void librariesAreNotShared() throws IOException {
+        member(directory.resolve("a/MEMB.cpy"), "FROM-A");
+        member(directory.resolve("b/MEMB.cpy"), "FROM-B");
+        List<String> extensions = List.of(".cpy");
+        assertEquals(List.of("R", "FROM-A"), names(rules(List.of(directory.resolve("a").toString()), extensions)));
+        assertEquals(List.of("R", "FROM-B"), names(rules(List.of(directory.resolve("b").toString()), extensions)));
+        assertEquals(List.of("R", "FROM-A"), names(rules(List.of(directory.resolve("a").toString()), extensions)));
+    }
+
+    @Test
+    void extensionsAreNotShared() throws IOException {
+        member(directory.resolve("MEMB.cpy"), "FROM-CPY");
+        member(directory.resolve("MEMB.inc"), "FROM-INC");
+        List<String> libraries = List.of(directory.toString());
+        assertEquals(List.of("R", "FROM-CPY"), names(rules(libraries, List.of(".cpy"))));
+        assertEquals(List.of("R", "FROM-INC"), names(rules(libraries, List.of(".inc"))));
+    }
+
+    @Test
+    void copybookEncodingIsNotShared() throws IOException {
+        Path file = directory.resolve("MEMB.cpy");
+        Files.createDirectories(directory);
+        Files.writeString(file, "           05  CAFÉ  PIC X(4).\n", StandardCharsets.ISO_8859_1);
+        List<String> libraries = List.of(directory.toString());
+        ParsingRules latin1 = rules(libraries, List.of(".cpy"));
+        latin1.getDataFormat().setCopybookEncoding("ISO-8859-1");
+        assertEquals(List.of("R", "CAFÉ"), names(latin1));
+        ParsingRules utf8 = rules(libraries, List.of(".cpy"));
+        utf8.getDataFormat().setCopybookEncoding("UTF-8");
+        assertEquals(List.of("R", "CAF�"), names(utf8));
+    }
+}
@@ -0,0 +1,36 @@
+package com.copybook.parser.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BinaryCodecTest {
+
+    @Test
+    void decodesSignedBoundaries() {
+        ByteBuffer field = ByteBuffer.allocate(8);
+        for (long value : new long[] {Long.MAX_VALUE, Long.MIN_VALUE, -1, 0, 999_999_999_999_999_999L}) {
+            BinaryCodec.encode(value, field, 0, 8);
+            assertEquals(value, BinaryCodec.decodeLong(field, 0, 8, true));
+            assertEquals(BigDecimal.valueOf(value), BinaryCodec.decodeBigDecimal(field, 0, 8, true, 0));
+        }
+    }
+
+    @Test
+    void decodesUnsignedEightBytesAboveLongRange() {
+        ByteBuffer field = ByteBuffer.allocate(8);
+        BinaryCodec.encode(-1, field, 0, 8);
+        assertEquals(new BigDecimal("184467440737095516.15"), BinaryCodec.decodeBigDecimal(field, 0, 8, false, 2));
+    }
+
+    @Test
+    void signExtendsShortFields() {
+        byte[] halfword = {(byte) 0xFF, (byte) 0xFE};
+        assertEquals(-2, BinaryCodec.decodeLong(halfword, 0, 2, true));
+        assertEquals(65534, BinaryCodec.decodeLong(halfword, 0, 2, false));
+        assertEquals(-2, BinaryCodec.decodeLong(ByteBuffer.wrap(halfword), 0, 2, true));
+    }
+}
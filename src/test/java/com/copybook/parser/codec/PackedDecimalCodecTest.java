@@ -0,0 +1,68 @@
+package com.copybook.parser.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedDecimalCodecTest {
+
+    // Packs the digits with the given sign nibble, padding to whole bytes with a leading zero
+    private static ByteBuffer packed(String digits, int sign) {
+        String nibbles = (digits.length() % 2 == 0 ? "0" : "") + digits + Integer.toHexString(sign);
+        byte[] bytes = new byte[nibbles.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(nibbles.substring(2 * i, 2 * i + 2), 16);
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    @Test
+    void decodesEighteenDigitsInTenBytesThroughLong() {
+        ByteBuffer field = packed("999999999999999999", 0xC);
+        assertEquals(10, field.capacity());
+        assertTrue(PackedDecimalCodec.fitsLong(field, 0, 10));
+        assertEquals(999_999_999_999_999_999L, PackedDecimalCodec.decodeLong(field, 0, 10));
+        assertEquals(new BigDecimal("-9999999999999999.99"),
+                PackedDecimalCodec.decodeBigDecimal(packed("999999999999999999", 0xD), 0, 10, 2));
+    }
+
+    @Test
+    void decodesNineteenDigitsWithoutOverflow() {
+        ByteBuffer field = packed("9999999999999999999", 0xF);
+        assertEquals(10, field.capacity());
+        assertFalse(PackedDecimalCodec.fitsLong(field, 0, 10));
+        assertEquals(new BigDecimal("9999999999999999999"), PackedDecimalCodec.decodeBigDecimal(field, 0, 10, 0));
+        assertEquals(new BigDecimal("-10000000000000000.00"),
+                PackedDecimalCodec.decodeBigDecimal(packed("1000000000000000000", 0xD), 0, 10, 2));
+        assertThrows(ArithmeticException.class, () -> PackedDecimalCodec.decodeLong(field, 0, 10));
+        assertThrows(ArithmeticException.class, () -> PackedDecimalCodec.decodeLong(field.array(), 0, 10));
+    }
+
+    @Test
+    void decodesWiderFieldsThroughBigDecimal() {
+        String digits = "1234567890123456789012345678901";
+        assertEquals(new BigDecimal("-12345678901234567890123456.78901"),
+                PackedDecimalCodec.decodeBigDecimal(packed(digits, 0xD), 0, 16, 5));
+    }
+
+    @Test
+    void roundTripsLongs() {
+        for (long value : new long[] {0, 1, -1, 99_999, -123_456_789_012_345_678L, Long.MAX_VALUE / 10}) {
+            ByteBuffer field = ByteBuffer.allocate(PackedDecimalCodec.MAX_LONG_BYTES);
+            PackedDecimalCodec.encode(value, field, 0, field.capacity(), true);
+            assertEquals(value, PackedDecimalCodec.decodeLong(field, 0, field.capacity()));
+        }
+    }
+
+    @Test
+    void rejectsInvalidNibbles() {
+        assertThrows(NumberFormatException.class, () -> PackedDecimalCodec.decodeLong(new byte[] {0x1A, 0x2C}, 0, 2));
+        assertThrows(NumberFormatException.class, () -> PackedDecimalCodec.decodeLong(new byte[] {0x12, 0x34}, 0, 2));
+    }
+}
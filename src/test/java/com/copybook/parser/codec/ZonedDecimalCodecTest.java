@@ -0,0 +1,59 @@
+package com.copybook.parser.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ZonedDecimalCodecTest {
+
+    private static ByteBuffer ascii(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void decodesEighteenDigitsThroughLong() {
+        assertEquals(999_999_999_999_999_999L, ZonedDecimalCodec.decodeLong(ascii("999999999999999999"), 0, 18));
+        // Overpunched negative 9 in the last position
+        assertEquals(-999_999_999_999_999_999L, ZonedDecimalCodec.decodeLong(ascii("99999999999999999R"), 0, 18));
+    }
+
+    @Test
+    void decodesNineteenDigitsThroughBigDecimal() {
+        assertEquals(new BigDecimal("9999999999999999999"),
+                ZonedDecimalCodec.decodeBigDecimal(ascii("9999999999999999999"), 0, 19, 0));
+        assertEquals(new BigDecimal("-99999999999999999.99"),
+                ZonedDecimalCodec.decodeBigDecimal(ascii("999999999999999999R"), 0, 19, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> ZonedDecimalCodec.decodeLong(ascii("9999999999999999999"), 0, 19));
+    }
+
+    @Test
+    void decodesEbcdicZones() {
+        byte[] field = {(byte) 0xF1, (byte) 0xF2, (byte) 0xD3};
+        assertEquals(-123, ZonedDecimalCodec.decodeLong(field, 0, 3));
+        field[2] = (byte) 0xC3;
+        assertEquals(123, ZonedDecimalCodec.decodeLong(field, 0, 3));
+    }
+
+    @Test
+    void roundTripsLongsInBothEncodings() {
+        for (boolean ebcdic : new boolean[] {false, true}) {
+            for (long value : new long[] {0, 7, -7, 999_999_999_999_999_999L, -999_999_999_999_999_999L}) {
+                byte[] field = new byte[ZonedDecimalCodec.MAX_LONG_DIGITS];
+                ZonedDecimalCodec.encode(value, field, 0, field.length, true, ebcdic);
+                assertEquals(value, ZonedDecimalCodec.decodeLong(field, 0, field.length));
+            }
+        }
+    }
+
+    @Test
+    void decodesSeparateSigns() {
+        assertEquals(-12345, ZonedDecimalCodec.decodeLongSeparateSign(ascii("-12345"), 0, 6, true));
+        assertEquals(12345, ZonedDecimalCodec.decodeLongSeparateSign(ascii("12345+"), 0, 6, false));
+    }
+}
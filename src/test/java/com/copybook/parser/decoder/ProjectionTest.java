@@ -0,0 +1,141 @@
+package com.copybook.parser.decoder;
+
+import com.copybook.parser.TestLayouts;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.RecordLayout;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectionTest {
+
+    private static final String ORDER = """
+                   01  ORDER-REC.
+                       05  ORDER-ID        PIC 9(4).
+                       05  CUSTOMER.
+                           10  NAME        PIC X(10).
+                           10  AMOUNT      PIC 9(5).
+                       05  LINE-ITEM OCCURS 3 TIMES.
+                           10  SKU         PIC X(4).
+                           10  AMOUNT      PIC 9(3)V99.
+                       05  TOTAL           PIC 9(7)V99.
+            """;
+
+    private static final ParsingRules RULES = new ParsingRules();
+    private static final RecordLayout LAYOUT = TestLayouts.layout(ORDER, RULES);
+
+    private static RecordDecoder project(String... paths) {
+        return RecordDecoder.compile(LAYOUT, RULES, List.of(paths));
+    }
+
+    private static List<String> names(RecordDecoder decoder) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < decoder.getFieldCount(); i++) {
+            names.add(decoder.getFieldName(i));
+        }
+        return names;
+    }
+
+    private static List<Integer> offsets(RecordDecoder decoder) {
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < decoder.getFieldCount(); i++) {
+            offsets.add(decoder.getOffset(i));
+        }
+        return offsets;
+    }
+
+    // [offset, length] pairs
+    private static List<List<Integer>> ranges(RecordDecoder decoder) {
+        List<List<Integer>> ranges = new ArrayList<>();
+        for (int r = 0; r < decoder.getRangeCount(); r++) {
+            ranges.add(List.of(decoder.getRangeOffset(r), decoder.getRangeLength(r)));
+        }
+        return ranges;
+    }
+
+    private static String message(String... paths) {
+        return assertThrows(IllegalArgumentException.class, () -> project(paths)).getMessage();
+    }
+
+    @Test
+    void qualifiedPathsPickOneField() {
+        assertEquals(55, RecordDecoder.compile(LAYOUT, RULES).getRecordLength());
+        assertEquals(List.of(14), offsets(project("CUSTOMER.AMOUNT")));
+        // Intermediate levels may be left out, as with OF qualification
+        assertEquals(List.of(14), offsets(project("ORDER-REC.CUSTOMER.AMOUNT")));
+        assertEquals(List.of(4), offsets(project("order-rec.name")));
+    }
+
+    @Test
+    void ambiguousAndUnknownNamesAreRejected() {
+        assertTrue(message("AMOUNT").contains("ambiguous"));
+        assertTrue(message("ORDER-REC.AMOUNT").contains("ambiguous"));
+        assertTrue(message("NOPE").startsWith("No field NOPE"));
+        assertTrue(message("CUSTOMER.SKU").startsWith("No field"));
+        assertTrue(message("CUSTOMER..NAME").startsWith("Invalid field path"));
+        assertThrows(IllegalArgumentException.class, () -> RecordDecoder.compile(LAYOUT, RULES, List.of()));
+    }
+
+    @Test
+    void fieldsComeInRecordOrder() {
+        RecordDecoder decoder = project("TOTAL", "ORDER-ID");
+        assertEquals(List.of("ORDER-ID", "TOTAL"), names(decoder));
+        assertEquals(List.of(0, 46), offsets(decoder));
+    }
+
+    @Test
+    void withoutSubscriptsEveryElementIsSelected() {
+        RecordDecoder decoder = project("LINE-ITEM.AMOUNT");
+        assertEquals(List.of("AMOUNT(1)", "AMOUNT(2)", "AMOUNT(3)"), names(decoder));
+        assertEquals(List.of(23, 32, 41), offsets(decoder));
+    }
+
+    @Test
+    void subscriptsSelectOccursElements() {
+        assertEquals(List.of("AMOUNT(2)"), names(project("LINE-ITEM(2).AMOUNT")));
+        // Subscripts after the field apply to the enclosing OCCURS dimension
+        assertEquals(List.of(41), offsets(project("LINE-ITEM.AMOUNT(3)")));
+        assertEquals(List.of(37), offsets(project("SKU(3)")));
+        // A subscripted group selects everything in that element only
+        RecordDecoder element = project("LINE-ITEM(2)");
+        assertEquals(List.of("SKU(2)", "AMOUNT(2)"), names(element));
+        assertEquals(List.of(28, 32), offsets(element));
+    }
+
+    @Test
+    void invalidSubscriptsAreRejected() {
+        assertTrue(message("LINE-ITEM(4).SKU").contains("exceeds OCCURS 3"));
+        assertTrue(message("LINE-ITEM(0).SKU").contains("subscripts start at 1"));
+        assertTrue(message("ORDER-ID(1)").contains("0 OCCURS dimensions"));
+        assertTrue(message("LINE-ITEM(1,2).SKU").contains("1 OCCURS dimensions"));
+    }
+
+    @Test
+    void adjacentFieldsMergeIntoOneRange() {
+        assertEquals(List.of(List.of(0, 14), List.of(46, 9)), ranges(project("ORDER-ID", "CUSTOMER.NAME", "TOTAL")));
+        // Consecutive elements of a group touch, the same field of consecutive elements does not
+        assertEquals(List.of(List.of(19, 18)), ranges(project("LINE-ITEM(1)", "LINE-ITEM(2)")));
+        assertEquals(List.of(List.of(19, 4), List.of(28, 4), List.of(37, 4)), ranges(project("SKU")));
+        // Overlapping selections read each byte once
+        assertEquals(List.of(List.of(4, 15)), ranges(project("CUSTOMER", "CUSTOMER.AMOUNT")));
+        assertEquals(List.of(List.of(0, 55)), ranges(RecordDecoder.compile(LAYOUT, RULES)));
+    }
+
+    @Test
+    void decodesOnlyTheSelectedFields() {
+        String text = "0042" + "SMITH     " + "00150" + "A001" + "00100" + "B002" + "00250" + "C003" + "00399"
+                + "000074900";
+        ByteBuffer record = ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+        RecordDecoder decoder = project("LINE-ITEM(3).SKU", "ORDER-ID");
+        assertEquals(List.of("ORDER-ID", "SKU(3)"), names(decoder));
+        assertEquals(42L, decoder.decodeField(record, 0));
+        assertEquals("C003", decoder.decodeField(record, 1));
+    }
+}
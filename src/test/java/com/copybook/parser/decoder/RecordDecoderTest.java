@@ -0,0 +1,41 @@
+package com.copybook.parser.decoder;
+
+import com.copybook.parser.TestLayouts;
+import com.copybook.parser.config.ParsingRules;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordDecoderTest {
+
+    private static final String PACKED = """
+                   01  AMOUNTS.
+                       05  EIGHTEEN    PIC S9(18) COMP-3.
+                       05  NINETEEN    PIC 9(19)  COMP-3.
+                       05  SCALED      PIC S9(17)V99 COMP-3.
+            """;
+
+    @Test
+    void decodesPackedFieldsAtTheLongBoundary() {
+        ParsingRules rules = new ParsingRules();
+        RecordDecoder decoder = RecordDecoder.compile(TestLayouts.layout(PACKED, rules), rules);
+        assertEquals(30, decoder.getRecordLength());
+        assertTrue(decoder.isLongValued(0));
+        assertFalse(decoder.isLongValued(1));
+        assertFalse(decoder.isLongValued(2));
+
+        ByteBuffer record = ByteBuffer.wrap(HexFormat.of().parseHex(
+                "0999999999999999999D" + "9999999999999999999F" + "9999999999999999999D"));
+        Object[] values = decoder.decode(record);
+        assertEquals(-999_999_999_999_999_999L, values[0]);
+        assertEquals(new BigDecimal("9999999999999999999"), values[1]);
+        assertEquals(new BigDecimal("-99999999999999999.99"), values[2]);
+        assertEquals(-999_999_999_999_999_999L, decoder.decodeLong(record, 0));
+    }
+}
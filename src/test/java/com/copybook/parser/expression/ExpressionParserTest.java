@@ -0,0 +1,145 @@
+package com.copybook.parser.expression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpressionParserTest {
+
+    private static RecordExpression parse(String source) {
+        return ExpressionParser.parse(source, 1);
+    }
+
+    // Whether the condition holds for the line
+    private static boolean holds(String condition, String line) {
+        return "Y".equals(parse("if " + condition + " then 'Y' else 'N'").classify(line));
+    }
+
+    private static void assertError(String source, int column, String message) {
+        assertError(source, 1, column, message);
+    }
+
+    private static void assertError(String source, int charPosition, int column, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ExpressionParser.parse(source, charPosition));
+        assertEquals("Invalid record type expression at column " + column + ": " + message + " in \"" + source + "\"",
+                e.getMessage());
+    }
+
+    @Test
+    void ifElseChainsSelectTheFirstMatchingBranch() {
+        RecordExpression expression = parse(
+                "if {char} == 'H' then HEADER else if {char} == 'T' then 'TRAILER' else (if {length} > 3 then 'LONG')");
+        assertEquals(List.of("HEADER", "TRAILER", "LONG"), expression.getResults());
+        assertEquals("HEADER", expression.classify("H1"));
+        assertEquals("TRAILER", expression.classify("T"));
+        assertEquals("LONG", expression.classify("D123"));
+        // Without a final else nothing may match
+        assertNull(expression.classify("D1"));
+        // Keywords are case-insensitive and a result named twice is one result
+        RecordExpression upper = parse("IF {1} = 'A' THEN X ELSE IF {1} = 'B' THEN X ELSE Y");
+        assertEquals(List.of("X", "Y"), upper.getResults());
+        assertEquals("X", upper.classify("B"));
+        assertEquals("DATA", parse("DATA").classify("anything"));
+    }
+
+    @Test
+    void comparisonOperators() {
+        assertTrue(holds("{1:2} == 'AB'", "ABC"));
+        assertTrue(holds("{1:2} = 'AB'", "ABC"));
+        assertTrue(holds("{1:2} != 'AC'", "ABC"));
+        assertTrue(holds("{1:2} <> 'AC'", "ABC"));
+        assertTrue(holds("{1:2} < 'AC'", "ABC"));
+        assertTrue(holds("{1:2} <= 'AB'", "ABC"));
+        assertTrue(holds("{2} > 'A'", "ABC"));
+        assertTrue(holds("{2} >= 'B'", "ABC"));
+        assertFalse(holds("{2} > 'B'", "ABC"));
+        // Numeric when either side is a number, false on text that is not one
+        assertTrue(holds("{1:3} == 7", "007"));
+        assertTrue(holds("{1:3} > 10", "012"));
+        assertFalse(holds("{1:3} > 10", "0X2"));
+        assertFalse(holds("{1:3} != 10", "0X2"));
+        assertTrue(holds("{length} > -1", ""));
+        // A slice past the end of the record is false whatever the operator
+        assertFalse(holds("{5:2} == ''", "ABC"));
+        assertFalse(holds("{5:2} != 'X'", "ABC"));
+        // A doubled quote stands for itself
+        assertTrue(holds("{line} == 'O''K'", "O'K"));
+        assertTrue(holds("{line} == \"say \"\"hi\"\"\"", "say \"hi\""));
+    }
+
+    @Test
+    void inRangesAndBetween() {
+        String condition = "{1:2} in ('00'..'09', '99', 'A')";
+        assertTrue(holds(condition, "05X"));
+        assertTrue(holds(condition, "99"));
+        assertFalse(holds(condition, "10"));
+        assertFalse(holds(condition, "A"));
+        assertTrue(holds("{1} in 'A'", "A"));
+        assertTrue(holds("{1:2} in 10..20", "15"));
+        assertFalse(holds("{1:2} in 10..20", "21"));
+        assertTrue(holds("{1:2} not in ('00'..'09', '99')", "10"));
+        assertFalse(holds("{1:2} not in ('00'..'09', '99')", "99"));
+        assertTrue(holds("{length} between 2 and 4", "ABC"));
+        assertFalse(holds("{length} between 2 and 4", "ABCDE"));
+        assertTrue(holds("{1} between 'A' and 'C'", "B"));
+    }
+
+    @Test
+    void logicalOperatorsAndPrecedence() {
+        // and binds tighter than or
+        assertTrue(holds("{1} == 'X' or {1} == 'A' and {2} == 'B'", "AB"));
+        assertFalse(holds("({1} == 'X' or {1} == 'A') and {2} == 'B'", "AC"));
+        assertTrue(holds("{1} == 'X' || {1} == 'A' && {2} == 'B'", "AB"));
+        assertTrue(holds("not {1} == 'X'", "A"));
+        assertFalse(holds("! {1} == 'A'", "A"));
+        assertTrue(holds("not not {1} == 'A'", "A"));
+        assertTrue(holds("NOT ({1} == 'X' OR {2} == 'X')", "AB"));
+    }
+
+    @Test
+    void placeholdersAndTrim() {
+        assertEquals("Y", ExpressionParser.parse("if {char} == 'C' then 'Y' else 'N'", 3).classify("ABC"));
+        assertTrue(holds("{line} == 'ABC'", "ABC"));
+        assertTrue(holds("{length} == 3", "ABC"));
+        assertTrue(holds("{3} == 'C'", "ABC"));
+        assertTrue(holds("{ 2 : 2 } == 'BC'", "ABC"));
+        assertTrue(holds("trim({line}) == 'TRL'", "  TRL  "));
+        assertTrue(holds("trim({2:4}) == 'A'", "XA   "));
+        // Literals are trimmed once while parsing
+        assertTrue(holds("{line} == trim('  X ')", "X"));
+    }
+
+    @Test
+    void malformedExpressionsReportTheirColumn() {
+        assertError("if {1} == 'A' 'X'", 15, "expected 'then'");
+        assertError("'A' 'B'", 5, "unexpected 'B'");
+        assertError("if {1} == 'A' then", 19, "expected a record type or 'if'");
+        assertError("if {1} == 'A' then if", 22, "expected a value");
+        assertError("if {1} 'A' then X", 8, "expected a comparison");
+        assertError("if {1} == then X", 11, "expected a value");
+        assertError("if {1} in ('A', 'B' then X", 21, "expected ')'");
+        assertError("if {1} between 'A' or 'B' then X", 20, "expected 'and'");
+        assertError("if ({1} == 'A' then X", 16, "expected ')'");
+        assertError("if trim(1) == 'A' then X", 12, "trim() takes text");
+        assertError("if trim {line} == 'A' then X", 9, "expected '('");
+    }
+
+    @Test
+    void malformedPlaceholdersAndLiterals() {
+        assertError("if {0} == 'A' then X", 4, "positions in {0} must be >= 1");
+        assertError("if {2:0} == 'A' then X", 4, "positions in {2:0} must be >= 1");
+        assertError("if {foo} == 'A' then X", 4, "unknown placeholder {foo}");
+        assertError("if {char} == 'A' then X", 0, 4, "{char} requires recordTypeField.start");
+        assertError("if {1} == 'A then X", 11, "unterminated literal");
+        assertError("if {1 == 'A' then X", 4, "unterminated placeholder");
+        assertError("if {1} ~ 'A' then X", 8, "unexpected character '~'");
+        assertThrows(IllegalArgumentException.class, () -> RecordExpression.compile(" ", 1));
+    }
+}
@@ -0,0 +1,40 @@
+package com.copybook.parser.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LineRecordReaderTest {
+
+    private static String text(ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    void linesLongerThanThePooledBufferGrowItGeometrically() throws IOException {
+        String longLine = "X".repeat(200_000);
+        byte[] input = ("short\r\n" + longLine + "\nlast").getBytes(StandardCharsets.ISO_8859_1);
+        ByteBufferPool pool = new ByteBufferPool(16, 1);
+        try (LineRecordReader reader = new LineRecordReader(
+                Channels.newChannel(new ByteArrayInputStream(input)), pool, true)) {
+            assertEquals("short", text(reader.next()));
+            assertEquals(longLine, text(reader.next()));
+            assertTrue(reader.buffer.capacity() < 2 * longLine.length() + 32, "capacity " + reader.buffer.capacity());
+            assertEquals("last", text(reader.next()));
+            assertNull(reader.next());
+        }
+        // Only the buffer of the pool's own size goes back to it
+        ByteBuffer reused = pool.acquire();
+        assertEquals(16, reused.capacity());
+    }
+}
@@ -0,0 +1,35 @@
+package com.copybook.parser.output;
+
+import com.copybook.parser.TestLayouts;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.decoder.RecordDecoder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DelimitedRecordWriterTest {
+
+    @Test
+    void floatingPointFieldsAreWrittenAsPlainDecimals() throws IOException {
+        ParsingRules rules = new ParsingRules();
+        rules.getDataFormat().setFloatFormat("ieee");
+        rules.getLayoutGeneration().setOutputHeader(false);
+        RecordDecoder decoder = RecordDecoder.compile(TestLayouts.layout("""
+                       01  R.
+                           05  SINGLE  COMP-1.
+                           05  DOUBLE  COMP-2.
+                """, rules), rules);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (RecordWriter writer = new DelimitedRecordWriter(output, decoder, rules.getLayoutGeneration())) {
+            writer.write(ByteBuffer.allocate(12).putFloat(1.0E10f).putDouble(1.5E-7).flip());
+            writer.write(ByteBuffer.allocate(12).putFloat(-2.5f).putDouble(123456789.125).flip());
+        }
+        assertEquals("10000000000,0.00000015\n-2.5,123456789.125\n", output.toString(StandardCharsets.UTF_8));
+    }
+}
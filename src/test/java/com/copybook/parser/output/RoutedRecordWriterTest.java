@@ -0,0 +1,93 @@
+package com.copybook.parser.output;
+
+import com.copybook.parser.TestLayouts;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.config.RecordTypeRule;
+import com.copybook.parser.decoder.LayoutRouter;
+import com.copybook.parser.io.RecordFormat;
+import com.copybook.parser.processor.LayoutProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoutedRecordWriterTest {
+
+    private static final String COPYBOOK = """
+                   01  R.
+                       05  AMOUNT  PIC S9 COMP-3.
+                       05  TYPE    PIC X.
+                       05  REST    PIC X(8).
+            """;
+
+    private static ParsingRules rules(String encoding, String recordFormat) {
+        ParsingRules rules = new ParsingRules();
+        rules.getDataFormat().setEncoding(encoding);
+        rules.getDataFormat().setRecordFormat(recordFormat);
+        RecordTypeRule rule = new RecordTypeRule();
+        rule.setStart(2);
+        rule.setLength(1);
+        rule.setValues(Map.of("H", "HEADER"));
+        rules.setRuleType("position-based");
+        rules.setRecordTypeField(rule);
+        return rules;
+    }
+
+    private static RoutedRecordWriter writer(ParsingRules rules) {
+        LayoutRouter router = LayoutRouter.compile(
+                TestLayouts.component(LayoutProcessor.class).recordLayouts(TestLayouts.layout(COPYBOOK, rules)), rules);
+        return new RoutedRecordWriter(router, RecordFormat.of(rules.getDataFormat().getRecordFormat()),
+                typeId -> new RecordWriter() {
+                    private long written;
+
+                    @Override
+                    public void write(ByteBuffer record) {
+                        written++;
+                    }
+
+                    @Override
+                    public void flush() {
+                    }
+
+                    @Override
+                    public long getRecordsWritten() {
+                        return written;
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+    }
+
+    @Test
+    void fixedLengthRecordsAreNeverSkippedAsComments() throws IOException {
+        // 0x5C is '*' in IBM-037 and a valid packed +5; 0x40 is a space
+        List<String> records = List.of("5CC84040404040404040", "40404040404040404040", "1CC45C40404040404040");
+        try (RoutedRecordWriter writer = writer(rules("IBM-037", "F"))) {
+            for (String record : records) {
+                writer.write(ByteBuffer.wrap(HexFormat.of().parseHex(record)));
+            }
+            assertEquals(3, writer.getRecordsWritten());
+            assertEquals(0, writer.getSkippedCount());
+            assertEquals(Map.of("HEADER", 1L, "DATA", 2L), writer.getRecordCounts());
+        }
+    }
+
+    @Test
+    void commentAndBlankLinesAreSkipped() throws IOException {
+        try (RoutedRecordWriter writer = writer(rules("UTF-8", "LINE"))) {
+            for (String line : List.of("1H data", "* comment", "   ", "1D data", "")) {
+                writer.write(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+            }
+            assertEquals(2, writer.getRecordsWritten());
+            assertEquals(3, writer.getSkippedCount());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.copybook.parser.processor;
+
+import com.copybook.parser.TestLayouts;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.model.CobolField;
+import com.copybook.parser.model.RecordLayout;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LayoutCalculatorTest {
+
+    private static RecordLayout layout(String copybook, String alignment) {
+        ParsingRules rules = new ParsingRules();
+        rules.getLayoutGeneration().setAlignment(alignment);
+        return TestLayouts.layout(copybook, rules);
+    }
+
+    private static CobolField field(RecordLayout layout, String name) {
+        return layout.getFields().stream()
+                .filter(field -> name.equals(field.getName()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void assertPlaced(RecordLayout layout, String name, int start, int length) {
+        CobolField field = field(layout, name);
+        assertEquals(start, field.getStartPosition(), name + " start");
+        assertEquals(length, field.getLength(), name + " length");
+    }
+
+    @Test
+    void slackGoesBeforeTheSyncItemNotTheGroup() {
+        RecordLayout layout = layout("""
+                       01  R.
+                           05  A  PIC X.
+                           05  G.
+                               10  B  PIC X.
+                               10  C  PIC S9(9) COMP SYNC.
+                """, "natural");
+        assertPlaced(layout, "A", 1, 1);
+        assertPlaced(layout, "G", 2, 7);
+        assertPlaced(layout, "B", 2, 1);
+        assertPlaced(layout, "C", 5, 4);
+        assertEquals(8, layout.getTotalLength());
+    }
+
+    // The slack-byte example of the IBM Enterprise COBOL Programming Guide
+    @Test
+    void matchesTheIbmSlackByteExample() {
+        RecordLayout layout = layout("""
+                       01  FIELD-A.
+                           05  FIELD-B  PIC X(5).
+                           05  FIELD-C.
+                               10  FIELD-D  PIC XX.
+                               10  FIELD-E  PIC S9(6) COMP SYNC.
+                """, "natural");
+        assertPlaced(layout, "FIELD-C", 6, 7);
+        assertPlaced(layout, "FIELD-D", 6, 2);
+        assertPlaced(layout, "FIELD-E", 9, 4);
+        assertEquals(12, layout.getTotalLength());
+    }
+
+    @Test
+    void padsEachOccurrenceOfATableWithSyncItems() {
+        RecordLayout layout = layout("""
+                       01  R.
+                           05  X  PIC X.
+                           05  T  OCCURS 2 TIMES.
+                               10  Y  PIC X.
+                               10  Z  PIC S9(4) COMP SYNC.
+                           05  W  PIC S9(18) COMP SYNC.
+                """, "natural");
+        assertPlaced(layout, "T", 2, 4);
+        assertPlaced(layout, "Y", 2, 1);
+        assertPlaced(layout, "Z", 3, 2);
+        assertEquals(List.of(4), field(layout, "Z").getDimensionStrides());
+        // T ends at offset 9; W is a doubleword
+        assertPlaced(layout, "W", 17, 8);
+        assertEquals(24, layout.getTotalLength());
+    }
+
+    @Test
+    void ignoresSyncWithByteAlignment() {
+        RecordLayout layout = layout("""
+                       01  R.
+                           05  A  PIC X.
+                           05  G.
+                               10  B  PIC X.
+                               10  C  PIC S9(9) COMP SYNC.
+                """, "byte");
+        assertPlaced(layout, "C", 3, 4);
+        assertEquals(6, layout.getTotalLength());
+    }
+
+    @Test
+    void overlaysRedefines() {
+        RecordLayout layout = layout("""
+                       01  R.
+                           05  A  PIC X(4).
+                           05  B  REDEFINES A  PIC S9(9) COMP.
+                           05  C  PIC X(2).
+                """, "byte");
+        assertPlaced(layout, "B", 1, 4);
+        assertPlaced(layout, "C", 5, 2);
+        assertEquals(6, layout.getTotalLength());
+    }
+}
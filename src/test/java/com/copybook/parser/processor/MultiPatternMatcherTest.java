@@ -0,0 +1,84 @@
+package com.copybook.parser.processor;
+
+import com.copybook.parser.config.RecordTypeRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MultiPatternMatcherTest {
+
+    private static final List<String> LINES = List.of(
+            "", "HDR", "xxHDRyy", "ABC", "xABCx", "AB", "X\\0101Y", "XAY", "hdr 2026", "  HDR-01 total",
+            "TRL0042", "DTL 00017 ACME", "aaa", "ab ab", "\tHDR", "HD R", "A\u0001B", "ÉTÉ", "99 TRAILER");
+
+    private static MultiPatternMatcher matcher(String pattern) {
+        RecordTypeRule rule = new RecordTypeRule();
+        RecordTypeRule.PatternRule patternRule = new RecordTypeRule.PatternRule();
+        patternRule.setPattern(pattern);
+        patternRule.setRecordType("MATCH");
+        rule.setPatterns(List.of(patternRule));
+        return MultiPatternMatcher.compile(rule);
+    }
+
+    // Whatever the prefilters conclude, classify must agree with Pattern.find (lookingAt for '^' patterns)
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "HDR", "^HDR", "^\\s*HDR", "\\u0048DR", "\\x48DR", "\\x{48}DR", "\\x41BC", "\\u0041BC", "X\\0101Y",
+            "X\\0101", "\\0101B", "(?<g>a)\\k<g>a", "(ab) \\1", "\\N{LATIN CAPITAL LETTER A}BC", "\\cAB",
+            "A\\cAB", "\\p{Lu}DR", "\\pLDR", "\\bHDR\\b", "\\tHDR", "HD\\sR", "^TRL\\d{4}", "DTL \\d+ ACME",
+            "a{2,}", "a?aa", "(?i)hdr", "HDR|TRL", "[A-C]BC", "\\QHDR\\E", "\\.?HDR", "ÉTÉ",
+            "TRAILER$", "\\d\\d TRAILER"})
+    void agreesWithJavaRegex(String pattern) {
+        MultiPatternMatcher matcher = matcher(pattern);
+        Pattern compiled = Pattern.compile(pattern);
+        for (String line : LINES) {
+            var expected = pattern.startsWith("^") ? compiled.matcher(line).lookingAt() : compiled.matcher(line).find();
+            assertEquals(expected ? "MATCH" : null, matcher.classify(line), () -> pattern + " on \"" + line + "\"");
+        }
+    }
+
+    @Test
+    void doesNotTakeEscapeArgumentsAsLiterals() {
+        assertEquals("DR", MultiPatternMatcher.requiredLiteral("\\u0048DR"));
+        assertEquals("BC", MultiPatternMatcher.requiredLiteral("\\x41BC"));
+        assertEquals("BC", MultiPatternMatcher.requiredLiteral("\\u0041BC"));
+        assertEquals("X", MultiPatternMatcher.requiredLiteral("X\\0101Y"));
+        assertEquals("a", MultiPatternMatcher.requiredLiteral("(?<g>a)\\k<g>a"));
+        assertEquals("BC", MultiPatternMatcher.requiredLiteral("\\N{LATIN CAPITAL LETTER A}BC"));
+        assertEquals("B", MultiPatternMatcher.requiredLiteral("\\cAB"));
+    }
+
+    @Test
+    void firstMatchingPatternWins() {
+        RecordTypeRule rule = new RecordTypeRule();
+        RecordTypeRule.PatternRule header = new RecordTypeRule.PatternRule();
+        header.setPattern("^HDR");
+        header.setRecordType("HEADER");
+        RecordTypeRule.PatternRule any = new RecordTypeRule.PatternRule();
+        any.setPattern("\\d{4}");
+        any.setRecordType("NUMBERED");
+        rule.setPatterns(List.of(header, any));
+        MultiPatternMatcher matcher = MultiPatternMatcher.compile(rule);
+        assertEquals("HEADER", matcher.classify("HDR 2026"));
+        assertEquals("NUMBERED", matcher.classify("DTL 2026"));
+        assertEquals(null, matcher.classify("DTL"));
+    }
+
+    @Test
+    void mapsTheFirstGroupOfTheRulePattern() {
+        RecordTypeRule rule = new RecordTypeRule();
+        rule.setPattern("^(\\w{3})\\d");
+        rule.setPatternMappings(Map.of("HDR", "HEADER", "TRL", "TRAILER"));
+        rule.setDefaultType("DATA");
+        MultiPatternMatcher matcher = MultiPatternMatcher.compile(rule);
+        assertEquals("HEADER", matcher.classify("HDR1"));
+        assertEquals("DATA", matcher.classify("DTL1"));
+        assertEquals(null, matcher.classify("HDR"));
+    }
+}
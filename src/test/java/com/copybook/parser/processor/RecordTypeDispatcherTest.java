@@ -0,0 +1,163 @@
+package com.copybook.parser.processor;
+
+import com.copybook.parser.codec.CodePage;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.config.RecordTypeRule;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// The compiled dispatcher must classify exactly as RecordTypeProcessor's String strategies, on decoded lines
+// (Latin-1 dispatcher) and on raw bytes in every code page
+class RecordTypeDispatcherTest {
+
+    private static final List<CodePage> CODE_PAGES = List.of(CodePage.ISO_8859_1, CodePage.IBM_037, CodePage.IBM_1047);
+
+    private static final List<String> LINES = lines();
+
+    private static List<String> lines() {
+        List<String> lines = new ArrayList<>(List.of(
+                "", "0", "00", "01", "99", " 0", "0 ", "00HEADER", "01 DETAIL", "99TRAILER", " 1 ", "hd", "HD",
+                "Hd0001", "DT0002", "dt", "HEAD", "head", "HEAD ", " HEAD", "DETL12345", "TRLR", "TRL", "H", "T",
+                "D", "h", "xxH", "xxh", "xxD", "xxQ", "  T", "ABCHDR", "ABCDTL 42", "A1B2", "é0", "00é", "ÉTÉ", "  "));
+        // Random lines over the characters the rules care about
+        Random random = new Random(42);
+        String alphabet = "0129 HDTdhtEALRéa";
+        for (int i = 0; i < 500; i++) {
+            StringBuilder line = new StringBuilder();
+            for (int n = random.nextInt(10); n > 0; n--) {
+                line.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private static ParsingRules rules(String ruleType, RecordTypeRule rule) {
+        ParsingRules rules = new ParsingRules();
+        rules.setRuleType(ruleType);
+        rules.setRecordTypeField(rule);
+        return rules;
+    }
+
+    private static RecordTypeRule positional(int start, int length, Map<String, String> values) {
+        RecordTypeRule rule = new RecordTypeRule();
+        rule.setStart(start);
+        rule.setLength(length);
+        rule.setValues(values);
+        return rule;
+    }
+
+    private static void assertEquivalent(ParsingRules rules) {
+        RecordTypeProcessor.LineClassifier expected = new RecordTypeProcessor().stringClassifier(rules);
+        RecordTypeDispatcher text = RecordTypeDispatcher.forRules(rules);
+        assertNotNull(text, rules.getRuleType());
+        for (String line : LINES) {
+            assertEquals(expected.classify(line), name(text, text.classify(line)), () -> "\"" + line + "\" as text");
+        }
+        for (CodePage codePage : CODE_PAGES) {
+            RecordTypeDispatcher dispatcher = RecordTypeDispatcher.forRules(rules, codePage);
+            assertNotNull(dispatcher, rules.getRuleType());
+            for (String line : LINES) {
+                String type = expected.classify(line);
+                ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(codePage.charset()));
+                assertEquals(type, name(dispatcher, dispatcher.classify(bytes)),
+                        () -> "\"" + line + "\" in " + codePage);
+            }
+        }
+    }
+
+    private static String name(RecordTypeDispatcher dispatcher, int typeId) {
+        return typeId == RecordTypeDispatcher.UNRECOGNIZED ? null : dispatcher.getTypeName(typeId);
+    }
+
+    @Test
+    void positionBasedShortKeys() {
+        RecordTypeRule rule = positional(1, 2, Map.of("00", "HEADER", "01", "DATA", "99", "TRAILER", "1", "ONE"));
+        assertEquivalent(rules("position-based", rule));
+        rule.setTrimValues(false);
+        assertEquivalent(rules("position-based", rule));
+    }
+
+    @Test
+    void positionBasedIgnoringCase() {
+        RecordTypeRule rule = positional(1, 2, Map.of("HD", "HEADER", "DT", "DATA"));
+        rule.setIgnoreCase(true);
+        assertEquivalent(rules("position-based", rule));
+        rule.setIgnoreCase(false);
+        assertEquivalent(rules("position-based", rule));
+    }
+
+    @Test
+    void positionBasedLongKeys() {
+        RecordTypeRule rule = positional(1, 4, Map.of("HEAD", "HEADER", "DETL", "DATA", "TRLR", "TRAILER",
+                "TRL", "SHORT", "Ã0", "LATIN"));
+        assertEquivalent(rules("position-based", rule));
+        rule.setIgnoreCase(true);
+        assertEquivalent(rules("position-based", rule));
+        rule.setTrimValues(false);
+        assertEquivalent(rules("position-based", rule));
+    }
+
+    @Test
+    void characterBased() {
+        RecordTypeRule rule = positional(3, 1, Map.of("H", "HEADER", "D", "DATA", "T", "TRAILER"));
+        assertEquivalent(rules("character-based", rule));
+        rule.setCaseSensitive(true);
+        assertEquivalent(rules("character-based", rule));
+        rule.setCaseSensitive(false);
+        rule.setValidCharacters(List.of("H", "T"));
+        assertEquivalent(rules("character-based", rule));
+    }
+
+    @Test
+    void conditionalBased() {
+        RecordTypeRule rule = new RecordTypeRule();
+        rule.setStart(1);
+        rule.setConditionalExpression("if {char} == 'H' then 'HEADER' else if {1:2} in ('00'..'09', '99') "
+                + "then 'NUMBERED' else if trim({line}) == 'TRL' or {length} > 8 then 'TRAILER'");
+        assertEquivalent(rules("conditional-based", rule));
+    }
+
+    @Test
+    void multiField() {
+        RecordTypeRule rule = new RecordTypeRule();
+        rule.setMultiFieldRules(List.of(
+                fieldRule(1, 3, "ABC", "ABC"),
+                fieldRule(4, 3, "HDR", "HEADER"),
+                fieldRule(4, 3, "DTL", "DATA"),
+                fieldRule(1, 2, "99", "TRAILER")));
+        assertEquivalent(rules("multi-field", rule));
+    }
+
+    @Test
+    void patternBased() {
+        RecordTypeRule rule = new RecordTypeRule();
+        List<RecordTypeRule.PatternRule> patterns = new ArrayList<>();
+        for (String[] pattern : new String[][] {{"^00", "HEADER"}, {"^\\s*HEAD", "HEADER"}, {"TRL", "TRAILER"},
+                {"\\d{4}$", "NUMBERED"}}) {
+            RecordTypeRule.PatternRule patternRule = new RecordTypeRule.PatternRule();
+            patternRule.setPattern(pattern[0]);
+            patternRule.setRecordType(pattern[1]);
+            patterns.add(patternRule);
+        }
+        rule.setPatterns(patterns);
+        assertEquivalent(rules("pattern-based", rule));
+    }
+
+    private static RecordTypeRule.FieldRule fieldRule(int start, int length, String expected, String type) {
+        RecordTypeRule.FieldRule fieldRule = new RecordTypeRule.FieldRule();
+        fieldRule.setStart(start);
+        fieldRule.setLength(length);
+        fieldRule.setExpectedValue(expected);
+        fieldRule.setRecordType(type);
+        return fieldRule;
+    }
+}
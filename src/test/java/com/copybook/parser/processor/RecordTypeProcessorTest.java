@@ -0,0 +1,87 @@
+package com.copybook.parser.processor;
+
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.config.RecordTypeRule;
+import com.copybook.parser.io.ByteBufferPool;
+import com.copybook.parser.io.FixedLengthRecordReader;
+import com.copybook.parser.io.LineRecordReader;
+import com.copybook.parser.io.RecordReader;
+import com.copybook.parser.model.RecordTypeResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecordTypeProcessorTest {
+
+    // 0x5C is '*' in IBM-037 and a valid packed +5 sign byte; 0x40 is a space
+    private static final String FIXED = "5CC84040404040404040" + "40404040404040404040" + "1CC45C40404040404040";
+
+    private static ParsingRules rules(String encoding, String recordFormat) {
+        ParsingRules rules = new ParsingRules();
+        rules.getDataFormat().setEncoding(encoding);
+        rules.getDataFormat().setRecordFormat(recordFormat);
+        rules.getDataFormat().setRecordLength(10);
+        RecordTypeRule rule = new RecordTypeRule();
+        rule.setStart(2);
+        rule.setLength(1);
+        rule.setValues(Map.of("H", "HEADER"));
+        rules.setRuleType("position-based");
+        rules.setRecordTypeField(rule);
+        return rules;
+    }
+
+    private static RecordTypeResult process(RecordReader reader, ParsingRules rules) throws IOException {
+        try (reader) {
+            return new RecordTypeProcessor().process(reader, rules, RecordByteSink.discarding());
+        }
+    }
+
+    @Test
+    void fixedLengthRecordsAreNeverSkippedAsComments() throws IOException {
+        var reader = new FixedLengthRecordReader(
+                Channels.newChannel(new ByteArrayInputStream(HexFormat.of().parseHex(FIXED))), 10,
+                new ByteBufferPool(64, 1), true);
+        RecordTypeResult result = process(reader, rules("IBM-037", "F"));
+        assertEquals(3, result.getTotalRecords());
+        assertEquals(Map.of("HEADER", 1, "DATA", 2), result.getRecordCounts());
+    }
+
+    @Test
+    void commentAndBlankLinesAreSkipped() throws IOException {
+        byte[] text = "1H data\n* comment\n   \n1D data\n\n".getBytes(StandardCharsets.UTF_8);
+        var reader = new LineRecordReader(Channels.newChannel(new ByteArrayInputStream(text)),
+                new ByteBufferPool(64, 1), true);
+        RecordTypeResult result = process(reader, rules("UTF-8", "LINE"));
+        assertEquals(2, result.getTotalRecords());
+        assertEquals(Map.of("HEADER", 1, "DATA", 1), result.getRecordCounts());
+    }
+
+    @Test
+    void fixedLengthChunksAreNeverSkippedAsComments(@TempDir Path directory) throws IOException {
+        Path data = Files.write(directory.resolve("data.bin"), HexFormat.of().parseHex(FIXED));
+        ParsingRules rules = rules("IBM-037", "F");
+        rules.getDataFormat().setParallelism(2);
+        rules.getDataFormat().setChunkSize(10);
+
+        RecordTypeResult counted = new RecordTypeProcessor().process(data, rules, RecordSink.discarding());
+        assertEquals(3, counted.getTotalRecords());
+        assertEquals(Map.of("HEADER", 1, "DATA", 2), counted.getRecordCounts());
+
+        List<String> types = new ArrayList<>();
+        RecordTypeResult retained = new RecordTypeProcessor().process(data, rules, (type, record) -> types.add(type));
+        assertEquals(3, retained.getTotalRecords());
+        assertEquals(List.of("HEADER", "DATA", "DATA"), types);
+    }
+}
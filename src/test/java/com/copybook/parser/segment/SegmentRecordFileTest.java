@@ -0,0 +1,58 @@
+package com.copybook.parser.segment;
+
+import com.copybook.parser.codec.CodePage;
+import com.copybook.parser.config.ParsingRules;
+import com.copybook.parser.config.RecordTypeRule;
+import com.copybook.parser.processor.RecordByteSink;
+import com.copybook.parser.processor.RecordTypeDispatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SegmentRecordFileTest {
+
+    @Test
+    void classifiesEveryFixedLengthRecord(@TempDir Path directory) throws IOException {
+        // 0x5C is '*' in IBM-037 and a valid packed +5 sign byte; 0x40 is a space
+        Path data = Files.write(directory.resolve("data.bin"), HexFormat.of().parseHex(
+                "5CC84040404040404040" + "40404040404040404040" + "1CC45C40404040404040"));
+        ParsingRules rules = new ParsingRules();
+        rules.getDataFormat().setEncoding("IBM-037");
+        rules.getDataFormat().setRecordFormat("F");
+        rules.getDataFormat().setRecordLength(10);
+        RecordTypeRule rule = new RecordTypeRule();
+        rule.setStart(2);
+        rule.setLength(1);
+        rule.setValues(Map.of("H", "HEADER"));
+        rules.setRuleType("position-based");
+        rules.setRecordTypeField(rule);
+        RecordTypeDispatcher dispatcher = RecordTypeDispatcher.forRules(rules, CodePage.of("IBM-037"));
+
+        try (SegmentRecordFile file = SegmentRecordFile.open(data, rules.getDataFormat(), null)) {
+            List<Integer> types = new ArrayList<>();
+            SegmentRecordFile.Classification classification = file.classify(dispatcher,
+                    (typeId, record) -> types.add(typeId));
+            assertEquals(3, classification.records());
+            assertEquals(2, classification.unrecognized());
+            int header = types.get(0);
+            int defaultType = dispatcher.getDefaultTypeId();
+            assertEquals("HEADER", dispatcher.getTypeName(header));
+            assertEquals(List.of(header, defaultType, defaultType), types);
+
+            long[] counts = new long[dispatcher.getTypeCount()];
+            counts[header] = 1;
+            counts[defaultType] = 2;
+            assertArrayEquals(counts, file.classify(dispatcher, RecordByteSink.discarding()).counts());
+        }
+    }
+}